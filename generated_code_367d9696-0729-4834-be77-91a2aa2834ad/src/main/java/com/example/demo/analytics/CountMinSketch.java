@@ -0,0 +1,95 @@
+package com.example.demo.analytics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Count-Min sketch over {@code long} keys with non-negative weights.
+ * <p>
+ * Estimates never undercount; with probability {@code 1 - 2^-depth} they overcount by at most
+ * about {@code e / width} of the total weight. Updates are conservative (a row is only raised as far
+ * as the new minimum), which keeps estimates for light keys tighter than a plain add. Not thread-safe.
+ */
+public final class CountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final long[] table;
+    private long total;
+
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || depth > 16) {
+            throw new IllegalArgumentException("Depth must be between 1 and 16");
+        }
+        if (width < 16 || Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("Width must be a power of two of at least 16");
+        }
+        this.depth = depth;
+        this.width = width;
+        this.table = new long[depth * width];
+    }
+
+    public void add(long key, long weight) {
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weight must not be negative");
+        }
+        long hash = SketchHashing.hash64(key);
+        long target = estimateHash(hash) + weight;
+        for (int row = 0; row < depth; row++) {
+            int cell = cell(hash, row);
+            if (table[cell] < target) {
+                table[cell] = target;
+            }
+        }
+        total += weight;
+    }
+
+    public long estimate(long key) {
+        return estimateHash(SketchHashing.hash64(key));
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(depth);
+        out.writeInt(width);
+        out.writeLong(total);
+        for (long value : table) {
+            out.writeLong(value);
+        }
+    }
+
+    public static CountMinSketch readFrom(DataInput in) throws IOException {
+        CountMinSketch sketch = new CountMinSketch(in.readInt(), in.readInt());
+        sketch.total = in.readLong();
+        for (int i = 0; i < sketch.table.length; i++) {
+            sketch.table[i] = in.readLong();
+        }
+        return sketch;
+    }
+
+    private long estimateHash(long hash) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, table[cell(hash, row)]);
+        }
+        return min;
+    }
+
+    private int cell(long hash, int row) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        return row * width + ((h1 + row * h2) & (width - 1));
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.demo.analytics;
+
+/**
+ * 64-bit hashing shared by the sketches. Keys are mixed with the MurmurHash3 finalizer so that
+ * sequential IDs spread evenly across buckets and registers.
+ */
+public final class SketchHashing {
+
+    private SketchHashing() {
+    }
+
+    public static long hash64(long value) {
+        long z = value;
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+
+    public static long hash64(CharSequence value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        return hash64(h ^ value.length());
+    }
+
+    /**
+     * Hash of an ordered pair, for composite keys such as (city, merchant).
+     */
+    public static long combine(long first, long second) {
+        return hash64(first * 0x9e3779b97f4a7c15L + second);
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.demo.analytics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Weighted Space-Saving top-K over {@code long} keys.
+ * <p>
+ * Keeps at most {@code capacity} counters in a min-heap. When a new key arrives and the heap is full,
+ * it takes over the smallest counter and inherits that count as its {@code error}. Every key whose
+ * true weight exceeds {@code total / capacity} is guaranteed to be present; a counter's true weight
+ * lies between {@code count - error} and {@code count}. Updates are {@code O(log capacity)}.
+ * Not thread-safe.
+ */
+public final class SpaceSaving {
+
+    /**
+     * One tracked key; {@code label} is the most recent display name seen for it.
+     */
+    public record Entry(long key, String label, long count, long error) {
+    }
+
+    private final int capacity;
+    private final Map<Long, Counter> counters;
+    private final Counter[] heap;
+    private int size;
+
+    public SpaceSaving(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+        this.heap = new Counter[capacity];
+    }
+
+    public void add(long key, String label, long weight) {
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weight must not be negative");
+        }
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            if (size < capacity) {
+                counter = new Counter(key, 0, 0);
+                counter.index = size;
+                heap[size++] = counter;
+            } else {
+                counter = heap[0];
+                counters.remove(counter.key);
+                counter.key = key;
+                counter.label = null;
+                counter.error = counter.count;
+            }
+            counters.put(key, counter);
+        }
+        if (label != null) {
+            counter.label = label;
+        }
+        counter.count += weight;
+        siftDown(counter.index);
+    }
+
+    public Entry get(long key) {
+        Counter counter = counters.get(key);
+        return counter == null ? null : counter.toEntry();
+    }
+
+    /**
+     * Tracked keys by descending count.
+     */
+    public List<Entry> top(int limit) {
+        List<Entry> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            entries.add(heap[i].toEntry());
+        }
+        entries.sort(Comparator.comparingLong(Entry::count).reversed());
+        return entries.size() > limit ? new ArrayList<>(entries.subList(0, limit)) : entries;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(capacity);
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            Counter counter = heap[i];
+            out.writeLong(counter.key);
+            out.writeBoolean(counter.label != null);
+            if (counter.label != null) {
+                out.writeUTF(counter.label);
+            }
+            out.writeLong(counter.count);
+            out.writeLong(counter.error);
+        }
+    }
+
+    public static SpaceSaving readFrom(DataInput in) throws IOException {
+        SpaceSaving sketch = new SpaceSaving(in.readInt());
+        int size = in.readInt();
+        if (size < 0 || size > sketch.capacity) {
+            throw new IOException("Corrupt top-K size: " + size);
+        }
+        for (int i = 0; i < size; i++) {
+            Counter counter = new Counter(in.readLong(), 0, 0);
+            counter.label = in.readBoolean() ? in.readUTF() : null;
+            counter.count = in.readLong();
+            counter.error = in.readLong();
+            counter.index = i;
+            sketch.heap[i] = counter;
+            sketch.counters.put(counter.key, counter);
+        }
+        sketch.size = size;
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            sketch.siftDown(i);
+        }
+        return sketch;
+    }
+
+    private void siftDown(int index) {
+        Counter counter = heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1].count < heap[child].count) {
+                child++;
+            }
+            if (heap[child].count >= counter.count) {
+                break;
+            }
+            heap[index] = heap[child];
+            heap[index].index = index;
+            index = child;
+        }
+        heap[index] = counter;
+        counter.index = index;
+    }
+
+    private static final class Counter {
+
+        private long key;
+        private String label;
+        private long count;
+        private long error;
+        private int index;
+
+        Counter(long key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+
+        Entry toEntry() {
+            return new Entry(key, label, count, error);
+        }
+    }
+}
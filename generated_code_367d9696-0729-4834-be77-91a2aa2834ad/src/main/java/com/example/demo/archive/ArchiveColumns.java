@@ -0,0 +1,153 @@
+package com.example.demo.archive;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Column layout and value encodings of the archive format.
+ * <p>
+ * Strings are a varint byte length plus UTF-8, with length 0 meaning null and every other length
+ * stored plus one. Longs are zig-zag varint deltas from the previous value in the same column, so
+ * sorted or clustered columns such as timestamps shrink to a byte or two before compression.
+ * Nullable longs add a presence byte. Timestamps are microseconds since the epoch, treating
+ * {@code LocalDateTime} as UTC.
+ */
+final class ArchiveColumns {
+
+    static final int TRANSACTION_ID = 0;
+    static final int CARD_NUMBER = 1;
+    static final int TYPE_CODE = 2;
+    static final int CATEGORY_CODE = 3;
+    static final int SOURCE = 4;
+    static final int DESCRIPTION = 5;
+    static final int AMOUNT_CENTS = 6;
+    static final int MERCHANT_ID = 7;
+    static final int MERCHANT_NAME = 8;
+    static final int MERCHANT_CITY = 9;
+    static final int MERCHANT_ZIP = 10;
+    static final int ORIGINAL_TIMESTAMP = 11;
+    static final int PROCESSED_TIMESTAMP = 12;
+    static final int CREATED_AT = 13;
+    static final int UPDATED_AT = 14;
+    static final int COUNT = 15;
+
+    private ArchiveColumns() {
+    }
+
+    static long toMicros(LocalDateTime timestamp) {
+        return timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + timestamp.getNano() / 1_000;
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    /**
+     * Uncompressed values of one column within a row group.
+     */
+    static final class Encoder {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private long previous;
+
+        void writeString(String value) {
+            if (value == null) {
+                writeVarint(0);
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(utf8.length + 1L);
+            bytes.write(utf8, 0, utf8.length);
+        }
+
+        void writeLong(long value) {
+            long delta = value - previous;
+            previous = value;
+            writeVarint((delta << 1) ^ (delta >> 63));
+        }
+
+        void writeNullableLong(Long value) {
+            bytes.write(value == null ? 0 : 1);
+            if (value != null) {
+                writeLong(value);
+            }
+        }
+
+        byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+
+        void reset() {
+            bytes.reset();
+            previous = 0;
+        }
+
+        private void writeVarint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                bytes.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            bytes.write((int) value);
+        }
+    }
+
+    /**
+     * Reads values written by {@link Encoder} back in order.
+     */
+    static final class Decoder {
+
+        private final byte[] bytes;
+        private int position;
+        private long previous;
+
+        Decoder(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        String readString() throws IOException {
+            long length = readVarint();
+            if (length == 0) {
+                return null;
+            }
+            int size = (int) (length - 1);
+            if (size < 0 || position + size > bytes.length) {
+                throw new IOException("Corrupt string in archive column");
+            }
+            String value = new String(bytes, position, size, StandardCharsets.UTF_8);
+            position += size;
+            return value;
+        }
+
+        long readLong() throws IOException {
+            long zigzag = readVarint();
+            previous += (zigzag >>> 1) ^ -(zigzag & 1);
+            return previous;
+        }
+
+        Long readNullableLong() throws IOException {
+            if (position >= bytes.length) {
+                throw new IOException("Truncated archive column");
+            }
+            return bytes[position++] == 0 ? null : readLong();
+        }
+
+        private long readVarint() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (position >= bytes.length) {
+                    throw new IOException("Truncated archive column");
+                }
+                byte b = bytes[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Corrupt varint in archive column");
+        }
+    }
+}
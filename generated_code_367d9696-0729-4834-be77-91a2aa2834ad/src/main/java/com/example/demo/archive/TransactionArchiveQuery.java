@@ -0,0 +1,86 @@
+package com.example.demo.archive;
+
+import java.time.LocalDateTime;
+
+/**
+ * Predicate evaluated against archive files: first against file and row-group stats to skip data,
+ * then against the decoded rows.
+ */
+public final class TransactionArchiveQuery {
+
+    private final String transactionId;
+    private final String cardNumber;
+    private final String typeCode;
+    private final String categoryCode;
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+
+    private TransactionArchiveQuery(String transactionId, String cardNumber, String typeCode, String categoryCode,
+                                    LocalDateTime from, LocalDateTime to) {
+        this.transactionId = transactionId;
+        this.cardNumber = cardNumber;
+        this.typeCode = typeCode;
+        this.categoryCode = categoryCode;
+        this.from = from;
+        this.to = to;
+    }
+
+    public static TransactionArchiveQuery byTransactionId(String transactionId) {
+        return new TransactionArchiveQuery(transactionId, null, null, null, null, null);
+    }
+
+    public static TransactionArchiveQuery byCardNumber(String cardNumber) {
+        return new TransactionArchiveQuery(null, cardNumber, null, null, null, null);
+    }
+
+    /**
+     * Transactions of the card with {@code from <= originalTimestamp <= to}.
+     */
+    public static TransactionArchiveQuery byCardNumberBetween(String cardNumber, LocalDateTime from, LocalDateTime to) {
+        return new TransactionArchiveQuery(null, cardNumber, null, null, from, to);
+    }
+
+    /**
+     * Matches on columns with no stats, so every archive file is read.
+     */
+    public static TransactionArchiveQuery byTypeCodeAndCategoryCode(String typeCode, String categoryCode) {
+        return new TransactionArchiveQuery(null, null, typeCode, categoryCode, null, null);
+    }
+
+    public String getCardNumber() {
+        return cardNumber;
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    boolean mayMatch(TransactionArchiveStats stats) {
+        if (transactionId != null && (transactionId.compareTo(stats.minTransactionId()) < 0
+                || transactionId.compareTo(stats.maxTransactionId()) > 0)) {
+            return false;
+        }
+        if (cardNumber != null && (cardNumber.compareTo(stats.minCardNumber()) < 0
+                || cardNumber.compareTo(stats.maxCardNumber()) > 0)) {
+            return false;
+        }
+        if (from != null && stats.maxOriginalTimestamp().isBefore(from)) {
+            return false;
+        }
+        return to == null || !stats.minOriginalTimestamp().isAfter(to);
+    }
+
+    boolean matches(String rowTransactionId, String rowCardNumber, String rowTypeCode, String rowCategoryCode,
+                    LocalDateTime rowOriginalTimestamp) {
+        return (transactionId == null || transactionId.equals(rowTransactionId))
+                && (cardNumber == null || cardNumber.equals(rowCardNumber))
+                && (typeCode == null || typeCode.equals(rowTypeCode))
+                && (categoryCode == null || categoryCode.equals(rowCategoryCode))
+                && (from == null || !rowOriginalTimestamp.isBefore(from))
+                && (to == null || !rowOriginalTimestamp.isAfter(to));
+    }
+}
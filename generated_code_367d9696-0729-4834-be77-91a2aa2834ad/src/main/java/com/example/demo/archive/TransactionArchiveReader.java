@@ -0,0 +1,251 @@
+package com.example.demo.archive;
+
+import com.example.demo.entity.Transaction;
+import com.example.demo.money.Money;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads archive files written by {@link TransactionArchiveWriter}.
+ * <p>
+ * Opening parses only the footer. {@link #scan} skips row groups whose stats rule out the query,
+ * decodes the filter columns of the rest, and decodes the remaining columns only for groups with at
+ * least one matching row. Instances are immutable and safe to share; each scan opens its own channel.
+ */
+public final class TransactionArchiveReader {
+
+    private final Path path;
+    private final TransactionArchiveStats stats;
+    private final List<RowGroup> rowGroups;
+
+    private TransactionArchiveReader(Path path, TransactionArchiveStats stats, List<RowGroup> rowGroups) {
+        this.path = path;
+        this.stats = stats;
+        this.rowGroups = rowGroups;
+    }
+
+    public static TransactionArchiveReader open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 16) {
+                throw new IOException("Archive file is truncated: " + path);
+            }
+            ByteBuffer header = read(channel, 0, 8);
+            ByteBuffer trailer = read(channel, size - 8, 8);
+            int footerLength = trailer.getInt();
+            if (header.getInt() != TransactionArchiveWriter.MAGIC || trailer.getInt() != TransactionArchiveWriter.MAGIC) {
+                throw new IOException("Not a transaction archive file: " + path);
+            }
+            if (header.getInt() != TransactionArchiveWriter.VERSION) {
+                throw new IOException("Unsupported archive version in " + path);
+            }
+            if (footerLength <= 0 || footerLength > size - 16) {
+                throw new IOException("Corrupt archive footer length in " + path);
+            }
+            ByteBuffer footer = read(channel, size - 8 - footerLength, footerLength);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(footer.array()));
+            TransactionArchiveStats stats = TransactionArchiveStats.readFrom(in);
+            int groups = in.readInt();
+            List<RowGroup> rowGroups = new ArrayList<>(groups);
+            for (int i = 0; i < groups; i++) {
+                rowGroups.add(RowGroup.readFrom(in));
+            }
+            return new TransactionArchiveReader(path, stats, List.copyOf(rowGroups));
+        }
+    }
+
+    public TransactionArchiveStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Passes every row matching the query to {@code consumer} and returns how many there were.
+     */
+    public int scan(TransactionArchiveQuery query, Consumer<Transaction> consumer) throws IOException {
+        if (!query.mayMatch(stats)) {
+            return 0;
+        }
+        int matched = 0;
+        Inflater inflater = new Inflater();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            for (RowGroup rowGroup : rowGroups) {
+                if (query.mayMatch(rowGroup.stats())) {
+                    matched += scan(channel, inflater, rowGroup, query, consumer);
+                }
+            }
+        } finally {
+            inflater.end();
+        }
+        return matched;
+    }
+
+    private int scan(FileChannel channel, Inflater inflater, RowGroup rowGroup, TransactionArchiveQuery query,
+                     Consumer<Transaction> consumer) throws IOException {
+        int rows = (int) rowGroup.stats().rows();
+        String[] transactionIds = readStrings(channel, inflater, rowGroup, ArchiveColumns.TRANSACTION_ID, rows);
+        String[] cardNumbers = readStrings(channel, inflater, rowGroup, ArchiveColumns.CARD_NUMBER, rows);
+        String[] typeCodes = readStrings(channel, inflater, rowGroup, ArchiveColumns.TYPE_CODE, rows);
+        String[] categoryCodes = readStrings(channel, inflater, rowGroup, ArchiveColumns.CATEGORY_CODE, rows);
+        long[] originalTimestamps = readLongs(channel, inflater, rowGroup, ArchiveColumns.ORIGINAL_TIMESTAMP, rows);
+
+        boolean[] matches = new boolean[rows];
+        int matched = 0;
+        for (int row = 0; row < rows; row++) {
+            if (query.matches(transactionIds[row], cardNumbers[row], typeCodes[row], categoryCodes[row],
+                    ArchiveColumns.fromMicros(originalTimestamps[row]))) {
+                matches[row] = true;
+                matched++;
+            }
+        }
+        if (matched == 0) {
+            return 0;
+        }
+
+        String[] sources = readStrings(channel, inflater, rowGroup, ArchiveColumns.SOURCE, rows);
+        String[] descriptions = readStrings(channel, inflater, rowGroup, ArchiveColumns.DESCRIPTION, rows);
+        long[] amounts = readLongs(channel, inflater, rowGroup, ArchiveColumns.AMOUNT_CENTS, rows);
+        Long[] merchantIds = readNullableLongs(channel, inflater, rowGroup, ArchiveColumns.MERCHANT_ID, rows);
+        String[] merchantNames = readStrings(channel, inflater, rowGroup, ArchiveColumns.MERCHANT_NAME, rows);
+        String[] merchantCities = readStrings(channel, inflater, rowGroup, ArchiveColumns.MERCHANT_CITY, rows);
+        String[] merchantZips = readStrings(channel, inflater, rowGroup, ArchiveColumns.MERCHANT_ZIP, rows);
+        Long[] processedTimestamps = readNullableLongs(channel, inflater, rowGroup, ArchiveColumns.PROCESSED_TIMESTAMP, rows);
+        long[] createdAts = readLongs(channel, inflater, rowGroup, ArchiveColumns.CREATED_AT, rows);
+        long[] updatedAts = readLongs(channel, inflater, rowGroup, ArchiveColumns.UPDATED_AT, rows);
+
+        for (int row = 0; row < rows; row++) {
+            if (!matches[row]) {
+                continue;
+            }
+            Transaction transaction = new Transaction();
+            transaction.setTransactionId(transactionIds[row]);
+            transaction.setCardNumber(cardNumbers[row]);
+            transaction.setTypeCode(typeCodes[row]);
+            transaction.setCategoryCode(categoryCodes[row]);
+            transaction.setSource(sources[row]);
+            transaction.setDescription(descriptions[row]);
+            transaction.setAmount(Money.ofCents(amounts[row]));
+            transaction.setMerchantId(merchantIds[row]);
+            transaction.setMerchantName(merchantNames[row]);
+            transaction.setMerchantCity(merchantCities[row]);
+            transaction.setMerchantZip(merchantZips[row]);
+            transaction.setOriginalTimestamp(ArchiveColumns.fromMicros(originalTimestamps[row]));
+            transaction.setProcessedTimestamp(processedTimestamps[row] == null
+                    ? null : ArchiveColumns.fromMicros(processedTimestamps[row]));
+            transaction.setCreatedAt(ArchiveColumns.fromMicros(createdAts[row]));
+            transaction.setUpdatedAt(ArchiveColumns.fromMicros(updatedAts[row]));
+            consumer.accept(transaction);
+        }
+        return matched;
+    }
+
+    private static String[] readStrings(FileChannel channel, Inflater inflater, RowGroup rowGroup, int column, int rows)
+            throws IOException {
+        ArchiveColumns.Decoder decoder = decoder(channel, inflater, rowGroup, column);
+        String[] values = new String[rows];
+        for (int i = 0; i < rows; i++) {
+            values[i] = decoder.readString();
+        }
+        return values;
+    }
+
+    private static long[] readLongs(FileChannel channel, Inflater inflater, RowGroup rowGroup, int column, int rows)
+            throws IOException {
+        ArchiveColumns.Decoder decoder = decoder(channel, inflater, rowGroup, column);
+        long[] values = new long[rows];
+        for (int i = 0; i < rows; i++) {
+            values[i] = decoder.readLong();
+        }
+        return values;
+    }
+
+    private static Long[] readNullableLongs(FileChannel channel, Inflater inflater, RowGroup rowGroup, int column,
+                                            int rows) throws IOException {
+        ArchiveColumns.Decoder decoder = decoder(channel, inflater, rowGroup, column);
+        Long[] values = new Long[rows];
+        for (int i = 0; i < rows; i++) {
+            values[i] = decoder.readNullableLong();
+        }
+        return values;
+    }
+
+    private static ArchiveColumns.Decoder decoder(FileChannel channel, Inflater inflater, RowGroup rowGroup, int column)
+            throws IOException {
+        byte[] compressed = read(channel, rowGroup.offsets()[column], rowGroup.lengths()[column]).array();
+        CRC32 crc = new CRC32();
+        crc.update(compressed);
+        if ((int) crc.getValue() != rowGroup.checksums()[column]) {
+            throw new IOException("Checksum mismatch in archive column " + column);
+        }
+        byte[] raw = new byte[rowGroup.rawLengths()[column]];
+        inflater.reset();
+        inflater.setInput(compressed);
+        try {
+            int inflated = 0;
+            while (inflated < raw.length) {
+                int n = inflater.inflate(raw, inflated, raw.length - inflated);
+                if (n == 0 && (inflater.finished() || inflater.needsInput())) {
+                    throw new IOException("Archive column " + column + " is shorter than recorded");
+                }
+                inflated += n;
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt archive column " + column, e);
+        }
+        return new ArchiveColumns.Decoder(raw);
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of archive file");
+            }
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Stats and column chunk locations of one row group.
+     */
+    record RowGroup(TransactionArchiveStats stats, long[] offsets, int[] lengths, int[] rawLengths, int[] checksums) {
+
+        void writeTo(DataOutput out) throws IOException {
+            stats.writeTo(out);
+            for (int i = 0; i < ArchiveColumns.COUNT; i++) {
+                out.writeLong(offsets[i]);
+                out.writeInt(lengths[i]);
+                out.writeInt(rawLengths[i]);
+                out.writeInt(checksums[i]);
+            }
+        }
+
+        static RowGroup readFrom(DataInput in) throws IOException {
+            TransactionArchiveStats stats = TransactionArchiveStats.readFrom(in);
+            long[] offsets = new long[ArchiveColumns.COUNT];
+            int[] lengths = new int[ArchiveColumns.COUNT];
+            int[] rawLengths = new int[ArchiveColumns.COUNT];
+            int[] checksums = new int[ArchiveColumns.COUNT];
+            for (int i = 0; i < ArchiveColumns.COUNT; i++) {
+                offsets[i] = in.readLong();
+                lengths[i] = in.readInt();
+                rawLengths[i] = in.readInt();
+                checksums[i] = in.readInt();
+            }
+            return new RowGroup(stats, offsets, lengths, rawLengths, checksums);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.demo.archive;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Row count and min/max values of the pruning columns, for a whole archive file or one row group.
+ */
+public record TransactionArchiveStats(long rows,
+                                      LocalDateTime minOriginalTimestamp,
+                                      LocalDateTime maxOriginalTimestamp,
+                                      String minCardNumber,
+                                      String maxCardNumber,
+                                      String minTransactionId,
+                                      String maxTransactionId) {
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeLong(rows);
+        out.writeLong(ArchiveColumns.toMicros(minOriginalTimestamp));
+        out.writeLong(ArchiveColumns.toMicros(maxOriginalTimestamp));
+        out.writeUTF(minCardNumber);
+        out.writeUTF(maxCardNumber);
+        out.writeUTF(minTransactionId);
+        out.writeUTF(maxTransactionId);
+    }
+
+    static TransactionArchiveStats readFrom(DataInput in) throws IOException {
+        return new TransactionArchiveStats(in.readLong(),
+                ArchiveColumns.fromMicros(in.readLong()), ArchiveColumns.fromMicros(in.readLong()),
+                in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF());
+    }
+
+    /**
+     * Accumulates stats over rows as they are written.
+     */
+    static final class Builder {
+
+        private long rows;
+        private long minTimestamp = Long.MAX_VALUE;
+        private long maxTimestamp = Long.MIN_VALUE;
+        private String minCardNumber;
+        private String maxCardNumber;
+        private String minTransactionId;
+        private String maxTransactionId;
+
+        void add(String transactionId, String cardNumber, long originalTimestampMicros) {
+            rows++;
+            minTimestamp = Math.min(minTimestamp, originalTimestampMicros);
+            maxTimestamp = Math.max(maxTimestamp, originalTimestampMicros);
+            if (minCardNumber == null || cardNumber.compareTo(minCardNumber) < 0) {
+                minCardNumber = cardNumber;
+            }
+            if (maxCardNumber == null || cardNumber.compareTo(maxCardNumber) > 0) {
+                maxCardNumber = cardNumber;
+            }
+            if (minTransactionId == null || transactionId.compareTo(minTransactionId) < 0) {
+                minTransactionId = transactionId;
+            }
+            if (maxTransactionId == null || transactionId.compareTo(maxTransactionId) > 0) {
+                maxTransactionId = transactionId;
+            }
+        }
+
+        long getRows() {
+            return rows;
+        }
+
+        TransactionArchiveStats build() {
+            if (rows == 0) {
+                throw new IllegalStateException("No rows written");
+            }
+            return new TransactionArchiveStats(rows, ArchiveColumns.fromMicros(minTimestamp),
+                    ArchiveColumns.fromMicros(maxTimestamp), minCardNumber, maxCardNumber,
+                    minTransactionId, maxTransactionId);
+        }
+    }
+}
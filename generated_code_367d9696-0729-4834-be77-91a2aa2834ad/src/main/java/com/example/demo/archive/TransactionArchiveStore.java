@@ -0,0 +1,66 @@
+package com.example.demo.archive;
+
+import com.example.demo.entity.Transaction;
+import com.example.demo.entity.TransactionArchiveFile;
+import com.example.demo.repository.TransactionArchiveFileRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads archived transactions from the local archive directory.
+ * <p>
+ * Candidate files come from {@code transaction_archive_files}, pruned on card number and timestamp
+ * range; each file then prunes its row groups. Parsed footers are cached per file, since archive
+ * files are never modified once cataloged.
+ */
+@Component
+@Slf4j
+public class TransactionArchiveStore {
+
+    private final TransactionArchiveFileRepository fileRepository;
+    private final Path directory;
+    private final ConcurrentHashMap<String, TransactionArchiveReader> readers = new ConcurrentHashMap<>();
+
+    public TransactionArchiveStore(TransactionArchiveFileRepository fileRepository,
+                                   @Value("${transactions.archive.directory:data/transaction-archive}") String directory) {
+        this.fileRepository = fileRepository;
+        this.directory = Path.of(directory);
+    }
+
+    public List<Transaction> find(TransactionArchiveQuery query) {
+        List<Transaction> results = new ArrayList<>();
+        for (TransactionArchiveFile file : fileRepository.findCandidates(query.getCardNumber(), query.getFrom(), query.getTo())) {
+            try {
+                reader(file.getFileName()).scan(query, results::add);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read transaction archive " + file.getFileName(), e);
+            }
+        }
+        return results;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public Path resolve(String fileName) {
+        return directory.resolve(fileName);
+    }
+
+    private TransactionArchiveReader reader(String fileName) throws IOException {
+        TransactionArchiveReader reader = readers.get(fileName);
+        if (reader == null) {
+            reader = TransactionArchiveReader.open(resolve(fileName));
+            readers.putIfAbsent(fileName, reader);
+        }
+        return reader;
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.demo.archive;
+
+import com.example.demo.entity.Transaction;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes transactions to a column-oriented archive file.
+ * <p>
+ * Rows are buffered into row groups of {@code rowGroupSize}; each column of a group is encoded with
+ * {@link ArchiveColumns} and deflated separately, so a reader can decode only the columns it needs.
+ * The footer records every column chunk's offset, length and CRC32 together with min/max stats per
+ * row group and for the file. Rows should arrive sorted by card number and timestamp so the
+ * row-group stats prune well. Layout:
+ * <pre>
+ * [int magic][int version] [column chunks...] [footer] [int footer length][int magic]
+ * </pre>
+ */
+public final class TransactionArchiveWriter implements Closeable {
+
+    static final int MAGIC = 0x54584131;
+    static final int VERSION = 1;
+
+    private final FileChannel channel;
+    private final int rowGroupSize;
+    private final ArchiveColumns.Encoder[] columns = new ArchiveColumns.Encoder[ArchiveColumns.COUNT];
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+    private final List<TransactionArchiveReader.RowGroup> rowGroups = new ArrayList<>();
+    private final TransactionArchiveStats.Builder fileStats = new TransactionArchiveStats.Builder();
+    private TransactionArchiveStats.Builder groupStats = new TransactionArchiveStats.Builder();
+    private long position;
+    private boolean finished;
+
+    private TransactionArchiveWriter(FileChannel channel, int rowGroupSize) {
+        this.channel = channel;
+        this.rowGroupSize = rowGroupSize;
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = new ArchiveColumns.Encoder();
+        }
+    }
+
+    public static TransactionArchiveWriter create(Path path, int rowGroupSize) throws IOException {
+        if (rowGroupSize < 1) {
+            throw new IllegalArgumentException("Row group size must be positive");
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        TransactionArchiveWriter writer = new TransactionArchiveWriter(channel, rowGroupSize);
+        writer.writeFully(ByteBuffer.allocate(8).putInt(MAGIC).putInt(VERSION).flip());
+        return writer;
+    }
+
+    public void write(Transaction transaction) throws IOException {
+        if (finished) {
+            throw new IllegalStateException("Archive already finished");
+        }
+        long originalTimestamp = ArchiveColumns.toMicros(transaction.getOriginalTimestamp());
+        columns[ArchiveColumns.TRANSACTION_ID].writeString(transaction.getTransactionId());
+        columns[ArchiveColumns.CARD_NUMBER].writeString(transaction.getCardNumber());
+        columns[ArchiveColumns.TYPE_CODE].writeString(transaction.getTypeCode());
+        columns[ArchiveColumns.CATEGORY_CODE].writeString(transaction.getCategoryCode());
+        columns[ArchiveColumns.SOURCE].writeString(transaction.getSource());
+        columns[ArchiveColumns.DESCRIPTION].writeString(transaction.getDescription());
+        columns[ArchiveColumns.AMOUNT_CENTS].writeLong(transaction.getAmount().getCents());
+        columns[ArchiveColumns.MERCHANT_ID].writeNullableLong(transaction.getMerchantId());
+        columns[ArchiveColumns.MERCHANT_NAME].writeString(transaction.getMerchantName());
+        columns[ArchiveColumns.MERCHANT_CITY].writeString(transaction.getMerchantCity());
+        columns[ArchiveColumns.MERCHANT_ZIP].writeString(transaction.getMerchantZip());
+        columns[ArchiveColumns.ORIGINAL_TIMESTAMP].writeLong(originalTimestamp);
+        columns[ArchiveColumns.PROCESSED_TIMESTAMP].writeNullableLong(transaction.getProcessedTimestamp() == null
+                ? null : ArchiveColumns.toMicros(transaction.getProcessedTimestamp()));
+        columns[ArchiveColumns.CREATED_AT].writeLong(ArchiveColumns.toMicros(transaction.getCreatedAt()));
+        columns[ArchiveColumns.UPDATED_AT].writeLong(ArchiveColumns.toMicros(transaction.getUpdatedAt()));
+
+        groupStats.add(transaction.getTransactionId(), transaction.getCardNumber(), originalTimestamp);
+        fileStats.add(transaction.getTransactionId(), transaction.getCardNumber(), originalTimestamp);
+        if (groupStats.getRows() == rowGroupSize) {
+            flushRowGroup();
+        }
+    }
+
+    /**
+     * Writes the footer, forces the file to disk and closes it.
+     */
+    public TransactionArchiveStats finish() throws IOException {
+        if (groupStats.getRows() > 0) {
+            flushRowGroup();
+        }
+        TransactionArchiveStats stats = fileStats.build();
+        ByteArrayOutputStream footer = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(footer);
+        stats.writeTo(out);
+        out.writeInt(rowGroups.size());
+        for (TransactionArchiveReader.RowGroup rowGroup : rowGroups) {
+            rowGroup.writeTo(out);
+        }
+        out.flush();
+        writeFully(ByteBuffer.wrap(footer.toByteArray()));
+        writeFully(ByteBuffer.allocate(8).putInt(footer.size()).putInt(MAGIC).flip());
+        channel.force(true);
+        finished = true;
+        close();
+        return stats;
+    }
+
+    @Override
+    public void close() throws IOException {
+        deflater.end();
+        channel.close();
+    }
+
+    private void flushRowGroup() throws IOException {
+        long[] offsets = new long[columns.length];
+        int[] lengths = new int[columns.length];
+        int[] rawLengths = new int[columns.length];
+        int[] checksums = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            byte[] raw = columns[i].toByteArray();
+            byte[] compressed = deflate(raw);
+            CRC32 crc = new CRC32();
+            crc.update(compressed);
+            offsets[i] = position;
+            lengths[i] = compressed.length;
+            rawLengths[i] = raw.length;
+            checksums[i] = (int) crc.getValue();
+            writeFully(ByteBuffer.wrap(compressed));
+            columns[i].reset();
+        }
+        rowGroups.add(new TransactionArchiveReader.RowGroup(groupStats.build(), offsets, lengths, rawLengths, checksums));
+        groupStats = new TransactionArchiveStats.Builder();
+    }
+
+    private byte[] deflate(byte[] raw) {
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+        byte[] buffer = new byte[8192];
+        while (!deflater.finished()) {
+            int n = deflater.deflate(buffer);
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.demo.audit;
+
+/**
+ * One changed field; values are {@code String}, {@code BigDecimal}, {@code LocalDate} or
+ * {@code Integer} according to {@link AuditField#getType()}, and may be null.
+ */
+public record AuditChange(AuditField field, Object oldValue, Object newValue) {
+}
@@ -0,0 +1,209 @@
+package com.example.demo.audit;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Payload encoding of audit records.
+ * <p>
+ * A payload is {@code [kind][entity type][varint entity id][varint account id]} followed, for a
+ * change, by a varint change count and per change the field code and its old and new values, or, for
+ * an abort, the varint sequence of the aborted record. Values start with a tag byte (0 for null):
+ * strings are a varint length and UTF-8, decimals a zig-zag scale and either a zig-zag unscaled long
+ * (tag 1) or its two's-complement bytes (tag 2), dates a zig-zag epoch day, integers zig-zag.
+ */
+final class AuditCodec {
+
+    static final int KIND_CHANGE = 0;
+    static final int KIND_ABORT = 1;
+
+    private static final int NULL = 0;
+    private static final int PRESENT = 1;
+    private static final int BIG_DECIMAL = 2;
+    private static final long MAX_ENTITY_ID = (1L << 56) - 1;
+
+    private AuditCodec() {
+    }
+
+    /**
+     * Index key of an entity: the type code in the top byte and the id below it.
+     */
+    static long key(AuditEntityType entityType, long entityId) {
+        if (entityId < 0 || entityId > MAX_ENTITY_ID) {
+            throw new IllegalArgumentException("Audit entity ID out of range: " + entityId);
+        }
+        return ((long) entityType.getCode() << 56) | entityId;
+    }
+
+    /**
+     * Index key of the payload starting at {@code offset}, without decoding the rest of it.
+     */
+    static long peekKey(ByteBuffer buffer, int offset) {
+        int typeCode = buffer.get(offset + 1) & 0xFF;
+        long id = 0;
+        int shift = 0;
+        int position = offset + 2;
+        while (true) {
+            byte b = buffer.get(position++);
+            id |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return ((long) typeCode << 56) | id;
+            }
+            shift += 7;
+        }
+    }
+
+    static byte[] encodeChange(AuditEntityType entityType, long entityId, long accountId, List<AuditChange> changes) {
+        ByteArrayOutputStream out = header(KIND_CHANGE, entityType, entityId, accountId);
+        writeVarint(out, changes.size());
+        for (AuditChange change : changes) {
+            if (change.field().getEntityType() != entityType) {
+                throw new IllegalArgumentException("Field " + change.field() + " does not belong to " + entityType);
+            }
+            out.write(change.field().getCode());
+            writeValue(out, change.field().getType(), change.oldValue());
+            writeValue(out, change.field().getType(), change.newValue());
+        }
+        return out.toByteArray();
+    }
+
+    static byte[] encodeAbort(AuditEntityType entityType, long entityId, long accountId, long abortedSequence) {
+        ByteArrayOutputStream out = header(KIND_ABORT, entityType, entityId, accountId);
+        writeVarint(out, abortedSequence);
+        return out.toByteArray();
+    }
+
+    static AuditRecord decode(long sequence, Instant timestamp, ByteBuffer payload) {
+        int kind = payload.get() & 0xFF;
+        AuditEntityType entityType = AuditEntityType.fromCode(payload.get() & 0xFF);
+        long entityId = readVarint(payload);
+        long accountId = readVarint(payload);
+        if (kind == KIND_ABORT) {
+            return new AuditRecord(sequence, timestamp, entityType, entityId, accountId, readVarint(payload), List.of());
+        }
+        if (kind != KIND_CHANGE) {
+            throw new IllegalArgumentException("Unknown audit record kind: " + kind);
+        }
+        int count = (int) readVarint(payload);
+        List<AuditChange> changes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            AuditField field = AuditField.fromCode(entityType, payload.get() & 0xFF);
+            Object oldValue = readValue(payload, field.getType());
+            Object newValue = readValue(payload, field.getType());
+            changes.add(new AuditChange(field, oldValue, newValue));
+        }
+        return new AuditRecord(sequence, timestamp, entityType, entityId, accountId, 0, changes);
+    }
+
+    private static ByteArrayOutputStream header(int kind, AuditEntityType entityType, long entityId, long accountId) {
+        key(entityType, entityId);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+        out.write(kind);
+        out.write(entityType.getCode());
+        writeVarint(out, entityId);
+        writeVarint(out, accountId);
+        return out;
+    }
+
+    private static void writeValue(ByteArrayOutputStream out, AuditField.Type type, Object value) {
+        if (value == null) {
+            out.write(NULL);
+            return;
+        }
+        switch (type) {
+            case STRING -> {
+                byte[] utf8 = ((String) value).getBytes(StandardCharsets.UTF_8);
+                out.write(PRESENT);
+                writeVarint(out, utf8.length);
+                out.write(utf8, 0, utf8.length);
+            }
+            case DECIMAL -> {
+                BigDecimal decimal = (BigDecimal) value;
+                BigInteger unscaled = decimal.unscaledValue();
+                if (unscaled.bitLength() < Long.SIZE) {
+                    out.write(PRESENT);
+                    writeVarint(out, zigZag(decimal.scale()));
+                    writeVarint(out, zigZag(unscaled.longValue()));
+                } else {
+                    byte[] bytes = unscaled.toByteArray();
+                    out.write(BIG_DECIMAL);
+                    writeVarint(out, zigZag(decimal.scale()));
+                    writeVarint(out, bytes.length);
+                    out.write(bytes, 0, bytes.length);
+                }
+            }
+            case DATE -> {
+                out.write(PRESENT);
+                writeVarint(out, zigZag(((LocalDate) value).toEpochDay()));
+            }
+            case INTEGER -> {
+                out.write(PRESENT);
+                writeVarint(out, zigZag((Integer) value));
+            }
+        }
+    }
+
+    private static Object readValue(ByteBuffer in, AuditField.Type type) {
+        int tag = in.get() & 0xFF;
+        if (tag == NULL) {
+            return null;
+        }
+        return switch (type) {
+            case STRING -> {
+                byte[] utf8 = new byte[(int) readVarint(in)];
+                in.get(utf8);
+                yield new String(utf8, StandardCharsets.UTF_8);
+            }
+            case DECIMAL -> {
+                int scale = (int) unZigZag(readVarint(in));
+                if (tag == BIG_DECIMAL) {
+                    byte[] bytes = new byte[(int) readVarint(in)];
+                    in.get(bytes);
+                    yield new BigDecimal(new BigInteger(bytes), scale);
+                }
+                yield BigDecimal.valueOf(unZigZag(readVarint(in)), scale);
+            }
+            case DATE -> LocalDate.ofEpochDay(unZigZag(readVarint(in)));
+            case INTEGER -> (int) unZigZag(readVarint(in));
+        };
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(ByteBuffer in) {
+        long value = 0;
+        int shift = 0;
+        while (true) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+            shift += 7;
+            if (shift > 63) {
+                throw new IllegalArgumentException("Malformed varint in audit record");
+            }
+        }
+    }
+}
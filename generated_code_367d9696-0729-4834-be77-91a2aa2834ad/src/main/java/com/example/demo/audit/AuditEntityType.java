@@ -0,0 +1,29 @@
+package com.example.demo.audit;
+
+/**
+ * Kind of entity an audit record describes. The code is stored in the log and must never change.
+ */
+public enum AuditEntityType {
+
+    ACCOUNT(1),
+    CUSTOMER(2);
+
+    private final int code;
+
+    AuditEntityType(int code) {
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    static AuditEntityType fromCode(int code) {
+        for (AuditEntityType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown audit entity type code: " + code);
+    }
+}
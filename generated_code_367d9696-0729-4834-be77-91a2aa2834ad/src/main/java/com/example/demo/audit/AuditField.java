@@ -0,0 +1,152 @@
+package com.example.demo.audit;
+
+import com.example.demo.entity.Account;
+import com.example.demo.entity.Customer;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Account and customer fields written by the update path and captured in the audit log.
+ * The code identifies the field within its entity type in the log; codes must never be reused.
+ */
+public enum AuditField {
+
+    ACTIVE_STATUS(AuditEntityType.ACCOUNT, 1, "activeStatus", Type.STRING, account(Account::getActiveStatus)),
+    CURRENT_BALANCE(AuditEntityType.ACCOUNT, 2, "currentBalance", Type.DECIMAL, account(Account::getCurrentBalance)),
+    CREDIT_LIMIT(AuditEntityType.ACCOUNT, 3, "creditLimit", Type.DECIMAL, account(Account::getCreditLimit)),
+    CASH_CREDIT_LIMIT(AuditEntityType.ACCOUNT, 4, "cashCreditLimit", Type.DECIMAL, account(Account::getCashCreditLimit)),
+    OPEN_DATE(AuditEntityType.ACCOUNT, 5, "openDate", Type.DATE, account(Account::getOpenDate)),
+    EXPIRATION_DATE(AuditEntityType.ACCOUNT, 6, "expirationDate", Type.DATE, account(Account::getExpirationDate)),
+    REISSUE_DATE(AuditEntityType.ACCOUNT, 7, "reissueDate", Type.DATE, account(Account::getReissueDate)),
+    CURRENT_CYCLE_CREDIT(AuditEntityType.ACCOUNT, 8, "currentCycleCredit", Type.DECIMAL, account(Account::getCurrentCycleCredit)),
+    CURRENT_CYCLE_DEBIT(AuditEntityType.ACCOUNT, 9, "currentCycleDebit", Type.DECIMAL, account(Account::getCurrentCycleDebit)),
+    GROUP_ID(AuditEntityType.ACCOUNT, 10, "groupId", Type.STRING, account(Account::getGroupId)),
+    FIRST_NAME(AuditEntityType.CUSTOMER, 1, "firstName", Type.STRING, customer(Customer::getFirstName)),
+    MIDDLE_NAME(AuditEntityType.CUSTOMER, 2, "middleName", Type.STRING, customer(Customer::getMiddleName)),
+    LAST_NAME(AuditEntityType.CUSTOMER, 3, "lastName", Type.STRING, customer(Customer::getLastName)),
+    SSN(AuditEntityType.CUSTOMER, 4, "ssn", Type.STRING, customer(Customer::getSsn)),
+    DATE_OF_BIRTH(AuditEntityType.CUSTOMER, 5, "dateOfBirth", Type.DATE, customer(Customer::getDateOfBirth)),
+    FICO_SCORE(AuditEntityType.CUSTOMER, 6, "ficoScore", Type.INTEGER, customer(Customer::getFicoScore)),
+    ADDRESS_LINE1(AuditEntityType.CUSTOMER, 7, "addressLine1", Type.STRING, customer(Customer::getAddressLine1)),
+    ADDRESS_LINE2(AuditEntityType.CUSTOMER, 8, "addressLine2", Type.STRING, customer(Customer::getAddressLine2)),
+    CITY(AuditEntityType.CUSTOMER, 9, "city", Type.STRING, customer(Customer::getCity)),
+    STATE_CODE(AuditEntityType.CUSTOMER, 10, "stateCode", Type.STRING, customer(Customer::getStateCode)),
+    ZIP_CODE(AuditEntityType.CUSTOMER, 11, "zipCode", Type.STRING, customer(Customer::getZipCode)),
+    COUNTRY_CODE(AuditEntityType.CUSTOMER, 12, "countryCode", Type.STRING, customer(Customer::getCountryCode)),
+    PHONE_NUMBER1(AuditEntityType.CUSTOMER, 13, "phoneNumber1", Type.STRING, customer(Customer::getPhoneNumber1)),
+    PHONE_NUMBER2(AuditEntityType.CUSTOMER, 14, "phoneNumber2", Type.STRING, customer(Customer::getPhoneNumber2)),
+    GOVERNMENT_ISSUED_ID(AuditEntityType.CUSTOMER, 15, "governmentIssuedId", Type.STRING, customer(Customer::getGovernmentIssuedId)),
+    EFT_ACCOUNT_ID(AuditEntityType.CUSTOMER, 16, "eftAccountId", Type.STRING, customer(Customer::getEftAccountId)),
+    PRIMARY_CARD_HOLDER_INDICATOR(AuditEntityType.CUSTOMER, 17, "primaryCardHolderIndicator", Type.STRING,
+            customer(Customer::getPrimaryCardHolderIndicator));
+
+    /**
+     * Encoding of a field value in the log.
+     */
+    public enum Type {
+        STRING,
+        DECIMAL,
+        DATE,
+        INTEGER
+    }
+
+    private final AuditEntityType entityType;
+    private final int code;
+    private final String fieldName;
+    private final Type type;
+    private final Function<Object, Object> getter;
+
+    AuditField(AuditEntityType entityType, int code, String fieldName, Type type, Function<Object, Object> getter) {
+        this.entityType = entityType;
+        this.code = code;
+        this.fieldName = fieldName;
+        this.type = type;
+        this.getter = getter;
+    }
+
+    public AuditEntityType getEntityType() {
+        return entityType;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Fields of the entity type, in code order.
+     */
+    public static List<AuditField> of(AuditEntityType entityType) {
+        List<AuditField> fields = new ArrayList<>();
+        for (AuditField field : values()) {
+            if (field.entityType == entityType) {
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Current values of every field of the entity type, in {@link #of} order.
+     */
+    public static Object[] capture(AuditEntityType entityType, Object entity) {
+        List<AuditField> fields = of(entityType);
+        Object[] values = new Object[fields.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = fields.get(i).getter.apply(entity);
+        }
+        return values;
+    }
+
+    /**
+     * Fields whose value differs from a {@link #capture} taken earlier. Decimals are compared by
+     * value, so a scale change alone is not a change.
+     */
+    public static List<AuditChange> diff(AuditEntityType entityType, Object[] before, Object entity) {
+        List<AuditField> fields = of(entityType);
+        List<AuditChange> changes = new ArrayList<>();
+        for (int i = 0; i < before.length; i++) {
+            AuditField field = fields.get(i);
+            Object after = field.getter.apply(entity);
+            if (!field.sameValue(before[i], after)) {
+                changes.add(new AuditChange(field, before[i], after));
+            }
+        }
+        return changes;
+    }
+
+    static AuditField fromCode(AuditEntityType entityType, int code) {
+        for (AuditField field : values()) {
+            if (field.entityType == entityType && field.code == code) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown audit field code " + code + " for " + entityType);
+    }
+
+    private boolean sameValue(Object a, Object b) {
+        if (type == Type.DECIMAL && a != null && b != null) {
+            return ((BigDecimal) a).compareTo((BigDecimal) b) == 0;
+        }
+        return Objects.equals(a, b);
+    }
+
+    private static Function<Object, Object> account(Function<Account, ?> getter) {
+        return entity -> getter.apply((Account) entity);
+    }
+
+    private static Function<Object, Object> customer(Function<Customer, ?> getter) {
+        return entity -> getter.apply((Customer) entity);
+    }
+}
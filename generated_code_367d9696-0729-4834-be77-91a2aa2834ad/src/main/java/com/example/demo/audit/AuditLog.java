@@ -0,0 +1,645 @@
+package com.example.demo.audit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only audit log in memory-mapped segment files with group commit.
+ * <p>
+ * Each segment is preallocated to {@code segmentBytes} and mapped once. A single writer thread drains
+ * everything queued, copies it into the mapping, forces the written range to disk and only then
+ * completes the callers' futures, so one sync is shared by every record that arrived while the
+ * previous one was in progress. Records are {@code [int length][long sequence][long micros][payload]
+ * [int crc32]}; a zero length marks the end of the data in a segment. The writer stamps records with a
+ * non-decreasing time, so sequence order is also time order.
+ * <p>
+ * Each segment keeps a sparse index: the offset of the first record of every entity in it, and the
+ * time and offset of every {@code indexInterval}-th record. A lookup skips segments without the
+ * entity or outside the time range and starts scanning at the later of the two offsets. When a
+ * segment fills up its index is written next to it as {@code .idx}; on {@link #open} closed segments
+ * load that file and only the last segment is scanned, with a torn tail cleared.
+ */
+@Slf4j
+public final class AuditLog {
+
+    private static final String SEGMENT_PREFIX = "audit-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String INDEX_SUFFIX = ".idx";
+    private static final int INDEX_MAGIC = 0x41494458;
+    private static final int HEADER_BYTES = Integer.BYTES;
+    private static final int FIXED_BODY_BYTES = 2 * Long.BYTES;
+    private static final int TRAILER_BYTES = Integer.BYTES;
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final int MIN_SEGMENT_BYTES = 1024 * 1024;
+    private static final int ZERO_CHUNK_BYTES = 64 * 1024;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int maxBatch;
+    private final int indexInterval;
+    private final LinkedBlockingQueue<Pending> queue;
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+
+    private Segment current;
+    private int writePosition;
+    private long nextSequence;
+    private long lastMicros;
+    private volatile long lastSequence;
+    private volatile boolean failed;
+    private volatile boolean closed;
+    private Thread writer;
+
+    public AuditLog(Path directory, long segmentBytes, int maxBatch, int queueCapacity, int indexInterval) {
+        if (segmentBytes < MIN_SEGMENT_BYTES || segmentBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Audit segment size must be between " + MIN_SEGMENT_BYTES
+                    + " and " + Integer.MAX_VALUE + " bytes");
+        }
+        this.directory = directory;
+        this.segmentBytes = (int) segmentBytes;
+        this.maxBatch = Math.max(1, maxBatch);
+        this.queue = new LinkedBlockingQueue<>(Math.max(1, queueCapacity));
+        this.indexInterval = Math.max(1, indexInterval);
+    }
+
+    /**
+     * Loads the segment indexes, recovers the last segment and starts the writer thread.
+     */
+    public void open() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> found = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(AuditLog::isSegment).forEach(found::add);
+        }
+        found.sort((a, b) -> Long.compare(parseFirstSequence(a), parseFirstSequence(b)));
+
+        long expected = 1;
+        for (int i = 0; i < found.size(); i++) {
+            Path path = found.get(i);
+            long firstSequence = parseFirstSequence(path);
+            if (i > 0 && firstSequence != expected) {
+                throw new IOException("Audit segment " + path + " does not continue at sequence " + expected);
+            }
+            Segment segment = i == found.size() - 1 ? recoverTail(path, firstSequence) : loadClosed(path, firstSequence);
+            expected = firstSequence + segment.index.records();
+            lastMicros = Math.max(lastMicros, segment.index.maxMicros());
+            segments.add(segment);
+        }
+
+        nextSequence = expected;
+        lastSequence = expected - 1;
+        if (segments.isEmpty()) {
+            openSegment(nextSequence);
+        } else {
+            current = segments.get(segments.size() - 1);
+            writePosition = current.limit;
+        }
+
+        writer = new Thread(this::writeLoop, "audit-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Opened audit log in {} with {} segments at sequence {}", directory, segments.size(), lastSequence);
+    }
+
+    /**
+     * Queues a change record; the future completes with its sequence once the record is durable.
+     */
+    public CompletableFuture<Long> appendChange(AuditEntityType entityType, long entityId, long accountId,
+                                                List<AuditChange> changes) {
+        return append(AuditCodec.key(entityType, entityId),
+                () -> AuditCodec.encodeChange(entityType, entityId, accountId, changes));
+    }
+
+    /**
+     * Queues a record marking change record {@code abortedSequence} of the entity as rolled back.
+     */
+    public CompletableFuture<Long> appendAbort(AuditEntityType entityType, long entityId, long accountId,
+                                               long abortedSequence) {
+        return append(AuditCodec.key(entityType, entityId),
+                () -> AuditCodec.encodeAbort(entityType, entityId, accountId, abortedSequence));
+    }
+
+    /**
+     * Records of the entity, change and abort, in sequence order.
+     *
+     * @param from earliest record time, inclusive, or null
+     * @param to   latest record time, inclusive, or null
+     */
+    public List<AuditRecord> read(AuditEntityType entityType, long entityId, Instant from, Instant to) {
+        long key = AuditCodec.key(entityType, entityId);
+        long fromMicros = from == null ? Long.MIN_VALUE : toMicros(from);
+        long toMicros = to == null ? Long.MAX_VALUE : toMicros(to);
+        List<AuditRecord> records = new ArrayList<>();
+        CRC32 crc = new CRC32();
+        for (Segment segment : segments) {
+            int limit = segment.limit;
+            int start = segment.index.startOffset(key, fromMicros, toMicros);
+            if (start < 0 || start >= limit) {
+                continue;
+            }
+            ByteBuffer buffer = segment.buffer();
+            int position = start;
+            while (position < limit) {
+                int length = buffer.getInt(position);
+                int bodyStart = position + HEADER_BYTES;
+                long micros = buffer.getLong(bodyStart + Long.BYTES);
+                if (micros > toMicros) {
+                    return records;
+                }
+                int payloadStart = bodyStart + FIXED_BODY_BYTES;
+                if (micros >= fromMicros && AuditCodec.peekKey(buffer, payloadStart) == key) {
+                    crc.reset();
+                    crc.update(buffer.slice(bodyStart, length));
+                    if ((int) crc.getValue() != buffer.getInt(bodyStart + length)) {
+                        throw new IllegalStateException("Corrupt audit record at byte " + position + " of " + segment.path);
+                    }
+                    records.add(AuditCodec.decode(buffer.getLong(bodyStart), fromMicros(micros),
+                            buffer.slice(payloadStart, length - FIXED_BODY_BYTES)));
+                }
+                position = bodyStart + length + TRAILER_BYTES;
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Highest sequence that has been written and synced.
+     */
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    public int getQueuedRecords() {
+        return queue.size();
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Stops accepting records, waits for queued records to be written and syncs the last segment.
+     */
+    public void close() {
+        closed = true;
+        if (writer != null) {
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        Pending pending;
+        while ((pending = queue.poll()) != null) {
+            pending.future.completeExceptionally(new IllegalStateException("Audit log closed"));
+        }
+        if (current != null && !failed) {
+            current.buffer().force();
+        }
+    }
+
+    private CompletableFuture<Long> append(long key, PayloadSupplier encoder) {
+        if (closed || failed) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Audit log is not accepting records"));
+        }
+        byte[] payload = encoder.encode();
+        if (payload.length + FIXED_BODY_BYTES > MAX_BODY_BYTES) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Audit record is too large"));
+        }
+        Pending pending = new Pending(key, payload);
+        if (!queue.offer(pending)) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Audit log queue is full"));
+        }
+        return pending.future;
+    }
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        CRC32 crc = new CRC32();
+        while (true) {
+            Pending first;
+            try {
+                first = queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (first == null) {
+                if (closed) {
+                    return;
+                }
+                continue;
+            }
+            batch.add(first);
+            queue.drainTo(batch, maxBatch - 1);
+            writeBatch(batch, crc);
+            batch.clear();
+        }
+    }
+
+    private void writeBatch(List<Pending> batch, CRC32 crc) {
+        if (failed) {
+            for (Pending pending : batch) {
+                pending.future.completeExceptionally(new IllegalStateException("Audit log has failed"));
+            }
+            return;
+        }
+        try {
+            long micros = Math.max(lastMicros, toMicros(Instant.now()));
+            int syncFrom = writePosition;
+            long sequence = nextSequence;
+            for (Pending pending : batch) {
+                int recordBytes = HEADER_BYTES + FIXED_BODY_BYTES + pending.payload.length + TRAILER_BYTES;
+                if (writePosition + recordBytes > current.capacity) {
+                    current.buffer().force(syncFrom, writePosition - syncFrom);
+                    current.limit = writePosition;
+                    closeSegment(current);
+                    openSegment(sequence);
+                    syncFrom = writePosition;
+                }
+                ByteBuffer record = ByteBuffer.allocate(recordBytes);
+                record.putInt(FIXED_BODY_BYTES + pending.payload.length);
+                record.putLong(sequence);
+                record.putLong(micros);
+                record.put(pending.payload);
+                crc.reset();
+                crc.update(record.array(), HEADER_BYTES, FIXED_BODY_BYTES + pending.payload.length);
+                record.putInt((int) crc.getValue());
+                current.buffer().put(writePosition, record.array());
+                current.index.add(pending.key, micros, writePosition);
+                pending.sequence = sequence++;
+                writePosition += recordBytes;
+            }
+            current.buffer().force(syncFrom, writePosition - syncFrom);
+            current.limit = writePosition;
+            nextSequence = sequence;
+            lastSequence = sequence - 1;
+            lastMicros = micros;
+            for (Pending pending : batch) {
+                pending.future.complete(pending.sequence);
+            }
+        } catch (IOException | RuntimeException e) {
+            failed = true;
+            log.error("Audit log write failed, rejecting further records: {}", e.getMessage(), e);
+            for (Pending pending : batch) {
+                pending.future.completeExceptionally(new IllegalStateException("Audit log write failed", e));
+            }
+        }
+    }
+
+    private void openSegment(long firstSequence) throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+        Segment segment = new Segment(firstSequence, path, new SegmentIndex(indexInterval));
+        segment.map(segmentBytes, true);
+        syncDirectory();
+        segments.add(segment);
+        current = segment;
+        writePosition = 0;
+    }
+
+    private void closeSegment(Segment segment) throws IOException {
+        Path indexPath = indexPath(segment.path);
+        Path temp = indexPath.resolveSibling(indexPath.getFileName() + ".tmp");
+        Files.write(temp, segment.index.toBytes(segment.limit));
+        Files.move(temp, indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Closed audit segment {} with {} records", segment.path.getFileName(), segment.index.records());
+    }
+
+    /**
+     * A closed segment: loads its index file, or rebuilds it by scanning when the file is missing or
+     * damaged. Closed segments must scan cleanly.
+     */
+    private Segment loadClosed(Path path, long firstSequence) throws IOException {
+        Path indexPath = indexPath(path);
+        try {
+            Segment segment = SegmentIndex.fromBytes(Files.readAllBytes(indexPath), indexInterval, firstSequence, path);
+            if (segment != null) {
+                return segment;
+            }
+            log.warn("Audit index {} is damaged, rebuilding it", indexPath);
+        } catch (NoSuchFileException e) {
+            log.warn("Audit index {} is missing, rebuilding it", indexPath);
+        }
+        Segment segment = new Segment(firstSequence, path, new SegmentIndex(indexInterval));
+        segment.map(0, false);
+        int end = scan(segment);
+        if (end < 0) {
+            throw new IOException("Corrupt record in closed audit segment " + path + " at byte " + (-end - 1));
+        }
+        segment.limit = end;
+        closeSegment(segment);
+        return segment;
+    }
+
+    /**
+     * The last segment: scans it to rebuild the index and clears everything after the last valid
+     * record, so that bytes of unacknowledged records can never be read as records later.
+     */
+    private Segment recoverTail(Path path, long firstSequence) throws IOException {
+        Segment segment = new Segment(firstSequence, path, new SegmentIndex(indexInterval));
+        segment.map(segmentBytes, true);
+        int end = scan(segment);
+        if (end < 0) {
+            end = -end - 1;
+            log.warn("Truncating torn tail of audit segment {} at byte {}", path, end);
+        }
+        MappedByteBuffer buffer = segment.buffer();
+        byte[] zeros = new byte[ZERO_CHUNK_BYTES];
+        boolean dirty = false;
+        for (int position = end; position < segment.capacity; position += ZERO_CHUNK_BYTES) {
+            int length = Math.min(ZERO_CHUNK_BYTES, segment.capacity - position);
+            if (buffer.slice(position, length).mismatch(ByteBuffer.wrap(zeros, 0, length)) >= 0) {
+                buffer.put(position, zeros, 0, length);
+                dirty = true;
+            }
+        }
+        if (dirty) {
+            buffer.force();
+        }
+        segment.limit = end;
+        return segment;
+    }
+
+    /**
+     * Indexes the segment's records; returns the end of the last valid record, or {@code -(end + 1)}
+     * when a damaged record follows it.
+     */
+    private int scan(Segment segment) {
+        ByteBuffer buffer = segment.buffer();
+        CRC32 crc = new CRC32();
+        long sequence = segment.firstSequence;
+        int position = 0;
+        while (position + HEADER_BYTES <= segment.capacity) {
+            int length = buffer.getInt(position);
+            if (length == 0) {
+                return position;
+            }
+            int bodyStart = position + HEADER_BYTES;
+            if (length < FIXED_BODY_BYTES + 3 || length > MAX_BODY_BYTES
+                    || bodyStart + length + TRAILER_BYTES > segment.capacity) {
+                return -position - 1;
+            }
+            crc.reset();
+            crc.update(buffer.slice(bodyStart, length));
+            if ((int) crc.getValue() != buffer.getInt(bodyStart + length) || buffer.getLong(bodyStart) != sequence) {
+                return -position - 1;
+            }
+            segment.index.add(AuditCodec.peekKey(buffer, bodyStart + FIXED_BODY_BYTES),
+                    buffer.getLong(bodyStart + Long.BYTES), position);
+            sequence++;
+            position = bodyStart + length + TRAILER_BYTES;
+        }
+        return position;
+    }
+
+    private void syncDirectory() {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            log.debug("Directory sync not supported for {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private static long toMicros(Instant instant) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, instant);
+    }
+
+    private static Instant fromMicros(long micros) {
+        return Instant.EPOCH.plus(micros, ChronoUnit.MICROS);
+    }
+
+    private static Path indexPath(Path segmentPath) {
+        String name = segmentPath.getFileName().toString();
+        return segmentPath.resolveSibling(name.substring(0, name.length() - SEGMENT_SUFFIX.length()) + INDEX_SUFFIX);
+    }
+
+    private static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static long parseFirstSequence(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    @FunctionalInterface
+    private interface PayloadSupplier {
+
+        byte[] encode();
+    }
+
+    private static final class Segment {
+
+        private final long firstSequence;
+        private final Path path;
+        private final SegmentIndex index;
+        private MappedByteBuffer buffer;
+        private int capacity;
+        private volatile int limit;
+
+        Segment(long firstSequence, Path path, SegmentIndex index) {
+            this.firstSequence = firstSequence;
+            this.path = path;
+            this.index = index;
+        }
+
+        /**
+         * Maps the whole file, extending a writable segment to {@code minBytes} first.
+         */
+        synchronized void map(int minBytes, boolean writable) throws IOException {
+            StandardOpenOption[] options = writable
+                    ? new StandardOpenOption[]{StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE}
+                    : new StandardOpenOption[]{StandardOpenOption.READ};
+            try (FileChannel channel = FileChannel.open(path, options)) {
+                long size = Math.max(channel.size(), minBytes);
+                if (size > Integer.MAX_VALUE) {
+                    throw new IOException("Audit segment " + path + " is larger than 2 GB");
+                }
+                capacity = (int) size;
+                buffer = channel.map(writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+        }
+
+        /**
+         * The mapping, created on first use for closed segments loaded from an index file.
+         */
+        synchronized MappedByteBuffer buffer() {
+            if (buffer == null) {
+                try {
+                    map(0, false);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Cannot map audit segment " + path, e);
+                }
+            }
+            return buffer;
+        }
+    }
+
+    /**
+     * Sparse index of one segment. Only the writer thread adds entries; readers see an entry before the
+     * segment's limit covers the record it points to, which is harmless because they stop at the limit.
+     */
+    private static final class SegmentIndex {
+
+        private final int interval;
+        private final Map<Long, Integer> firstOffsets = new HashMap<>();
+        private long[] checkpointMicros = new long[16];
+        private int[] checkpointOffsets = new int[16];
+        private int checkpoints;
+        private long records;
+        private long minMicros = Long.MAX_VALUE;
+        private long maxMicros = Long.MIN_VALUE;
+
+        SegmentIndex(int interval) {
+            this.interval = interval;
+        }
+
+        synchronized void add(long key, long micros, int offset) {
+            firstOffsets.putIfAbsent(key, offset);
+            if (records % interval == 0) {
+                if (checkpoints == checkpointMicros.length) {
+                    checkpointMicros = Arrays.copyOf(checkpointMicros, checkpoints * 2);
+                    checkpointOffsets = Arrays.copyOf(checkpointOffsets, checkpoints * 2);
+                }
+                checkpointMicros[checkpoints] = micros;
+                checkpointOffsets[checkpoints] = offset;
+                checkpoints++;
+            }
+            records++;
+            minMicros = Math.min(minMicros, micros);
+            maxMicros = Math.max(maxMicros, micros);
+        }
+
+        synchronized long records() {
+            return records;
+        }
+
+        synchronized long maxMicros() {
+            return records == 0 ? 0 : maxMicros;
+        }
+
+        /**
+         * Offset to start scanning for the key, or -1 when the segment cannot hold a match.
+         */
+        synchronized int startOffset(long key, long fromMicros, long toMicros) {
+            Integer first = firstOffsets.get(key);
+            if (first == null || records == 0 || maxMicros < fromMicros || minMicros > toMicros) {
+                return -1;
+            }
+            int start = first;
+            // The last checkpoint strictly before fromMicros: nothing before it can be in range
+            int low = 0;
+            int high = checkpoints - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (checkpointMicros[mid] < fromMicros) {
+                    start = Math.max(start, checkpointOffsets[mid]);
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return start;
+        }
+
+        synchronized byte[] toBytes(int limit) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(INDEX_MAGIC);
+            out.writeLong(records);
+            out.writeInt(limit);
+            out.writeLong(minMicros);
+            out.writeLong(maxMicros);
+            out.writeInt(firstOffsets.size());
+            for (Map.Entry<Long, Integer> entry : firstOffsets.entrySet()) {
+                out.writeLong(entry.getKey());
+                out.writeInt(entry.getValue());
+            }
+            out.writeInt(checkpoints);
+            for (int i = 0; i < checkpoints; i++) {
+                out.writeLong(checkpointMicros[i]);
+                out.writeInt(checkpointOffsets[i]);
+            }
+            CRC32 crc = new CRC32();
+            crc.update(bytes.toByteArray());
+            out.writeInt((int) crc.getValue());
+            return bytes.toByteArray();
+        }
+
+        /**
+         * Segment described by an index file, or null when the file is damaged.
+         */
+        static Segment fromBytes(byte[] bytes, int interval, long firstSequence, Path path) throws IOException {
+            if (bytes.length < Integer.BYTES * 2) {
+                return null;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(bytes, 0, bytes.length - Integer.BYTES);
+            if ((int) crc.getValue() != ByteBuffer.wrap(bytes, bytes.length - Integer.BYTES, Integer.BYTES).getInt()) {
+                return null;
+            }
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            if (in.readInt() != INDEX_MAGIC) {
+                return null;
+            }
+            SegmentIndex index = new SegmentIndex(interval);
+            index.records = in.readLong();
+            int limit = in.readInt();
+            index.minMicros = in.readLong();
+            index.maxMicros = in.readLong();
+            int keys = in.readInt();
+            for (int i = 0; i < keys; i++) {
+                index.firstOffsets.put(in.readLong(), in.readInt());
+            }
+            index.checkpoints = in.readInt();
+            index.checkpointMicros = new long[Math.max(1, index.checkpoints)];
+            index.checkpointOffsets = new int[Math.max(1, index.checkpoints)];
+            for (int i = 0; i < index.checkpoints; i++) {
+                index.checkpointMicros[i] = in.readLong();
+                index.checkpointOffsets[i] = in.readInt();
+            }
+            Segment segment = new Segment(firstSequence, path, index);
+            segment.limit = limit;
+            return segment;
+        }
+    }
+
+    private static final class Pending {
+
+        private final long key;
+        private final byte[] payload;
+        private final CompletableFuture<Long> future = new CompletableFuture<>();
+        private long sequence;
+
+        Pending(long key, byte[] payload) {
+            this.key = key;
+            this.payload = payload;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.demo.audit;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A record read back from the audit log.
+ * <p>
+ * A change record lists the changed fields of one entity. An abort record has no changes and marks
+ * the change record {@code abortedSequence} as belonging to a transaction that rolled back.
+ *
+ * @param accountId account the update was made through; equal to {@code entityId} for accounts
+ */
+public record AuditRecord(long sequence,
+                          Instant timestamp,
+                          AuditEntityType entityType,
+                          long entityId,
+                          long accountId,
+                          long abortedSequence,
+                          List<AuditChange> changes) {
+
+    public boolean isAbort() {
+        return abortedSequence > 0;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.demo.batch;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * A job that can be launched through {@code BatchJobLauncher}. Implementations are Spring beans.
+ * <p>
+ * A job runs once per run date: launching it again for a date whose run failed or was stopped
+ * resumes that run, and launching it for a date that completed is rejected. Steps run in order and
+ * a step starts only after every partition of the previous one completed.
+ */
+public interface BatchJob {
+
+    /**
+     * Name used in the API and the job repository; at most 50 characters.
+     */
+    String getName();
+
+    String getDescription();
+
+    /**
+     * Steps of the run for the given date. Called at every launch, so step names must depend on nothing
+     * but the run date; a step's key range is only asked for the first time the step starts.
+     */
+    List<ChunkStep<?, ?>> getSteps(LocalDate runDate);
+}
@@ -0,0 +1,20 @@
+package com.example.demo.batch;
+
+/**
+ * Status of a job execution or step partition in the job repository.
+ */
+public enum BatchStatus {
+
+    STARTING,
+    RUNNING,
+    COMPLETED,
+    STOPPED,
+    FAILED;
+
+    /**
+     * Whether a run in this status may be launched again to resume it.
+     */
+    public boolean isRestartable() {
+        return this == STOPPED || this == FAILED;
+    }
+}
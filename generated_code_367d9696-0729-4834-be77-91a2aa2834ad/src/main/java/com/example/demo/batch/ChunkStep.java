@@ -0,0 +1,42 @@
+package com.example.demo.batch;
+
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * A read-process-write step over items identified by a numeric key.
+ * <p>
+ * The launcher asks {@code keyRange} for the keys to cover, splits them into partitions that run in
+ * parallel and, within each partition, repeatedly reads a chunk of up to {@code chunkSize} items,
+ * processes them and writes the results in one transaction that also records the key of the last
+ * item read. A rerun resumes every partition after its last committed key. Items whose keys are
+ * beyond the range when the step first starts are not processed by that run.
+ *
+ * @param name      step name, unique within the job
+ * @param keyRange  keys to cover, or null from the supplier when there is nothing to do
+ * @param reader    reads a chunk of items in key order
+ * @param key       key of a read item
+ * @param processor turns an item into the item to write, or null to skip it
+ * @param writer    writes the processed items of a chunk
+ * @param chunkSize items read per transaction
+ */
+public record ChunkStep<I, O>(String name,
+                              Supplier<KeyRange> keyRange,
+                              ItemReader<I> reader,
+                              ToLongFunction<I> key,
+                              ItemProcessor<I, O> processor,
+                              ItemWriter<O> writer,
+                              int chunkSize) {
+
+    public ChunkStep {
+        if (name == null || name.isBlank() || name.length() > 50) {
+            throw new IllegalArgumentException("Step name must be 1 to 50 characters");
+        }
+        if (keyRange == null || reader == null || key == null || processor == null || writer == null) {
+            throw new IllegalArgumentException("Step " + name + " needs a key range, reader, key, processor and writer");
+        }
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size of step " + name + " must be positive");
+        }
+    }
+}
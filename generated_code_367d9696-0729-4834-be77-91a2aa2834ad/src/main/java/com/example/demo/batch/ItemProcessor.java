@@ -0,0 +1,10 @@
+package com.example.demo.batch;
+
+/**
+ * Turns one read item into the item to write, or null to filter it out.
+ */
+@FunctionalInterface
+public interface ItemProcessor<I, O> {
+
+    O process(I item);
+}
@@ -0,0 +1,17 @@
+package com.example.demo.batch;
+
+import java.util.List;
+
+/**
+ * Reads the items of a chunk step by key.
+ * <p>
+ * {@link #read} returns up to {@code limit} items whose keys are in {@code (afterKey, toKey]},
+ * ordered by key, and fewer than {@code limit} only when no further items are left in the range.
+ * Several items may share a key only if they are always returned in the same chunk; the launcher
+ * checkpoints the key of the last item it read.
+ */
+@FunctionalInterface
+public interface ItemReader<T> {
+
+    List<T> read(long afterKey, long toKey, int limit);
+}
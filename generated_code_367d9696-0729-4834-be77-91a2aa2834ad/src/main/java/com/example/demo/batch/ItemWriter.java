@@ -0,0 +1,13 @@
+package com.example.demo.batch;
+
+import java.util.List;
+
+/**
+ * Writes the processed items of one chunk. Runs in the chunk's transaction, together with the
+ * checkpoint, so a chunk is either written and checkpointed or neither.
+ */
+@FunctionalInterface
+public interface ItemWriter<O> {
+
+    void write(List<O> items);
+}
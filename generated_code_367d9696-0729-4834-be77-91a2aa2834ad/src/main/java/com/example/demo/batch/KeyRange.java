@@ -0,0 +1,40 @@
+package com.example.demo.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inclusive range of item keys.
+ */
+public record KeyRange(long from, long to) {
+
+    public KeyRange {
+        if (from > to) {
+            throw new IllegalArgumentException("Key range " + from + ".." + to + " is empty");
+        }
+    }
+
+    /**
+     * The range from {@code min} to {@code max}, or null when either is null because there are no items.
+     */
+    public static KeyRange of(Long min, Long max) {
+        return min == null || max == null ? null : new KeyRange(min, max);
+    }
+
+    /**
+     * Splits into at most {@code parts} contiguous ranges of equal width; the last may be narrower.
+     */
+    public List<KeyRange> split(int parts) {
+        if (parts < 1) {
+            throw new IllegalArgumentException("Number of parts must be positive");
+        }
+        long span = Math.addExact(Math.subtractExact(to, from), 1);
+        int count = (int) Math.min(parts, span);
+        long step = (span + count - 1) / count;
+        List<KeyRange> ranges = new ArrayList<>(count);
+        for (long start = from; start <= to && ranges.size() < count; start += step) {
+            ranges.add(new KeyRange(start, Math.min(to, start + step - 1)));
+        }
+        return ranges;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.demo.cache;
+
+/**
+ * Kind of entity an invalidation refers to. The code is sent between nodes and must never change.
+ */
+public enum CacheEntityType {
+
+    ACCOUNT(1),
+    CUSTOMER(2),
+    CARD(3);
+
+    private final int code;
+
+    CacheEntityType(int code) {
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    static CacheEntityType fromCode(int code) {
+        for (CacheEntityType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown cache entity type code: " + code);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.demo.cache;
+
+/**
+ * One committed change: the entity and the version it was published with. Versions of the same
+ * entity only grow, so a receiver can drop anything not newer than what it has seen.
+ */
+public record CacheInvalidation(CacheEntityType type, String id, long version) {
+}
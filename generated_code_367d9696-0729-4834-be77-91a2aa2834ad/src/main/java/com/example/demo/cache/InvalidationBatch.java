@@ -0,0 +1,15 @@
+package com.example.demo.cache;
+
+import java.util.List;
+
+/**
+ * Invalidations sent together by one node. Every batch with changes takes the sender's next
+ * sequence number; a heartbeat carries no changes and repeats the last number used, so a receiver
+ * also notices lost batches when the sender goes quiet.
+ */
+public record InvalidationBatch(String nodeId, long sequence, List<CacheInvalidation> invalidations) {
+
+    public boolean isHeartbeat() {
+        return invalidations.isEmpty();
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.demo.cache;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Wire format of an {@link InvalidationBatch}:
+ * <pre>
+ * [int magic][byte format][short length][node id][long sequence][int count]
+ * ([byte type][short length][id][long version])...[int crc32]
+ * </pre>
+ * Strings are UTF-8. The CRC covers everything before it.
+ */
+public final class InvalidationCodec {
+
+    private static final int MAGIC = 0x43494E56;
+    private static final int FORMAT = 1;
+    private static final int MAX_STRING_BYTES = 0xFFFF;
+
+    private InvalidationCodec() {
+    }
+
+    /**
+     * Encoded size of a batch from {@code nodeId} without any invalidations.
+     */
+    public static int headerSize(String nodeId) {
+        return Integer.BYTES + 1 + Short.BYTES + utf8(nodeId).length + Long.BYTES + Integer.BYTES + Integer.BYTES;
+    }
+
+    /**
+     * Bytes one invalidation adds to a batch.
+     */
+    public static int entrySize(CacheInvalidation invalidation) {
+        return 1 + Short.BYTES + utf8(invalidation.id()).length + Long.BYTES;
+    }
+
+    public static byte[] encode(InvalidationBatch batch) {
+        int size = headerSize(batch.nodeId());
+        for (CacheInvalidation invalidation : batch.invalidations()) {
+            size += entrySize(invalidation);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC);
+        buffer.put((byte) FORMAT);
+        putString(buffer, batch.nodeId());
+        buffer.putLong(batch.sequence());
+        buffer.putInt(batch.invalidations().size());
+        for (CacheInvalidation invalidation : batch.invalidations()) {
+            buffer.put((byte) invalidation.type().getCode());
+            putString(buffer, invalidation.id());
+            buffer.putLong(invalidation.version());
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        return buffer.array();
+    }
+
+    /**
+     * Decodes a payload, throwing {@link IllegalArgumentException} if it is damaged or not a batch.
+     */
+    public static InvalidationBatch decode(byte[] payload) {
+        if (payload.length < Integer.BYTES * 2) {
+            throw new IllegalArgumentException("Invalidation payload too short");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length - Integer.BYTES);
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        if ((int) crc.getValue() != buffer.getInt(payload.length - Integer.BYTES)) {
+            throw new IllegalArgumentException("Invalidation payload checksum mismatch");
+        }
+        buffer.limit(payload.length - Integer.BYTES);
+        try {
+            if (buffer.getInt() != MAGIC || buffer.get() != FORMAT) {
+                throw new IllegalArgumentException("Not an invalidation payload");
+            }
+            String nodeId = getString(buffer);
+            long sequence = buffer.getLong();
+            int count = buffer.getInt();
+            if (count < 0 || count > buffer.remaining()) {
+                throw new IllegalArgumentException("Invalid invalidation count: " + count);
+            }
+            List<CacheInvalidation> invalidations = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                CacheEntityType type = CacheEntityType.fromCode(buffer.get() & 0xFF);
+                String id = getString(buffer);
+                invalidations.add(new CacheInvalidation(type, id, buffer.getLong()));
+            }
+            if (buffer.hasRemaining()) {
+                throw new IllegalArgumentException("Trailing bytes in invalidation payload");
+            }
+            return new InvalidationBatch(nodeId, sequence, invalidations);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated invalidation payload", e);
+        }
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        byte[] bytes = utf8(value);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] utf8(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING_BYTES) {
+            throw new IllegalArgumentException("Value too long for an invalidation payload: " + value.length() + " characters");
+        }
+        return bytes;
+    }
+}
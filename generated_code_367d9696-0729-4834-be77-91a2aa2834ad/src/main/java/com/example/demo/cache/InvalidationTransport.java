@@ -0,0 +1,30 @@
+package com.example.demo.cache;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Carries encoded invalidation batches between nodes. Delivery is best effort: a payload may be
+ * lost, duplicated or reordered, and the bus detects that from the batch sequence numbers.
+ */
+public interface InvalidationTransport extends AutoCloseable {
+
+    /**
+     * Starts receiving; payloads from other nodes (and possibly this one) are passed to
+     * {@code receiver}, which may be called from several threads.
+     */
+    void start(Consumer<byte[]> receiver) throws IOException;
+
+    /**
+     * Sends a payload to every peer. Throws if it could not be handed to at least one of them.
+     */
+    void send(byte[] payload) throws IOException;
+
+    /**
+     * Largest payload {@link #send} accepts.
+     */
+    int maxPayloadBytes();
+
+    @Override
+    void close();
+}
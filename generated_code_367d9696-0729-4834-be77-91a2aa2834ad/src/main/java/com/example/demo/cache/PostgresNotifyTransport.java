@@ -0,0 +1,128 @@
+package com.example.demo.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Base64;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Uses PostgreSQL {@code NOTIFY}/{@code LISTEN} on one channel, so no peer list is needed: every
+ * node connected to the database receives every batch. Payloads are Base64 text, which must stay
+ * under the server's 8000 byte notification limit.
+ * <p>
+ * Listening holds one connection from the pool for the life of the node. The PostgreSQL driver is a
+ * runtime dependency, so its notification API is called reflectively. Notifications sent while the
+ * listening connection is being re-established are lost and show up as a sequence gap.
+ */
+@Slf4j
+public class PostgresNotifyTransport implements InvalidationTransport {
+
+    private static final Pattern CHANNEL = Pattern.compile("^[a-z_][a-z0-9_]*$");
+    private static final int MAX_PAYLOAD_BYTES = 7999 / 4 * 3;
+    private static final int POLL_TIMEOUT_MS = 500;
+    private static final long RECONNECT_DELAY_MS = 1000;
+
+    private final DataSource dataSource;
+    private final String channel;
+    private volatile boolean running;
+    private Thread listener;
+
+    public PostgresNotifyTransport(DataSource dataSource, String channel) {
+        if (!CHANNEL.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid notification channel: " + channel);
+        }
+        this.dataSource = dataSource;
+        this.channel = channel;
+    }
+
+    @Override
+    public void start(Consumer<byte[]> receiver) {
+        running = true;
+        listener = new Thread(() -> listenLoop(receiver), "cache-invalidation-listen");
+        listener.setDaemon(true);
+        listener.start();
+        log.info("Cache invalidation transport listening on PostgreSQL channel {}", channel);
+    }
+
+    @Override
+    public void send(byte[] payload) throws IOException {
+        if (payload.length > MAX_PAYLOAD_BYTES) {
+            throw new IllegalArgumentException("Payload of " + payload.length + " bytes exceeds " + MAX_PAYLOAD_BYTES);
+        }
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            statement.setString(1, channel);
+            statement.setString(2, Base64.getEncoder().encodeToString(payload));
+            statement.execute();
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+        } catch (SQLException e) {
+            throw new IOException("NOTIFY on " + channel + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int maxPayloadBytes() {
+        return MAX_PAYLOAD_BYTES;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    private void listenLoop(Consumer<byte[]> receiver) {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                Class<?> pgConnectionType = Class.forName("org.postgresql.PGConnection");
+                Object pgConnection = connection.unwrap(pgConnectionType);
+                Method getNotifications = pgConnectionType.getMethod("getNotifications", int.class);
+                Method getParameter = Class.forName("org.postgresql.PGNotification").getMethod("getParameter");
+                while (running) {
+                    Object[] notifications = (Object[]) getNotifications.invoke(pgConnection, POLL_TIMEOUT_MS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (Object notification : notifications) {
+                        try {
+                            receiver.accept(Base64.getDecoder().decode((String) getParameter.invoke(notification)));
+                        } catch (RuntimeException e) {
+                            log.warn("Handling notification on {} failed: {}", channel, e.getMessage());
+                        }
+                    }
+                }
+            } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException e) {
+                log.error("The PostgreSQL driver is required for the cache invalidation transport", e);
+                return;
+            } catch (SQLException | InvocationTargetException e) {
+                if (!running) {
+                    return;
+                }
+                Throwable cause = e instanceof InvocationTargetException ? e.getCause() : e;
+                log.warn("Listening on {} failed, reconnecting: {}", channel, cause.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.demo.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Keeps one outgoing connection per configured peer and accepts connections on a local port.
+ * Payloads are framed as {@code [int length][payload]}. A peer whose connection fails misses the
+ * payload and is reconnected on the next send; the gap shows up in the batch sequence.
+ */
+@Slf4j
+public class TcpInvalidationTransport implements InvalidationTransport {
+
+    private static final int MAX_PAYLOAD_BYTES = 64 * 1024;
+    private static final int CONNECT_TIMEOUT_MS = 1000;
+
+    private final int port;
+    private final List<Peer> peers = new ArrayList<>();
+    private ServerSocket serverSocket;
+    private volatile boolean running;
+
+    public TcpInvalidationTransport(int port, List<InetSocketAddress> peers) {
+        this.port = port;
+        for (InetSocketAddress address : peers) {
+            this.peers.add(new Peer(address));
+        }
+    }
+
+    @Override
+    public void start(Consumer<byte[]> receiver) throws IOException {
+        serverSocket = new ServerSocket(port);
+        running = true;
+        Thread acceptor = new Thread(() -> acceptLoop(receiver), "cache-invalidation-tcp-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        log.info("Cache invalidation TCP transport listening on port {} with {} peers", port, peers.size());
+    }
+
+    /**
+     * Only called from the bus publisher thread, so peer connections need no locking.
+     */
+    @Override
+    public void send(byte[] payload) throws IOException {
+        if (payload.length > MAX_PAYLOAD_BYTES) {
+            throw new IllegalArgumentException("Payload of " + payload.length + " bytes exceeds " + MAX_PAYLOAD_BYTES);
+        }
+        IOException failure = null;
+        int sent = 0;
+        for (Peer peer : peers) {
+            try {
+                peer.send(payload);
+                sent++;
+            } catch (IOException e) {
+                peer.disconnect();
+                failure = failure == null ? e : failure;
+                log.debug("Sending invalidations to {} failed: {}", peer.address, e.getMessage());
+            }
+        }
+        if (sent == 0 && failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public int maxPayloadBytes() {
+        return MAX_PAYLOAD_BYTES;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        for (Peer peer : peers) {
+            peer.disconnect();
+        }
+        if (serverSocket != null) {
+            try {
+                serverSocket.close();
+            } catch (IOException e) {
+                log.debug("Closing cache invalidation server socket failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void acceptLoop(Consumer<byte[]> receiver) {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                Thread reader = new Thread(() -> readLoop(socket, receiver),
+                        "cache-invalidation-tcp-" + socket.getRemoteSocketAddress());
+                reader.setDaemon(true);
+                reader.start();
+            } catch (IOException e) {
+                if (running) {
+                    log.warn("Accepting cache invalidation connection failed: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void readLoop(Socket socket, Consumer<byte[]> receiver) {
+        try (socket; DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+            while (running) {
+                int length = in.readInt();
+                if (length <= 0 || length > MAX_PAYLOAD_BYTES) {
+                    throw new IOException("Invalid frame length " + length);
+                }
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                try {
+                    receiver.accept(payload);
+                } catch (RuntimeException e) {
+                    log.warn("Handling invalidations from {} failed: {}", socket.getRemoteSocketAddress(), e.getMessage());
+                }
+            }
+        } catch (EOFException e) {
+            log.debug("Cache invalidation peer {} disconnected", socket.getRemoteSocketAddress());
+        } catch (IOException e) {
+            if (running) {
+                log.warn("Reading invalidations from {} failed: {}", socket.getRemoteSocketAddress(), e.getMessage());
+            }
+        }
+    }
+
+    private static final class Peer {
+
+        private final InetSocketAddress address;
+        private Socket socket;
+        private DataOutputStream out;
+
+        Peer(InetSocketAddress address) {
+            this.address = address;
+        }
+
+        void send(byte[] payload) throws IOException {
+            if (socket == null) {
+                Socket connected = new Socket();
+                connected.setTcpNoDelay(true);
+                connected.connect(address, CONNECT_TIMEOUT_MS);
+                socket = connected;
+                out = new DataOutputStream(new BufferedOutputStream(connected.getOutputStream()));
+            }
+            out.writeInt(payload.length);
+            out.write(payload);
+            out.flush();
+        }
+
+        void disconnect() {
+            if (socket != null) {
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    // Already broken
+                }
+                socket = null;
+                out = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.demo.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Sends each payload as one datagram to every configured peer and receives on a local port. Payloads
+ * are kept under a typical Ethernet MTU so a datagram is never fragmented.
+ */
+@Slf4j
+public class UdpInvalidationTransport implements InvalidationTransport {
+
+    private static final int MAX_PAYLOAD_BYTES = 1400;
+
+    private final int port;
+    private final List<InetSocketAddress> peers;
+    private DatagramSocket socket;
+    private Thread receiverThread;
+
+    public UdpInvalidationTransport(int port, List<InetSocketAddress> peers) {
+        this.port = port;
+        this.peers = List.copyOf(peers);
+    }
+
+    @Override
+    public void start(Consumer<byte[]> receiver) throws IOException {
+        socket = new DatagramSocket(port);
+        receiverThread = new Thread(() -> receiveLoop(receiver), "cache-invalidation-udp");
+        receiverThread.setDaemon(true);
+        receiverThread.start();
+        log.info("Cache invalidation UDP transport listening on port {} with {} peers", port, peers.size());
+    }
+
+    @Override
+    public void send(byte[] payload) throws IOException {
+        if (payload.length > MAX_PAYLOAD_BYTES) {
+            throw new IllegalArgumentException("Payload of " + payload.length + " bytes exceeds " + MAX_PAYLOAD_BYTES);
+        }
+        IOException failure = null;
+        int sent = 0;
+        for (InetSocketAddress peer : peers) {
+            try {
+                socket.send(new DatagramPacket(payload, payload.length, peer));
+                sent++;
+            } catch (IOException e) {
+                failure = failure == null ? e : failure;
+            }
+        }
+        if (sent == 0 && failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public int maxPayloadBytes() {
+        return MAX_PAYLOAD_BYTES;
+    }
+
+    @Override
+    public void close() {
+        if (socket != null) {
+            socket.close();
+        }
+    }
+
+    private void receiveLoop(Consumer<byte[]> receiver) {
+        byte[] buffer = new byte[64 * 1024];
+        while (!socket.isClosed()) {
+            DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+            try {
+                socket.receive(packet);
+                receiver.accept(Arrays.copyOf(packet.getData(), packet.getLength()));
+            } catch (SocketException e) {
+                if (!socket.isClosed()) {
+                    log.warn("Cache invalidation UDP receive failed: {}", e.getMessage());
+                }
+            } catch (IOException | RuntimeException e) {
+                log.warn("Cache invalidation UDP receive failed: {}", e.getMessage());
+            }
+        }
+    }
+}
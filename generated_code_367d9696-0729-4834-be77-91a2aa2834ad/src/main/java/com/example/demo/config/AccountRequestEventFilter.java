@@ -0,0 +1,52 @@
+package com.example.demo.config;
+
+import com.example.demo.jfr.AccountPhaseEvent;
+import com.example.demo.jfr.AccountRequestEvent;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Records an {@link AccountRequestEvent} around single-account view and update requests while a
+ * Flight Recorder recording has it enabled. Other requests, and all requests outside a recording,
+ * pass straight through.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 200)
+public class AccountRequestEventFilter extends OncePerRequestFilter {
+
+    private static final Pattern ACCOUNT_PATH = Pattern.compile("^/api/accounts/(\\d{1,18})/(view|update)$");
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !AccountRequestEvent.isRecorded() || !request.getRequestURI().startsWith("/api/accounts/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Matcher matcher = ACCOUNT_PATH.matcher(request.getRequestURI());
+        if (!matcher.matches()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String operation = "view".equals(matcher.group(2)) ? AccountPhaseEvent.VIEW : AccountPhaseEvent.UPDATE;
+        AccountRequestEvent event = AccountRequestEvent.begin(operation, Long.parseLong(matcher.group(1)));
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            event.finish(response.getStatus(), failed);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.demo.config;
+
+import com.example.demo.dto.AccountViewResponseDto;
+import com.example.demo.enums.AccountViewField;
+import com.example.demo.jfr.AccountPhase;
+import com.example.demo.jfr.AccountPhaseEvent;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Hand-written serializer for the account view, the hottest response in the API.
+ * <p>
+ * Writes fields in declaration order with pre-encoded names instead of going through
+ * reflective bean introspection. The output is identical to the default JSON mapping, and
+ * because it only talks to {@link JsonGenerator} it is reused unchanged for CBOR.
+ * When {@link AccountViewResponseDto#getIncludedFields()} is set only those fields are written.
+ */
+@JsonComponent
+public class AccountViewResponseSerializer extends StdSerializer<AccountViewResponseDto> {
+
+    private static final SerializableString[] NAMES = new SerializableString[AccountViewField.values().length];
+
+    static {
+        for (AccountViewField field : AccountViewField.values()) {
+            NAMES[field.ordinal()] = new SerializedString(field.getFieldName());
+        }
+    }
+
+    public AccountViewResponseSerializer() {
+        super(AccountViewResponseDto.class);
+    }
+
+    @Override
+    public void serialize(AccountViewResponseDto dto, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        AccountPhaseEvent phase = AccountPhaseEvent.begin(AccountPhaseEvent.VIEW, AccountPhase.SERIALIZE, dto.getAccountId());
+        Set<AccountViewField> fields = dto.getIncludedFields();
+        gen.writeStartObject(dto);
+        writeNumber(gen, fields, AccountViewField.ACCOUNT_ID, dto.getAccountId());
+        writeString(gen, fields, AccountViewField.ACTIVE_STATUS, dto.getActiveStatus());
+        writeNumber(gen, fields, AccountViewField.CURRENT_BALANCE, dto.getCurrentBalance());
+        writeNumber(gen, fields, AccountViewField.CREDIT_LIMIT, dto.getCreditLimit());
+        writeNumber(gen, fields, AccountViewField.CASH_CREDIT_LIMIT, dto.getCashCreditLimit());
+        writeDate(gen, fields, AccountViewField.OPEN_DATE, dto.getOpenDate());
+        writeDate(gen, fields, AccountViewField.EXPIRATION_DATE, dto.getExpirationDate());
+        writeDate(gen, fields, AccountViewField.REISSUE_DATE, dto.getReissueDate());
+        writeNumber(gen, fields, AccountViewField.CURRENT_CYCLE_CREDIT, dto.getCurrentCycleCredit());
+        writeNumber(gen, fields, AccountViewField.CURRENT_CYCLE_DEBIT, dto.getCurrentCycleDebit());
+        writeString(gen, fields, AccountViewField.GROUP_ID, dto.getGroupId());
+        writeNumber(gen, fields, AccountViewField.CUSTOMER_ID, dto.getCustomerId());
+        writeString(gen, fields, AccountViewField.FIRST_NAME, dto.getFirstName());
+        writeString(gen, fields, AccountViewField.MIDDLE_NAME, dto.getMiddleName());
+        writeString(gen, fields, AccountViewField.LAST_NAME, dto.getLastName());
+        writeString(gen, fields, AccountViewField.SSN, dto.getSsn());
+        writeNumber(gen, fields, AccountViewField.FICO_SCORE, dto.getFicoScore());
+        writeDate(gen, fields, AccountViewField.DATE_OF_BIRTH, dto.getDateOfBirth());
+        writeString(gen, fields, AccountViewField.ADDRESS_LINE1, dto.getAddressLine1());
+        writeString(gen, fields, AccountViewField.ADDRESS_LINE2, dto.getAddressLine2());
+        writeString(gen, fields, AccountViewField.CITY, dto.getCity());
+        writeString(gen, fields, AccountViewField.STATE_CODE, dto.getStateCode());
+        writeString(gen, fields, AccountViewField.ZIP_CODE, dto.getZipCode());
+        writeString(gen, fields, AccountViewField.COUNTRY_CODE, dto.getCountryCode());
+        writeString(gen, fields, AccountViewField.PHONE_NUMBER1, dto.getPhoneNumber1());
+        writeString(gen, fields, AccountViewField.PHONE_NUMBER2, dto.getPhoneNumber2());
+        writeString(gen, fields, AccountViewField.GOVERNMENT_ISSUED_ID, dto.getGovernmentIssuedId());
+        writeString(gen, fields, AccountViewField.EFT_ACCOUNT_ID, dto.getEftAccountId());
+        writeString(gen, fields, AccountViewField.PRIMARY_CARD_HOLDER_INDICATOR, dto.getPrimaryCardHolderIndicator());
+        gen.writeEndObject();
+        phase.finish(1);
+    }
+
+    private static boolean writeName(JsonGenerator gen, Set<AccountViewField> fields, AccountViewField field) throws IOException {
+        if (fields != null && !fields.contains(field)) {
+            return false;
+        }
+        gen.writeFieldName(NAMES[field.ordinal()]);
+        return true;
+    }
+
+    private static void writeString(JsonGenerator gen, Set<AccountViewField> fields, AccountViewField field, String value) throws IOException {
+        if (!writeName(gen, fields, field)) {
+            return;
+        }
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(value);
+        }
+    }
+
+    private static void writeNumber(JsonGenerator gen, Set<AccountViewField> fields, AccountViewField field, Long value) throws IOException {
+        if (!writeName(gen, fields, field)) {
+            return;
+        }
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+
+    private static void writeNumber(JsonGenerator gen, Set<AccountViewField> fields, AccountViewField field, Integer value) throws IOException {
+        if (!writeName(gen, fields, field)) {
+            return;
+        }
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+
+    private static void writeNumber(JsonGenerator gen, Set<AccountViewField> fields, AccountViewField field, BigDecimal value) throws IOException {
+        if (!writeName(gen, fields, field)) {
+            return;
+        }
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+
+    private static void writeDate(JsonGenerator gen, Set<AccountViewField> fields, AccountViewField field, LocalDate value) throws IOException {
+        if (!writeName(gen, fields, field)) {
+            return;
+        }
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(value.toString());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.demo.config;
+
+import com.example.demo.enums.RequestPriority;
+import com.example.demo.service.AdmissionControlService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Sheds excess API traffic before it reaches controllers or the connection pool. Rejected requests
+ * get an immediate 429 or 503 with {@code Retry-After}; admitted requests report their latency back
+ * to the adaptive limiter.
+ * <p>
+ * Runs right after the Spring Security filter chain, so clients are identified by the authenticated
+ * user when there is one and by the remote address otherwise. Request headers are not trusted for
+ * this, since any caller could rotate them to get a fresh bucket; behind a proxy, configure
+ * {@code server.forward-headers-strategy} so the remote address is the client's.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 1)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final AdmissionControlService admissionControlService;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !admissionControlService.isEnabled() || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestPriority priority = priorityOf(request);
+        AdmissionControlService.Decision decision = admissionControlService.tryAdmit(clientIdOf(request), priority);
+        if (!decision.isAdmitted()) {
+            log.debug("Rejected {} {} with {}", request.getMethod(), request.getRequestURI(), decision.getStatus());
+            response.setStatus(decision.getStatus().value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(decision.getRetryAfterSeconds()));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"status\":" + decision.getStatus().value()
+                    + ",\"error\":\"" + decision.getStatus().getReasonPhrase()
+                    + "\",\"message\":\"Request rejected by admission control, retry later\"}");
+            return;
+        }
+
+        long started = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            admissionControlService.release(System.nanoTime() - started);
+        }
+    }
+
+    private static RequestPriority priorityOf(HttpServletRequest request) {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            return RequestPriority.WRITE;
+        }
+        String uri = request.getRequestURI();
+        if (uri.equals("/api/accounts/view") || uri.startsWith("/api/reports/")) {
+            return RequestPriority.BULK_READ;
+        }
+        return RequestPriority.READ;
+    }
+
+    private static String clientIdOf(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "addr:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.demo.config;
+
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Serves {@code application/cbor} to clients that ask for it. The mapper is configured from
+     * the same builder as the JSON mapper so modules, date handling and {@code @JsonComponent}
+     * serializers behave identically in both representations.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        CBORMapper cborMapper = new CBORMapper();
+        builder.configure(cborMapper);
+        return new MappingJackson2CborHttpMessageConverter(cborMapper);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.AccountGroupSummaryRebuildResponseDto;
+import com.example.demo.dto.AccountGroupSummaryResponseDto;
+import com.example.demo.service.AccountGroupSummaryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Portfolio Reporting", description = "APIs for account totals by group and status")
+@RequestMapping("/api/reports/account-group-summaries")
+public class AccountGroupSummaryController {
+
+    private final AccountGroupSummaryService accountGroupSummaryService;
+
+    @Operation(summary = "Get account group summaries", description = "Retrieve account count, balance, credit limit and cycle totals per group and active status")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successful retrieval of summaries"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping
+    public ResponseEntity<List<AccountGroupSummaryResponseDto>> getSummaries() {
+        return ResponseEntity.ok(accountGroupSummaryService.getSummaries());
+    }
+
+    @Operation(summary = "Rebuild account group summaries", description = "Recompute all summaries from the accounts table in parallel and correct any drift")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Rebuild completed"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @PostMapping("/rebuild")
+    public ResponseEntity<AccountGroupSummaryRebuildResponseDto> rebuild() {
+        log.info("Rebuilding account group summaries");
+        return ResponseEntity.ok(accountGroupSummaryService.rebuild());
+    }
+}
@@ -1,8 +1,9 @@
 package com.example.demo.controller;
 
 import com.example.demo.dto.UpdateAccountUpdateRequestDto;
-import com.example.demo.service.AccountUpdateService;
+import com.example.demo.service.IdempotentUpdateService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -13,6 +14,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -23,21 +25,27 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api/accounts")
 public class AccountUpdateController {
 
-    private final AccountUpdateService accountUpdateService;
+    private final IdempotentUpdateService idempotentUpdateService;
 
     @Operation(summary = "Update account and customer data", description = "Update account and customer information by account ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Account and customer updated successfully"),
-        @ApiResponse(responseCode = "400", description = "Invalid request data"),
+        @ApiResponse(responseCode = "400", description = "Invalid request data or Idempotency-Key"),
         @ApiResponse(responseCode = "404", description = "Account not found"),
+        @ApiResponse(responseCode = "422", description = "Idempotency-Key already used for a different request"),
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @PutMapping("/{accountId}/update")
     public ResponseEntity<String> updateAccountAndCustomer(
             @PathVariable Long accountId,
+            @Parameter(description = "Client-chosen key; retries with the same key and body get the first outcome without updating again", example = "3f1c2a9e-7d4b-4e61-9a0f-5b8c6d2e1f47")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody UpdateAccountUpdateRequestDto request) {
         log.info("Updating account and customer data for account ID: {}", accountId);
-        String response = accountUpdateService.updateAccount(accountId, request);
-        return ResponseEntity.ok(response);
+        IdempotentUpdateService.Result result = idempotentUpdateService.updateAccount(idempotencyKey, accountId, request);
+        if (result.replayed()) {
+            return ResponseEntity.ok().header("Idempotent-Replayed", "true").body(result.response());
+        }
+        return ResponseEntity.ok(result.response());
     }
 }
@@ -1,6 +1,8 @@
 package com.example.demo.controller;
 
 import com.example.demo.dto.AccountViewResponseDto;
+import com.example.demo.enums.AccountViewField;
+import com.example.demo.service.AccountViewCoalescer;
 import com.example.demo.service.AccountViewService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -8,12 +10,16 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @Slf4j
 @RestController
 @RequiredArgsConstructor
@@ -22,16 +28,20 @@ import org.springframework.web.bind.annotation.RestController;
 public class AccountViewController {
 
     private final AccountViewService accountViewService;
+    private final AccountViewCoalescer accountViewCoalescer;
 
-    @Operation(summary = "Get account view by ID", description = "Retrieve account view with customer details by account ID")
+    @Operation(summary = "Get account view by ID", description = "Retrieve account view with customer details by account ID; "
+            + "pass a comma-separated fields parameter to load and return only those fields")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successful retrieval of account view"),
         @ApiResponse(responseCode = "400", description = "Invalid account ID"),
         @ApiResponse(responseCode = "404", description = "Account not found"),
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    @GetMapping("/{accountId}/view")
-    public ResponseEntity<AccountViewResponseDto> getAccountView(@PathVariable Long accountId) {
+    @GetMapping(value = "/{accountId}/view", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE })
+    public ResponseEntity<AccountViewResponseDto> getAccountView(
+            @PathVariable Long accountId,
+            @RequestParam(required = false) String fields) {
         log.info("Fetching account view for account ID: {}", accountId);
         
         if (accountId == null || accountId <= 0) {
@@ -39,7 +49,19 @@ public class AccountViewController {
             throw new IllegalArgumentException("Invalid account ID");
         }
         
-        AccountViewResponseDto response = accountViewService.getAccountView(accountId);
+        AccountViewResponseDto response = accountViewCoalescer.getAccountView(accountId, AccountViewField.parse(fields));
         return ResponseEntity.ok(response);
     }
+
+    @Operation(summary = "Get account views in batch", description = "Retrieve account views with customer details for several account IDs; unknown accounts are omitted")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successful retrieval of account views"),
+        @ApiResponse(responseCode = "400", description = "Missing, invalid or too many account IDs"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping(value = "/view", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE })
+    public ResponseEntity<List<AccountViewResponseDto>> getAccountViews(@RequestParam List<Long> accountIds) {
+        log.info("Fetching account views for {} account IDs", accountIds.size());
+        return ResponseEntity.ok(accountViewService.getAccountViews(accountIds));
+    }
 }
@@ -0,0 +1,97 @@
+package com.example.demo.controller;
+
+import com.example.demo.audit.AuditEntityType;
+import com.example.demo.dto.AuditChangeDto;
+import com.example.demo.dto.AuditStateDto;
+import com.example.demo.service.AuditService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Audit", description = "APIs for account and customer change history")
+@RequestMapping("/api/audit")
+public class AuditController {
+
+    private final AuditService auditService;
+
+    @Operation(summary = "Get account as of a time", description = "Account fields as they were at the given time, rebuilt from the audit log")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "State returned"),
+        @ApiResponse(responseCode = "400", description = "Account not found"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping("/accounts/{accountId}")
+    public ResponseEntity<AuditStateDto> getAccountAsOf(
+            @Parameter(description = "Account ID", required = true, example = "10000000001")
+            @PathVariable Long accountId,
+            @Parameter(description = "Point in time; defaults to now", example = "2024-01-15T10:30:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+        return ResponseEntity.ok(auditService.getAccountAsOf(accountId, asOf));
+    }
+
+    @Operation(summary = "Get account change history", description = "Changed account fields with before and after values, oldest first")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "History returned; empty when nothing was changed"),
+        @ApiResponse(responseCode = "400", description = "Invalid time range"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping("/accounts/{accountId}/history")
+    public ResponseEntity<List<AuditChangeDto>> getAccountHistory(
+            @Parameter(description = "Account ID", required = true, example = "10000000001")
+            @PathVariable Long accountId,
+            @Parameter(description = "Earliest change time, inclusive", example = "2024-01-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Latest change time, inclusive", example = "2024-01-31T23:59:59")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(auditService.getHistory(AuditEntityType.ACCOUNT, accountId, from, to));
+    }
+
+    @Operation(summary = "Get customer as of a time", description = "Customer fields as they were at the given time, rebuilt from the audit log")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "State returned"),
+        @ApiResponse(responseCode = "400", description = "Customer not found"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping("/customers/{customerId}")
+    public ResponseEntity<AuditStateDto> getCustomerAsOf(
+            @Parameter(description = "Customer ID", required = true, example = "1000000001")
+            @PathVariable Long customerId,
+            @Parameter(description = "Point in time; defaults to now", example = "2024-01-15T10:30:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+        return ResponseEntity.ok(auditService.getCustomerAsOf(customerId, asOf));
+    }
+
+    @Operation(summary = "Get customer change history", description = "Changed customer fields with before and after values, oldest first")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "History returned; empty when nothing was changed"),
+        @ApiResponse(responseCode = "400", description = "Invalid time range"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping("/customers/{customerId}/history")
+    public ResponseEntity<List<AuditChangeDto>> getCustomerHistory(
+            @Parameter(description = "Customer ID", required = true, example = "1000000001")
+            @PathVariable Long customerId,
+            @Parameter(description = "Earliest change time, inclusive", example = "2024-01-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Latest change time, inclusive", example = "2024-01-31T23:59:59")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(auditService.getHistory(AuditEntityType.CUSTOMER, customerId, from, to));
+    }
+}
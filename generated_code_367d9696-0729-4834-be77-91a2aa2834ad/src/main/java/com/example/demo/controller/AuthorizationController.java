@@ -0,0 +1,38 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.AuthorizationRequestDto;
+import com.example.demo.dto.AuthorizationResponseDto;
+import com.example.demo.service.AuthorizationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Authorization", description = "APIs for real-time purchase authorization")
+@RequestMapping("/api/authorizations")
+public class AuthorizationController {
+
+    private final AuthorizationService authorizationService;
+
+    @Operation(summary = "Authorize a purchase", description = "Approve or decline a purchase or cash advance against the card's status and expiry and the account's available credit; approvals place a hold")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Decision made; see approved and declineReason"),
+        @ApiResponse(responseCode = "400", description = "Invalid request data"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @PostMapping
+    public ResponseEntity<AuthorizationResponseDto> authorize(@Valid @RequestBody AuthorizationRequestDto request) {
+        return ResponseEntity.ok(authorizationService.authorize(request));
+    }
+}
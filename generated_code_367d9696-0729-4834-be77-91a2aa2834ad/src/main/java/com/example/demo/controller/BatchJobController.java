@@ -0,0 +1,99 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.BatchJobDto;
+import com.example.demo.dto.BatchJobExecutionDto;
+import com.example.demo.service.BatchJobLauncher;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Batch Jobs", description = "APIs for running batch jobs on demand")
+@RequestMapping("/api/batch/jobs")
+public class BatchJobController {
+
+    private final BatchJobLauncher batchJobLauncher;
+
+    @Operation(summary = "List batch jobs", description = "Retrieve the jobs that can be launched")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successful retrieval of jobs"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping
+    public ResponseEntity<List<BatchJobDto>> getJobs() {
+        return ResponseEntity.ok(batchJobLauncher.getJobs());
+    }
+
+    @Operation(summary = "Launch a batch job", description = "Start the job for a run date in the background, or resume that date's failed or stopped run from its last checkpoints")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Job launched"),
+        @ApiResponse(responseCode = "400", description = "Unknown job"),
+        @ApiResponse(responseCode = "500", description = "Job already completed or running for the run date")
+    })
+    @PostMapping("/{jobName}")
+    public ResponseEntity<BatchJobExecutionDto> launch(
+            @Parameter(description = "Job to launch", required = true, example = "interest-calculation")
+            @PathVariable String jobName,
+            @Parameter(description = "Run date; defaults to today", example = "2024-01-31")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate runDate) {
+        log.info("Launching batch job: {}, run date: {}", jobName, runDate);
+        return ResponseEntity.ok(batchJobLauncher.launch(jobName, runDate));
+    }
+
+    @Operation(summary = "List job executions", description = "Retrieve the most recent executions with per-step and per-partition progress")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successful retrieval of executions"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping("/executions")
+    public ResponseEntity<List<BatchJobExecutionDto>> getExecutions(
+            @Parameter(description = "Only executions of this job", example = "interest-calculation")
+            @RequestParam(required = false) String jobName,
+            @Parameter(description = "Maximum number of executions (1-100)", example = "20")
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(batchJobLauncher.getExecutions(jobName, limit));
+    }
+
+    @Operation(summary = "Get a job execution", description = "Retrieve the status, checkpoints and throughput of one execution")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successful retrieval of the execution"),
+        @ApiResponse(responseCode = "400", description = "Execution not found"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping("/executions/{executionId}")
+    public ResponseEntity<BatchJobExecutionDto> getExecution(
+            @Parameter(description = "Execution identifier", required = true, example = "1")
+            @PathVariable Long executionId) {
+        return ResponseEntity.ok(batchJobLauncher.getExecution(executionId));
+    }
+
+    @Operation(summary = "Stop a job execution", description = "Stop a running execution after its current chunks; launching the job again for the same date resumes it")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stop requested"),
+        @ApiResponse(responseCode = "500", description = "Execution is not running on this instance")
+    })
+    @PostMapping("/executions/{executionId}/stop")
+    public ResponseEntity<BatchJobExecutionDto> stop(
+            @Parameter(description = "Execution identifier", required = true, example = "1")
+            @PathVariable Long executionId) {
+        log.info("Stopping batch job execution: {}", executionId);
+        return ResponseEntity.ok(batchJobLauncher.stop(executionId));
+    }
+}
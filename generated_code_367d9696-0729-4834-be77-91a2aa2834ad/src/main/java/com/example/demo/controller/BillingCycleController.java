@@ -0,0 +1,76 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.BillingCycleCloseResponseDto;
+import com.example.demo.dto.BillingCycleScheduleDto;
+import com.example.demo.service.BillingCycleCloseService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Batch Jobs", description = "APIs for running batch jobs on demand")
+@RequestMapping("/api/batch/cycle-close")
+public class BillingCycleController {
+
+    private final BillingCycleCloseService billingCycleCloseService;
+
+    @Operation(summary = "Close a billing cycle", description = "Roll current cycle credit and debit of every account in the group into cycle history and reset them")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Cycle closed"),
+        @ApiResponse(responseCode = "400", description = "Invalid group ID"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @PostMapping("/{groupId}")
+    public ResponseEntity<BillingCycleCloseResponseDto> closeCycle(
+            @Parameter(description = "Billing group to close", required = true, example = "PREMIUM")
+            @PathVariable String groupId,
+            @Parameter(description = "Cycle end date; defaults to today", example = "2024-01-31")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate cycleEndDate) {
+        log.info("Closing billing cycle for group: {}, cycle end date: {}", groupId, cycleEndDate);
+        return ResponseEntity.ok(billingCycleCloseService.closeCycle(groupId, cycleEndDate));
+    }
+
+    @Operation(summary = "Get billing cycle schedules", description = "Retrieve the close day of month and last close of every billing group")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successful retrieval of schedules"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping("/schedules")
+    public ResponseEntity<List<BillingCycleScheduleDto>> getSchedules() {
+        return ResponseEntity.ok(billingCycleCloseService.getSchedules());
+    }
+
+    @Operation(summary = "Set a billing cycle schedule", description = "Create or change the day of month on which a group's cycle closes")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Schedule saved"),
+        @ApiResponse(responseCode = "400", description = "Invalid group ID or close day"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @PutMapping("/schedules/{groupId}")
+    public ResponseEntity<BillingCycleScheduleDto> saveSchedule(
+            @Parameter(description = "Billing group", required = true, example = "PREMIUM")
+            @PathVariable String groupId,
+            @Parameter(description = "Day of month the cycle closes (1-31)", required = true, example = "31")
+            @RequestParam Integer closeDayOfMonth) {
+        log.info("Setting billing cycle schedule for group: {} to day {}", groupId, closeDayOfMonth);
+        return ResponseEntity.ok(billingCycleCloseService.saveSchedule(groupId, closeDayOfMonth));
+    }
+}
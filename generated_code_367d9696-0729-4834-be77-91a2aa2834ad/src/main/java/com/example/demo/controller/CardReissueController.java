@@ -0,0 +1,42 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.CardReissueResponseDto;
+import com.example.demo.service.CardReissueService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Batch Jobs", description = "APIs for running batch jobs on demand")
+@RequestMapping("/api/batch")
+public class CardReissueController {
+
+    private final CardReissueService cardReissueService;
+
+    @Operation(summary = "Reissue expiring cards", description = "Give active cards expiring within the window a new expiration date and set the account reissue date; cards of inactive accounts are closed")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Run completed"),
+        @ApiResponse(responseCode = "400", description = "Invalid window"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @PostMapping("/card-reissue")
+    public ResponseEntity<CardReissueResponseDto> reissue(
+            @Parameter(description = "Days ahead of today to include; defaults to card.reissue.window-days", example = "30")
+            @RequestParam(required = false) Integer windowDays,
+            @Parameter(description = "Report what would change without writing", example = "true")
+            @RequestParam(defaultValue = "false") boolean dryRun) {
+        log.info("Running card reissue, window days: {}, dry run: {}", windowDays, dryRun);
+        return ResponseEntity.ok(cardReissueService.reissue(windowDays, dryRun));
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.CustomerDuplicateDetectionResponseDto;
+import com.example.demo.service.CustomerDuplicateDetectionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Batch Jobs", description = "APIs for running batch jobs on demand")
+@RequestMapping("/api/batch/customer-duplicates")
+public class CustomerDuplicateController {
+
+    private final CustomerDuplicateDetectionService customerDuplicateDetectionService;
+
+    @Operation(summary = "Detect duplicate customers", description = "Compare customers that share an SSN, last name and date of birth, date of birth and ZIP, or phone number, and replace the candidate clusters in customer_duplicate_candidates")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Detection completed"),
+        @ApiResponse(responseCode = "500", description = "Detection already running or failed")
+    })
+    @PostMapping
+    public ResponseEntity<CustomerDuplicateDetectionResponseDto> detect() {
+        log.info("Running customer duplicate detection");
+        return ResponseEntity.ok(customerDuplicateDetectionService.detect());
+    }
+}
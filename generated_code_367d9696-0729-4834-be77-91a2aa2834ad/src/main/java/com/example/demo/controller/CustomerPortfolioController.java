@@ -0,0 +1,38 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.CustomerPortfolioResponseDto;
+import com.example.demo.service.CustomerPortfolioService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Customer Portfolio", description = "APIs for viewing all accounts and cards of a customer")
+@RequestMapping("/api/customers")
+public class CustomerPortfolioController {
+
+    private final CustomerPortfolioService customerPortfolioService;
+
+    @Operation(summary = "Get customer portfolio", description = "Retrieve all accounts and cards owned by a customer with balance and credit totals")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successful retrieval of portfolio"),
+        @ApiResponse(responseCode = "400", description = "Invalid customer ID"),
+        @ApiResponse(responseCode = "404", description = "Customer not found"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping("/{customerId}/portfolio")
+    public ResponseEntity<CustomerPortfolioResponseDto> getPortfolio(@PathVariable Long customerId) {
+        log.info("Fetching portfolio for customer ID: {}", customerId);
+        return ResponseEntity.ok(customerPortfolioService.getPortfolio(customerId));
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.CustomerSearchResultDto;
+import com.example.demo.service.CustomerSearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Customer Search", description = "APIs for looking up customers by partial name, phone or ZIP")
+@RequestMapping("/api/customers")
+public class CustomerSearchController {
+
+    private final CustomerSearchService customerSearchService;
+
+    @Operation(summary = "Search customers", description = "Search customers by last name, phone and/or ZIP prefix or substring, ranked by match quality")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successful search"),
+        @ApiResponse(responseCode = "400", description = "Missing or too short search terms"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<List<CustomerSearchResultDto>> searchCustomers(
+            @RequestParam(required = false) String lastName,
+            @RequestParam(required = false) String phone,
+            @RequestParam(required = false) String zipCode,
+            @RequestParam(required = false) Integer limit) {
+        log.info("Searching customers by lastName: {}, phone: {}, zipCode: {}", lastName, phone, zipCode);
+        return ResponseEntity.ok(customerSearchService.searchCustomers(lastName, phone, zipCode, limit));
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.SnapshotExportResponseDto;
+import com.example.demo.dto.SnapshotRestoreResponseDto;
+import com.example.demo.service.DatabaseSnapshotService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Batch Jobs", description = "APIs for running batch jobs on demand")
+@RequestMapping("/api/batch")
+public class DatabaseSnapshotController {
+
+    private final DatabaseSnapshotService databaseSnapshotService;
+
+    @Operation(summary = "Export a database snapshot", description = "Write a consistent snapshot of the account, customer, card and transaction tables to compressed chunk files, optionally masking SSNs and names")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Snapshot written"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @PostMapping("/snapshots")
+    public ResponseEntity<SnapshotExportResponseDto> export(
+            @Parameter(description = "Replace SSNs with keyed, unique 9-digit values", example = "true")
+            @RequestParam(defaultValue = "false") boolean maskSsn,
+            @Parameter(description = "Replace customer names with keyed letters of the same length", example = "true")
+            @RequestParam(defaultValue = "false") boolean maskNames) {
+        log.info("Exporting database snapshot, mask SSN: {}, mask names: {}", maskSsn, maskNames);
+        return ResponseEntity.ok(databaseSnapshotService.export(maskSsn, maskNames));
+    }
+
+    @Operation(summary = "Restore a database snapshot", description = "Load a snapshot into empty tables with parallel batched inserts, rebuilding secondary indexes after the load")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Snapshot restored"),
+        @ApiResponse(responseCode = "400", description = "Unknown or invalid snapshot name"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @PostMapping("/snapshots/{name}/restore")
+    public ResponseEntity<SnapshotRestoreResponseDto> restore(
+            @Parameter(description = "Snapshot name returned by the export", example = "snapshot-20240115-020000")
+            @PathVariable String name) {
+        log.info("Restoring database snapshot {}", name);
+        return ResponseEntity.ok(databaseSnapshotService.restore(name));
+    }
+}
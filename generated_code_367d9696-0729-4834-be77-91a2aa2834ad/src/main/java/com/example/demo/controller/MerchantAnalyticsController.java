@@ -0,0 +1,69 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.MerchantAnalyticsBackfillResponseDto;
+import com.example.demo.dto.MerchantAnalyticsReportDto;
+import com.example.demo.dto.MerchantStatsDto;
+import com.example.demo.service.MerchantAnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Merchant Analytics", description = "APIs for approximate merchant reporting")
+@RequestMapping("/api/analytics/merchants")
+public class MerchantAnalyticsController {
+
+    private final MerchantAnalyticsService merchantAnalyticsService;
+
+    @Operation(summary = "Get top merchants", description = "Top merchants by estimated spend with estimated purchase and distinct card counts, overall or within one merchant city")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Report returned"),
+        @ApiResponse(responseCode = "400", description = "Invalid limit"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping("/top")
+    public ResponseEntity<MerchantAnalyticsReportDto> getTopMerchants(
+            @Parameter(description = "Merchant city; all cities when omitted", example = "Seattle")
+            @RequestParam(required = false) String city,
+            @Parameter(description = "Number of merchants to return", example = "10")
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(merchantAnalyticsService.getTopMerchants(city, limit));
+    }
+
+    @Operation(summary = "Get merchant statistics", description = "Estimated spend, purchase count and distinct cards for one merchant")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Statistics returned"),
+        @ApiResponse(responseCode = "400", description = "No purchases recorded for the merchant"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping("/{merchantId}")
+    public ResponseEntity<MerchantStatsDto> getMerchant(
+            @Parameter(description = "Merchant ID", required = true, example = "9001")
+            @PathVariable long merchantId) {
+        return ResponseEntity.ok(merchantAnalyticsService.getMerchant(merchantId));
+    }
+
+    @Operation(summary = "Backfill merchant analytics", description = "Rebuild the sketches from every purchase already in the transactions table")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Backfill completed"),
+        @ApiResponse(responseCode = "500", description = "Backfill already running or failed")
+    })
+    @PostMapping("/backfill")
+    public ResponseEntity<MerchantAnalyticsBackfillResponseDto> backfill() {
+        log.info("Running merchant analytics backfill");
+        return ResponseEntity.ok(merchantAnalyticsService.backfill());
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.PostingRequestDto;
+import com.example.demo.dto.PostingResponseDto;
+import com.example.demo.service.PostingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Transaction Posting", description = "APIs for posting card transactions")
+@RequestMapping("/api/postings")
+public class PostingController {
+
+    private final PostingService postingService;
+
+    @Operation(summary = "Post a transaction", description = "Record a card transaction in the durable posting journal; balances are updated by the next periodic flush")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Posting journaled"),
+        @ApiResponse(responseCode = "400", description = "Invalid request data or unknown card"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @PostMapping
+    public ResponseEntity<PostingResponseDto> post(@Valid @RequestBody PostingRequestDto request) {
+        log.debug("Posting transaction for card: {}", request.getCardNumber());
+        return ResponseEntity.accepted().body(postingService.post(request));
+    }
+}
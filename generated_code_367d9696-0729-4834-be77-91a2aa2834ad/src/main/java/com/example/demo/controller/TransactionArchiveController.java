@@ -0,0 +1,40 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.TransactionArchiveResponseDto;
+import com.example.demo.service.TransactionArchiveService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Batch Jobs", description = "APIs for running batch jobs on demand")
+@RequestMapping("/api/batch")
+public class TransactionArchiveController {
+
+    private final TransactionArchiveService transactionArchiveService;
+
+    @Operation(summary = "Archive old transactions", description = "Move months of transactions older than the retention period into compressed columnar archive files; archived months stay readable through the transaction queries")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Run completed"),
+        @ApiResponse(responseCode = "400", description = "Invalid retention"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @PostMapping("/transaction-archive")
+    public ResponseEntity<TransactionArchiveResponseDto> archive(
+            @Parameter(description = "Months to keep in the table; defaults to transactions.archive.retain-months", example = "24")
+            @RequestParam(required = false) Integer retainMonths) {
+        log.info("Running transaction archive, retain months: {}", retainMonths);
+        return ResponseEntity.ok(transactionArchiveService.archive(retainMonths));
+    }
+}
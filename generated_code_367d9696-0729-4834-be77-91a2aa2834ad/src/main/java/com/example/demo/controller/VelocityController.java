@@ -0,0 +1,38 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.VelocityStatsDto;
+import com.example.demo.service.VelocityCheckService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Velocity", description = "APIs for card transaction velocity")
+@RequestMapping("/api/velocity")
+public class VelocityController {
+
+    private final VelocityCheckService velocityCheckService;
+
+    @Operation(summary = "Get card velocity", description = "Transaction counts and amounts for the card over the last minute, hour and 24 hours on this node")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Velocity returned; all zero when the card has no recent activity"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping("/cards/{cardNumber}")
+    public ResponseEntity<VelocityStatsDto> getCardVelocity(
+            @Parameter(description = "Card number", required = true, example = "4111111111111001")
+            @PathVariable String cardNumber) {
+        return ResponseEntity.ok(velocityCheckService.getStats(cardNumber));
+    }
+}
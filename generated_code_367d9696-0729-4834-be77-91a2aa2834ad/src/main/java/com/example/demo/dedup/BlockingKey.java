@@ -0,0 +1,18 @@
+package com.example.demo.dedup;
+
+/**
+ * Attributes that put two customers into the same block, so that only customers sharing one of
+ * them are compared. The name is stored as {@code matched_on} with each candidate pair, so it must
+ * never change; a pair is reported under the first key in declaration order that it shares.
+ */
+public enum BlockingKey {
+
+    /** Same SSN after stripping formatting. */
+    SSN,
+    /** Same normalized last name and date of birth. */
+    LAST_NAME_DOB,
+    /** Same date of birth and five-digit ZIP, which catches last name changes and typos. */
+    DOB_ZIP,
+    /** Same ten-digit phone number, first or second. */
+    PHONE
+}
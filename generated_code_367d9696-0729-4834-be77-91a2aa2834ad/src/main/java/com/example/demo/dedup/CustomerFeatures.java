@@ -0,0 +1,377 @@
+package com.example.demo.dedup;
+
+import com.example.demo.analytics.SketchHashing;
+import com.example.demo.repository.CustomerMatchRow;
+
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Normalized match attributes of every customer, held column-wise in primitive arrays indexed by a
+ * dense document number: about 48 bytes per customer, so 20 million customers fit in under 1 GB.
+ * <p>
+ * SSN and ZIP are stored exactly as the {@code int} value of their digits and phone numbers as the
+ * {@code long} value of their ten digits, 0 meaning missing, so these attributes only agree when
+ * the values are equal. Names keep letters only, folded to upper case without accents, and are
+ * stored as 32-bit hashes of that form plus a Soundex code, so spelling variants still score
+ * partially; two different names whose hashes collide, about one pair in four billion, are
+ * scored as the same name.
+ * <p>
+ * Block entries pack a 38-bit hash of a {@link BlockingKey} value and the 26-bit document number
+ * into one {@code long}; sorting the entries groups each block's members together. Distinct values
+ * whose block hashes collide merge two blocks, which costs extra comparisons but does not change
+ * any pair's score.
+ */
+public class CustomerFeatures {
+
+    public static final int MAX_CUSTOMERS = 1 << 26;
+
+    /** Most block entries one customer has: SSN, last name + DOB, DOB + ZIP and two phones. */
+    public static final int MAX_BLOCKS = 5;
+
+    /** Score of two customers that agree on every attribute. */
+    public static final int MAX_SCORE = 100;
+
+    private static final int WEIGHT_SSN = 35;
+    private static final int WEIGHT_LAST_NAME = 15;
+    private static final int WEIGHT_LAST_NAME_SOUND = 10;
+    private static final int WEIGHT_FIRST_NAME = 15;
+    private static final int WEIGHT_FIRST_NAME_SOUND = 10;
+    private static final int WEIGHT_DATE_OF_BIRTH = 15;
+    private static final int WEIGHT_ZIP = 5;
+    private static final int WEIGHT_PHONE = 15;
+
+    private static final int MISSING = 0;
+    private static final int DOC_BITS = 26;
+    private static final long DOC_MASK = (1L << DOC_BITS) - 1;
+    private static final int DAY_OFFSET = 1_000_000;
+
+    private long[] customerIds;
+    private int[] ssn;
+    private int[] firstName;
+    private int[] lastName;
+    private int[] sounds;
+    private int[] dateOfBirth;
+    private int[] zip;
+    private long[] phone1;
+    private long[] phone2;
+    private int size;
+
+    public CustomerFeatures(int expectedSize) {
+        int capacity = Math.max(16, Math.min(expectedSize, MAX_CUSTOMERS));
+        customerIds = new long[capacity];
+        ssn = new int[capacity];
+        firstName = new int[capacity];
+        lastName = new int[capacity];
+        sounds = new int[capacity];
+        dateOfBirth = new int[capacity];
+        zip = new int[capacity];
+        phone1 = new long[capacity];
+        phone2 = new long[capacity];
+    }
+
+    /**
+     * Adds a customer and returns its document number. Not thread-safe; the arrays are only read
+     * once loading is done.
+     */
+    public int add(CustomerMatchRow row) {
+        if (size == MAX_CUSTOMERS) {
+            throw new IllegalStateException("Duplicate detection supports at most " + MAX_CUSTOMERS + " customers");
+        }
+        if (size == customerIds.length) {
+            grow();
+        }
+        int doc = size++;
+        String first = letters(row.getFirstName());
+        String last = letters(row.getLastName());
+        customerIds[doc] = row.getCustomerId();
+        ssn[doc] = (int) number(ssn(row.getSsn()));
+        firstName[doc] = hash(first);
+        lastName[doc] = hash(last);
+        sounds[doc] = soundex(first) << 16 | soundex(last);
+        dateOfBirth[doc] = day(row.getDateOfBirth());
+        zip[doc] = (int) number(zip(row.getZipCode()));
+        long p1 = number(phone(row.getPhoneNumber1()));
+        long p2 = number(phone(row.getPhoneNumber2()));
+        phone1[doc] = p1 == MISSING ? p2 : p1;
+        phone2[doc] = p1 == MISSING || p2 == p1 ? MISSING : p2;
+        return doc;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long customerId(int doc) {
+        return customerIds[doc];
+    }
+
+    /**
+     * Returns one packed entry per customer and value of {@code key}, unsorted.
+     */
+    public long[] blockEntries(BlockingKey key) {
+        long[] blocks = new long[MAX_BLOCKS];
+        int count = 0;
+        for (int doc = 0; doc < size; doc++) {
+            count += blocks(doc, key, blocks, 0);
+        }
+        long[] entries = new long[count];
+        int next = 0;
+        for (int doc = 0; doc < size; doc++) {
+            int found = blocks(doc, key, blocks, 0);
+            for (int i = 0; i < found; i++) {
+                entries[next++] = blocks[i] << DOC_BITS | doc;
+            }
+        }
+        return entries;
+    }
+
+    public static int docOf(long entry) {
+        return (int) (entry & DOC_MASK);
+    }
+
+    public static long blockOf(long entry) {
+        return entry >>> DOC_BITS;
+    }
+
+    /**
+     * Writes the blocks of {@code doc} for every key, in key order, to {@code out} and returns how
+     * many were written.
+     */
+    public int blocks(int doc, long[] out) {
+        int count = 0;
+        for (BlockingKey key : BlockingKey.values()) {
+            count += blocks(doc, key, out, count);
+        }
+        return count;
+    }
+
+    /**
+     * True when {@code block} is the first block, in key order, that both customers are in, so each
+     * pair is compared in exactly one block. Blocks in {@code skippedBlocks}, sorted, are never
+     * compared and so are passed over. {@code scratchA} and {@code scratchB} need
+     * {@link #MAX_BLOCKS} entries.
+     */
+    public boolean isFirstSharedBlock(int a, int b, long block, long[] skippedBlocks,
+                                      long[] scratchA, long[] scratchB) {
+        int countA = blocks(a, scratchA);
+        int countB = blocks(b, scratchB);
+        for (int i = 0; i < countA; i++) {
+            for (int j = 0; j < countB; j++) {
+                if (scratchA[i] == scratchB[j] && Arrays.binarySearch(skippedBlocks, scratchA[i]) < 0) {
+                    return scratchA[i] == block;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Weighted agreement of two customers, from 0 to {@link #MAX_SCORE}. Attributes missing on either
+     * side count as disagreement. Same first name, last name, date of birth and ZIP scores 50.
+     */
+    public int score(int a, int b) {
+        int score = 0;
+        if (agree(ssn[a], ssn[b])) {
+            score += WEIGHT_SSN;
+        }
+        if (agree(lastName[a], lastName[b])) {
+            score += WEIGHT_LAST_NAME;
+        } else if (agree(sounds[a] & 0xffff, sounds[b] & 0xffff)) {
+            score += WEIGHT_LAST_NAME_SOUND;
+        }
+        if (agree(firstName[a], firstName[b])) {
+            score += WEIGHT_FIRST_NAME;
+        } else if (agree(sounds[a] >>> 16, sounds[b] >>> 16)) {
+            score += WEIGHT_FIRST_NAME_SOUND;
+        }
+        if (agree(dateOfBirth[a], dateOfBirth[b])) {
+            score += WEIGHT_DATE_OF_BIRTH;
+        }
+        if (agree(zip[a], zip[b])) {
+            score += WEIGHT_ZIP;
+        }
+        if (agree(phone1[a], phone1[b]) || agree(phone1[a], phone2[b])
+                || agree(phone2[a], phone1[b]) || agree(phone2[a], phone2[b])) {
+            score += WEIGHT_PHONE;
+        }
+        return score;
+    }
+
+    private int blocks(int doc, BlockingKey key, long[] out, int offset) {
+        return switch (key) {
+            case SSN -> put(out, offset, key, ssn[doc], 1);
+            case LAST_NAME_DOB -> put(out, offset, key, lastName[doc], dateOfBirth[doc]);
+            case DOB_ZIP -> put(out, offset, key, dateOfBirth[doc], zip[doc]);
+            case PHONE -> {
+                // Sorted, so a pair sharing both phones is compared in the block of the lower one
+                long low = Math.min(phone1[doc], phone2[doc]);
+                long high = Math.max(phone1[doc], phone2[doc]);
+                if (low == MISSING || high == MISSING) {
+                    yield put(out, offset, key, low == MISSING ? high : low, 1);
+                }
+                int count = put(out, offset, key, low, 1);
+                yield count + put(out, offset + count, key, high, 1);
+            }
+        };
+    }
+
+    private static int put(long[] out, int offset, BlockingKey key, long first, long second) {
+        if (first == MISSING || second == MISSING) {
+            return 0;
+        }
+        long value = SketchHashing.combine(key.ordinal() + 1, SketchHashing.combine(first, second));
+        out[offset] = value >>> DOC_BITS;
+        return 1;
+    }
+
+    private static boolean agree(long a, long b) {
+        return a != MISSING && a == b;
+    }
+
+    private void grow() {
+        int capacity = (int) Math.min(MAX_CUSTOMERS, customerIds.length * 2L);
+        customerIds = Arrays.copyOf(customerIds, capacity);
+        ssn = Arrays.copyOf(ssn, capacity);
+        firstName = Arrays.copyOf(firstName, capacity);
+        lastName = Arrays.copyOf(lastName, capacity);
+        sounds = Arrays.copyOf(sounds, capacity);
+        dateOfBirth = Arrays.copyOf(dateOfBirth, capacity);
+        zip = Arrays.copyOf(zip, capacity);
+        phone1 = Arrays.copyOf(phone1, capacity);
+        phone2 = Arrays.copyOf(phone2, capacity);
+    }
+
+    private static int hash(String value) {
+        if (value == null || value.isEmpty()) {
+            return MISSING;
+        }
+        int hash = (int) SketchHashing.hash64(value);
+        return hash == MISSING ? 1 : hash;
+    }
+
+    /**
+     * Value of a normalized digit string, or {@link #MISSING} when empty. Normalization rejects
+     * all-zero values, so a present attribute is never 0.
+     */
+    private static long number(String digits) {
+        return digits.isEmpty() ? MISSING : Long.parseLong(digits);
+    }
+
+    private static int day(LocalDate date) {
+        return date == null ? MISSING : (int) date.toEpochDay() + DAY_OFFSET;
+    }
+
+    /**
+     * Letters only, upper case, with accents removed: "O'Brien-Smith" and "obrien smith" are equal.
+     */
+    static String letters(String value) {
+        if (value == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        StringBuilder letters = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.isLetter(c)) {
+                letters.append(Character.toUpperCase(c));
+            }
+        }
+        return letters.toString();
+    }
+
+    static String digits(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder digits = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+
+    /**
+     * Nine digits, or empty for placeholders that would put unrelated customers in one block.
+     */
+    static String ssn(String value) {
+        String digits = digits(value);
+        if (digits.length() != 9 || sameDigit(digits) || digits.equals("123456789")
+                || digits.startsWith("000") || digits.startsWith("666") || digits.charAt(0) == '9'
+                || digits.startsWith("00", 3) || digits.startsWith("0000", 5)) {
+            return "";
+        }
+        return digits;
+    }
+
+    /**
+     * Ten digits without a leading country code 1, or empty.
+     */
+    static String phone(String value) {
+        String digits = digits(value);
+        if (digits.length() == 11 && digits.charAt(0) == '1') {
+            digits = digits.substring(1);
+        }
+        return digits.length() == 10 && !sameDigit(digits) ? digits : "";
+    }
+
+    static String zip(String value) {
+        String digits = digits(value);
+        return digits.length() >= 5 && !digits.startsWith("00000") ? digits.substring(0, 5) : "";
+    }
+
+    /**
+     * American Soundex of a normalized name packed into 14 bits (letter and three digits), or 0.
+     * Letters outside A-Z are ignored.
+     */
+    static int soundex(String letters) {
+        int code = 0;
+        int digits = 0;
+        int previous = -1;
+        for (int i = 0; i < letters.length() && digits < 3; i++) {
+            char c = letters.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                continue;
+            }
+            int digit = soundexDigit(c);
+            if (code == 0) {
+                code = c - 'A' + 1;
+                previous = digit;
+                continue;
+            }
+            if (digit > 0 && digit != previous) {
+                code = code << 3 | digit;
+                digits++;
+            }
+            if (c != 'H' && c != 'W') {
+                previous = digit;
+            }
+        }
+        return code == 0 ? MISSING : code << 3 * (3 - digits);
+    }
+
+    private static int soundexDigit(char c) {
+        return switch (c) {
+            case 'B', 'F', 'P', 'V' -> 1;
+            case 'C', 'G', 'J', 'K', 'Q', 'S', 'X', 'Z' -> 2;
+            case 'D', 'T' -> 3;
+            case 'L' -> 4;
+            case 'M', 'N' -> 5;
+            case 'R' -> 6;
+            default -> 0;
+        };
+    }
+
+    private static boolean sameDigit(String digits) {
+        for (int i = 1; i < digits.length(); i++) {
+            if (digits.charAt(i) != digits.charAt(0)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.demo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountGroupSummaryRebuildResponseDto {
+    
+    @Schema(description = "Number of account ID ranges scanned in parallel", example = "4")
+    private Integer partitions;
+    
+    @Schema(description = "Number of accounts aggregated", example = "6")
+    private Long accountsScanned;
+    
+    @Schema(description = "Number of summary rows inserted, corrected or removed because they had drifted", example = "0")
+    private Integer rowsCorrected;
+    
+    @Schema(description = "Total rebuild time in milliseconds", example = "42")
+    private Long durationMillis;
+}
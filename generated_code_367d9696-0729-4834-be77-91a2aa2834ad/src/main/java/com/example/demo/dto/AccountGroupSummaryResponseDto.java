@@ -0,0 +1,39 @@
+package com.example.demo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountGroupSummaryResponseDto {
+    
+    @Schema(description = "Account group ID; empty for accounts without a group", example = "PREMIUM")
+    private String groupId;
+    
+    @Schema(description = "Active status of the accounts", example = "Y")
+    private String activeStatus;
+    
+    @Schema(description = "Number of accounts", example = "2")
+    private Long accountCount;
+    
+    @Schema(description = "Sum of current balances", example = "4707.25")
+    private BigDecimal totalBalance;
+    
+    @Schema(description = "Sum of credit limits", example = "25000.00")
+    private BigDecimal totalCreditLimit;
+    
+    @Schema(description = "Sum of current cycle credits", example = "1700.00")
+    private BigDecimal totalCycleCredit;
+    
+    @Schema(description = "Sum of current cycle debits", example = "6407.25")
+    private BigDecimal totalCycleDebit;
+    
+    @Schema(description = "Last time the totals changed", example = "2024-11-08T16:00:00")
+    private LocalDateTime updatedAt;
+}
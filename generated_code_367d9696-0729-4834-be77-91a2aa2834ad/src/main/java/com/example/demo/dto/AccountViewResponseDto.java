@@ -1,5 +1,7 @@
 package com.example.demo.dto;
 
+import com.example.demo.enums.AccountViewField;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -7,6 +9,7 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Set;
 
 @Data
 @NoArgsConstructor
@@ -99,4 +102,8 @@ public class AccountViewResponseDto {
     
     @Schema(description = "Primary card holder indicator", example = "Y")
     private String primaryCardHolderIndicator;
+    
+    @JsonIgnore
+    @Schema(hidden = true)
+    private Set<AccountViewField> includedFields;
 }
@@ -0,0 +1,38 @@
+package com.example.demo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditChangeDto {
+    
+    @Schema(description = "Audit log sequence of the change record", example = "1042")
+    private Long sequence;
+    
+    @Schema(description = "Time the change was recorded", example = "2024-01-12T08:15:42.123456")
+    private LocalDateTime changedAt;
+    
+    @Schema(description = "Entity type", example = "CUSTOMER")
+    private String entityType;
+    
+    @Schema(description = "Account or customer ID", example = "1000000001")
+    private Long entityId;
+    
+    @Schema(description = "Account the update was made through", example = "10000000001")
+    private Long accountId;
+    
+    @Schema(description = "Field name", example = "city")
+    private String field;
+    
+    @Schema(description = "Value before the change", example = "Seattle")
+    private Object oldValue;
+    
+    @Schema(description = "Value after the change", example = "Portland")
+    private Object newValue;
+}
@@ -0,0 +1,33 @@
+package com.example.demo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditStateDto {
+    
+    @Schema(description = "Entity type", example = "ACCOUNT")
+    private String entityType;
+    
+    @Schema(description = "Account or customer ID", example = "10000000001")
+    private Long entityId;
+    
+    @Schema(description = "Point in time the state was reconstructed for", example = "2024-01-15T10:30:00")
+    private LocalDateTime asOf;
+    
+    @Schema(description = "Field values as of the given time, keyed by field name")
+    private Map<String, Object> fields;
+    
+    @Schema(description = "Audited changes made at or before the given time", example = "3")
+    private Integer changesApplied;
+    
+    @Schema(description = "Time of the last audited change at or before the given time", example = "2024-01-12T08:15:42.123456")
+    private LocalDateTime lastChangedAt;
+}
@@ -0,0 +1,44 @@
+package com.example.demo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthorizationRequestDto {
+    
+    @Schema(description = "Card presented for the purchase", example = "4111111111111001")
+    @NotBlank(message = "Card number is required")
+    @Pattern(regexp = "^\\d{16}$", message = "Card number must be 16 digits")
+    private String cardNumber;
+    
+    @Schema(description = "Amount to authorize", example = "125.50")
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.01", message = "Amount must be at least 0.01")
+    @Digits(integer = 10, fraction = 2, message = "Amount must have at most 10 integer digits and 2 decimal places")
+    private BigDecimal amount;
+    
+    @Schema(description = "Whether this is a cash advance, checked against the cash credit limit", example = "false")
+    private Boolean cashAdvance;
+    
+    @Schema(description = "Merchant ID", example = "9001")
+    private Long merchantId;
+    
+    @Schema(description = "Merchant name", example = "Whole Foods Market")
+    @Size(max = 50, message = "Merchant name must not exceed 50 characters")
+    private String merchantName;
+    
+    @Schema(description = "Merchant city", example = "New York")
+    @Size(max = 50, message = "Merchant city must not exceed 50 characters")
+    private String merchantCity;
+    
+    @Schema(description = "Merchant ZIP code", example = "10001")
+    @Size(max = 10, message = "Merchant ZIP must not exceed 10 characters")
+    private String merchantZip;
+}
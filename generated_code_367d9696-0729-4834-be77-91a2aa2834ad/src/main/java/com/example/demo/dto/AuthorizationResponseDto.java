@@ -0,0 +1,33 @@
+package com.example.demo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthorizationResponseDto {
+    
+    @Schema(description = "Authorization ID", example = "0b6f4f7e-8a43-4c1f-9d55-3c4b1f0a2e77")
+    private String authorizationId;
+    
+    @Schema(description = "Whether the authorization was approved", example = "true")
+    private Boolean approved;
+    
+    @Schema(description = "Reason for a decline", example = "INSUFFICIENT_CREDIT")
+    private String declineReason;
+    
+    @Schema(description = "Account the card belongs to", example = "2001")
+    private Long accountId;
+    
+    @Schema(description = "Available credit after the hold, for approvals", example = "8624.00")
+    private BigDecimal availableCredit;
+    
+    @Schema(description = "When the hold placed by an approval is released", example = "2024-11-02T10:30:00")
+    private LocalDateTime holdExpiresAt;
+}
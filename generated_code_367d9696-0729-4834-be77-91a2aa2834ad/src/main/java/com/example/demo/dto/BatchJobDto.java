@@ -0,0 +1,18 @@
+package com.example.demo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchJobDto {
+    
+    @Schema(description = "Name used to launch the job", example = "interest-calculation")
+    private String name;
+    
+    @Schema(description = "What the job does", example = "Posts monthly interest on category balances")
+    private String description;
+}
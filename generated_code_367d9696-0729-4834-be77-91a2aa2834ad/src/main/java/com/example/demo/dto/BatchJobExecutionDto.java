@@ -0,0 +1,43 @@
+package com.example.demo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchJobExecutionDto {
+    
+    @Schema(description = "Execution identifier", example = "1")
+    private Long executionId;
+    
+    @Schema(description = "Job name", example = "interest-calculation")
+    private String jobName;
+    
+    @Schema(description = "Run date; a job runs once per date", example = "2024-01-31")
+    private LocalDate runDate;
+    
+    @Schema(description = "STARTING, RUNNING, COMPLETED, STOPPED or FAILED", example = "RUNNING")
+    private String status;
+    
+    @Schema(description = "Number of times the execution was launched", example = "1")
+    private Integer attempts;
+    
+    @Schema(description = "Start of the latest attempt", example = "2024-01-31T23:00:00")
+    private LocalDateTime startedAt;
+    
+    @Schema(description = "End of the latest attempt")
+    private LocalDateTime endedAt;
+    
+    @Schema(description = "Why the latest attempt failed or stopped")
+    private String exitMessage;
+    
+    @Schema(description = "Steps started so far, in order")
+    private List<BatchStepDto> steps;
+}
@@ -0,0 +1,45 @@
+package com.example.demo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchPartitionDto {
+    
+    @Schema(description = "Position of the partition within its step", example = "0")
+    private Integer partitionIndex;
+    
+    @Schema(description = "First key of the partition", example = "1")
+    private Long fromKey;
+    
+    @Schema(description = "Last key of the partition", example = "25000000000")
+    private Long toKey;
+    
+    @Schema(description = "Last key committed; one less than fromKey before the first chunk", example = "12000000000")
+    private Long lastKey;
+    
+    @Schema(description = "STARTING, RUNNING, COMPLETED, STOPPED or FAILED", example = "RUNNING")
+    private String status;
+    
+    @Schema(description = "Items read", example = "12000")
+    private Long readCount;
+    
+    @Schema(description = "Items written", example = "11800")
+    private Long writeCount;
+    
+    @Schema(description = "Items the processor skipped", example = "200")
+    private Long filterCount;
+    
+    @Schema(description = "Chunks committed", example = "24")
+    private Long commitCount;
+    
+    @Schema(description = "Time spent in committed chunks, over all attempts", example = "5300")
+    private Long elapsedMs;
+    
+    @Schema(description = "Error of the last failed attempt")
+    private String exitMessage;
+}
@@ -0,0 +1,38 @@
+package com.example.demo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchStepDto {
+    
+    @Schema(description = "Step name", example = "post-interest")
+    private String stepName;
+    
+    @Schema(description = "FAILED if a partition failed; STOPPED if one stopped or the run ended first; RUNNING while they run; else COMPLETED", example = "RUNNING")
+    private String status;
+    
+    @Schema(description = "Items read by all partitions", example = "48000")
+    private Long readCount;
+    
+    @Schema(description = "Items written by all partitions", example = "47100")
+    private Long writeCount;
+    
+    @Schema(description = "Items skipped by the processor", example = "900")
+    private Long filterCount;
+    
+    @Schema(description = "Chunks committed by all partitions", example = "96")
+    private Long commitCount;
+    
+    @Schema(description = "Items read per second, over the time of the slowest partition", example = "9056.6")
+    private Double itemsPerSecond;
+    
+    @Schema(description = "Partitions of the step")
+    private List<BatchPartitionDto> partitions;
+}
@@ -0,0 +1,32 @@
+package com.example.demo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BillingCycleCloseResponseDto {
+    
+    @Schema(description = "Identifier stored on every history row written by this run", example = "3f2b6a0e-5f1c-4c1e-9f7a-2d6c1b8e4a10")
+    private String runId;
+    
+    @Schema(description = "Billing group that was closed", example = "PREMIUM")
+    private String groupId;
+    
+    @Schema(description = "Cycle end date recorded in history", example = "2024-01-31")
+    private LocalDate cycleEndDate;
+    
+    @Schema(description = "Number of account ID ranges closed in parallel", example = "4")
+    private Integer partitions;
+    
+    @Schema(description = "Number of accounts rolled into history by this run", example = "2")
+    private Long accountsClosed;
+    
+    @Schema(description = "Total run time in milliseconds", example = "28")
+    private Long durationMillis;
+}
@@ -0,0 +1,23 @@
+package com.example.demo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BillingCycleScheduleDto {
+    
+    @Schema(description = "Billing group", example = "PREMIUM")
+    private String groupId;
+    
+    @Schema(description = "Day of month the cycle closes; later than the month's last day means the last day", example = "31")
+    private Integer closeDayOfMonth;
+    
+    @Schema(description = "Cycle end date of the last completed close", example = "2024-01-31")
+    private LocalDate lastCycleEndDate;
+}
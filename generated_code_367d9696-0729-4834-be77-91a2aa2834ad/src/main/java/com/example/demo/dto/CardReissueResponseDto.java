@@ -0,0 +1,41 @@
+package com.example.demo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardReissueResponseDto {
+    
+    @Schema(description = "Whether the run only reported changes without writing them", example = "true")
+    private Boolean dryRun;
+    
+    @Schema(description = "First expiration date included in the window", example = "2025-01-01")
+    private LocalDate windowStart;
+    
+    @Schema(description = "Last expiration date included in the window", example = "2025-01-31")
+    private LocalDate windowEnd;
+    
+    @Schema(description = "Number of chunks processed, each in its own transaction", example = "1")
+    private Integer chunks;
+    
+    @Schema(description = "Number of active cards found expiring in the window", example = "3")
+    private Long cardsScanned;
+    
+    @Schema(description = "Number of cards given a new expiration date", example = "2")
+    private Long cardsReissued;
+    
+    @Schema(description = "Number of cards closed because their account is inactive", example = "1")
+    private Long cardsClosed;
+    
+    @Schema(description = "Number of accounts whose reissue date was set", example = "2")
+    private Long accountsUpdated;
+    
+    @Schema(description = "Total run time in milliseconds", example = "35")
+    private Long durationMillis;
+}
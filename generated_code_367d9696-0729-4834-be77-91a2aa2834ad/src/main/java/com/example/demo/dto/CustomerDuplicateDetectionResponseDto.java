@@ -0,0 +1,36 @@
+package com.example.demo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerDuplicateDetectionResponseDto {
+    
+    @Schema(description = "Identifier stored on every candidate row written by this run", example = "3f2b6a0e-5f1c-4c1e-9f7a-2d6c1b8e4a10")
+    private String runId;
+    
+    @Schema(description = "Customers read from the customers table", example = "20000000")
+    private Long customersRead;
+    
+    @Schema(description = "Blocks of two or more customers that were compared", example = "1250000")
+    private Long blocksCompared;
+    
+    @Schema(description = "Blocks skipped because they had more than the maximum block size members", example = "3")
+    private Long blocksSkipped;
+    
+    @Schema(description = "Customer pairs scored", example = "4100000")
+    private Long comparisons;
+    
+    @Schema(description = "Pairs scoring at least the minimum score, written as candidates", example = "18250")
+    private Long candidatePairs;
+    
+    @Schema(description = "Clusters of customers connected by candidate pairs", example = "16900")
+    private Long clusters;
+    
+    @Schema(description = "Total run time in milliseconds", example = "95000")
+    private Long durationMillis;
+}
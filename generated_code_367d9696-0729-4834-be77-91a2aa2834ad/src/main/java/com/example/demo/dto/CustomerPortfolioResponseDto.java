@@ -0,0 +1,39 @@
+package com.example.demo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerPortfolioResponseDto {
+    
+    @Schema(description = "Customer ID", example = "1001")
+    private Long customerId;
+    
+    @Schema(description = "Full name of the customer", example = "John Michael Smith")
+    private String fullName;
+    
+    @Schema(description = "Number of accounts owned by the customer", example = "2")
+    private Integer accountCount;
+    
+    @Schema(description = "Number of cards across all accounts", example = "3")
+    private Integer cardCount;
+    
+    @Schema(description = "Sum of current balances", example = "4707.25")
+    private BigDecimal totalBalance;
+    
+    @Schema(description = "Sum of credit limits", example = "25000.00")
+    private BigDecimal totalCreditLimit;
+    
+    @Schema(description = "Sum of available credit across accounts", example = "20292.75")
+    private BigDecimal totalAvailableCredit;
+    
+    @Schema(description = "Accounts owned by the customer with their cards")
+    private List<PortfolioAccountDto> accounts;
+}
@@ -0,0 +1,30 @@
+package com.example.demo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerSearchResultDto {
+    
+    @Schema(description = "Customer ID", example = "1001")
+    private Long customerId;
+    
+    @Schema(description = "First name of the customer", example = "John")
+    private String firstName;
+    
+    @Schema(description = "Last name of the customer, normalized to upper case", example = "SMITH")
+    private String lastName;
+    
+    @Schema(description = "ZIP code digits", example = "10001")
+    private String zipCode;
+    
+    @Schema(description = "Primary phone number digits", example = "2125550101")
+    private String phoneNumber1;
+    
+    @Schema(description = "Match score; higher is better (3 exact, 2 prefix, 1 substring per criterion)", example = "5")
+    private Integer score;
+}
@@ -0,0 +1,23 @@
+package com.example.demo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MerchantAnalyticsBackfillResponseDto {
+    
+    @Schema(description = "Purchases read from the transactions table", example = "120455")
+    private Long transactionsRead;
+    
+    @Schema(description = "Only transactions created before this time were read", example = "2024-01-31T10:15:30")
+    private LocalDateTime createdBefore;
+    
+    @Schema(description = "Backfill duration in milliseconds", example = "5230")
+    private Long durationMs;
+}
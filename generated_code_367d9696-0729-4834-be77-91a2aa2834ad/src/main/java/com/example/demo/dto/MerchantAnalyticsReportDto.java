@@ -0,0 +1,33 @@
+package com.example.demo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MerchantAnalyticsReportDto {
+    
+    @Schema(description = "Merchant city the report covers; null for all cities", example = "SEATTLE")
+    private String city;
+    
+    @Schema(description = "Purchases counted", example = "120455")
+    private Long transactions;
+    
+    @Schema(description = "Total purchase amount counted", example = "8234550.10")
+    private BigDecimal spend;
+    
+    @Schema(description = "Estimated distinct cards", example = "18320")
+    private Long estimatedDistinctCards;
+    
+    @Schema(description = "Estimated distinct merchants; only reported across all cities", example = "4210")
+    private Long estimatedDistinctMerchants;
+    
+    @Schema(description = "Top merchants by estimated spend")
+    private List<MerchantStatsDto> merchants;
+}
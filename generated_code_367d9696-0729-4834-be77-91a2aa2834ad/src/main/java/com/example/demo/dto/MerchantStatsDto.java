@@ -0,0 +1,32 @@
+package com.example.demo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MerchantStatsDto {
+    
+    @Schema(description = "Merchant ID", example = "9001")
+    private Long merchantId;
+    
+    @Schema(description = "Most recent merchant name seen", example = "Office Depot")
+    private String merchantName;
+    
+    @Schema(description = "Estimated purchase amount; never below the true amount", example = "15230.75")
+    private BigDecimal estimatedSpend;
+    
+    @Schema(description = "Purchase amount the merchant is guaranteed to have reached", example = "14980.00")
+    private BigDecimal minimumSpend;
+    
+    @Schema(description = "Estimated number of purchases; never below the true count", example = "412")
+    private Long estimatedTransactions;
+    
+    @Schema(description = "Estimated distinct cards across all cities; null when the merchant is not tracked", example = "237")
+    private Long estimatedDistinctCards;
+}
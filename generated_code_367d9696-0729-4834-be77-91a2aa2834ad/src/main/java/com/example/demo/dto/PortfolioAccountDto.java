@@ -0,0 +1,37 @@
+package com.example.demo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioAccountDto {
+    
+    @Schema(description = "Account ID", example = "2001")
+    private Long accountId;
+    
+    @Schema(description = "Active status of the account", example = "Y")
+    private String activeStatus;
+    
+    @Schema(description = "Current balance of the account", example = "1250.50")
+    private BigDecimal currentBalance;
+    
+    @Schema(description = "Credit limit of the account", example = "10000.00")
+    private BigDecimal creditLimit;
+    
+    @Schema(description = "Available credit (credit limit minus current balance)", example = "8749.50")
+    private BigDecimal availableCredit;
+    
+    @Schema(description = "Group ID", example = "PREMIUM")
+    private String groupId;
+    
+    @Schema(description = "Cards issued on the account")
+    private List<PortfolioCardDto> cards = new ArrayList<>();
+}
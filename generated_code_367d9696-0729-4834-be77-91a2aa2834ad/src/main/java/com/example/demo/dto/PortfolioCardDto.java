@@ -0,0 +1,26 @@
+package com.example.demo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioCardDto {
+    
+    @Schema(description = "Card number", example = "4111111111111001")
+    private String cardNumber;
+    
+    @Schema(description = "Customer ID of the card holder", example = "1001")
+    private Long customerId;
+    
+    @Schema(description = "Card status", example = "A")
+    private String cardStatus;
+    
+    @Schema(description = "Card expiration date", example = "2027-01-31")
+    private LocalDate expirationDate;
+}
@@ -0,0 +1,63 @@
+package com.example.demo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostingRequestDto {
+    
+    @Schema(description = "Card the transaction was made with", example = "4111111111111001")
+    @NotBlank(message = "Card number is required")
+    @Pattern(regexp = "^\\d{16}$", message = "Card number must be 16 digits")
+    private String cardNumber;
+    
+    @Schema(description = "Transaction type code", example = "01")
+    @NotBlank(message = "Type code is required")
+    @Size(max = 2, message = "Type code must not exceed 2 characters")
+    private String typeCode;
+    
+    @Schema(description = "Transaction category code", example = "0001")
+    @NotBlank(message = "Category code is required")
+    @Size(max = 4, message = "Category code must not exceed 4 characters")
+    private String categoryCode;
+    
+    @Schema(description = "Transaction source", example = "POS")
+    @NotBlank(message = "Source is required")
+    @Size(max = 10, message = "Source must not exceed 10 characters")
+    private String source;
+    
+    @Schema(description = "Transaction description", example = "Office supplies")
+    @Size(max = 100, message = "Description must not exceed 100 characters")
+    private String description;
+    
+    @Schema(description = "Amount; positive for purchases, negative for payments and refunds", example = "125.50")
+    @NotNull(message = "Amount is required")
+    @Digits(integer = 10, fraction = 2, message = "Amount must have at most 10 integer digits and 2 decimal places")
+    private BigDecimal amount;
+    
+    @Schema(description = "Merchant ID", example = "9001")
+    private Long merchantId;
+    
+    @Schema(description = "Merchant name", example = "Office Depot")
+    @Size(max = 50, message = "Merchant name must not exceed 50 characters")
+    private String merchantName;
+    
+    @Schema(description = "Merchant city", example = "New York")
+    @Size(max = 50, message = "Merchant city must not exceed 50 characters")
+    private String merchantCity;
+    
+    @Schema(description = "Merchant ZIP code", example = "10001")
+    @Size(max = 10, message = "Merchant ZIP must not exceed 10 characters")
+    private String merchantZip;
+    
+    @Schema(description = "Time the transaction took place; defaults to the posting time", example = "2024-11-01T10:30:00")
+    private LocalDateTime originalTimestamp;
+}
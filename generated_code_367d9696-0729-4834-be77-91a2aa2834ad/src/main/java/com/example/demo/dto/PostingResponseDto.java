@@ -0,0 +1,31 @@
+package com.example.demo.dto;
+
+import com.example.demo.enums.VelocityFlag;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostingResponseDto {
+    
+    @Schema(description = "Transaction ID assigned from the journal sequence", example = "JP00000000000042")
+    private String transactionId;
+    
+    @Schema(description = "Account the posting was applied to", example = "2001")
+    private Long accountId;
+    
+    @Schema(description = "Journal sequence of the posting", example = "42")
+    private Long sequence;
+    
+    @Schema(description = "Posted amount", example = "125.50")
+    private BigDecimal amount;
+    
+    @Schema(description = "Velocity rules the posting tripped; flagged postings are still accepted", example = "[\"HOUR_COUNT\"]")
+    private Set<VelocityFlag> velocityFlags;
+}
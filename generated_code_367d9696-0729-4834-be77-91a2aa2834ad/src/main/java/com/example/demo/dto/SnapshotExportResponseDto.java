@@ -0,0 +1,38 @@
+package com.example.demo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SnapshotExportResponseDto {
+    
+    @Schema(description = "Snapshot name, used to restore it", example = "snapshot-20240115-020000")
+    private String name;
+    
+    @Schema(description = "Whether SSNs were masked in the snapshot", example = "true")
+    private Boolean ssnMasked;
+    
+    @Schema(description = "Whether customer names were masked in the snapshot", example = "true")
+    private Boolean namesMasked;
+    
+    @Schema(description = "Number of connections that read the snapshot in parallel", example = "4")
+    private Integer workers;
+    
+    @Schema(description = "Number of chunk files written", example = "12")
+    private Integer chunkFiles;
+    
+    @Schema(description = "Rows exported per table")
+    private Map<String, Long> rowsByTable;
+    
+    @Schema(description = "Total size of the chunk files", example = "48211456")
+    private Long totalBytes;
+    
+    @Schema(description = "Run duration in milliseconds", example = "35120")
+    private Long durationMs;
+}
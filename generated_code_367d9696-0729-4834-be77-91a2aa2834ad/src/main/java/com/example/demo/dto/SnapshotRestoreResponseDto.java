@@ -0,0 +1,33 @@
+package com.example.demo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SnapshotRestoreResponseDto {
+    
+    @Schema(description = "Name of the restored snapshot", example = "snapshot-20240115-020000")
+    private String name;
+    
+    @Schema(description = "Whether the restored SSNs are masked", example = "true")
+    private Boolean ssnMasked;
+    
+    @Schema(description = "Whether the restored customer names are masked", example = "true")
+    private Boolean namesMasked;
+    
+    @Schema(description = "Rows restored per table")
+    private Map<String, Long> rowsByTable;
+    
+    @Schema(description = "Indexes dropped during the load and rebuilt afterwards")
+    private List<String> rebuiltIndexes;
+    
+    @Schema(description = "Run duration in milliseconds", example = "35120")
+    private Long durationMs;
+}
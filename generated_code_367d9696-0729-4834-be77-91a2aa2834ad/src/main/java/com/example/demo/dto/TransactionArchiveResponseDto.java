@@ -0,0 +1,33 @@
+package com.example.demo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionArchiveResponseDto {
+    
+    @Schema(description = "First month kept in the transactions table; earlier months were archived", example = "2023-02-01")
+    private LocalDate retainedFrom;
+    
+    @Schema(description = "Number of archive files written", example = "3")
+    private Integer filesWritten;
+    
+    @Schema(description = "Number of transactions moved into archive files", example = "1250000")
+    private Long transactionsArchived;
+    
+    @Schema(description = "Total size of the archive files written", example = "48211456")
+    private Long bytesWritten;
+    
+    @Schema(description = "Names of the archive files written")
+    private List<String> files;
+    
+    @Schema(description = "Run duration in milliseconds", example = "35120")
+    private Long durationMs;
+}
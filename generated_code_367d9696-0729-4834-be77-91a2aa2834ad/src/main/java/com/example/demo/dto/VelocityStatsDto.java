@@ -0,0 +1,35 @@
+package com.example.demo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VelocityStatsDto {
+    
+    @Schema(description = "Card number", example = "4111111111111001")
+    private String cardNumber;
+    
+    @Schema(description = "Transactions in the last minute", example = "1")
+    private Long minuteCount;
+    
+    @Schema(description = "Amount in the last minute", example = "125.50")
+    private BigDecimal minuteAmount;
+    
+    @Schema(description = "Transactions in the last hour", example = "3")
+    private Long hourCount;
+    
+    @Schema(description = "Amount in the last hour", example = "410.25")
+    private BigDecimal hourAmount;
+    
+    @Schema(description = "Transactions in the last 24 hours", example = "7")
+    private Long dayCount;
+    
+    @Schema(description = "Amount in the last 24 hours", example = "980.00")
+    private BigDecimal dayAmount;
+}
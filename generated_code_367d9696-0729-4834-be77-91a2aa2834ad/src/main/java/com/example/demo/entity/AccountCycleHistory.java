@@ -0,0 +1,51 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "account_cycle_history")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountCycleHistory {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "run_id", nullable = false, length = 36)
+    private String runId;
+    
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+    
+    @Column(name = "group_id", nullable = false, length = 10)
+    private String groupId;
+    
+    @Column(name = "active_status", nullable = false, length = 1)
+    private String activeStatus;
+    
+    @Column(name = "cycle_end_date", nullable = false)
+    private LocalDate cycleEndDate;
+    
+    @Column(name = "cycle_credit", nullable = false, precision = 12, scale = 2)
+    private BigDecimal cycleCredit;
+    
+    @Column(name = "cycle_debit", nullable = false, precision = 12, scale = 2)
+    private BigDecimal cycleDebit;
+    
+    @Column(name = "closing_balance", nullable = false, precision = 12, scale = 2)
+    private BigDecimal closingBalance;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
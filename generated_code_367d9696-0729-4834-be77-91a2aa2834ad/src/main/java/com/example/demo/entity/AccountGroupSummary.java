@@ -0,0 +1,62 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "account_group_summaries")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountGroupSummary {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "group_id", nullable = false, length = 10)
+    private String groupId;
+    
+    @Column(name = "active_status", nullable = false, length = 1)
+    private String activeStatus;
+    
+    @Column(name = "account_count", nullable = false)
+    private Long accountCount;
+    
+    @Column(name = "total_balance", nullable = false, precision = 18, scale = 2)
+    private BigDecimal totalBalance;
+    
+    @Column(name = "total_credit_limit", nullable = false, precision = 18, scale = 2)
+    private BigDecimal totalCreditLimit;
+    
+    @Column(name = "total_cycle_credit", nullable = false, precision = 18, scale = 2)
+    private BigDecimal totalCycleCredit;
+    
+    @Column(name = "total_cycle_debit", nullable = false, precision = 18, scale = 2)
+    private BigDecimal totalCycleDebit;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    public AccountGroupSummary(String groupId, String activeStatus) {
+        this.groupId = groupId;
+        this.activeStatus = activeStatus;
+        this.accountCount = 0L;
+        this.totalBalance = BigDecimal.ZERO;
+        this.totalCreditLimit = BigDecimal.ZERO;
+        this.totalCycleCredit = BigDecimal.ZERO;
+        this.totalCycleDebit = BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.demo.entity;
+
+import com.example.demo.batch.BatchStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "batch_job_executions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchJobExecution {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "execution_id")
+    private Long executionId;
+    
+    @Column(name = "job_name", length = 50, nullable = false)
+    private String jobName;
+    
+    @Column(name = "run_date", nullable = false)
+    private LocalDate runDate;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 10, nullable = false)
+    private BatchStatus status;
+    
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+    
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+    
+    @Column(name = "ended_at")
+    private LocalDateTime endedAt;
+    
+    @Column(name = "exit_message", length = 500)
+    private String exitMessage;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    public BatchJobExecution(String jobName, LocalDate runDate) {
+        this.jobName = jobName;
+        this.runDate = runDate;
+        this.status = BatchStatus.STARTING;
+        this.attempts = 0;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.demo.entity;
+
+import com.example.demo.batch.BatchStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "batch_step_partitions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchStepPartition {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "execution_id", nullable = false)
+    private Long executionId;
+    
+    @Column(name = "step_name", length = 50, nullable = false)
+    private String stepName;
+    
+    @Column(name = "partition_index", nullable = false)
+    private Integer partitionIndex;
+    
+    @Column(name = "from_key", nullable = false)
+    private Long fromKey;
+    
+    @Column(name = "to_key", nullable = false)
+    private Long toKey;
+    
+    @Column(name = "last_key", nullable = false)
+    private Long lastKey;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 10, nullable = false)
+    private BatchStatus status;
+    
+    @Column(name = "read_count", nullable = false)
+    private Long readCount;
+    
+    @Column(name = "write_count", nullable = false)
+    private Long writeCount;
+    
+    @Column(name = "filter_count", nullable = false)
+    private Long filterCount;
+    
+    @Column(name = "commit_count", nullable = false)
+    private Long commitCount;
+    
+    @Column(name = "elapsed_ms", nullable = false)
+    private Long elapsedMs;
+    
+    @Column(name = "exit_message", length = 500)
+    private String exitMessage;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    public BatchStepPartition(Long executionId, String stepName, int partitionIndex, long fromKey, long toKey) {
+        this.executionId = executionId;
+        this.stepName = stepName;
+        this.partitionIndex = partitionIndex;
+        this.fromKey = fromKey;
+        this.toKey = toKey;
+        this.lastKey = fromKey - 1;
+        this.status = BatchStatus.STARTING;
+        this.readCount = 0L;
+        this.writeCount = 0L;
+        this.filterCount = 0L;
+        this.commitCount = 0L;
+        this.elapsedMs = 0L;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "billing_cycle_schedules")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BillingCycleSchedule {
+    
+    @Id
+    @Column(name = "group_id", length = 10, nullable = false)
+    private String groupId;
+    
+    @Column(name = "close_day_of_month", nullable = false)
+    private Integer closeDayOfMonth;
+    
+    @Column(name = "last_cycle_end_date")
+    private LocalDate lastCycleEndDate;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    public BillingCycleSchedule(String groupId, Integer closeDayOfMonth) {
+        this.groupId = groupId;
+        this.closeDayOfMonth = closeDayOfMonth;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.demo.entity;
+
+import com.example.demo.money.Money;
+import com.example.demo.money.MoneyConverter;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "card_authorizations")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardAuthorization {
+    
+    @Id
+    @Column(name = "authorization_id", length = 36, nullable = false)
+    private String authorizationId;
+    
+    @Column(name = "card_number", length = 16, nullable = false)
+    private String cardNumber;
+    
+    @Column(name = "account_id")
+    private Long accountId;
+    
+    @Column(name = "amount", nullable = false, precision = 12, scale = 2)
+    @Convert(converter = MoneyConverter.class)
+    private Money amount;
+    
+    @Column(name = "cash_advance", nullable = false)
+    private Boolean cashAdvance;
+    
+    @Column(name = "approved", nullable = false)
+    private Boolean approved;
+    
+    @Column(name = "decline_reason", length = 30)
+    private String declineReason;
+    
+    @Column(name = "merchant_id")
+    private Long merchantId;
+    
+    @Column(name = "merchant_name", length = 50)
+    private String merchantName;
+    
+    @Column(name = "merchant_city", length = 50)
+    private String merchantCity;
+    
+    @Column(name = "merchant_zip", length = 10)
+    private String merchantZip;
+    
+    @Column(name = "requested_at", nullable = false)
+    private LocalDateTime requestedAt;
+    
+    @Column(name = "hold_expires_at")
+    private LocalDateTime holdExpiresAt;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,44 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "customer_duplicate_candidates")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerDuplicateCandidate {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "run_id", nullable = false, length = 36)
+    private String runId;
+    
+    @Column(name = "cluster_id", nullable = false)
+    private Long clusterId;
+    
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+    
+    @Column(name = "duplicate_customer_id", nullable = false)
+    private Long duplicateCustomerId;
+    
+    @Column(name = "score", nullable = false, precision = 3, scale = 2)
+    private BigDecimal score;
+    
+    @Column(name = "matched_on", nullable = false, length = 20)
+    private String matchedOn;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,41 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "posting_journal_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostingJournalCheckpoint {
+    
+    @Id
+    @Column(name = "journal_id", length = 50, nullable = false)
+    private String journalId;
+    
+    @Column(name = "flushed_sequence", nullable = false)
+    private Long flushedSequence;
+    
+    @Column(name = "journal_number", unique = true)
+    private Integer journalNumber;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    public PostingJournalCheckpoint(String journalId) {
+        this.journalId = journalId;
+        this.flushedSequence = 0L;
+    }
+}
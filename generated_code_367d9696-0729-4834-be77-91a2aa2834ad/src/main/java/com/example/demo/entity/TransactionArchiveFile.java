@@ -0,0 +1,47 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "transaction_archive_files")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionArchiveFile {
+    
+    @Id
+    @Column(name = "file_name", length = 100, nullable = false)
+    private String fileName;
+    
+    @Column(name = "archive_month", nullable = false)
+    private LocalDate archiveMonth;
+    
+    @Column(name = "row_count", nullable = false)
+    private Long rowCount;
+    
+    @Column(name = "min_original_timestamp", nullable = false)
+    private LocalDateTime minOriginalTimestamp;
+    
+    @Column(name = "max_original_timestamp", nullable = false)
+    private LocalDateTime maxOriginalTimestamp;
+    
+    @Column(name = "min_card_number", length = 16, nullable = false)
+    private String minCardNumber;
+    
+    @Column(name = "max_card_number", length = 16, nullable = false)
+    private String maxCardNumber;
+    
+    @Column(name = "file_bytes", nullable = false)
+    private Long fileBytes;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -1,12 +1,13 @@
 package com.example.demo.entity;
 
+import com.example.demo.money.Money;
+import com.example.demo.money.MoneyConverter;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
@@ -30,7 +31,8 @@ public class TransactionCategoryBalance {
     private String categoryCode;
     
     @Column(name = "balance", nullable = false, precision = 12, scale = 2)
-    private BigDecimal balance;
+    @Convert(converter = MoneyConverter.class)
+    private Money balance;
     
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
@@ -40,7 +42,7 @@ public class TransactionCategoryBalance {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
     
-    public TransactionCategoryBalance(Long accountId, String typeCode, String categoryCode, BigDecimal balance) {
+    public TransactionCategoryBalance(Long accountId, String typeCode, String categoryCode, Money balance) {
         this.accountId = accountId;
         this.typeCode = typeCode;
         this.categoryCode = categoryCode;
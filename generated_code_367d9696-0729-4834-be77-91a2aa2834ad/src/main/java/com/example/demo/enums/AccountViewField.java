@@ -0,0 +1,85 @@
+package com.example.demo.enums;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Fields of the account view that can be requested individually through {@code fields=}.
+ * The field name is both the JSON property and the entity attribute it is read from.
+ */
+public enum AccountViewField {
+    
+    ACCOUNT_ID("accountId", false),
+    ACTIVE_STATUS("activeStatus", false),
+    CURRENT_BALANCE("currentBalance", false),
+    CREDIT_LIMIT("creditLimit", false),
+    CASH_CREDIT_LIMIT("cashCreditLimit", false),
+    OPEN_DATE("openDate", false),
+    EXPIRATION_DATE("expirationDate", false),
+    REISSUE_DATE("reissueDate", false),
+    CURRENT_CYCLE_CREDIT("currentCycleCredit", false),
+    CURRENT_CYCLE_DEBIT("currentCycleDebit", false),
+    GROUP_ID("groupId", false),
+    CUSTOMER_ID("customerId", true),
+    FIRST_NAME("firstName", true),
+    MIDDLE_NAME("middleName", true),
+    LAST_NAME("lastName", true),
+    SSN("ssn", true),
+    FICO_SCORE("ficoScore", true),
+    DATE_OF_BIRTH("dateOfBirth", true),
+    ADDRESS_LINE1("addressLine1", true),
+    ADDRESS_LINE2("addressLine2", true),
+    CITY("city", true),
+    STATE_CODE("stateCode", true),
+    ZIP_CODE("zipCode", true),
+    COUNTRY_CODE("countryCode", true),
+    PHONE_NUMBER1("phoneNumber1", true),
+    PHONE_NUMBER2("phoneNumber2", true),
+    GOVERNMENT_ISSUED_ID("governmentIssuedId", true),
+    EFT_ACCOUNT_ID("eftAccountId", true),
+    PRIMARY_CARD_HOLDER_INDICATOR("primaryCardHolderIndicator", true);
+    
+    private final String fieldName;
+    private final boolean customerField;
+    
+    AccountViewField(String fieldName, boolean customerField) {
+        this.fieldName = fieldName;
+        this.customerField = customerField;
+    }
+    
+    public String getFieldName() {
+        return fieldName;
+    }
+    
+    public boolean isCustomerField() {
+        return customerField;
+    }
+    
+    /**
+     * Parses a comma-separated list of field names. Returns {@code null} for a blank list,
+     * meaning every field is requested.
+     */
+    public static Set<AccountViewField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<AccountViewField> result = EnumSet.noneOf(AccountViewField.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            result.add(fromFieldName(trimmed));
+        }
+        return result.isEmpty() ? null : result;
+    }
+    
+    public static AccountViewField fromFieldName(String fieldName) {
+        for (AccountViewField field : values()) {
+            if (field.fieldName.equals(fieldName)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown account view field: " + fieldName);
+    }
+}
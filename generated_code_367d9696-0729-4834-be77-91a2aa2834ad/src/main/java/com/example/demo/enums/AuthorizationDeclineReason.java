@@ -0,0 +1,14 @@
+package com.example.demo.enums;
+
+/**
+ * Why an authorization request was declined.
+ */
+public enum AuthorizationDeclineReason {
+    CARD_NOT_FOUND,
+    CARD_INACTIVE,
+    CARD_EXPIRED,
+    ACCOUNT_NOT_FOUND,
+    ACCOUNT_INACTIVE,
+    INSUFFICIENT_CREDIT,
+    INSUFFICIENT_CASH_CREDIT
+}
@@ -0,0 +1,22 @@
+package com.example.demo.enums;
+
+/**
+ * Admission priority of an API request. Higher priorities may use a larger share of the
+ * adaptive concurrency limit, so writes keep flowing when bulk reads are being shed.
+ */
+public enum RequestPriority {
+    
+    WRITE("write"),
+    READ("read"),
+    BULK_READ("bulk_read");
+    
+    private final String tagValue;
+    
+    RequestPriority(String tagValue) {
+        this.tagValue = tagValue;
+    }
+    
+    public String getTagValue() {
+        return tagValue;
+    }
+}
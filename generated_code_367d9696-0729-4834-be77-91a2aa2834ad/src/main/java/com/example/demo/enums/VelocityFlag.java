@@ -0,0 +1,14 @@
+package com.example.demo.enums;
+
+/**
+ * Velocity rules a card transaction can trip.
+ */
+public enum VelocityFlag {
+    MINUTE_COUNT,
+    MINUTE_AMOUNT,
+    HOUR_COUNT,
+    HOUR_AMOUNT,
+    DAY_COUNT,
+    DAY_AMOUNT,
+    HIGH_RISK_CITY
+}
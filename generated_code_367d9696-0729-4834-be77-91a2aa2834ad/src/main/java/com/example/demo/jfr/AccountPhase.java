@@ -0,0 +1,41 @@
+package com.example.demo.jfr;
+
+/**
+ * Phases of the account view and update paths recorded as {@link AccountPhaseEvent}s, in the order
+ * they run. The label is what appears in recordings.
+ */
+public enum AccountPhase {
+
+    VALIDATE("validate"),
+    ACCOUNT_LOOKUP("account-lookup"),
+    XREF_LOOKUP("xref-lookup"),
+    CUSTOMER_LOOKUP("customer-lookup"),
+    APPLY_CHANGES("apply-changes"),
+    SAVE("save"),
+    GROUP_SUMMARY("group-summary"),
+    FLUSH_COMMIT("flush-commit"),
+    FORMAT_SSN("format-ssn"),
+    SERIALIZE("serialize");
+
+    private final String label;
+
+    AccountPhase(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Position of the phase with this label, or {@code Integer.MAX_VALUE} for an unknown label.
+     */
+    static int orderOf(String label) {
+        for (AccountPhase phase : values()) {
+            if (phase.label.equals(label)) {
+                return phase.ordinal();
+            }
+        }
+        return Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.demo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one phase of an account view or update.
+ * <p>
+ * Use {@link #begin} before the phase and one of the {@code finish} methods after it. When no
+ * recording has the event enabled, {@code begin} only allocates an event the JIT can usually
+ * eliminate and nothing else is done, so instrumentation costs next to nothing outside a recording.
+ * A phase that throws is not recorded; the enclosing {@link AccountRequestEvent} shows the failure.
+ */
+@Name(AccountPhaseEvent.NAME)
+@Label("Account Phase")
+@Category({"Card Management", "Accounts"})
+@Description("One phase of an account view or update")
+@StackTrace(false)
+public class AccountPhaseEvent extends Event {
+
+    public static final String NAME = "com.example.demo.AccountPhase";
+
+    private static final EventType TYPE = EventType.getEventType(AccountPhaseEvent.class);
+
+    public static final String VIEW = "view";
+    public static final String UPDATE = "update";
+
+    public static final String OK = "ok";
+    public static final String NOT_FOUND = "not-found";
+    public static final String INVALID = "invalid";
+    public static final String ROLLED_BACK = "rolled-back";
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("Phase")
+    private String phase;
+
+    @Label("Account ID")
+    private long accountId;
+
+    @Label("Rows")
+    @Description("Rows read or written by the phase")
+    private int rows;
+
+    @Label("Outcome")
+    private String outcome;
+
+    /**
+     * True while a running recording has this event enabled; for phases that need more setup than
+     * {@link #begin}.
+     */
+    public static boolean isRecorded() {
+        return TYPE.isEnabled();
+    }
+
+    public static AccountPhaseEvent begin(String operation, AccountPhase phase, Long accountId) {
+        AccountPhaseEvent event = new AccountPhaseEvent();
+        if (event.isEnabled()) {
+            event.operation = operation;
+            event.phase = phase.getLabel();
+            event.accountId = accountId == null ? 0 : accountId;
+            event.begin();
+        }
+        return event;
+    }
+
+    public void finish(int rows) {
+        finish(rows, OK);
+    }
+
+    /**
+     * Finishes a single-row lookup: one row if found, otherwise none and {@link #NOT_FOUND}.
+     */
+    public void finishLookup(boolean found) {
+        finish(found ? 1 : 0, found ? OK : NOT_FOUND);
+    }
+
+    public void finish(int rows, String outcome) {
+        if (!isEnabled()) {
+            return;
+        }
+        end();
+        if (shouldCommit()) {
+            this.rows = rows;
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
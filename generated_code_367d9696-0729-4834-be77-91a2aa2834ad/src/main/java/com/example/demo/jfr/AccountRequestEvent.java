@@ -0,0 +1,91 @@
+package com.example.demo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Flight Recorder event for a whole account view or update request, from the servlet filter to the
+ * written response, so it includes the commit and serialization around the phase events. Carries
+ * the heap allocated by the request thread while handling it. Like {@link AccountPhaseEvent} it
+ * does nothing unless a recording has it enabled.
+ */
+@Name(AccountRequestEvent.NAME)
+@Label("Account Request")
+@Category({"Card Management", "Accounts"})
+@Description("An account view or update request")
+@StackTrace(false)
+public class AccountRequestEvent extends Event {
+
+    public static final String NAME = "com.example.demo.AccountRequest";
+
+    private static final EventType TYPE = EventType.getEventType(AccountRequestEvent.class);
+    private static final com.sun.management.ThreadMXBean THREADS = allocationCounter();
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("Account ID")
+    private long accountId;
+
+    @Label("HTTP Status")
+    private int status;
+
+    @Label("Outcome")
+    private String outcome;
+
+    @Label("Allocated")
+    @Description("Heap allocated by the request thread, or -1 if the JVM cannot measure it")
+    @DataAmount
+    private long allocatedBytes;
+
+    private transient long allocatedAtStart;
+
+    /**
+     * True while a running recording has this event enabled; cheap enough to check on every request.
+     */
+    public static boolean isRecorded() {
+        return TYPE.isEnabled();
+    }
+
+    public static AccountRequestEvent begin(String operation, long accountId) {
+        AccountRequestEvent event = new AccountRequestEvent();
+        if (event.isEnabled()) {
+            event.operation = operation;
+            event.accountId = accountId;
+            event.allocatedAtStart = THREADS == null ? -1 : THREADS.getCurrentThreadAllocatedBytes();
+            event.begin();
+        }
+        return event;
+    }
+
+    public void finish(int status, boolean failed) {
+        if (!isEnabled()) {
+            return;
+        }
+        end();
+        if (shouldCommit()) {
+            this.status = status;
+            this.outcome = failed || status >= 500 ? "error" : status >= 400 ? "rejected" : AccountPhaseEvent.OK;
+            this.allocatedBytes = allocatedAtStart < 0 ? -1 : THREADS.getCurrentThreadAllocatedBytes() - allocatedAtStart;
+            commit();
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean counter
+                && counter.isThreadAllocatedMemorySupported() && counter.isThreadAllocatedMemoryEnabled()) {
+            return counter;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.demo.jfr;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Actuator endpoint for bounded Flight Recorder recordings of the account phase events:
+ * <ul>
+ *     <li>{@code GET /actuator/jfr}: the current recording and the recordings kept on disk</li>
+ *     <li>{@code POST /actuator/jfr/start} with optional {@code durationSeconds} and {@code settings}
+ *     ({@code default} or {@code profile}), and {@code POST /actuator/jfr/stop}</li>
+ *     <li>{@code GET /actuator/jfr/{file}}: download a finished recording</li>
+ *     <li>{@code GET /actuator/jfr/{file}/summary}: its {@link JfrPhaseReport}</li>
+ * </ul>
+ * Only one recording runs at a time. Its length is capped by {@code jfr.recording.max-duration-seconds}
+ * and its size by {@code jfr.recording.max-size-mb}; it is written to {@code jfr.recording.directory}
+ * when it stops, including when the duration runs out. Only the newest {@code jfr.recording.keep}
+ * files are kept.
+ */
+@Slf4j
+@Component
+@Endpoint(id = "jfr")
+public class FlightRecordingEndpoint {
+
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final Pattern FILE_NAME = Pattern.compile("^recording-\\d{8}-\\d{6}\\.jfr$");
+    private static final String SUMMARY = "summary";
+
+    private final Path directory;
+    private final Duration maxDuration;
+    private final long maxSizeBytes;
+    private final String defaultSettings;
+    private final int keep;
+    private Recording recording;
+    private Path recordingFile;
+
+    public FlightRecordingEndpoint(@Value("${jfr.recording.directory:data/jfr}") String directory,
+                                   @Value("${jfr.recording.max-duration-seconds:300}") long maxDurationSeconds,
+                                   @Value("${jfr.recording.max-size-mb:256}") long maxSizeMb,
+                                   @Value("${jfr.recording.settings:default}") String defaultSettings,
+                                   @Value("${jfr.recording.keep:5}") int keep) {
+        this.directory = Path.of(directory);
+        this.maxDuration = Duration.ofSeconds(Math.max(1, maxDurationSeconds));
+        this.maxSizeBytes = Math.max(1, maxSizeMb) * 1024 * 1024;
+        this.defaultSettings = defaultSettings;
+        this.keep = Math.max(1, keep);
+    }
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (recording == null) {
+            status.put("state", "NONE");
+        } else {
+            status.put("state", recording.getState().name());
+            status.put("file", recordingFile.getFileName().toString());
+            status.put("startTime", recording.getStartTime());
+            status.put("duration", recording.getDuration());
+            status.put("maxSizeBytes", recording.getMaxSize());
+        }
+        status.put("recordings", listRecordings());
+        return status;
+    }
+
+    @WriteOperation
+    public synchronized WebEndpointResponse<Map<String, Object>> control(@Selector String action,
+                                                                         @Nullable Long durationSeconds,
+                                                                         @Nullable String settings) {
+        return switch (action) {
+            case "start" -> start(durationSeconds, settings);
+            case "stop" -> stop();
+            default -> error(WebEndpointResponse.STATUS_BAD_REQUEST, "Unknown action " + action + "; use start or stop");
+        };
+    }
+
+    @ReadOperation
+    public WebEndpointResponse<Resource> download(@Selector String file) {
+        Path path = finishedRecording(file);
+        if (path == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        return new WebEndpointResponse<>(new FileSystemResource(path));
+    }
+
+    @ReadOperation
+    public WebEndpointResponse<JfrPhaseReport> summary(@Selector String file, @Selector String view) {
+        Path path = SUMMARY.equals(view) ? finishedRecording(file) : null;
+        if (path == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        try {
+            return new WebEndpointResponse<>(JfrPhaseReport.read(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read recording " + file, e);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private WebEndpointResponse<Map<String, Object>> start(Long durationSeconds, String settings) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return error(WebEndpointResponse.STATUS_BAD_REQUEST, "A recording is already running: " + recordingFile.getFileName());
+        }
+        Duration duration = durationSeconds == null || durationSeconds <= 0
+                ? maxDuration : Duration.ofSeconds(Math.min(durationSeconds, maxDuration.toSeconds()));
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings == null ? defaultSettings : settings);
+        } catch (IOException | ParseException e) {
+            return error(WebEndpointResponse.STATUS_BAD_REQUEST, "Unknown recording settings: " + settings);
+        }
+        close();
+        prune();
+        try {
+            Files.createDirectories(directory);
+            Path file = directory.resolve("recording-" + LocalDateTime.now().format(NAME_FORMAT) + ".jfr");
+            Recording started = new Recording(configuration);
+            started.setName("account-phases");
+            started.enable(AccountPhaseEvent.class);
+            started.enable(AccountRequestEvent.class);
+            started.setToDisk(true);
+            started.setMaxSize(maxSizeBytes);
+            started.setDuration(duration);
+            started.setDestination(file);
+            started.start();
+            recording = started;
+            recordingFile = file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start a recording in " + directory, e);
+        }
+        log.info("Started flight recording {} for up to {} with {} settings",
+                recordingFile.getFileName(), duration, configuration.getName());
+        return new WebEndpointResponse<>(status());
+    }
+
+    private WebEndpointResponse<Map<String, Object>> stop() {
+        if (recording == null) {
+            return error(WebEndpointResponse.STATUS_BAD_REQUEST, "No recording has been started");
+        }
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            log.info("Stopped flight recording {}", recordingFile.getFileName());
+        }
+        prune();
+        return new WebEndpointResponse<>(status());
+    }
+
+    private Path finishedRecording(String file) {
+        if (!FILE_NAME.matcher(file).matches()) {
+            return null;
+        }
+        synchronized (this) {
+            if (recording != null && recording.getState() == RecordingState.RUNNING
+                    && recordingFile.getFileName().toString().equals(file)) {
+                return null;
+            }
+        }
+        Path path = directory.resolve(file);
+        return Files.isRegularFile(path) ? path : null;
+    }
+
+    private List<String> listRecordings() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> FILE_NAME.matcher(name).matches())
+                    .sorted(Comparator.reverseOrder())
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list recordings in " + directory, e);
+        }
+    }
+
+    private void prune() {
+        List<String> recordings = listRecordings();
+        for (String name : recordings.subList(Math.min(keep, recordings.size()), recordings.size())) {
+            try {
+                Files.deleteIfExists(directory.resolve(name));
+            } catch (IOException e) {
+                log.warn("Could not delete old recording {}: {}", name, e.getMessage());
+            }
+        }
+    }
+
+    private static WebEndpointResponse<Map<String, Object>> error(int status, String message) {
+        return new WebEndpointResponse<>(Map.of("error", message), status);
+    }
+}
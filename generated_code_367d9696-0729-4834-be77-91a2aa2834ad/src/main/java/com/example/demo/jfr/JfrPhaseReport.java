@@ -0,0 +1,176 @@
+package com.example.demo.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-phase latency breakdown of a recording holding {@link AccountPhaseEvent}s and
+ * {@link AccountRequestEvent}s. Can be run on a downloaded recording:
+ * <pre>
+ * java -cp app.jar com.example.demo.jfr.JfrPhaseReport recording.jfr
+ * </pre>
+ * (with the Spring Boot jar, use {@code -Dloader.main=com.example.demo.jfr.JfrPhaseReport
+ * -cp app.jar org.springframework.boot.loader.launch.PropertiesLauncher}).
+ */
+public record JfrPhaseReport(List<PhaseStats> phases, List<RequestStats> requests) {
+
+    /**
+     * Latency of one phase of one operation. Times are in milliseconds; {@code share} is the
+     * phase's part of the total time of all recorded phases of the operation.
+     */
+    public record PhaseStats(String operation, String phase, long count, long notOk, long rows,
+                             double meanMs, double p50Ms, double p95Ms, double p99Ms, double maxMs,
+                             double totalMs, double share) {
+    }
+
+    /**
+     * Latency and per-request allocation of one operation's requests.
+     */
+    public record RequestStats(String operation, long count, long errors, double meanMs, double p50Ms,
+                               double p95Ms, double p99Ms, double maxMs, long meanAllocatedBytes,
+                               long p99AllocatedBytes) {
+    }
+
+    public static JfrPhaseReport read(Path recording) throws IOException {
+        Map<List<String>, Samples> phases = new LinkedHashMap<>();
+        Map<String, Samples> requests = new LinkedHashMap<>();
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                String type = event.getEventType().getName();
+                if (AccountPhaseEvent.NAME.equals(type)) {
+                    Samples samples = phases.computeIfAbsent(
+                            List.of(event.getString("operation"), event.getString("phase")), key -> new Samples());
+                    samples.add(event.getDuration().toNanos(), event.getInt("rows"),
+                            !AccountPhaseEvent.OK.equals(event.getString("outcome")));
+                } else if (AccountRequestEvent.NAME.equals(type)) {
+                    Samples samples = requests.computeIfAbsent(event.getString("operation"), key -> new Samples());
+                    samples.add(event.getDuration().toNanos(), event.getLong("allocatedBytes"),
+                            "error".equals(event.getString("outcome")));
+                }
+            }
+        }
+
+        Map<String, Long> totalByOperation = new LinkedHashMap<>();
+        phases.forEach((key, samples) -> totalByOperation.merge(key.get(0), samples.total(), Long::sum));
+        List<PhaseStats> phaseStats = new ArrayList<>();
+        phases.forEach((key, samples) -> {
+            long[] nanos = samples.sortedNanos();
+            long operationTotal = totalByOperation.get(key.get(0));
+            phaseStats.add(new PhaseStats(key.get(0), key.get(1), samples.count, samples.flagged, samples.valueSum,
+                    millis(samples.total() / (double) samples.count), millis(percentile(nanos, 50)),
+                    millis(percentile(nanos, 95)), millis(percentile(nanos, 99)), millis(nanos[nanos.length - 1]),
+                    millis(samples.total()), operationTotal == 0 ? 0 : samples.total() / (double) operationTotal));
+        });
+        phaseStats.sort(Comparator.comparing(PhaseStats::operation)
+                .thenComparingInt(stats -> AccountPhase.orderOf(stats.phase())));
+
+        List<RequestStats> requestStats = new ArrayList<>();
+        requests.forEach((operation, samples) -> {
+            long[] nanos = samples.sortedNanos();
+            long[] allocated = samples.sortedValues();
+            requestStats.add(new RequestStats(operation, samples.count, samples.flagged,
+                    millis(samples.total() / (double) samples.count), millis(percentile(nanos, 50)),
+                    millis(percentile(nanos, 95)), millis(percentile(nanos, 99)), millis(nanos[nanos.length - 1]),
+                    samples.valueSum / samples.count, percentile(allocated, 99)));
+        });
+        requestStats.sort(Comparator.comparing(RequestStats::operation));
+        return new JfrPhaseReport(phaseStats, requestStats);
+    }
+
+    /**
+     * The report as a fixed-width text table.
+     */
+    public String toTable() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%-8s %-16s %8s %6s %9s %9s %9s %9s %9s %6s%n",
+                "op", "phase", "count", "!ok", "mean ms", "p50 ms", "p95 ms", "p99 ms", "max ms", "share"));
+        for (PhaseStats stats : phases) {
+            out.append(String.format("%-8s %-16s %8d %6d %9.3f %9.3f %9.3f %9.3f %9.3f %5.1f%%%n",
+                    stats.operation(), stats.phase(), stats.count(), stats.notOk(), stats.meanMs(), stats.p50Ms(),
+                    stats.p95Ms(), stats.p99Ms(), stats.maxMs(), stats.share() * 100));
+        }
+        if (!requests.isEmpty()) {
+            out.append(String.format("%n%-8s %8s %6s %9s %9s %9s %9s %9s %12s %12s%n",
+                    "request", "count", "errors", "mean ms", "p50 ms", "p95 ms", "p99 ms", "max ms", "mean alloc", "p99 alloc"));
+            for (RequestStats stats : requests) {
+                out.append(String.format("%-8s %8d %6d %9.3f %9.3f %9.3f %9.3f %9.3f %12d %12d%n",
+                        stats.operation(), stats.count(), stats.errors(), stats.meanMs(), stats.p50Ms(), stats.p95Ms(),
+                        stats.p99Ms(), stats.maxMs(), stats.meanAllocatedBytes(), stats.p99AllocatedBytes()));
+            }
+        }
+        return out.toString();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: JfrPhaseReport <recording.jfr>...");
+            System.exit(2);
+        }
+        for (String arg : args) {
+            System.out.println(arg);
+            System.out.println(read(Path.of(arg)).toTable());
+        }
+    }
+
+    private static long percentile(long[] sorted, int percent) {
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static double millis(double nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static final class Samples {
+
+        private long[] nanos = new long[64];
+        private long[] values = new long[64];
+        private int count;
+        private long flagged;
+        private long valueSum;
+
+        void add(long duration, long value, boolean flag) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+                values = Arrays.copyOf(values, count * 2);
+            }
+            nanos[count] = duration;
+            values[count] = value;
+            count++;
+            valueSum += value;
+            if (flag) {
+                flagged++;
+            }
+        }
+
+        long total() {
+            long total = 0;
+            for (int i = 0; i < count; i++) {
+                total += nanos[i];
+            }
+            return total;
+        }
+
+        long[] sortedNanos() {
+            long[] sorted = Arrays.copyOf(nanos, count);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+
+        long[] sortedValues() {
+            long[] sorted = Arrays.copyOf(values, count);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
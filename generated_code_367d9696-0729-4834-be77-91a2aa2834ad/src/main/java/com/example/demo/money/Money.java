@@ -0,0 +1,190 @@
+package com.example.demo.money;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point amount held as a {@code long} number of cents.
+ * <p>
+ * Every operation is overflow-checked and throws {@link ArithmeticException} rather than wrapping.
+ * Conversions from {@link BigDecimal} are exact unless a {@link RoundingMode} is given, so values
+ * read from {@code DECIMAL(p, 2)} columns round-trip without loss. Batch loops that cannot afford
+ * an object per step can use the static {@code *Cents} methods on raw {@code long} values and only
+ * wrap or convert at the boundaries.
+ */
+public final class Money implements Comparable<Money> {
+
+    /** Number of decimal places of the minor unit. */
+    public static final int SCALE = 2;
+
+    public static final Money ZERO = new Money(0);
+
+    private static final long[] POWERS_OF_TEN = {
+        1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+        1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L, 10_000_000_000_000L,
+        100_000_000_000_000L, 1_000_000_000_000_000L, 10_000_000_000_000_000L, 100_000_000_000_000_000L,
+        1_000_000_000_000_000_000L
+    };
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    /**
+     * Converts exactly; throws {@link ArithmeticException} if the amount has non-zero digits beyond
+     * cents or does not fit in a {@code long}.
+     */
+    @JsonCreator
+    public static Money of(BigDecimal amount) {
+        return ofCents(toCents(amount));
+    }
+
+    public static Money of(BigDecimal amount, RoundingMode rounding) {
+        return ofCents(toCents(amount, rounding));
+    }
+
+    public long getCents() {
+        return cents;
+    }
+
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return toBigDecimal(cents);
+    }
+
+    public Money plus(Money other) {
+        return ofCents(addCents(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return ofCents(subtractCents(cents, other.cents));
+    }
+
+    public Money negate() {
+        return ofCents(Math.negateExact(cents));
+    }
+
+    public Money multiply(long factor) {
+        return ofCents(Math.multiplyExact(cents, factor));
+    }
+
+    /**
+     * Multiplies by a rate such as an interest or fee rate and rounds the result to cents.
+     */
+    public Money multiply(BigDecimal rate, RoundingMode rounding) {
+        return ofCents(multiplyCents(cents, rate, rounding));
+    }
+
+    public int signum() {
+        return Long.signum(cents);
+    }
+
+    public boolean isNegative() {
+        return cents < 0;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof Money other && cents == other.cents);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+
+    public static long toCents(BigDecimal amount) {
+        return toCents(amount, RoundingMode.UNNECESSARY);
+    }
+
+    public static long toCents(BigDecimal amount, RoundingMode rounding) {
+        return amount.setScale(SCALE, rounding).movePointRight(SCALE).longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    public static long addCents(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    public static long subtractCents(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+
+    /**
+     * Multiplies an amount by the rate {@code rateUnscaled / 10^rateScale} and rounds to cents.
+     * Callers in a loop should split the rate once and reuse it. If the intermediate product
+     * overflows a {@code long} the calculation falls back to {@link BigDecimal}; only a result that
+     * itself does not fit throws.
+     */
+    public static long multiplyCents(long cents, long rateUnscaled, int rateScale, RoundingMode rounding) {
+        if (rateScale < 0 || rateScale >= POWERS_OF_TEN.length) {
+            throw new IllegalArgumentException("Rate scale must be between 0 and " + (POWERS_OF_TEN.length - 1));
+        }
+        long product;
+        try {
+            product = Math.multiplyExact(cents, rateUnscaled);
+        } catch (ArithmeticException e) {
+            return BigDecimal.valueOf(cents).multiply(BigDecimal.valueOf(rateUnscaled))
+                    .movePointLeft(rateScale).setScale(0, rounding).longValueExact();
+        }
+        return divideRounded(product, POWERS_OF_TEN[rateScale], rounding);
+    }
+
+    public static long multiplyCents(long cents, BigDecimal rate, RoundingMode rounding) {
+        BigDecimal normalized = rate.scale() < 0 ? rate.setScale(0) : rate;
+        if (normalized.scale() >= POWERS_OF_TEN.length || normalized.precision() > 18) {
+            return BigDecimal.valueOf(cents).multiply(rate).setScale(0, rounding).longValueExact();
+        }
+        return multiplyCents(cents, normalized.unscaledValue().longValueExact(), normalized.scale(), rounding);
+    }
+
+    /**
+     * Integer division with an explicit rounding mode. The divisor must be positive.
+     */
+    public static long divideRounded(long dividend, long divisor, RoundingMode rounding) {
+        if (divisor <= 0) {
+            throw new IllegalArgumentException("Divisor must be positive");
+        }
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+        int sign = dividend < 0 ? -1 : 1;
+        boolean awayFromZero = switch (rounding) {
+            case UP -> true;
+            case DOWN -> false;
+            case CEILING -> sign > 0;
+            case FLOOR -> sign < 0;
+            case HALF_UP, HALF_DOWN, HALF_EVEN -> {
+                int half = Long.compare(Math.abs(remainder), divisor - Math.abs(remainder));
+                yield half > 0 || (half == 0 && (rounding == RoundingMode.HALF_UP
+                        || (rounding == RoundingMode.HALF_EVEN && (quotient & 1) != 0)));
+            }
+            case UNNECESSARY -> throw new ArithmeticException("Rounding necessary");
+        };
+        return awayFromZero ? quotient + sign : quotient;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.demo.outbox;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Appends events as JSON lines to one file per day, {@code outbox-yyyyMMdd.jsonl}, and forces each
+ * batch to disk before it counts as delivered. The payload is embedded as a JSON object.
+ */
+public class FileOutboxSink implements OutboxSink {
+
+    private static final DateTimeFormatter FILE_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final Path directory;
+    private final JsonFactory jsonFactory;
+    private FileChannel channel;
+    private LocalDate channelDate;
+
+    public FileOutboxSink(Path directory, JsonFactory jsonFactory) {
+        this.directory = directory;
+        this.jsonFactory = jsonFactory;
+    }
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public synchronized void deliver(List<OutboxEvent> events) throws IOException {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream(events.size() * 512);
+        for (OutboxEvent event : events) {
+            try (JsonGenerator generator = jsonFactory.createGenerator(lines)) {
+                generator.writeStartObject();
+                generator.writeNumberField("eventId", event.eventId());
+                generator.writeStringField("eventType", event.type().name());
+                generator.writeStringField("aggregateType", event.type().getAggregateType());
+                generator.writeStringField("aggregateId", event.aggregateId());
+                generator.writeStringField("createdAt", event.createdAt().toString());
+                generator.writeFieldName("payload");
+                generator.writeRawValue(event.payload());
+                generator.writeEndObject();
+            }
+            lines.write('\n');
+        }
+        FileChannel file = channel(LocalDate.now());
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+        while (buffer.hasRemaining()) {
+            file.write(buffer);
+        }
+        file.force(false);
+    }
+
+    private FileChannel channel(LocalDate today) throws IOException {
+        if (channel != null && today.equals(channelDate)) {
+            return channel;
+        }
+        closeChannel();
+        Files.createDirectories(directory);
+        channel = FileChannel.open(directory.resolve("outbox-" + today.format(FILE_DATE) + ".jsonl"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        channelDate = today;
+        return channel;
+    }
+
+    @Override
+    public synchronized void close() {
+        closeChannel();
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // Every delivered batch was already forced to disk
+        }
+        channel = null;
+    }
+}
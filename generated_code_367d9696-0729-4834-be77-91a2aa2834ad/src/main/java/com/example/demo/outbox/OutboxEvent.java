@@ -0,0 +1,10 @@
+package com.example.demo.outbox;
+
+import java.time.LocalDateTime;
+
+/**
+ * A committed outbox event. Event IDs only grow; consumers use them to drop redelivered events.
+ */
+public record OutboxEvent(long eventId, OutboxEventType type, String aggregateId, String payload,
+                          LocalDateTime createdAt) {
+}
@@ -0,0 +1,27 @@
+package com.example.demo.outbox;
+
+/**
+ * Kind of change an outbox event describes. The name is stored in {@code outbox_events} and read by
+ * consumers, so it must never change.
+ */
+public enum OutboxEventType {
+
+    /** State of an account after an update through the API. */
+    ACCOUNT_UPDATED("ACCOUNT"),
+    /** State of a customer after an update through the API, without SSN, government ID and EFT account. */
+    CUSTOMER_UPDATED("CUSTOMER"),
+    /** Amounts added to an account's balance and cycle totals by posting, interest or a cycle close. */
+    ACCOUNT_BALANCE_CHANGED("ACCOUNT"),
+    /** Reissue date set on an account by the card reissue job. */
+    ACCOUNT_REISSUED("ACCOUNT");
+
+    private final String aggregateType;
+
+    OutboxEventType(String aggregateType) {
+        this.aggregateType = aggregateType;
+    }
+
+    public String getAggregateType() {
+        return aggregateType;
+    }
+}
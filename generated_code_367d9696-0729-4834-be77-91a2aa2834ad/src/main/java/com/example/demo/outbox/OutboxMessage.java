@@ -0,0 +1,7 @@
+package com.example.demo.outbox;
+
+/**
+ * An event to be written to the outbox; the payload is a JSON object.
+ */
+public record OutboxMessage(OutboxEventType type, String aggregateId, String payload) {
+}
@@ -0,0 +1,26 @@
+package com.example.demo.outbox;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination of the outbox publisher. Delivery is at least once: a batch whose offset could not be
+ * recorded after it was delivered is delivered again, so consumers must skip event IDs they have
+ * already seen.
+ */
+public interface OutboxSink extends AutoCloseable {
+
+    /**
+     * Key of this sink's delivery offset in {@code outbox_offsets}.
+     */
+    String name();
+
+    /**
+     * Delivers a batch in event ID order. The batch counts as delivered once this returns; if it
+     * throws, the same events are offered again.
+     */
+    void deliver(List<OutboxEvent> events) throws IOException;
+
+    @Override
+    void close();
+}
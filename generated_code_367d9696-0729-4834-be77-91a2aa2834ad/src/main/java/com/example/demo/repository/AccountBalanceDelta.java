@@ -0,0 +1,20 @@
+package com.example.demo.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Amounts in cents to add to the balance and cycle totals of one account.
+ */
+@Data
+@AllArgsConstructor
+public class AccountBalanceDelta {
+
+    private final Long accountId;
+
+    private final long balanceCents;
+
+    private final long cycleCreditCents;
+
+    private final long cycleDebitCents;
+}
@@ -0,0 +1,12 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.AccountCycleHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface AccountCycleHistoryRepository extends JpaRepository<AccountCycleHistory, Long>, AccountCycleHistoryRepositoryCustom {
+    
+    List<AccountCycleHistory> findByAccountIdOrderByCycleEndDateDesc(Long accountId);
+}
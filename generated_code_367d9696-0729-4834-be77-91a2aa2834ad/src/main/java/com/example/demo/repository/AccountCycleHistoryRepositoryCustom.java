@@ -0,0 +1,13 @@
+package com.example.demo.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface AccountCycleHistoryRepositoryCustom {
+    
+    /**
+     * Inserts one history row per account with JDBC batching. Identity-keyed entities cannot be
+     * batched by Hibernate, so this bypasses the persistence context.
+     */
+    void insertBatch(String runId, String groupId, LocalDate cycleEndDate, List<AccountCycleTotals> rows, int batchSize);
+}
@@ -0,0 +1,38 @@
+package com.example.demo.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+class AccountCycleHistoryRepositoryCustomImpl implements AccountCycleHistoryRepositoryCustom {
+    
+    private static final String INSERT_SQL =
+            "INSERT INTO account_cycle_history (run_id, account_id, group_id, active_status, cycle_end_date, " +
+            "cycle_credit, cycle_debit, closing_balance, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    AccountCycleHistoryRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    @Override
+    public void insertBatch(String runId, String groupId, LocalDate cycleEndDate, List<AccountCycleTotals> rows, int batchSize) {
+        Date endDate = Date.valueOf(cycleEndDate);
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, batchSize, (ps, row) -> {
+            ps.setString(1, runId);
+            ps.setLong(2, row.getAccountId());
+            ps.setString(3, groupId);
+            ps.setString(4, row.getActiveStatus());
+            ps.setDate(5, endDate);
+            ps.setBigDecimal(6, row.getCurrentCycleCredit());
+            ps.setBigDecimal(7, row.getCurrentCycleDebit());
+            ps.setBigDecimal(8, row.getCurrentBalance());
+            ps.setTimestamp(9, createdAt);
+        });
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.demo.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Per-account cycle totals read by the cycle-close job before they are rolled into history.
+ */
+public interface AccountCycleTotals {
+
+    Long getAccountId();
+
+    String getActiveStatus();
+
+    BigDecimal getCurrentBalance();
+
+    BigDecimal getCurrentCycleCredit();
+
+    BigDecimal getCurrentCycleDebit();
+}
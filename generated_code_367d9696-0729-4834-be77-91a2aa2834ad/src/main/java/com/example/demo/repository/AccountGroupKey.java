@@ -0,0 +1,13 @@
+package com.example.demo.repository;
+
+/**
+ * Group and status of an account, used to route deltas to {@code account_group_summaries}.
+ */
+public interface AccountGroupKey {
+
+    Long getAccountId();
+
+    String getGroupId();
+
+    String getActiveStatus();
+}
@@ -0,0 +1,12 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.AccountGroupSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface AccountGroupSummaryRepository extends JpaRepository<AccountGroupSummary, Long>, AccountGroupSummaryRepositoryCustom {
+    
+    List<AccountGroupSummary> findAllByOrderByGroupIdAscActiveStatusAsc();
+}
@@ -0,0 +1,18 @@
+package com.example.demo.repository;
+
+import java.math.BigDecimal;
+
+public interface AccountGroupSummaryRepositoryCustom {
+    
+    /**
+     * Adds the deltas to the row of (group, status), creating it if missing, without failing when
+     * a concurrent transaction creates the same row first.
+     */
+    void applyDelta(String groupId, String activeStatus, long countDelta, BigDecimal balanceDelta,
+                    BigDecimal creditLimitDelta, BigDecimal cycleCreditDelta, BigDecimal cycleDebitDelta);
+    
+    /**
+     * Removes rows whose count and totals are all zero and returns how many were removed.
+     */
+    int deleteEmpty();
+}
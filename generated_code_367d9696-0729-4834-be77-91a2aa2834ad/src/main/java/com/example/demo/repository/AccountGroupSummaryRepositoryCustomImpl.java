@@ -0,0 +1,89 @@
+package com.example.demo.repository;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+class AccountGroupSummaryRepositoryCustomImpl implements AccountGroupSummaryRepositoryCustom {
+    
+    private static final String UPSERT_SQL =
+            "INSERT INTO account_group_summaries (group_id, active_status, account_count, total_balance, " +
+            "total_credit_limit, total_cycle_credit, total_cycle_debit, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT (group_id, active_status) DO UPDATE SET " +
+            "account_count = account_group_summaries.account_count + EXCLUDED.account_count, " +
+            "total_balance = account_group_summaries.total_balance + EXCLUDED.total_balance, " +
+            "total_credit_limit = account_group_summaries.total_credit_limit + EXCLUDED.total_credit_limit, " +
+            "total_cycle_credit = account_group_summaries.total_cycle_credit + EXCLUDED.total_cycle_credit, " +
+            "total_cycle_debit = account_group_summaries.total_cycle_debit + EXCLUDED.total_cycle_debit, " +
+            "updated_at = EXCLUDED.updated_at";
+    
+    private static final String UPDATE_SQL =
+            "UPDATE account_group_summaries SET account_count = account_count + ?, " +
+            "total_balance = total_balance + ?, total_credit_limit = total_credit_limit + ?, " +
+            "total_cycle_credit = total_cycle_credit + ?, total_cycle_debit = total_cycle_debit + ?, " +
+            "updated_at = ? WHERE group_id = ? AND active_status = ?";
+    
+    private static final String INSERT_SQL =
+            "INSERT INTO account_group_summaries (group_id, active_status, account_count, total_balance, " +
+            "total_credit_limit, total_cycle_credit, total_cycle_debit, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    private volatile Boolean postgres;
+    
+    AccountGroupSummaryRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    @Override
+    public void applyDelta(String groupId, String activeStatus, long countDelta, BigDecimal balanceDelta,
+                           BigDecimal creditLimitDelta, BigDecimal cycleCreditDelta, BigDecimal cycleDebitDelta) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        if (isPostgres()) {
+            jdbcTemplate.update(UPSERT_SQL, groupId, activeStatus, countDelta, balanceDelta, creditLimitDelta,
+                    cycleCreditDelta, cycleDebitDelta, now, now);
+            return;
+        }
+        // H2 has no ON CONFLICT DO UPDATE; a failed statement does not abort its transaction there,
+        // so the loser of a concurrent insert adds its delta to the winner's row instead
+        if (update(groupId, activeStatus, countDelta, balanceDelta, creditLimitDelta, cycleCreditDelta,
+                cycleDebitDelta, now) > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(INSERT_SQL, groupId, activeStatus, countDelta, balanceDelta, creditLimitDelta,
+                    cycleCreditDelta, cycleDebitDelta, now, now);
+        } catch (DuplicateKeyException e) {
+            update(groupId, activeStatus, countDelta, balanceDelta, creditLimitDelta, cycleCreditDelta,
+                    cycleDebitDelta, now);
+        }
+    }
+    
+    @Override
+    public int deleteEmpty() {
+        return jdbcTemplate.update("DELETE FROM account_group_summaries WHERE account_count = 0 " +
+                "AND total_balance = 0 AND total_credit_limit = 0 AND total_cycle_credit = 0 AND total_cycle_debit = 0");
+    }
+    
+    private int update(String groupId, String activeStatus, long countDelta, BigDecimal balanceDelta,
+                       BigDecimal creditLimitDelta, BigDecimal cycleCreditDelta, BigDecimal cycleDebitDelta,
+                       Timestamp now) {
+        return jdbcTemplate.update(UPDATE_SQL, countDelta, balanceDelta, creditLimitDelta, cycleCreditDelta,
+                cycleDebitDelta, now, groupId, activeStatus);
+    }
+    
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            result = "PostgreSQL".equalsIgnoreCase(product);
+            postgres = result;
+        }
+        return result;
+    }
+}
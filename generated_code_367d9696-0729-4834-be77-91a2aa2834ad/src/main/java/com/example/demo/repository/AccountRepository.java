@@ -1,20 +1,30 @@
 package com.example.demo.repository;
 
 import com.example.demo.entity.Account;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface AccountRepository extends JpaRepository<Account, Long> {
+public interface AccountRepository extends JpaRepository<Account, Long>, AccountRepositoryCustom {
     
     Optional<Account> findByAccountId(Long accountId);
     
     List<Account> findByCustomerId(Long customerId);
     
+    List<Account> findByCustomerIdOrderByAccountIdAsc(Long customerId);
+    
     Page<Account> findByCustomerId(Long customerId, Pageable pageable);
     
     List<Account> findByActiveStatus(String activeStatus);
@@ -24,4 +34,63 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     List<Account> findByGroupId(String groupId);
     
     Page<Account> findByGroupId(String groupId, Pageable pageable);
+    
+    @Query("SELECT MIN(a.accountId) FROM Account a")
+    Long findMinAccountId();
+    
+    @Query("SELECT MAX(a.accountId) FROM Account a")
+    Long findMaxAccountId();
+    
+    @Query("SELECT MIN(a.accountId) FROM Account a WHERE a.groupId = :groupId")
+    Long findMinAccountIdByGroupId(@Param("groupId") String groupId);
+    
+    @Query("SELECT MAX(a.accountId) FROM Account a WHERE a.groupId = :groupId")
+    Long findMaxAccountIdByGroupId(@Param("groupId") String groupId);
+    
+    /**
+     * Locks the returned accounts until the transaction ends, so the totals recorded in history are
+     * still the ones {@link #closeCycle} subtracts when another writer sets the cycle amounts.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a.accountId AS accountId, a.activeStatus AS activeStatus, a.currentBalance AS currentBalance, " +
+           "a.currentCycleCredit AS currentCycleCredit, a.currentCycleDebit AS currentCycleDebit " +
+           "FROM Account a WHERE a.groupId = :groupId AND a.accountId BETWEEN :fromAccountId AND :toAccountId " +
+           "AND NOT EXISTS (SELECT h.id FROM AccountCycleHistory h " +
+           "WHERE h.accountId = a.accountId AND h.cycleEndDate = :cycleEndDate)")
+    List<AccountCycleTotals> findCycleTotalsToClose(@Param("groupId") String groupId,
+                                                    @Param("fromAccountId") Long fromAccountId,
+                                                    @Param("toAccountId") Long toAccountId,
+                                                    @Param("cycleEndDate") LocalDate cycleEndDate);
+    
+    /**
+     * Subtracts the amounts recorded in history by the given run, so activity posted after the
+     * totals were read stays in the new cycle.
+     */
+    @Modifying
+    @Query("UPDATE Account a SET " +
+           "a.currentCycleCredit = a.currentCycleCredit - (SELECT h.cycleCredit FROM AccountCycleHistory h " +
+           "WHERE h.runId = :runId AND h.accountId = a.accountId), " +
+           "a.currentCycleDebit = a.currentCycleDebit - (SELECT h.cycleDebit FROM AccountCycleHistory h " +
+           "WHERE h.runId = :runId AND h.accountId = a.accountId), " +
+           "a.updatedAt = :updatedAt " +
+           "WHERE a.accountId IN (SELECT h.accountId FROM AccountCycleHistory h " +
+           "WHERE h.runId = :runId AND h.accountId BETWEEN :fromAccountId AND :toAccountId)")
+    int closeCycle(@Param("runId") String runId,
+                   @Param("fromAccountId") Long fromAccountId,
+                   @Param("toAccountId") Long toAccountId,
+                   @Param("updatedAt") LocalDateTime updatedAt);
+    
+    /**
+     * Sets only the reissue date, so balances changed concurrently by relative updates are kept.
+     */
+    @Modifying
+    @Query("UPDATE Account a SET a.reissueDate = :reissueDate, a.updatedAt = :updatedAt " +
+           "WHERE a.accountId IN :accountIds")
+    int updateReissueDate(@Param("accountIds") Collection<Long> accountIds,
+                          @Param("reissueDate") LocalDate reissueDate,
+                          @Param("updatedAt") LocalDateTime updatedAt);
+    
+    @Query("SELECT a.accountId AS accountId, a.groupId AS groupId, a.activeStatus AS activeStatus " +
+           "FROM Account a WHERE a.accountId IN :accountIds")
+    List<AccountGroupKey> findGroupKeysByAccountIdIn(@Param("accountIds") Collection<Long> accountIds);
 }
@@ -0,0 +1,19 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Account;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface AccountRepositoryCustom {
+    
+    /**
+     * Selects only the given attributes of an account into a transient, read-only instance.
+     */
+    Optional<Account> findPartialByAccountId(Long accountId, Collection<String> attributes);
+    
+    /**
+     * Adds each delta to its account with one batched UPDATE and returns the number of accounts updated.
+     */
+    int applyBalanceDeltas(List<AccountBalanceDelta> deltas);
+}
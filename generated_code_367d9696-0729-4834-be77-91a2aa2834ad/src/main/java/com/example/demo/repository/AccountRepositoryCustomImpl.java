@@ -0,0 +1,55 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Account;
+import com.example.demo.money.Money;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+class AccountRepositoryCustomImpl implements AccountRepositoryCustom {
+    
+    private static final String ADD_BALANCE_SQL =
+            "UPDATE accounts SET current_balance = current_balance + ?, " +
+            "current_cycle_credit = current_cycle_credit + ?, current_cycle_debit = current_cycle_debit + ?, " +
+            "updated_at = ? WHERE account_id = ?";
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    AccountRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    @Override
+    public Optional<Account> findPartialByAccountId(Long accountId, Collection<String> attributes) {
+        return PartialEntityQueries.findPartialById(entityManager, Account.class, Account::new,
+                "accountId", accountId, attributes);
+    }
+    
+    @Override
+    public int applyBalanceDeltas(List<AccountBalanceDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[] updated = jdbcTemplate.batchUpdate(ADD_BALANCE_SQL, deltas, deltas.size(), (ps, delta) -> {
+            ps.setBigDecimal(1, Money.toBigDecimal(delta.getBalanceCents()));
+            ps.setBigDecimal(2, Money.toBigDecimal(delta.getCycleCreditCents()));
+            ps.setBigDecimal(3, Money.toBigDecimal(delta.getCycleDebitCents()));
+            ps.setTimestamp(4, now);
+            ps.setLong(5, delta.getAccountId());
+        })[0];
+        int total = 0;
+        for (int count : updated) {
+            total += Math.max(count, 0);
+        }
+        return total;
+    }
+}
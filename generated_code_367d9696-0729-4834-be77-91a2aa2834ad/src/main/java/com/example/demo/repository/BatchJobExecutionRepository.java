@@ -0,0 +1,46 @@
+package com.example.demo.repository;
+
+import com.example.demo.batch.BatchStatus;
+import com.example.demo.entity.BatchJobExecution;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BatchJobExecutionRepository extends JpaRepository<BatchJobExecution, Long> {
+    
+    Optional<BatchJobExecution> findByJobNameAndRunDate(String jobName, LocalDate runDate);
+    
+    List<BatchJobExecution> findByOrderByExecutionIdDesc(Pageable pageable);
+    
+    List<BatchJobExecution> findByJobNameOrderByExecutionIdDesc(String jobName, Pageable pageable);
+    
+    /**
+     * Starts another attempt of the execution, unless another launcher started one since
+     * {@code attempts} was read.
+     */
+    @Modifying
+    @Query("UPDATE BatchJobExecution e SET e.status = com.example.demo.batch.BatchStatus.RUNNING, " +
+           "e.attempts = e.attempts + 1, e.startedAt = :now, e.endedAt = NULL, e.exitMessage = NULL, e.updatedAt = :now " +
+           "WHERE e.executionId = :executionId AND e.attempts = :attempts")
+    int claim(@Param("executionId") Long executionId,
+              @Param("attempts") int attempts,
+              @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("UPDATE BatchJobExecution e SET e.status = :status, e.endedAt = :now, e.exitMessage = :exitMessage, " +
+           "e.updatedAt = :now WHERE e.executionId = :executionId AND e.attempts = :attempts")
+    int finish(@Param("executionId") Long executionId,
+               @Param("attempts") int attempts,
+               @Param("status") BatchStatus status,
+               @Param("exitMessage") String exitMessage,
+               @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,54 @@
+package com.example.demo.repository;
+
+import com.example.demo.batch.BatchStatus;
+import com.example.demo.entity.BatchStepPartition;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BatchStepPartitionRepository extends JpaRepository<BatchStepPartition, Long> {
+    
+    List<BatchStepPartition> findByExecutionIdAndStepNameOrderByPartitionIndexAsc(Long executionId, String stepName);
+    
+    List<BatchStepPartition> findByExecutionIdOrderByIdAsc(Long executionId);
+    
+    List<BatchStepPartition> findByExecutionIdInOrderByIdAsc(Collection<Long> executionIds);
+    
+    @Query("SELECT MAX(p.updatedAt) FROM BatchStepPartition p WHERE p.executionId = :executionId")
+    LocalDateTime findLastUpdatedAt(@Param("executionId") Long executionId);
+    
+    /**
+     * Records a committed chunk. Matches nothing if another run has checkpointed the partition
+     * since {@code afterKey} was read, so the caller's transaction can be rolled back.
+     */
+    @Modifying
+    @Query("UPDATE BatchStepPartition p SET p.lastKey = :lastKey, p.status = :status, " +
+           "p.readCount = p.readCount + :readCount, p.writeCount = p.writeCount + :writeCount, " +
+           "p.filterCount = p.filterCount + :filterCount, p.commitCount = p.commitCount + 1, " +
+           "p.elapsedMs = p.elapsedMs + :elapsedMs, p.updatedAt = :now " +
+           "WHERE p.id = :id AND p.lastKey = :afterKey")
+    int checkpoint(@Param("id") Long id,
+                   @Param("afterKey") long afterKey,
+                   @Param("lastKey") long lastKey,
+                   @Param("status") BatchStatus status,
+                   @Param("readCount") long readCount,
+                   @Param("writeCount") long writeCount,
+                   @Param("filterCount") long filterCount,
+                   @Param("elapsedMs") long elapsedMs,
+                   @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("UPDATE BatchStepPartition p SET p.status = :status, p.exitMessage = :exitMessage, p.updatedAt = :now " +
+           "WHERE p.id = :id")
+    int updateStatus(@Param("id") Long id,
+                     @Param("status") BatchStatus status,
+                     @Param("exitMessage") String exitMessage,
+                     @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,16 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.CardAuthorization;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CardAuthorizationRepository extends JpaRepository<CardAuthorization, String>, CardAuthorizationRepositoryCustom {
+    
+    /**
+     * Approvals whose hold is still outstanding, in expiry order.
+     */
+    List<CardAuthorization> findByApprovedTrueAndHoldExpiresAtAfterOrderByHoldExpiresAt(LocalDateTime now);
+}
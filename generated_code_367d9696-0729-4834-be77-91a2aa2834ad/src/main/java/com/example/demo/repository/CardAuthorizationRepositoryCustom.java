@@ -0,0 +1,12 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.CardAuthorization;
+import java.util.List;
+
+public interface CardAuthorizationRepositoryCustom {
+    
+    /**
+     * Inserts authorization records with one JDBC batch.
+     */
+    void insertBatch(List<CardAuthorization> authorizations);
+}
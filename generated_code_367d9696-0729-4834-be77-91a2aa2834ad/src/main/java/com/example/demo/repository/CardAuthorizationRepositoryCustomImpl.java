@@ -0,0 +1,54 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.CardAuthorization;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+class CardAuthorizationRepositoryCustomImpl implements CardAuthorizationRepositoryCustom {
+    
+    private static final String INSERT_SQL =
+            "INSERT INTO card_authorizations (authorization_id, card_number, account_id, amount, cash_advance, approved, " +
+            "decline_reason, merchant_id, merchant_name, merchant_city, merchant_zip, requested_at, hold_expires_at, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    CardAuthorizationRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    @Override
+    public void insertBatch(List<CardAuthorization> authorizations) {
+        if (authorizations.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, authorizations, authorizations.size(), (ps, authorization) -> {
+            ps.setString(1, authorization.getAuthorizationId());
+            ps.setString(2, authorization.getCardNumber());
+            if (authorization.getAccountId() == null) {
+                ps.setNull(3, Types.BIGINT);
+            } else {
+                ps.setLong(3, authorization.getAccountId());
+            }
+            ps.setBigDecimal(4, authorization.getAmount().toBigDecimal());
+            ps.setBoolean(5, authorization.getCashAdvance());
+            ps.setBoolean(6, authorization.getApproved());
+            ps.setString(7, authorization.getDeclineReason());
+            if (authorization.getMerchantId() == null) {
+                ps.setNull(8, Types.BIGINT);
+            } else {
+                ps.setLong(8, authorization.getMerchantId());
+            }
+            ps.setString(9, authorization.getMerchantName());
+            ps.setString(10, authorization.getMerchantCity());
+            ps.setString(11, authorization.getMerchantZip());
+            ps.setTimestamp(12, Timestamp.valueOf(authorization.getRequestedAt()));
+            ps.setTimestamp(13, authorization.getHoldExpiresAt() == null ? null : Timestamp.valueOf(authorization.getHoldExpiresAt()));
+            ps.setTimestamp(14, now);
+        });
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.demo.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * New status and expiration date of one card, applied only while the card still has the expected
+ * status and expiration date.
+ */
+@Data
+@AllArgsConstructor
+public class CardExpiryChange {
+
+    private final String cardNumber;
+
+    private final String expectedStatus;
+
+    private final LocalDate expectedExpirationDate;
+
+    private final String cardStatus;
+
+    private final LocalDate expirationDate;
+}
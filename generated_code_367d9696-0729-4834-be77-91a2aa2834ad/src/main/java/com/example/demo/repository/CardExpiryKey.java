@@ -0,0 +1,13 @@
+package com.example.demo.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Keyset position of a card in expiration order, read from {@code idx_card_expiration}.
+ */
+public interface CardExpiryKey {
+
+    String getCardNumber();
+
+    LocalDate getExpirationDate();
+}
@@ -1,17 +1,35 @@
 package com.example.demo.repository;
 
 import com.example.demo.entity.Card;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CardRepository extends JpaRepository<Card, String> {
+public interface CardRepository extends JpaRepository<Card, String>, CardRepositoryCustom {
     
     Optional<Card> findByCardNumber(String cardNumber);
     
     List<Card> findByAccountId(Long accountId);
     
     List<Card> findByCustomerId(Long customerId);
+    
+    List<Card> findByAccountIdInOrderByAccountIdAscCardNumberAsc(Collection<Long> accountIds);
+    
+    @Query("SELECT c.cardNumber AS cardNumber, c.expirationDate AS expirationDate FROM Card c " +
+           "WHERE c.cardStatus = :cardStatus AND c.expirationDate BETWEEN :fromDate AND :toDate " +
+           "AND (c.expirationDate > :afterDate OR (c.expirationDate = :afterDate AND c.cardNumber > :afterCardNumber)) " +
+           "ORDER BY c.expirationDate, c.cardNumber")
+    List<CardExpiryKey> findExpiringAfter(@Param("cardStatus") String cardStatus,
+                                          @Param("fromDate") LocalDate fromDate,
+                                          @Param("toDate") LocalDate toDate,
+                                          @Param("afterDate") LocalDate afterDate,
+                                          @Param("afterCardNumber") String afterCardNumber,
+                                          Pageable pageable);
 }
@@ -0,0 +1,12 @@
+package com.example.demo.repository;
+
+import java.util.List;
+
+public interface CardRepositoryCustom {
+    
+    /**
+     * Applies the changes with one batched UPDATE and returns the card numbers that still matched
+     * their expected status and expiration date.
+     */
+    List<String> applyExpiryChanges(List<CardExpiryChange> changes);
+}
@@ -0,0 +1,45 @@
+package com.example.demo.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.sql.Date;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+class CardRepositoryCustomImpl implements CardRepositoryCustom {
+    
+    private static final String UPDATE_SQL =
+            "UPDATE cards SET card_status = ?, expiration_date = ?, updated_at = ? " +
+            "WHERE card_number = ? AND card_status = ? AND expiration_date = ?";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    CardRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    @Override
+    public List<String> applyExpiryChanges(List<CardExpiryChange> changes) {
+        if (changes.isEmpty()) {
+            return List.of();
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, changes, changes.size(), (ps, change) -> {
+            ps.setString(1, change.getCardStatus());
+            ps.setDate(2, Date.valueOf(change.getExpirationDate()));
+            ps.setTimestamp(3, now);
+            ps.setString(4, change.getCardNumber());
+            ps.setString(5, change.getExpectedStatus());
+            ps.setDate(6, Date.valueOf(change.getExpectedExpirationDate()));
+        })[0];
+        List<String> applied = new ArrayList<>(changes.size());
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] > 0 || updated[i] == Statement.SUCCESS_NO_INFO) {
+                applied.add(changes.get(i).getCardNumber());
+            }
+        }
+        return applied;
+    }
+}
@@ -3,6 +3,7 @@ package com.example.demo.repository;
 import com.example.demo.entity.CardXref;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,4 +15,6 @@ public interface CardXrefRepository extends JpaRepository<CardXref, Long> {
     Optional<CardXref> findByCardNumber(String cardNumber);
     
     List<CardXref> findByCustomerId(Long customerId);
+    
+    List<CardXref> findByAccountIdInOrderByIdAsc(Collection<Long> accountIds);
 }
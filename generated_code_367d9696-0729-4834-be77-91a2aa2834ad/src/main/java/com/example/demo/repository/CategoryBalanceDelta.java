@@ -0,0 +1,20 @@
+package com.example.demo.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Amount in cents to add to one {@code transaction_category_balances} row.
+ */
+@Data
+@AllArgsConstructor
+public class CategoryBalanceDelta {
+
+    private final Long accountId;
+
+    private final String typeCode;
+
+    private final String categoryCode;
+
+    private final long amountCents;
+}
@@ -0,0 +1,16 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.CustomerDuplicateCandidate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CustomerDuplicateCandidateRepository extends JpaRepository<CustomerDuplicateCandidate, Long>, CustomerDuplicateCandidateRepositoryCustom {
+    
+    @Modifying
+    @Query("DELETE FROM CustomerDuplicateCandidate c WHERE c.runId <> :runId")
+    int deleteOtherRuns(@Param("runId") String runId);
+}
@@ -0,0 +1,12 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.CustomerDuplicateCandidate;
+import java.util.List;
+
+public interface CustomerDuplicateCandidateRepositoryCustom {
+    
+    /**
+     * Inserts candidate pairs with JDBC batching, bypassing the persistence context.
+     */
+    void insertBatch(List<CustomerDuplicateCandidate> candidates, int batchSize);
+}
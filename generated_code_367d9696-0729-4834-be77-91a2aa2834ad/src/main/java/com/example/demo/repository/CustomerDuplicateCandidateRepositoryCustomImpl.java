@@ -0,0 +1,34 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.CustomerDuplicateCandidate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+class CustomerDuplicateCandidateRepositoryCustomImpl implements CustomerDuplicateCandidateRepositoryCustom {
+    
+    private static final String INSERT_SQL =
+            "INSERT INTO customer_duplicate_candidates (run_id, cluster_id, customer_id, duplicate_customer_id, " +
+            "score, matched_on, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    CustomerDuplicateCandidateRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    @Override
+    public void insertBatch(List<CustomerDuplicateCandidate> candidates, int batchSize) {
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, candidates, batchSize, (ps, candidate) -> {
+            ps.setString(1, candidate.getRunId());
+            ps.setLong(2, candidate.getClusterId());
+            ps.setLong(3, candidate.getCustomerId());
+            ps.setLong(4, candidate.getDuplicateCustomerId());
+            ps.setBigDecimal(5, candidate.getScore());
+            ps.setString(6, candidate.getMatchedOn());
+            ps.setTimestamp(7, createdAt);
+        });
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.demo.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Attributes of one customer compared by the duplicate detection job.
+ */
+@Data
+@AllArgsConstructor
+public class CustomerMatchRow {
+
+    private final long customerId;
+
+    private final String firstName;
+
+    private final String lastName;
+
+    private final LocalDate dateOfBirth;
+
+    private final String zipCode;
+
+    private final String ssn;
+
+    private final String phoneNumber1;
+
+    private final String phoneNumber2;
+}
@@ -1,13 +1,16 @@
 package com.example.demo.repository;
 
 import com.example.demo.entity.Customer;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CustomerRepository extends JpaRepository<Customer, Long> {
+public interface CustomerRepository extends JpaRepository<Customer, Long>, CustomerRepositoryCustom {
     
     Optional<Customer> findByCustomerId(Long customerId);
     
@@ -16,4 +19,9 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
     List<Customer> findByLastName(String lastName);
     
     boolean existsBySsn(String ssn);
+    
+    @Query("SELECT c.customerId AS customerId, c.firstName AS firstName, c.lastName AS lastName, " +
+           "c.phoneNumber1 AS phoneNumber1, c.phoneNumber2 AS phoneNumber2, c.zipCode AS zipCode " +
+           "FROM Customer c WHERE c.customerId > :afterCustomerId ORDER BY c.customerId")
+    List<CustomerSearchRow> findSearchRowsAfter(@Param("afterCustomerId") Long afterCustomerId, Pageable pageable);
 }
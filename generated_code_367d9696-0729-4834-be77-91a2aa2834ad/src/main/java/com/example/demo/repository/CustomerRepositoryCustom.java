@@ -0,0 +1,20 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Customer;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+public interface CustomerRepositoryCustom {
+    
+    /**
+     * Selects only the given attributes of a customer into a transient, read-only instance.
+     */
+    Optional<Customer> findPartialByCustomerId(Long customerId, Collection<String> attributes);
+    
+    /**
+     * Streams the match attributes of every customer in one pass, without loading entities. Returns
+     * the number of rows passed to {@code consumer}.
+     */
+    long streamMatchRows(int fetchSize, Consumer<CustomerMatchRow> consumer);
+}
@@ -0,0 +1,52 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Customer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+class CustomerRepositoryCustomImpl implements CustomerRepositoryCustom {
+    
+    private static final String MATCH_ROWS_SQL =
+            "SELECT customer_id, first_name, last_name, date_of_birth, zip_code, ssn, phone_number1, phone_number2 " +
+            "FROM customers";
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    CustomerRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    @Override
+    public Optional<Customer> findPartialByCustomerId(Long customerId, Collection<String> attributes) {
+        return PartialEntityQueries.findPartialById(entityManager, Customer.class, Customer::new,
+                "customerId", customerId, attributes);
+    }
+    
+    @Override
+    public long streamMatchRows(int fetchSize, Consumer<CustomerMatchRow> consumer) {
+        long[] rows = new long[1];
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(MATCH_ROWS_SQL);
+            ps.setFetchSize(fetchSize);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            Date dateOfBirth = rs.getDate("date_of_birth");
+            consumer.accept(new CustomerMatchRow(rs.getLong("customer_id"), rs.getString("first_name"),
+                    rs.getString("last_name"), dateOfBirth == null ? null : dateOfBirth.toLocalDate(),
+                    rs.getString("zip_code"), rs.getString("ssn"),
+                    rs.getString("phone_number1"), rs.getString("phone_number2")));
+            rows[0]++;
+        });
+        return rows[0];
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.demo.repository;
+
+/**
+ * Narrow projection of {@code customers} used to build the in-memory customer search index.
+ */
+public interface CustomerSearchRow {
+
+    Long getCustomerId();
+
+    String getFirstName();
+
+    String getLastName();
+
+    String getPhoneNumber1();
+
+    String getPhoneNumber2();
+
+    String getZipCode();
+}
@@ -0,0 +1,22 @@
+package com.example.demo.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * One merchant purchase as read by the merchant analytics backfill.
+ */
+@Data
+@AllArgsConstructor
+public class MerchantActivity {
+
+    private final String cardNumber;
+
+    private final long merchantId;
+
+    private final String merchantName;
+
+    private final String merchantCity;
+
+    private final long amountCents;
+}
@@ -0,0 +1,56 @@
+package com.example.demo.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Loads a single entity by id selecting only the requested attributes. The returned instance is
+ * transient: attributes that were not selected are left {@code null} and it must never be saved.
+ */
+final class PartialEntityQueries {
+
+    private PartialEntityQueries() {
+    }
+
+    static <T> Optional<T> findPartialById(EntityManager entityManager, Class<T> entityType, Supplier<T> factory,
+                                           String idAttribute, Object id, Collection<String> attributes) {
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add(idAttribute);
+        selected.addAll(attributes);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(entityType);
+        List<Selection<?>> selections = new ArrayList<>(selected.size());
+        for (String attribute : selected) {
+            selections.add(root.get(attribute).alias(attribute));
+        }
+        query.multiselect(selections).where(cb.equal(root.get(idAttribute), id));
+
+        List<Tuple> rows = entityManager.createQuery(query).setMaxResults(1).getResultList();
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Tuple row = rows.get(0);
+        T entity = factory.get();
+        BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(entity);
+        for (String attribute : selected) {
+            wrapper.setPropertyValue(attribute, row.get(attribute));
+        }
+        return Optional.of(entity);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.PostingJournalCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+
+@Repository
+public interface PostingJournalCheckpointRepository extends JpaRepository<PostingJournalCheckpoint, String> {
+    
+    @Modifying
+    @Query("UPDATE PostingJournalCheckpoint c SET c.flushedSequence = :flushedSequence, c.updatedAt = :updatedAt " +
+           "WHERE c.journalId = :journalId")
+    int updateFlushedSequence(@Param("journalId") String journalId,
+                              @Param("flushedSequence") long flushedSequence,
+                              @Param("updatedAt") LocalDateTime updatedAt);
+    
+    /**
+     * Gives the journal the next unused journal number unless it already has one. Fails on the
+     * unique key when another journal takes the same number concurrently.
+     */
+    @Modifying
+    @Query(value = "UPDATE posting_journal_checkpoints SET journal_number = " +
+                   "(SELECT COALESCE(MAX(journal_number), 0) + 1 FROM posting_journal_checkpoints) " +
+                   "WHERE journal_id = :journalId AND journal_number IS NULL", nativeQuery = true)
+    int assignJournalNumber(@Param("journalId") String journalId);
+}
@@ -0,0 +1,29 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.TransactionArchiveFile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TransactionArchiveFileRepository extends JpaRepository<TransactionArchiveFile, String> {
+    
+    /**
+     * Archive files whose card number and timestamp ranges may contain matching rows; a null
+     * argument does not restrict that dimension.
+     */
+    @Query("SELECT f FROM TransactionArchiveFile f " +
+           "WHERE (:cardNumber IS NULL OR (f.minCardNumber <= :cardNumber AND f.maxCardNumber >= :cardNumber)) " +
+           "AND (:from IS NULL OR f.maxOriginalTimestamp >= :from) " +
+           "AND (:to IS NULL OR f.minOriginalTimestamp <= :to) " +
+           "ORDER BY f.archiveMonth, f.fileName")
+    List<TransactionArchiveFile> findCandidates(@Param("cardNumber") String cardNumber,
+                                                @Param("from") LocalDateTime from,
+                                                @Param("to") LocalDateTime to);
+    
+    long countByArchiveMonth(LocalDate archiveMonth);
+}
@@ -1,13 +1,17 @@
 package com.example.demo.repository;
 
 import com.example.demo.entity.TransactionCategoryBalance;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TransactionCategoryBalanceRepository extends JpaRepository<TransactionCategoryBalance, Long> {
+public interface TransactionCategoryBalanceRepository extends JpaRepository<TransactionCategoryBalance, Long>, TransactionCategoryBalanceRepositoryCustom {
     
     List<TransactionCategoryBalance> findByAccountId(Long accountId);
     
@@ -15,4 +19,18 @@ public interface TransactionCategoryBalanceRepository extends JpaRepository<Tran
             Long accountId, 
             String typeCode, 
             String categoryCode);
+    
+    List<TransactionCategoryBalance> findByAccountIdIn(Collection<Long> accountIds);
+    
+    @Query("SELECT MIN(b.accountId) FROM TransactionCategoryBalance b")
+    Long findMinAccountId();
+    
+    @Query("SELECT MAX(b.accountId) FROM TransactionCategoryBalance b")
+    Long findMaxAccountId();
+    
+    @Query("SELECT DISTINCT b.accountId FROM TransactionCategoryBalance b " +
+           "WHERE b.accountId > :afterAccountId AND b.accountId <= :toAccountId ORDER BY b.accountId")
+    List<Long> findAccountIdsBetween(@Param("afterAccountId") long afterAccountId,
+                                     @Param("toAccountId") long toAccountId,
+                                     Pageable pageable);
 }
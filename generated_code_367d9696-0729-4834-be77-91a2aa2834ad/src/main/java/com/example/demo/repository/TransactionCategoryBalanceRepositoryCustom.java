@@ -0,0 +1,12 @@
+package com.example.demo.repository;
+
+import java.util.List;
+
+public interface TransactionCategoryBalanceRepositoryCustom {
+    
+    /**
+     * Adds each delta to its balance row with one batched UPDATE, then inserts the rows that did
+     * not exist yet with one batched INSERT.
+     */
+    void applyDeltas(List<CategoryBalanceDelta> deltas);
+}
@@ -0,0 +1,57 @@
+package com.example.demo.repository;
+
+import com.example.demo.money.Money;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+class TransactionCategoryBalanceRepositoryCustomImpl implements TransactionCategoryBalanceRepositoryCustom {
+    
+    private static final String UPDATE_SQL =
+            "UPDATE transaction_category_balances SET balance = balance + ?, updated_at = ? " +
+            "WHERE account_id = ? AND type_code = ? AND category_code = ?";
+    
+    private static final String INSERT_SQL =
+            "INSERT INTO transaction_category_balances (account_id, type_code, category_code, balance, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    TransactionCategoryBalanceRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    @Override
+    public void applyDeltas(List<CategoryBalanceDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, deltas, deltas.size(), (ps, delta) -> {
+            ps.setBigDecimal(1, Money.toBigDecimal(delta.getAmountCents()));
+            ps.setTimestamp(2, now);
+            ps.setLong(3, delta.getAccountId());
+            ps.setString(4, delta.getTypeCode());
+            ps.setString(5, delta.getCategoryCode());
+        })[0];
+        
+        List<CategoryBalanceDelta> missing = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                missing.add(deltas.get(i));
+            }
+        }
+        if (!missing.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, missing, missing.size(), (ps, delta) -> {
+                ps.setLong(1, delta.getAccountId());
+                ps.setString(2, delta.getTypeCode());
+                ps.setString(3, delta.getCategoryCode());
+                ps.setBigDecimal(4, Money.toBigDecimal(delta.getAmountCents()));
+                ps.setTimestamp(5, now);
+                ps.setTimestamp(6, now);
+            });
+        }
+    }
+}
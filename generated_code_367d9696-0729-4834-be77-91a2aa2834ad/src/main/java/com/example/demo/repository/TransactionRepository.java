@@ -2,16 +2,13 @@ package com.example.demo.repository;
 
 import com.example.demo.entity.Transaction;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
-import java.util.List;
-import java.util.Optional;
+import java.time.LocalDateTime;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, String> {
+public interface TransactionRepository extends JpaRepository<Transaction, String>, TransactionRepositoryCustom {
     
-    Optional<Transaction> findByTransactionId(String transactionId);
-    
-    List<Transaction> findByCardNumber(String cardNumber);
-    
-    List<Transaction> findByTypeCodeAndCategoryCode(String typeCode, String categoryCode);
+    @Query("SELECT MIN(t.originalTimestamp) FROM Transaction t")
+    LocalDateTime findMinOriginalTimestamp();
 }
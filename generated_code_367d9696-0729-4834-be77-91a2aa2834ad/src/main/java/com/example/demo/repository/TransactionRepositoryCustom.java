@@ -0,0 +1,78 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Transaction;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * The finders below read the {@code transactions} table and then the archive files of months moved
+ * out of it, so callers see archived history without knowing where it lives. Archived rows are
+ * returned detached.
+ */
+public interface TransactionRepositoryCustom {
+    
+    Optional<Transaction> findByTransactionId(String transactionId);
+    
+    List<Transaction> findByCardNumber(String cardNumber);
+    
+    /**
+     * Transactions of the card with {@code from <= originalTimestamp <= to}; archive files outside
+     * the range are not opened.
+     */
+    List<Transaction> findByCardNumberAndOriginalTimestampBetween(String cardNumber, LocalDateTime from, LocalDateTime to);
+    
+    /**
+     * Reads every archive file, as type and category are not part of the archive stats.
+     */
+    List<Transaction> findByTypeCodeAndCategoryCode(String typeCode, String categoryCode);
+    
+    /**
+     * Inserts new transactions with JDBC batching, without a merge lookup per row.
+     */
+    void insertBatch(List<Transaction> transactions, int batchSize);
+    
+    /**
+     * Streams purchases with a merchant created before {@code createdBefore}, without loading them
+     * all into memory. Returns the number of rows passed to {@code consumer}.
+     */
+    long streamMerchantActivity(LocalDateTime createdBefore, int fetchSize, Consumer<MerchantActivity> consumer);
+    
+    /**
+     * Streams rows with {@code from <= original_timestamp < to} ordered by card number and timestamp.
+     * Returns the number of rows passed to {@code consumer}.
+     */
+    long streamOriginalTimestampRange(LocalDateTime from, LocalDateTime to, int fetchSize, Consumer<Transaction> consumer);
+    
+    int deleteOriginalTimestampRange(LocalDateTime from, LocalDateTime to);
+    
+    /**
+     * True when {@code transactions} is a PostgreSQL partitioned table; see db/vendor/postgresql.
+     */
+    boolean isPartitioned();
+    
+    /**
+     * Creates the {@code transactions_pYYYYMM} partition if it does not exist. Returns false when it
+     * already existed.
+     */
+    boolean createMonthPartition(YearMonth month);
+    
+    /**
+     * True when the table is partitioned and the month has a {@code transactions_pYYYYMM} partition.
+     */
+    boolean hasMonthPartition(YearMonth month);
+    
+    /**
+     * Locks the month's partition against writes until the current transaction ends.
+     */
+    void lockMonthPartition(YearMonth month);
+    
+    void dropMonthPartition(YearMonth month);
+    
+    /**
+     * Drops the partition holding the pre-partitioning rows once archiving has emptied it.
+     */
+    boolean dropLegacyPartitionIfEmpty();
+}
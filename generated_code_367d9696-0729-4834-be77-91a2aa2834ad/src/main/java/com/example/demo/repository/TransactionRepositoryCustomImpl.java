@@ -0,0 +1,276 @@
+package com.example.demo.repository;
+
+import com.example.demo.archive.TransactionArchiveQuery;
+import com.example.demo.archive.TransactionArchiveStore;
+import com.example.demo.entity.Transaction;
+import com.example.demo.money.Money;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+class TransactionRepositoryCustomImpl implements TransactionRepositoryCustom {
+    
+    private static final String INSERT_SQL =
+            "INSERT INTO transactions (transaction_id, card_number, type_code, category_code, source, description, " +
+            "amount, merchant_id, merchant_name, merchant_city, merchant_zip, original_timestamp, processed_timestamp, " +
+            "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private static final String MERCHANT_ACTIVITY_SQL =
+            "SELECT card_number, merchant_id, merchant_name, merchant_city, amount FROM transactions " +
+            "WHERE merchant_id IS NOT NULL AND amount > 0 AND created_at < ?";
+    
+    private static final String RANGE_SQL =
+            "SELECT transaction_id, card_number, type_code, category_code, source, description, amount, merchant_id, " +
+            "merchant_name, merchant_city, merchant_zip, original_timestamp, processed_timestamp, created_at, updated_at " +
+            "FROM transactions WHERE original_timestamp >= ? AND original_timestamp < ? " +
+            "ORDER BY card_number, original_timestamp";
+    
+    private static final String LEGACY_PARTITION = "transactions_legacy";
+    
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    private final TransactionArchiveStore archiveStore;
+    
+    private volatile Boolean partitioned;
+    
+    TransactionRepositoryCustomImpl(JdbcTemplate jdbcTemplate, TransactionArchiveStore archiveStore) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.archiveStore = archiveStore;
+    }
+    
+    @Override
+    public Optional<Transaction> findByTransactionId(String transactionId) {
+        List<Transaction> hot = entityManager.createQuery(
+                        "SELECT t FROM Transaction t WHERE t.transactionId = :transactionId", Transaction.class)
+                .setParameter("transactionId", transactionId)
+                .getResultList();
+        if (!hot.isEmpty()) {
+            return Optional.of(hot.get(0));
+        }
+        return archiveStore.find(TransactionArchiveQuery.byTransactionId(transactionId)).stream().findFirst();
+    }
+    
+    @Override
+    public List<Transaction> findByCardNumber(String cardNumber) {
+        List<Transaction> hot = entityManager.createQuery(
+                        "SELECT t FROM Transaction t WHERE t.cardNumber = :cardNumber", Transaction.class)
+                .setParameter("cardNumber", cardNumber)
+                .getResultList();
+        return merge(hot, TransactionArchiveQuery.byCardNumber(cardNumber));
+    }
+    
+    @Override
+    public List<Transaction> findByCardNumberAndOriginalTimestampBetween(String cardNumber, LocalDateTime from, LocalDateTime to) {
+        List<Transaction> hot = entityManager.createQuery(
+                        "SELECT t FROM Transaction t WHERE t.cardNumber = :cardNumber " +
+                        "AND t.originalTimestamp BETWEEN :from AND :to", Transaction.class)
+                .setParameter("cardNumber", cardNumber)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getResultList();
+        return merge(hot, TransactionArchiveQuery.byCardNumberBetween(cardNumber, from, to));
+    }
+    
+    @Override
+    public List<Transaction> findByTypeCodeAndCategoryCode(String typeCode, String categoryCode) {
+        List<Transaction> hot = entityManager.createQuery(
+                        "SELECT t FROM Transaction t WHERE t.typeCode = :typeCode AND t.categoryCode = :categoryCode",
+                        Transaction.class)
+                .setParameter("typeCode", typeCode)
+                .setParameter("categoryCode", categoryCode)
+                .getResultList();
+        return merge(hot, TransactionArchiveQuery.byTypeCodeAndCategoryCode(typeCode, categoryCode));
+    }
+    
+    /**
+     * The table is read before the archive: a month archived in between then shows up in both and
+     * is de-duplicated here, rather than being missed.
+     */
+    private List<Transaction> merge(List<Transaction> hot, TransactionArchiveQuery archiveQuery) {
+        List<Transaction> archived = archiveStore.find(archiveQuery);
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        Map<String, Transaction> byId = new LinkedHashMap<>();
+        for (Transaction transaction : hot) {
+            byId.put(transaction.getTransactionId(), transaction);
+        }
+        for (Transaction transaction : archived) {
+            byId.putIfAbsent(transaction.getTransactionId(), transaction);
+        }
+        return new ArrayList<>(byId.values());
+    }
+    
+    @Override
+    public void insertBatch(List<Transaction> transactions, int batchSize) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, transactions, batchSize, (ps, transaction) -> {
+            ps.setString(1, transaction.getTransactionId());
+            ps.setString(2, transaction.getCardNumber());
+            ps.setString(3, transaction.getTypeCode());
+            ps.setString(4, transaction.getCategoryCode());
+            ps.setString(5, transaction.getSource());
+            ps.setString(6, transaction.getDescription());
+            ps.setBigDecimal(7, transaction.getAmount().toBigDecimal());
+            if (transaction.getMerchantId() == null) {
+                ps.setNull(8, Types.BIGINT);
+            } else {
+                ps.setLong(8, transaction.getMerchantId());
+            }
+            ps.setString(9, transaction.getMerchantName());
+            ps.setString(10, transaction.getMerchantCity());
+            ps.setString(11, transaction.getMerchantZip());
+            ps.setTimestamp(12, Timestamp.valueOf(transaction.getOriginalTimestamp()));
+            ps.setTimestamp(13, transaction.getProcessedTimestamp() == null ? null : Timestamp.valueOf(transaction.getProcessedTimestamp()));
+            ps.setTimestamp(14, now);
+            ps.setTimestamp(15, now);
+        });
+    }
+    
+    @Override
+    public long streamMerchantActivity(LocalDateTime createdBefore, int fetchSize, Consumer<MerchantActivity> consumer) {
+        long[] rows = new long[1];
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(MERCHANT_ACTIVITY_SQL);
+            ps.setFetchSize(fetchSize);
+            ps.setTimestamp(1, Timestamp.valueOf(createdBefore));
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            consumer.accept(new MerchantActivity(rs.getString("card_number"), rs.getLong("merchant_id"),
+                    rs.getString("merchant_name"), rs.getString("merchant_city"),
+                    Money.toCents(rs.getBigDecimal("amount"))));
+            rows[0]++;
+        });
+        return rows[0];
+    }
+    
+    @Override
+    public long streamOriginalTimestampRange(LocalDateTime from, LocalDateTime to, int fetchSize, Consumer<Transaction> consumer) {
+        long[] rows = new long[1];
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(RANGE_SQL);
+            ps.setFetchSize(fetchSize);
+            ps.setTimestamp(1, Timestamp.valueOf(from));
+            ps.setTimestamp(2, Timestamp.valueOf(to));
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            consumer.accept(mapRow(rs));
+            rows[0]++;
+        });
+        return rows[0];
+    }
+    
+    @Override
+    public int deleteOriginalTimestampRange(LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.update("DELETE FROM transactions WHERE original_timestamp >= ? AND original_timestamp < ?",
+                Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+    
+    @Override
+    public boolean isPartitioned() {
+        Boolean result = partitioned;
+        if (result == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            result = "PostgreSQL".equalsIgnoreCase(product) && Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass('transactions'))",
+                    Boolean.class));
+            partitioned = result;
+        }
+        return result;
+    }
+    
+    @Override
+    public boolean createMonthPartition(YearMonth month) {
+        String partition = partitionName(month);
+        if (!isPartitioned() || tableExists(partition)) {
+            return false;
+        }
+        jdbcTemplate.execute("CREATE TABLE " + partition + " PARTITION OF transactions FOR VALUES FROM ('" +
+                month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+        return true;
+    }
+    
+    @Override
+    public boolean hasMonthPartition(YearMonth month) {
+        return isPartitioned() && tableExists(partitionName(month));
+    }
+    
+    @Override
+    public void lockMonthPartition(YearMonth month) {
+        jdbcTemplate.execute("LOCK TABLE " + partitionName(month) + " IN SHARE MODE");
+    }
+    
+    @Override
+    public void dropMonthPartition(YearMonth month) {
+        jdbcTemplate.execute("DROP TABLE " + partitionName(month));
+    }
+    
+    @Override
+    public boolean dropLegacyPartitionIfEmpty() {
+        if (!isPartitioned() || !tableExists(LEGACY_PARTITION)) {
+            return false;
+        }
+        jdbcTemplate.execute("LOCK TABLE " + LEGACY_PARTITION + " IN ACCESS EXCLUSIVE MODE");
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + LEGACY_PARTITION + ")", Boolean.class))) {
+            return false;
+        }
+        jdbcTemplate.execute("DROP TABLE " + LEGACY_PARTITION);
+        return true;
+    }
+    
+    private boolean tableExists(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table));
+    }
+    
+    private static String partitionName(YearMonth month) {
+        return "transactions_p" + month.format(PARTITION_SUFFIX);
+    }
+    
+    private static Transaction mapRow(ResultSet rs) throws SQLException {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(rs.getString("transaction_id"));
+        transaction.setCardNumber(rs.getString("card_number"));
+        transaction.setTypeCode(rs.getString("type_code"));
+        transaction.setCategoryCode(rs.getString("category_code"));
+        transaction.setSource(rs.getString("source"));
+        transaction.setDescription(rs.getString("description"));
+        transaction.setAmount(Money.of(rs.getBigDecimal("amount")));
+        long merchantId = rs.getLong("merchant_id");
+        transaction.setMerchantId(rs.wasNull() ? null : merchantId);
+        transaction.setMerchantName(rs.getString("merchant_name"));
+        transaction.setMerchantCity(rs.getString("merchant_city"));
+        transaction.setMerchantZip(rs.getString("merchant_zip"));
+        transaction.setOriginalTimestamp(rs.getTimestamp("original_timestamp").toLocalDateTime());
+        Timestamp processed = rs.getTimestamp("processed_timestamp");
+        transaction.setProcessedTimestamp(processed == null ? null : processed.toLocalDateTime());
+        transaction.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+        transaction.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
+        return transaction;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.demo.service;
+
+import com.example.demo.repository.AccountBalanceDelta;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Published inside the transaction that applied these balance and cycle deltas: the
+ * {@link PostingService} flush, an {@link InterestCalculationJob} chunk or a
+ * {@link BillingCycleCloseService} partition.
+ */
+@Data
+@AllArgsConstructor
+public class AccountBalancesPostedEvent {
+
+    private final List<AccountBalanceDelta> deltas;
+}
@@ -0,0 +1,404 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.AccountGroupSummaryRebuildResponseDto;
+import com.example.demo.dto.AccountGroupSummaryResponseDto;
+import com.example.demo.entity.Account;
+import com.example.demo.entity.AccountGroupSummary;
+import com.example.demo.repository.AccountGroupSummaryRepository;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains {@code account_group_summaries}, the per (group, status) totals read by risk dashboards.
+ * <p>
+ * Writers call {@link #applyChange} or {@link #applyDelta} inside their own transaction so the
+ * summary commits or rolls back together with the account rows. Deltas are applied with an upsert,
+ * so the first writers of a new (group, status) do not fail on the unique key. {@link #rebuild()}
+ * recomputes the totals from {@code accounts} in parallel by account ID range and corrects any drift.
+ */
+@Service
+@Slf4j
+public class AccountGroupSummaryService {
+
+    static final String NO_GROUP = "";
+
+    private static final String SUMMARY_SQL =
+            "SELECT group_id, active_status, account_count, total_balance, total_credit_limit, "
+                    + "total_cycle_credit, total_cycle_debit FROM account_group_summaries";
+
+    private static final String SUM_RANGE_SQL =
+            "SELECT COALESCE(group_id, ''), active_status, COUNT(*), COALESCE(SUM(current_balance), 0), "
+                    + "COALESCE(SUM(credit_limit), 0), COALESCE(SUM(current_cycle_credit), 0), "
+                    + "COALESCE(SUM(current_cycle_debit), 0) FROM accounts WHERE account_id BETWEEN ? AND ? "
+                    + "GROUP BY COALESCE(group_id, ''), active_status";
+
+    private static final Pattern SNAPSHOT_ID = Pattern.compile("^[0-9A-Fa-f-]+$");
+
+    private final AccountGroupSummaryRepository summaryRepository;
+    private final DataSource dataSource;
+    private final TransactionTemplate transactionTemplate;
+    private final int rebuildPartitions;
+
+    public AccountGroupSummaryService(AccountGroupSummaryRepository summaryRepository,
+                                      DataSource dataSource,
+                                      PlatformTransactionManager transactionManager,
+                                      @Value("${account.summary.rebuild-partitions:4}") int rebuildPartitions) {
+        this.summaryRepository = summaryRepository;
+        this.dataSource = dataSource;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rebuildPartitions = Math.max(1, rebuildPartitions);
+    }
+
+    @Transactional(readOnly = true)
+    public List<AccountGroupSummaryResponseDto> getSummaries() {
+        List<AccountGroupSummaryResponseDto> responses = new ArrayList<>();
+        for (AccountGroupSummary summary : summaryRepository.findAllByOrderByGroupIdAscActiveStatusAsc()) {
+            responses.add(convertToResponse(summary));
+        }
+        return responses;
+    }
+
+    /**
+     * Moves an account's contribution from its state before a change to its state after it.
+     */
+    @Transactional
+    public void applyChange(Contribution before, Contribution after) {
+        if (before.sameKey(after)) {
+            BigDecimal balanceDelta = after.getBalance().subtract(before.getBalance());
+            BigDecimal creditLimitDelta = after.getCreditLimit().subtract(before.getCreditLimit());
+            BigDecimal cycleCreditDelta = after.getCycleCredit().subtract(before.getCycleCredit());
+            BigDecimal cycleDebitDelta = after.getCycleDebit().subtract(before.getCycleDebit());
+            if (balanceDelta.signum() == 0 && creditLimitDelta.signum() == 0
+                    && cycleCreditDelta.signum() == 0 && cycleDebitDelta.signum() == 0) {
+                return;
+            }
+            applyDelta(after.getGroupId(), after.getActiveStatus(), 0,
+                    balanceDelta, creditLimitDelta, cycleCreditDelta, cycleDebitDelta);
+            return;
+        }
+        applyDelta(before.getGroupId(), before.getActiveStatus(), -1,
+                before.getBalance().negate(), before.getCreditLimit().negate(),
+                before.getCycleCredit().negate(), before.getCycleDebit().negate());
+        applyDelta(after.getGroupId(), after.getActiveStatus(), 1,
+                after.getBalance(), after.getCreditLimit(), after.getCycleCredit(), after.getCycleDebit());
+    }
+
+    /**
+     * Adds the given deltas to one summary row, creating the row the first time a key is seen.
+     * Batch writers that change many accounts should pre-aggregate per key and call this once per key.
+     */
+    @Transactional
+    public void applyDelta(String groupId, String activeStatus, long countDelta, BigDecimal balanceDelta,
+                           BigDecimal creditLimitDelta, BigDecimal cycleCreditDelta, BigDecimal cycleDebitDelta) {
+        summaryRepository.applyDelta(groupId == null ? NO_GROUP : groupId, activeStatus, countDelta, balanceDelta,
+                creditLimitDelta, cycleCreditDelta, cycleDebitDelta);
+    }
+
+    @Scheduled(cron = "${account.summary.rebuild-cron:-}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Recomputes every summary row from {@code accounts}. The summary rows and the account ID ranges
+     * are all read in one snapshot, so both reflect the same committed transactions and their
+     * difference is exactly the drift. On PostgreSQL the snapshot is exported and the ranges are
+     * aggregated concurrently by {@code account.summary.rebuild-partitions} workers that import it;
+     * elsewhere they are aggregated one after another in the snapshot's own transaction.
+     * <p>
+     * The drift is then added to the rows as a delta, so updates that committed while the scan was
+     * running are kept rather than overwritten, and rows left with nothing in them are removed.
+     */
+    public AccountGroupSummaryRebuildResponseDto rebuild() {
+        long started = System.currentTimeMillis();
+        Map<String, Totals> recorded = new HashMap<>();
+        Map<String, Totals> computed = new HashMap<>();
+        int partitions;
+        try (Connection coordinator = dataSource.getConnection()) {
+            beginSnapshot(coordinator);
+            String snapshotId = isPostgres(coordinator) ? exportSnapshotId(coordinator) : null;
+            readSummaries(coordinator, recorded);
+            List<long[]> ranges = planRanges(coordinator);
+            partitions = ranges.size();
+            if (snapshotId == null || ranges.size() < 2) {
+                for (long[] range : ranges) {
+                    sumRange(coordinator, range, computed);
+                }
+            } else {
+                sumInParallel(snapshotId, ranges, computed);
+            }
+            coordinator.commit();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Account group summary rebuild failed: " + e.getMessage(), e);
+        }
+
+        int corrected = Objects.requireNonNull(transactionTemplate.execute(status -> correct(recorded, computed)));
+        long accountsScanned = computed.values().stream().mapToLong(t -> t.accountCount).sum();
+        long duration = System.currentTimeMillis() - started;
+        log.info("Rebuilt account group summaries from {} accounts in {} partitions, {} rows corrected, {} ms",
+                accountsScanned, partitions, corrected, duration);
+        return new AccountGroupSummaryRebuildResponseDto(partitions, accountsScanned, corrected, duration);
+    }
+
+    private void sumInParallel(String snapshotId, List<long[]> ranges, Map<String, Totals> computed) {
+        Queue<long[]> queue = new ConcurrentLinkedQueue<>(ranges);
+        int workers = Math.min(rebuildPartitions, ranges.size());
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<Map<String, Totals>>> futures = new ArrayList<>(workers);
+            for (int i = 0; i < workers; i++) {
+                futures.add(pool.submit(() -> {
+                    Map<String, Totals> partial = new HashMap<>();
+                    try (Connection connection = dataSource.getConnection()) {
+                        beginSnapshot(connection);
+                        try (Statement statement = connection.createStatement()) {
+                            statement.execute("SET TRANSACTION SNAPSHOT '" + snapshotId + "'");
+                        }
+                        long[] range;
+                        while ((range = queue.poll()) != null) {
+                            sumRange(connection, range, partial);
+                        }
+                        connection.commit();
+                    } catch (Exception e) {
+                        queue.clear();
+                        throw e;
+                    }
+                    return partial;
+                }));
+            }
+            for (Future<Map<String, Totals>> future : futures) {
+                future.get().forEach((key, totals) ->
+                        computed.computeIfAbsent(key, k -> new Totals(totals.groupId, totals.activeStatus)).add(totals));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Account group summary rebuild was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Account group summary rebuild failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Splits {@code [MIN(account_id), MAX(account_id)]} into up to {@code rebuildPartitions} ranges.
+     */
+    private List<long[]> planRanges(Connection connection) throws SQLException {
+        List<long[]> ranges = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT MIN(account_id), MAX(account_id) FROM accounts")) {
+            resultSet.next();
+            long minAccountId = resultSet.getLong(1);
+            if (resultSet.wasNull()) {
+                return ranges;
+            }
+            long maxAccountId = resultSet.getLong(2);
+            long span = maxAccountId - minAccountId + 1;
+            int partitions = (int) Math.min(rebuildPartitions, span);
+            long step = (span + partitions - 1) / partitions;
+            for (int i = 0; i < partitions; i++) {
+                long from = minAccountId + i * step;
+                ranges.add(new long[]{from, Math.min(maxAccountId, from + step - 1)});
+            }
+        }
+        return ranges;
+    }
+
+    private static void readSummaries(Connection connection, Map<String, Totals> recorded) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(SUMMARY_SQL)) {
+            while (resultSet.next()) {
+                Totals totals = Totals.of(resultSet);
+                recorded.computeIfAbsent(keyOf(totals.groupId, totals.activeStatus),
+                        k -> new Totals(totals.groupId, totals.activeStatus)).add(totals);
+            }
+        }
+    }
+
+    private static void sumRange(Connection connection, long[] range, Map<String, Totals> computed) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(SUM_RANGE_SQL)) {
+            statement.setLong(1, range[0]);
+            statement.setLong(2, range[1]);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    Totals totals = Totals.of(resultSet);
+                    computed.computeIfAbsent(keyOf(totals.groupId, totals.activeStatus),
+                            k -> new Totals(totals.groupId, totals.activeStatus)).add(totals);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds {@code computed - recorded} to every drifted row and returns how many rows were corrected.
+     */
+    private int correct(Map<String, Totals> recorded, Map<String, Totals> computed) {
+        Map<String, Totals> drift = new HashMap<>();
+        computed.forEach((key, totals) -> drift.computeIfAbsent(key,
+                k -> new Totals(totals.groupId, totals.activeStatus)).add(totals));
+        recorded.forEach((key, totals) -> drift.computeIfAbsent(key,
+                k -> new Totals(totals.groupId, totals.activeStatus)).subtract(totals));
+        int corrected = 0;
+        for (Totals delta : drift.values()) {
+            if (delta.isZero()) {
+                continue;
+            }
+            log.warn("Correcting drifted account group summary {}/{} by {} accounts, {} balance",
+                    delta.groupId, delta.activeStatus, delta.accountCount, delta.balance);
+            summaryRepository.applyDelta(delta.groupId, delta.activeStatus, delta.accountCount, delta.balance,
+                    delta.creditLimit, delta.cycleCredit, delta.cycleDebit);
+            corrected++;
+        }
+        int removed = summaryRepository.deleteEmpty();
+        if (removed > 0) {
+            log.info("Removed {} empty account group summaries", removed);
+        }
+        return corrected;
+    }
+
+    private static void beginSnapshot(Connection connection) throws SQLException {
+        connection.setAutoCommit(false);
+        connection.setReadOnly(true);
+        connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+    }
+
+    private static String exportSnapshotId(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT pg_export_snapshot()")) {
+            resultSet.next();
+            String id = resultSet.getString(1);
+            if (!SNAPSHOT_ID.matcher(id).matches()) {
+                throw new IllegalStateException("Unexpected snapshot ID: " + id);
+            }
+            return id;
+        }
+    }
+
+    private static boolean isPostgres(Connection connection) throws SQLException {
+        return "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+    }
+
+    private static String keyOf(String groupId, String activeStatus) {
+        return groupId + '\u0000' + activeStatus;
+    }
+
+    private AccountGroupSummaryResponseDto convertToResponse(AccountGroupSummary summary) {
+        AccountGroupSummaryResponseDto response = new AccountGroupSummaryResponseDto();
+        response.setGroupId(summary.getGroupId());
+        response.setActiveStatus(summary.getActiveStatus());
+        response.setAccountCount(summary.getAccountCount());
+        response.setTotalBalance(summary.getTotalBalance());
+        response.setTotalCreditLimit(summary.getTotalCreditLimit());
+        response.setTotalCycleCredit(summary.getTotalCycleCredit());
+        response.setTotalCycleDebit(summary.getTotalCycleDebit());
+        response.setUpdatedAt(summary.getUpdatedAt());
+        return response;
+    }
+
+    /**
+     * The part of one account that the summary table aggregates.
+     */
+    @Data
+    @AllArgsConstructor
+    public static class Contribution {
+
+        private String groupId;
+        private String activeStatus;
+        private BigDecimal balance;
+        private BigDecimal creditLimit;
+        private BigDecimal cycleCredit;
+        private BigDecimal cycleDebit;
+
+        public static Contribution of(Account account) {
+            return new Contribution(
+                    account.getGroupId() == null ? NO_GROUP : account.getGroupId(),
+                    account.getActiveStatus(),
+                    orZero(account.getCurrentBalance()),
+                    orZero(account.getCreditLimit()),
+                    orZero(account.getCurrentCycleCredit()),
+                    orZero(account.getCurrentCycleDebit()));
+        }
+
+        boolean sameKey(Contribution other) {
+            return groupId.equals(other.groupId) && Objects.equals(activeStatus, other.activeStatus);
+        }
+
+        private static BigDecimal orZero(BigDecimal value) {
+            return value == null ? BigDecimal.ZERO : value;
+        }
+    }
+
+    private static final class Totals {
+
+        private final String groupId;
+        private final String activeStatus;
+        private long accountCount;
+        private BigDecimal balance = BigDecimal.ZERO;
+        private BigDecimal creditLimit = BigDecimal.ZERO;
+        private BigDecimal cycleCredit = BigDecimal.ZERO;
+        private BigDecimal cycleDebit = BigDecimal.ZERO;
+
+        Totals(String groupId, String activeStatus) {
+            this.groupId = groupId;
+            this.activeStatus = activeStatus;
+        }
+
+        static Totals of(ResultSet resultSet) throws SQLException {
+            Totals totals = new Totals(resultSet.getString(1), resultSet.getString(2));
+            totals.accountCount = resultSet.getLong(3);
+            totals.balance = resultSet.getBigDecimal(4);
+            totals.creditLimit = resultSet.getBigDecimal(5);
+            totals.cycleCredit = resultSet.getBigDecimal(6);
+            totals.cycleDebit = resultSet.getBigDecimal(7);
+            return totals;
+        }
+
+        void add(Totals other) {
+            accountCount += other.accountCount;
+            balance = balance.add(other.balance);
+            creditLimit = creditLimit.add(other.creditLimit);
+            cycleCredit = cycleCredit.add(other.cycleCredit);
+            cycleDebit = cycleDebit.add(other.cycleDebit);
+        }
+
+        void subtract(Totals other) {
+            accountCount -= other.accountCount;
+            balance = balance.subtract(other.balance);
+            creditLimit = creditLimit.subtract(other.creditLimit);
+            cycleCredit = cycleCredit.subtract(other.cycleCredit);
+            cycleDebit = cycleDebit.subtract(other.cycleDebit);
+        }
+
+        boolean isZero() {
+            return accountCount == 0 && balance.signum() == 0 && creditLimit.signum() == 0
+                    && cycleCredit.signum() == 0 && cycleDebit.signum() == 0;
+        }
+    }
+}
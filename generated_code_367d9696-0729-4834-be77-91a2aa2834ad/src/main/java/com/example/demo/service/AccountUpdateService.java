@@ -3,14 +3,21 @@ package com.example.demo.service;
 import com.example.demo.dto.UpdateAccountUpdateRequestDto;
 import com.example.demo.entity.Account;
 import com.example.demo.entity.Customer;
+import com.example.demo.jfr.AccountPhase;
+import com.example.demo.jfr.AccountPhaseEvent;
 import com.example.demo.repository.AccountRepository;
 import com.example.demo.repository.CustomerRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.Ordered;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
+import java.util.Optional;
 import java.util.regex.Pattern;
 
 @Service
@@ -20,6 +27,10 @@ public class AccountUpdateService {
 
     private final AccountRepository accountRepository;
     private final CustomerRepository customerRepository;
+    private final AccountGroupSummaryService accountGroupSummaryService;
+    private final AccountViewCoalescer accountViewCoalescer;
+    private final AuditService auditService;
+    private final ApplicationEventPublisher eventPublisher;
 
     private static final Pattern SSN_PATTERN = Pattern.compile("^\\d{9}$");
     private static final Pattern PHONE_PATTERN = Pattern.compile("^\\(?\\d{3}\\)?\\d{3}-\\d{4}$");
@@ -34,23 +45,46 @@ public class AccountUpdateService {
         log.info("Starting account update for accountId: {}", accountId);
 
         try {
+            AccountPhaseEvent phase = AccountPhaseEvent.begin(AccountPhaseEvent.UPDATE, AccountPhase.VALIDATE, accountId);
             String validationError = validateInputs(request);
+            phase.finish(0, validationError == null ? AccountPhaseEvent.OK : AccountPhaseEvent.INVALID);
             if (validationError != null) {
                 log.error("Validation failed: {}", validationError);
                 return validationError;
             }
 
-            Account account = accountRepository.findByAccountId(accountId)
+            accountViewCoalescer.beginUpdate(accountId);
+
+            phase = AccountPhaseEvent.begin(AccountPhaseEvent.UPDATE, AccountPhase.ACCOUNT_LOOKUP, accountId);
+            Optional<Account> foundAccount = accountRepository.findByAccountId(accountId);
+            phase.finishLookup(foundAccount.isPresent());
+            Account account = foundAccount
                     .orElseThrow(() -> new IllegalArgumentException("Account not found with ID: " + accountId));
 
-            Customer customer = customerRepository.findByCustomerId(account.getCustomerId())
+            phase = AccountPhaseEvent.begin(AccountPhaseEvent.UPDATE, AccountPhase.CUSTOMER_LOOKUP, accountId);
+            Optional<Customer> foundCustomer = customerRepository.findByCustomerId(account.getCustomerId());
+            phase.finishLookup(foundCustomer.isPresent());
+            Customer customer = foundCustomer
                     .orElseThrow(() -> new IllegalArgumentException("Customer not found with ID: " + account.getCustomerId()));
 
+            phase = AccountPhaseEvent.begin(AccountPhaseEvent.UPDATE, AccountPhase.APPLY_CHANGES, accountId);
+            AccountGroupSummaryService.Contribution before = AccountGroupSummaryService.Contribution.of(account);
+            AuditService.Snapshot audited = auditService.snapshot(account, customer);
             updateAccountFields(account, request);
             updateCustomerFields(customer, request);
+            phase.finish(0);
 
+            phase = AccountPhaseEvent.begin(AccountPhaseEvent.UPDATE, AccountPhase.SAVE, accountId);
             accountRepository.save(account);
             customerRepository.save(customer);
+            auditService.recordUpdate(audited, account, customer);
+            phase.finish(2);
+
+            phase = AccountPhaseEvent.begin(AccountPhaseEvent.UPDATE, AccountPhase.GROUP_SUMMARY, accountId);
+            accountGroupSummaryService.applyChange(before, AccountGroupSummaryService.Contribution.of(account));
+            phase.finish(0);
+            eventPublisher.publishEvent(new AccountUpdatedEvent(account, customer));
+            recordFlushAndCommit(accountId);
 
             log.info("Successfully updated account and customer for accountId: {}", accountId);
             return "Success: Account and customer information updated successfully";
@@ -61,6 +95,37 @@ public class AccountUpdateService {
         }
     }
 
+    /**
+     * Records the {@link AccountPhase#FLUSH_COMMIT} phase: Hibernate flushes the changes and the
+     * transaction commits after this method returns, between the last before-commit callback and
+     * completion.
+     */
+    private static void recordFlushAndCommit(Long accountId) {
+        if (!AccountPhaseEvent.isRecorded() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private AccountPhaseEvent phase;
+
+            @Override
+            public int getOrder() {
+                return Ordered.LOWEST_PRECEDENCE;
+            }
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                phase = AccountPhaseEvent.begin(AccountPhaseEvent.UPDATE, AccountPhase.FLUSH_COMMIT, accountId);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (phase != null) {
+                    phase.finish(0, status == STATUS_COMMITTED ? AccountPhaseEvent.OK : AccountPhaseEvent.ROLLED_BACK);
+                }
+            }
+        });
+    }
+
     private void updateAccountFields(Account account, UpdateAccountUpdateRequestDto request) {
         if (request.getActiveStatus() != null) {
             account.setActiveStatus(request.getActiveStatus());
@@ -0,0 +1,20 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Account;
+import com.example.demo.entity.Customer;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published by {@link AccountUpdateService} once an account and its customer have been saved.
+ * Listeners that maintain in-memory state should use
+ * {@code @TransactionalEventListener} so they only observe committed changes.
+ */
+@Data
+@AllArgsConstructor
+public class AccountUpdatedEvent {
+
+    private final Account account;
+
+    private final Customer customer;
+}
@@ -0,0 +1,162 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.AccountViewResponseDto;
+import com.example.demo.enums.AccountViewField;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collapses concurrent identical account view requests into one database load.
+ * <p>
+ * The first caller for an account runs the load; callers arriving while it is in flight wait on the
+ * same future. {@link #beginUpdate} is called by the update path: it detaches any in-flight load and
+ * disables coalescing for that account until the update transaction completes, so a reader that
+ * arrives after a successful PUT always starts a fresh load. Per-account state is only changed inside
+ * {@link ConcurrentHashMap#compute}, which makes each transition atomic.
+ * <p>
+ * Only full views are coalesced; sparse {@code fields=} requests go straight to the service.
+ */
+@Service
+@Slf4j
+public class AccountViewCoalescer {
+
+    private final AccountViewService accountViewService;
+    private final boolean enabled;
+    private final ConcurrentHashMap<Long, Slot> slots = new ConcurrentHashMap<>();
+    private final Counter loads;
+    private final Counter coalesced;
+    private final Counter bypassed;
+
+    public AccountViewCoalescer(AccountViewService accountViewService,
+                                MeterRegistry meterRegistry,
+                                @Value("${account.view.coalescing.enabled:true}") boolean enabled) {
+        this.accountViewService = accountViewService;
+        this.enabled = enabled;
+        this.loads = Counter.builder("account.view.loads")
+                .description("Account view loads executed against the database by a coalescing leader")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("account.view.coalesced")
+                .description("Account view requests answered by joining an in-flight load")
+                .register(meterRegistry);
+        this.bypassed = Counter.builder("account.view.coalescing.bypassed")
+                .description("Account view requests not coalesced because an update was in progress")
+                .register(meterRegistry);
+    }
+
+    public AccountViewResponseDto getAccountView(Long accountId, Set<AccountViewField> fields) {
+        if (!enabled || (fields != null && !fields.isEmpty()) || accountId == null) {
+            return accountViewService.getAccountView(accountId, fields);
+        }
+
+        CompletableFuture<AccountViewResponseDto> mine = new CompletableFuture<>();
+        Join join = new Join();
+        slots.compute(accountId, (id, slot) -> {
+            Slot current = slot == null ? new Slot() : slot;
+            if (current.updatesInProgress > 0) {
+                join.bypass = true;
+            } else if (current.inflight != null) {
+                join.future = current.inflight;
+            } else {
+                current.inflight = mine;
+                join.future = mine;
+            }
+            return current.isEmpty() ? null : current;
+        });
+
+        if (join.bypass) {
+            bypassed.increment();
+            return accountViewService.getAccountView(accountId);
+        }
+        if (join.future != mine) {
+            coalesced.increment();
+            return await(join.future);
+        }
+
+        loads.increment();
+        try {
+            AccountViewResponseDto response = accountViewService.getAccountView(accountId);
+            mine.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            slots.computeIfPresent(accountId, (id, slot) -> {
+                if (slot.inflight == mine) {
+                    slot.inflight = null;
+                }
+                return slot.isEmpty() ? null : slot;
+            });
+        }
+    }
+
+    /**
+     * Stops coalescing for the account until the current transaction completes. Must be called
+     * inside the update transaction, before the account is modified.
+     */
+    public void beginUpdate(Long accountId) {
+        slots.compute(accountId, (id, slot) -> {
+            Slot current = slot == null ? new Slot() : slot;
+            current.updatesInProgress++;
+            current.inflight = null;
+            return current;
+        });
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    endUpdate(accountId);
+                }
+            });
+        } else {
+            log.warn("beginUpdate called outside a transaction for account ID: {}", accountId);
+            endUpdate(accountId);
+        }
+    }
+
+    private void endUpdate(Long accountId) {
+        slots.computeIfPresent(accountId, (id, slot) -> {
+            slot.updatesInProgress--;
+            slot.inflight = null;
+            return slot.isEmpty() ? null : slot;
+        });
+    }
+
+    private static AccountViewResponseDto await(CompletableFuture<AccountViewResponseDto> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Slot {
+
+        private int updatesInProgress;
+        private CompletableFuture<AccountViewResponseDto> inflight;
+
+        boolean isEmpty() {
+            return updatesInProgress == 0 && inflight == null;
+        }
+    }
+
+    private static final class Join {
+
+        private boolean bypass;
+        private CompletableFuture<AccountViewResponseDto> future;
+    }
+}
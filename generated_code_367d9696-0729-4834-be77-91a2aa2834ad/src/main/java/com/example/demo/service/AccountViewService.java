@@ -4,22 +4,45 @@ import com.example.demo.dto.AccountViewResponseDto;
 import com.example.demo.entity.Account;
 import com.example.demo.entity.CardXref;
 import com.example.demo.entity.Customer;
+import com.example.demo.enums.AccountViewField;
+import com.example.demo.jfr.AccountPhase;
+import com.example.demo.jfr.AccountPhaseEvent;
 import com.example.demo.repository.AccountRepository;
 import com.example.demo.repository.CardXrefRepository;
 import com.example.demo.repository.CustomerRepository;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class AccountViewService {
 
     private final AccountRepository accountRepository;
     private final CardXrefRepository cardXrefRepository;
     private final CustomerRepository customerRepository;
+    private final int batchMaxSize;
+
+    public AccountViewService(AccountRepository accountRepository,
+                              CardXrefRepository cardXrefRepository,
+                              CustomerRepository customerRepository,
+                              @Value("${account.view.batch-max-size:100}") int batchMaxSize) {
+        this.accountRepository = accountRepository;
+        this.cardXrefRepository = cardXrefRepository;
+        this.customerRepository = customerRepository;
+        this.batchMaxSize = batchMaxSize;
+    }
 
     @Transactional(readOnly = true)
     public AccountViewResponseDto getAccountView(Long accountId) {
@@ -30,20 +53,21 @@ public class AccountViewService {
             throw new IllegalArgumentException("Account ID must be a positive number");
         }
 
-        Account account = accountRepository.findByAccountId(accountId)
+        AccountPhaseEvent phase = AccountPhaseEvent.begin(AccountPhaseEvent.VIEW, AccountPhase.ACCOUNT_LOOKUP, accountId);
+        Optional<Account> foundAccount = accountRepository.findByAccountId(accountId);
+        phase.finishLookup(foundAccount.isPresent());
+        Account account = foundAccount
                 .orElseThrow(() -> {
                     log.error("Account not found with ID: {}", accountId);
                     return new IllegalArgumentException("Account not found with ID: " + accountId);
                 });
 
-        CardXref cardXref = cardXrefRepository.findByAccountId(accountId).stream()
-                .findFirst()
-                .orElseThrow(() -> {
-                    log.error("Card cross-reference not found for account ID: {}", accountId);
-                    return new IllegalArgumentException("Card cross-reference not found for account ID: " + accountId);
-                });
+        CardXref cardXref = findCardXref(accountId);
 
-        Customer customer = customerRepository.findByCustomerId(cardXref.getCustomerId())
+        phase = AccountPhaseEvent.begin(AccountPhaseEvent.VIEW, AccountPhase.CUSTOMER_LOOKUP, accountId);
+        Optional<Customer> foundCustomer = customerRepository.findByCustomerId(cardXref.getCustomerId());
+        phase.finishLookup(foundCustomer.isPresent());
+        Customer customer = foundCustomer
                 .orElseThrow(() -> {
                     log.error("Customer not found with ID: {}", cardXref.getCustomerId());
                     return new IllegalArgumentException("Customer not found with ID: " + cardXref.getCustomerId());
@@ -53,6 +77,118 @@ public class AccountViewService {
         return convertToAccountViewResponse(account, customer);
     }
 
+    /**
+     * Loads only the requested fields. Account columns are selected individually, and the
+     * cross-reference and customer lookups are skipped entirely when no customer field is asked for.
+     * A {@code null} or empty field set falls back to the full view.
+     */
+    @Transactional(readOnly = true)
+    public AccountViewResponseDto getAccountView(Long accountId, Set<AccountViewField> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return getAccountView(accountId);
+        }
+        log.info("Retrieving account view for account ID: {} with fields: {}", accountId, fields);
+
+        if (accountId == null || accountId <= 0) {
+            log.error("Invalid account ID: {}", accountId);
+            throw new IllegalArgumentException("Account ID must be a positive number");
+        }
+
+        List<String> accountAttributes = new ArrayList<>();
+        List<String> customerAttributes = new ArrayList<>();
+        for (AccountViewField field : fields) {
+            (field.isCustomerField() ? customerAttributes : accountAttributes).add(field.getFieldName());
+        }
+
+        AccountPhaseEvent phase = AccountPhaseEvent.begin(AccountPhaseEvent.VIEW, AccountPhase.ACCOUNT_LOOKUP, accountId);
+        Optional<Account> foundAccount = accountRepository.findPartialByAccountId(accountId, accountAttributes);
+        phase.finishLookup(foundAccount.isPresent());
+        Account account = foundAccount
+                .orElseThrow(() -> {
+                    log.error("Account not found with ID: {}", accountId);
+                    return new IllegalArgumentException("Account not found with ID: " + accountId);
+                });
+
+        Customer customer = new Customer();
+        if (!customerAttributes.isEmpty()) {
+            CardXref cardXref = findCardXref(accountId);
+            if (customerAttributes.equals(List.of(AccountViewField.CUSTOMER_ID.getFieldName()))) {
+                customer.setCustomerId(cardXref.getCustomerId());
+            } else {
+                phase = AccountPhaseEvent.begin(AccountPhaseEvent.VIEW, AccountPhase.CUSTOMER_LOOKUP, accountId);
+                Optional<Customer> foundCustomer = customerRepository.findPartialByCustomerId(cardXref.getCustomerId(), customerAttributes);
+                phase.finishLookup(foundCustomer.isPresent());
+                customer = foundCustomer
+                        .orElseThrow(() -> {
+                            log.error("Customer not found with ID: {}", cardXref.getCustomerId());
+                            return new IllegalArgumentException("Customer not found with ID: " + cardXref.getCustomerId());
+                        });
+            }
+        }
+
+        AccountViewResponseDto response = convertToAccountViewResponse(account, customer);
+        response.setIncludedFields(fields);
+        return response;
+    }
+
+    /**
+     * Loads views for several accounts with one query per table regardless of batch size.
+     * Accounts that do not exist or have no cross-reference/customer are omitted from the result.
+     */
+    @Transactional(readOnly = true)
+    public List<AccountViewResponseDto> getAccountViews(List<Long> accountIds) {
+        log.info("Retrieving account views for {} account IDs", accountIds == null ? 0 : accountIds.size());
+
+        if (accountIds == null || accountIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one account ID is required");
+        }
+        if (accountIds.size() > batchMaxSize) {
+            throw new IllegalArgumentException("At most " + batchMaxSize + " account IDs can be requested at once");
+        }
+        Set<Long> uniqueIds = new LinkedHashSet<>();
+        for (Long accountId : accountIds) {
+            if (accountId == null || accountId <= 0) {
+                throw new IllegalArgumentException("Account ID must be a positive number");
+            }
+            uniqueIds.add(accountId);
+        }
+
+        Map<Long, Account> accounts = accountRepository.findAllById(uniqueIds).stream()
+                .collect(Collectors.toMap(Account::getAccountId, Function.identity()));
+
+        Map<Long, Long> customerIdByAccount = new HashMap<>();
+        for (CardXref cardXref : cardXrefRepository.findByAccountIdInOrderByIdAsc(accounts.keySet())) {
+            customerIdByAccount.putIfAbsent(cardXref.getAccountId(), cardXref.getCustomerId());
+        }
+
+        Map<Long, Customer> customers = customerRepository.findAllById(new LinkedHashSet<>(customerIdByAccount.values())).stream()
+                .collect(Collectors.toMap(Customer::getCustomerId, Function.identity()));
+
+        List<AccountViewResponseDto> responses = new ArrayList<>(uniqueIds.size());
+        for (Long accountId : uniqueIds) {
+            Account account = accounts.get(accountId);
+            Customer customer = account == null ? null : customers.get(customerIdByAccount.get(accountId));
+            if (customer == null) {
+                log.warn("Skipping account ID {} in batch view: account, cross-reference or customer not found", accountId);
+                continue;
+            }
+            responses.add(convertToAccountViewResponse(account, customer));
+        }
+        return responses;
+    }
+
+    private CardXref findCardXref(Long accountId) {
+        AccountPhaseEvent phase = AccountPhaseEvent.begin(AccountPhaseEvent.VIEW, AccountPhase.XREF_LOOKUP, accountId);
+        List<CardXref> cardXrefs = cardXrefRepository.findByAccountId(accountId);
+        phase.finish(cardXrefs.size(), cardXrefs.isEmpty() ? AccountPhaseEvent.NOT_FOUND : AccountPhaseEvent.OK);
+        return cardXrefs.stream()
+                .findFirst()
+                .orElseThrow(() -> {
+                    log.error("Card cross-reference not found for account ID: {}", accountId);
+                    return new IllegalArgumentException("Card cross-reference not found for account ID: " + accountId);
+                });
+    }
+
     private String formatSSN(String ssn) {
         if (ssn == null || ssn.trim().isEmpty()) {
             return null;
@@ -90,7 +226,9 @@ public class AccountViewService {
         response.setFirstName(customer.getFirstName());
         response.setMiddleName(customer.getMiddleName());
         response.setLastName(customer.getLastName());
+        AccountPhaseEvent phase = AccountPhaseEvent.begin(AccountPhaseEvent.VIEW, AccountPhase.FORMAT_SSN, account.getAccountId());
         response.setSsn(formatSSN(customer.getSsn()));
+        phase.finish(0);
         response.setFicoScore(customer.getFicoScore());
         response.setDateOfBirth(customer.getDateOfBirth());
         response.setAddressLine1(customer.getAddressLine1());
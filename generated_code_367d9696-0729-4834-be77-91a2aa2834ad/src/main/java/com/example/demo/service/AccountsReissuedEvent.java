@@ -0,0 +1,21 @@
+package com.example.demo.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Published inside a {@link CardReissueService} chunk transaction after the reissue date of the
+ * given accounts was set.
+ */
+@Data
+@AllArgsConstructor
+public class AccountsReissuedEvent {
+
+    private final Collection<Long> accountIds;
+    private final LocalDate reissueDate;
+    private final LocalDateTime updatedAt;
+}
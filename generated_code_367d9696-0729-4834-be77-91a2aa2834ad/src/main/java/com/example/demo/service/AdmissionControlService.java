@@ -0,0 +1,165 @@
+package com.example.demo.service;
+
+import com.example.demo.enums.RequestPriority;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides whether an API request may proceed.
+ * <p>
+ * Three checks run in order: a per-client token bucket (429 when exceeded), a global token bucket
+ * and an adaptive concurrency limit (503 when exceeded). Tokens taken by an earlier check are
+ * refunded when a later one rejects, so only admitted requests count against a client's rate. Writes
+ * may use the whole concurrency limit while reads and bulk reads are capped at a configurable share
+ * of it, so writes are the last to be shed. Limiter state is published as {@code admission.*} meters.
+ * <p>
+ * At most {@code admission.client.max-tracked} client buckets are kept. When the map is full, idle
+ * buckets are evicted on the spot; if every bucket is still in use the new client is shed with 503
+ * rather than sharing a bucket with unrelated clients.
+ */
+@Service
+@Slf4j
+public class AdmissionControlService {
+
+    private static final long EVICTION_BACKOFF_NANOS = 100_000_000L;
+
+    private final boolean enabled;
+    private final double clientPermitsPerSecond;
+    private final int clientBurst;
+    private final int maxTrackedClients;
+    private final TokenBucket globalBucket;
+    private final GradientConcurrencyLimiter concurrencyLimiter;
+    private final Map<RequestPriority, Double> concurrencyShares = new EnumMap<>(RequestPriority.class);
+    private final ConcurrentHashMap<String, TokenBucket> clientBuckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastEvictionNanos = new AtomicLong(System.nanoTime() - EVICTION_BACKOFF_NANOS);
+    private final MeterRegistry meterRegistry;
+
+    public AdmissionControlService(MeterRegistry meterRegistry,
+                                   @Value("${admission.enabled:true}") boolean enabled,
+                                   @Value("${admission.client.permits-per-second:50}") double clientPermitsPerSecond,
+                                   @Value("${admission.client.burst:100}") int clientBurst,
+                                   @Value("${admission.client.max-tracked:100000}") int maxTrackedClients,
+                                   @Value("${admission.global.permits-per-second:5000}") double globalPermitsPerSecond,
+                                   @Value("${admission.global.burst:10000}") int globalBurst,
+                                   @Value("${admission.concurrency.initial-limit:50}") int initialLimit,
+                                   @Value("${admission.concurrency.min-limit:10}") int minLimit,
+                                   @Value("${admission.concurrency.max-limit:400}") int maxLimit,
+                                   @Value("${admission.concurrency.read-share:0.9}") double readShare,
+                                   @Value("${admission.concurrency.bulk-read-share:0.5}") double bulkReadShare) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.clientPermitsPerSecond = clientPermitsPerSecond;
+        this.clientBurst = clientBurst;
+        this.maxTrackedClients = maxTrackedClients;
+        this.globalBucket = new TokenBucket(globalPermitsPerSecond, globalBurst, System.nanoTime());
+        this.concurrencyLimiter = new GradientConcurrencyLimiter(initialLimit, minLimit, maxLimit);
+        concurrencyShares.put(RequestPriority.WRITE, 1.0);
+        concurrencyShares.put(RequestPriority.READ, readShare);
+        concurrencyShares.put(RequestPriority.BULK_READ, bulkReadShare);
+
+        Gauge.builder("admission.concurrency.limit", concurrencyLimiter, GradientConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("admission.concurrency.inflight", concurrencyLimiter, GradientConcurrencyLimiter::getInflight)
+                .description("Requests currently admitted and in flight")
+                .register(meterRegistry);
+        Gauge.builder("admission.clients.tracked", clientBuckets, Map::size)
+                .description("Clients with a live token bucket")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Decision tryAdmit(String clientId, RequestPriority priority) {
+        long now = System.nanoTime();
+
+        TokenBucket clientBucket = clientBucket(clientId, now);
+        if (clientBucket == null) {
+            return reject(HttpStatus.SERVICE_UNAVAILABLE, "client_capacity", priority, 1_000_000_000L);
+        }
+        long clientWait = clientBucket.tryAcquire(now);
+        if (clientWait > 0) {
+            return reject(HttpStatus.TOO_MANY_REQUESTS, "client_rate", priority, clientWait);
+        }
+        long globalWait = globalBucket.tryAcquire(now);
+        if (globalWait > 0) {
+            clientBucket.refund();
+            return reject(HttpStatus.SERVICE_UNAVAILABLE, "global_rate", priority, globalWait);
+        }
+        if (!concurrencyLimiter.tryAcquire(concurrencyShares.get(priority))) {
+            clientBucket.refund();
+            globalBucket.refund();
+            return reject(HttpStatus.SERVICE_UNAVAILABLE, "concurrency", priority, 1_000_000_000L);
+        }
+        meterRegistry.counter("admission.admitted", "priority", priority.getTagValue()).increment();
+        return new Decision(true, HttpStatus.OK, 0);
+    }
+
+    /**
+     * Must be called exactly once for every admitted request.
+     */
+    public void release(long elapsedNanos) {
+        concurrencyLimiter.release(elapsedNanos);
+    }
+
+    @Scheduled(fixedDelayString = "${admission.client.eviction-interval-ms:60000}")
+    public void evictIdleClients() {
+        evictIdleClients(System.nanoTime());
+    }
+
+    private void evictIdleClients(long now) {
+        lastEvictionNanos.set(now);
+        int before = clientBuckets.size();
+        clientBuckets.entrySet().removeIf(entry -> entry.getValue().isIdle(now));
+        log.debug("Evicted {} idle client buckets", before - clientBuckets.size());
+    }
+
+    /**
+     * @return the client's bucket, or {@code null} when the map is full of buckets still in use
+     */
+    private TokenBucket clientBucket(String clientId, long now) {
+        TokenBucket bucket = clientBuckets.get(clientId);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (clientBuckets.size() >= maxTrackedClients) {
+            long last = lastEvictionNanos.get();
+            if (now - last >= EVICTION_BACKOFF_NANOS && lastEvictionNanos.compareAndSet(last, now)) {
+                evictIdleClients(now);
+            }
+            if (clientBuckets.size() >= maxTrackedClients) {
+                return null;
+            }
+        }
+        return clientBuckets.computeIfAbsent(clientId, k -> new TokenBucket(clientPermitsPerSecond, clientBurst, now));
+    }
+
+    private Decision reject(HttpStatus status, String reason, RequestPriority priority, long waitNanos) {
+        meterRegistry.counter("admission.rejected", "reason", reason, "priority", priority.getTagValue()).increment();
+        long retryAfterSeconds = Math.max(1L, (waitNanos + 999_999_999L) / 1_000_000_000L);
+        return new Decision(false, status, retryAfterSeconds);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Decision {
+
+        private final boolean admitted;
+        private final HttpStatus status;
+        private final long retryAfterSeconds;
+    }
+}
@@ -0,0 +1,314 @@
+package com.example.demo.service;
+
+import com.example.demo.audit.AuditChange;
+import com.example.demo.audit.AuditEntityType;
+import com.example.demo.audit.AuditField;
+import com.example.demo.audit.AuditLog;
+import com.example.demo.audit.AuditRecord;
+import com.example.demo.dto.AuditChangeDto;
+import com.example.demo.dto.AuditStateDto;
+import com.example.demo.entity.Account;
+import com.example.demo.entity.Customer;
+import com.example.demo.repository.AccountRepository;
+import com.example.demo.repository.CustomerRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Change capture for the account update path, backed by the {@link AuditLog}.
+ * <p>
+ * {@link #snapshot} is taken before the entities are modified and {@link #recordUpdate} after; only
+ * fields that differ are recorded. The records are appended and synced just before the update
+ * commits, so a committed change is never missing from the log, and an update whose record cannot be
+ * written fails. If the transaction then rolls back, an abort record is appended and the change is
+ * ignored by queries. A crash between the sync and the database commit can leave a change in the log
+ * that was never committed.
+ * <p>
+ * State as of a time is rebuilt per field: the new value of the last change at or before that time,
+ * else the old value of the first change after it, else the current database value. Only changes
+ * made through the update path are captured; balances moved by postings or cycle closes are not.
+ */
+@Service
+@Slf4j
+public class AuditService {
+
+    private final AccountRepository accountRepository;
+    private final CustomerRepository customerRepository;
+    private final boolean enabled;
+    private final AuditLog auditLog;
+    private final Counter records;
+    private final Counter aborts;
+
+    public AuditService(AccountRepository accountRepository,
+                        CustomerRepository customerRepository,
+                        MeterRegistry meterRegistry,
+                        @Value("${audit.enabled:false}") boolean enabled,
+                        @Value("${audit.directory:data/audit}") String directory,
+                        @Value("${audit.segment-bytes:4194304}") long segmentBytes,
+                        @Value("${audit.max-batch:256}") int maxBatch,
+                        @Value("${audit.queue-capacity:10000}") int queueCapacity,
+                        @Value("${audit.index-interval:64}") int indexInterval) {
+        this.accountRepository = accountRepository;
+        this.customerRepository = customerRepository;
+        this.enabled = enabled;
+        this.auditLog = new AuditLog(Path.of(directory), segmentBytes, maxBatch, queueCapacity, indexInterval);
+        this.records = Counter.builder("audit.records")
+                .description("Audit change records synced to the audit log")
+                .register(meterRegistry);
+        this.aborts = Counter.builder("audit.aborts")
+                .description("Audit change records marked as rolled back")
+                .register(meterRegistry);
+        Gauge.builder("audit.queue.size", auditLog, AuditLog::getQueuedRecords)
+                .description("Audit records waiting for the audit log writer")
+                .register(meterRegistry);
+        Gauge.builder("audit.segments", auditLog, AuditLog::getSegmentCount)
+                .description("Audit log segment files")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void open() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            auditLog.open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open audit log", e);
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        if (enabled) {
+            auditLog.close();
+        }
+    }
+
+    /**
+     * Captures the audited fields before an update modifies the entities.
+     */
+    public Snapshot snapshot(Account account, Customer customer) {
+        if (!enabled) {
+            return null;
+        }
+        return new Snapshot(AuditField.capture(AuditEntityType.ACCOUNT, account),
+                AuditField.capture(AuditEntityType.CUSTOMER, customer));
+    }
+
+    /**
+     * Records the fields changed since {@code before}. Must be called inside the update transaction;
+     * the records are written when it commits.
+     */
+    public void recordUpdate(Snapshot before, Account account, Customer customer) {
+        if (!enabled || before == null) {
+            return;
+        }
+        List<Change> changes = new ArrayList<>(2);
+        List<AuditChange> accountChanges = AuditField.diff(AuditEntityType.ACCOUNT, before.account(), account);
+        if (!accountChanges.isEmpty()) {
+            changes.add(new Change(AuditEntityType.ACCOUNT, account.getAccountId(), account.getAccountId(), accountChanges));
+        }
+        List<AuditChange> customerChanges = AuditField.diff(AuditEntityType.CUSTOMER, before.customer(), customer);
+        if (!customerChanges.isEmpty()) {
+            changes.add(new Change(AuditEntityType.CUSTOMER, customer.getCustomerId(), account.getAccountId(), customerChanges));
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            log.warn("recordUpdate called outside a transaction for account ID: {}", account.getAccountId());
+            append(changes);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long[] sequences;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                sequences = append(changes);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED && sequences != null) {
+                    abort(changes, sequences);
+                }
+            }
+        });
+    }
+
+    /**
+     * Account fields as of {@code asOf}.
+     */
+    public AuditStateDto getAccountAsOf(Long accountId, LocalDateTime asOf) {
+        Account account = accountRepository.findByAccountId(accountId)
+                .orElseThrow(() -> new IllegalArgumentException("Account not found with ID: " + accountId));
+        return stateAsOf(AuditEntityType.ACCOUNT, accountId, account, asOf);
+    }
+
+    /**
+     * Customer fields as of {@code asOf}.
+     */
+    public AuditStateDto getCustomerAsOf(Long customerId, LocalDateTime asOf) {
+        Customer customer = customerRepository.findByCustomerId(customerId)
+                .orElseThrow(() -> new IllegalArgumentException("Customer not found with ID: " + customerId));
+        return stateAsOf(AuditEntityType.CUSTOMER, customerId, customer, asOf);
+    }
+
+    /**
+     * Committed field changes of the entity recorded between {@code from} and {@code to}, oldest first.
+     */
+    public List<AuditChangeDto> getHistory(AuditEntityType entityType, Long entityId, LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        List<AuditChangeDto> history = new ArrayList<>();
+        for (AuditRecord record : committedRecords(entityType, entityId, toInstant(from), toInstant(to))) {
+            for (AuditChange change : record.changes()) {
+                history.add(new AuditChangeDto(record.sequence(), toLocal(record.timestamp()), entityType.name(),
+                        record.entityId(), record.accountId(), change.field().getFieldName(),
+                        change.oldValue(), change.newValue()));
+            }
+        }
+        return history;
+    }
+
+    private AuditStateDto stateAsOf(AuditEntityType entityType, long entityId, Object entity, LocalDateTime asOf) {
+        LocalDateTime at = asOf == null ? LocalDateTime.now() : asOf;
+        Instant instant = toInstant(at);
+        List<AuditField> fields = AuditField.of(entityType);
+        Object[] values = AuditField.capture(entityType, entity);
+        boolean[] resolved = new boolean[values.length];
+        int applied = 0;
+        Instant lastChanged = null;
+
+        List<AuditRecord> records = committedRecords(entityType, entityId, null, null);
+        // Newest first: the first change seen at or before the time wins; a change after the time
+        // keeps overwriting with older "before" values until the earliest one remains
+        for (int r = records.size() - 1; r >= 0; r--) {
+            AuditRecord record = records.get(r);
+            boolean before = !record.timestamp().isAfter(instant);
+            if (before) {
+                applied++;
+                if (lastChanged == null) {
+                    lastChanged = record.timestamp();
+                }
+            }
+            for (AuditChange change : record.changes()) {
+                int i = fields.indexOf(change.field());
+                if (resolved[i]) {
+                    continue;
+                }
+                if (before) {
+                    values[i] = change.newValue();
+                    resolved[i] = true;
+                } else {
+                    values[i] = change.oldValue();
+                }
+            }
+        }
+
+        Map<String, Object> state = new LinkedHashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            state.put(fields.get(i).getFieldName(), values[i]);
+        }
+        return new AuditStateDto(entityType.name(), entityId, at, state, applied,
+                lastChanged == null ? null : toLocal(lastChanged));
+    }
+
+    private List<AuditRecord> committedRecords(AuditEntityType entityType, long entityId, Instant from, Instant to) {
+        if (!enabled) {
+            throw new IllegalStateException("Audit log is disabled");
+        }
+        // Abort records follow the change they cancel, so read them without the upper bound
+        List<AuditRecord> records = auditLog.read(entityType, entityId, from, null);
+        Set<Long> aborted = new HashSet<>();
+        for (AuditRecord record : records) {
+            if (record.isAbort()) {
+                aborted.add(record.abortedSequence());
+            }
+        }
+        List<AuditRecord> committed = new ArrayList<>(records.size());
+        for (AuditRecord record : records) {
+            if (!record.isAbort() && !aborted.contains(record.sequence())
+                    && (to == null || !record.timestamp().isAfter(to))) {
+                committed.add(record);
+            }
+        }
+        return committed;
+    }
+
+    private long[] append(List<Change> changes) {
+        List<CompletableFuture<Long>> futures = new ArrayList<>(changes.size());
+        for (Change change : changes) {
+            futures.add(auditLog.appendChange(change.entityType(), change.entityId(), change.accountId(), change.changes()));
+        }
+        long[] sequences = new long[futures.size()];
+        try {
+            for (int i = 0; i < sequences.length; i++) {
+                sequences[i] = futures.get(i).join();
+            }
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Could not write audit record: " + e.getCause().getMessage(), e.getCause());
+        }
+        records.increment(sequences.length);
+        return sequences;
+    }
+
+    private void abort(List<Change> changes, long[] sequences) {
+        for (int i = 0; i < sequences.length; i++) {
+            Change change = changes.get(i);
+            long sequence = sequences[i];
+            auditLog.appendAbort(change.entityType(), change.entityId(), change.accountId(), sequence)
+                    .whenComplete((abortSequence, e) -> {
+                        if (e != null) {
+                            log.error("Could not mark audit record {} as rolled back: {}", sequence, e.getMessage());
+                        } else {
+                            aborts.increment();
+                        }
+                    });
+        }
+    }
+
+    private static Instant toInstant(LocalDateTime time) {
+        return time == null ? null : time.atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    private static LocalDateTime toLocal(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+
+    /**
+     * Audited field values of an account and its customer before an update.
+     */
+    public record Snapshot(Object[] account, Object[] customer) {
+    }
+
+    private record Change(AuditEntityType entityType, long entityId, long accountId, List<AuditChange> changes) {
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.CardAuthorization;
+import com.example.demo.repository.CardAuthorizationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes authorization records to {@code card_authorizations} off the request path.
+ * <p>
+ * Records are queued and a background thread inserts them in batches of up to
+ * {@code authorization.write.batch-size}. If the queue is full the caller writes its own record,
+ * which slows authorizations down instead of dropping records. A failed batch is kept and retried.
+ */
+@Service
+@Slf4j
+public class AuthorizationRecordWriter {
+
+    private final CardAuthorizationRepository authorizationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ArrayBlockingQueue<CardAuthorization> queue;
+    private final int batchSize;
+    private final long retryDelayMillis;
+    private final Counter written;
+    private final Counter writtenByCaller;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public AuthorizationRecordWriter(CardAuthorizationRepository authorizationRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${authorization.write.queue-capacity:50000}") int queueCapacity,
+                                     @Value("${authorization.write.batch-size:500}") int batchSize,
+                                     @Value("${authorization.write.retry-delay-ms:1000}") long retryDelayMillis) {
+        this.authorizationRepository = authorizationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.batchSize = Math.max(1, batchSize);
+        this.retryDelayMillis = retryDelayMillis;
+        this.written = Counter.builder("authorization.records.written")
+                .description("Authorization records inserted by the background writer")
+                .register(meterRegistry);
+        this.writtenByCaller = Counter.builder("authorization.records.written.inline")
+                .description("Authorization records inserted by the request thread because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("authorization.records.queued", queue, ArrayBlockingQueue::size)
+                .description("Authorization records waiting to be inserted")
+                .register(meterRegistry);
+        this.writer = new Thread(this::writeLoop, "authorization-record-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public void submit(CardAuthorization authorization) {
+        if (!running || !queue.offer(authorization)) {
+            insert(List.of(authorization));
+            writtenByCaller.increment();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeLoop() {
+        List<CardAuthorization> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty() || !batch.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    CardAuthorization first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                }
+                insert(batch);
+                written.increment(batch.size());
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Writing {} authorization records failed, retrying: {}", batch.size(), e.getMessage());
+                if (!running) {
+                    return;
+                }
+                try {
+                    Thread.sleep(retryDelayMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void insert(List<CardAuthorization> authorizations) {
+        transactionTemplate.executeWithoutResult(status -> authorizationRepository.insertBatch(authorizations));
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.AuthorizationRequestDto;
+import com.example.demo.dto.AuthorizationResponseDto;
+import com.example.demo.entity.CardAuthorization;
+import com.example.demo.enums.AuthorizationDeclineReason;
+import com.example.demo.money.Money;
+import com.example.demo.repository.CardAuthorizationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Approves or declines purchases and cash advances from {@link AuthorizationStateTable} without
+ * touching the database on the request path once the card and account are cached.
+ * <p>
+ * An approval places a hold on the account by adding the amount to its held total with
+ * compare-and-set, so concurrent authorizations on this node can never together exceed the
+ * available credit. Holds are released after {@code authorization.hold-minutes}. Every decision is
+ * recorded through {@link AuthorizationRecordWriter}, and holds that have not expired are reloaded
+ * from {@code card_authorizations} at startup; approvals still queued for writing when a node stops
+ * abruptly are lost.
+ * <p>
+ * Holds are only known to the node that placed them. With several nodes, authorizations for an
+ * account must all be routed to the same node (for example by card number), otherwise each node
+ * only checks available credit against its own holds.
+ */
+@Service
+@Slf4j
+public class AuthorizationService {
+
+    private final AuthorizationStateTable stateTable;
+    private final AuthorizationRecordWriter recordWriter;
+    private final CardAuthorizationRepository authorizationRepository;
+    private final Duration holdDuration;
+    private final ConcurrentLinkedQueue<Hold> holds = new ConcurrentLinkedQueue<>();
+    private final Counter approved;
+    private final Map<AuthorizationDeclineReason, Counter> declined = new EnumMap<>(AuthorizationDeclineReason.class);
+
+    public AuthorizationService(AuthorizationStateTable stateTable,
+                                AuthorizationRecordWriter recordWriter,
+                                CardAuthorizationRepository authorizationRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${authorization.hold-minutes:1440}") long holdMinutes) {
+        this.stateTable = stateTable;
+        this.recordWriter = recordWriter;
+        this.authorizationRepository = authorizationRepository;
+        this.holdDuration = Duration.ofMinutes(holdMinutes);
+        this.approved = Counter.builder("authorization.decisions")
+                .tag("outcome", "APPROVED")
+                .description("Authorization decisions by outcome")
+                .register(meterRegistry);
+        for (AuthorizationDeclineReason reason : AuthorizationDeclineReason.values()) {
+            declined.put(reason, Counter.builder("authorization.decisions")
+                    .tag("outcome", reason.name())
+                    .description("Authorization decisions by outcome")
+                    .register(meterRegistry));
+        }
+        Gauge.builder("authorization.state.cards", stateTable, AuthorizationStateTable::getCachedCards)
+                .description("Cards held in the authorization state table")
+                .register(meterRegistry);
+        Gauge.builder("authorization.state.accounts", stateTable, AuthorizationStateTable::getCachedAccounts)
+                .description("Accounts held in the authorization state table")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Places the holds of approvals recorded before this node started and not yet expired. Runs
+     * before requests are served, and these holds all expire before any new one, so the release
+     * queue stays in expiry order.
+     */
+    @PostConstruct
+    public void loadOutstandingHolds() {
+        LocalDateTime now = LocalDateTime.now();
+        long nowNanos = System.nanoTime();
+        long loaded = 0;
+        for (CardAuthorization authorization : authorizationRepository.findByApprovedTrueAndHoldExpiresAtAfterOrderByHoldExpiresAt(now)) {
+            AuthorizationStateTable.AccountState account = authorization.getAccountId() == null
+                    ? null : stateTable.getAccount(authorization.getAccountId());
+            if (account == null) {
+                continue;
+            }
+            long amountCents = authorization.getAmount().getCents();
+            account.getHeldCents().addAndGet(amountCents);
+            holds.add(new Hold(account, amountCents,
+                    nowNanos + Duration.between(now, authorization.getHoldExpiresAt()).toNanos()));
+            loaded++;
+        }
+        if (loaded > 0) {
+            log.info("Reloaded {} outstanding authorization holds", loaded);
+        }
+    }
+
+    public AuthorizationResponseDto authorize(AuthorizationRequestDto request) {
+        long amountCents = Money.toCents(request.getAmount());
+        if (amountCents <= 0) {
+            throw new IllegalArgumentException("Amount must be greater than 0");
+        }
+        boolean cash = Boolean.TRUE.equals(request.getCashAdvance());
+        LocalDateTime now = LocalDateTime.now();
+
+        AuthorizationStateTable.CardState card = stateTable.getCard(request.getCardNumber());
+        AuthorizationStateTable.AccountState account = null;
+        AuthorizationDeclineReason reason = null;
+        long availableAfter = 0;
+        if (card == null) {
+            reason = AuthorizationDeclineReason.CARD_NOT_FOUND;
+        } else if (!card.active()) {
+            reason = AuthorizationDeclineReason.CARD_INACTIVE;
+        } else if (card.expirationDate().isBefore(LocalDate.now())) {
+            reason = AuthorizationDeclineReason.CARD_EXPIRED;
+        } else {
+            account = stateTable.getAccount(card.accountId());
+            if (account == null) {
+                reason = AuthorizationDeclineReason.ACCOUNT_NOT_FOUND;
+            } else if (!account.isActive()) {
+                reason = AuthorizationDeclineReason.ACCOUNT_INACTIVE;
+            } else {
+                AtomicLong held = account.getHeldCents();
+                while (true) {
+                    long currentHeld = held.get();
+                    long balance = account.getBalanceCents();
+                    long available = account.getCreditLimitCents() - balance - currentHeld;
+                    if (available < amountCents) {
+                        reason = AuthorizationDeclineReason.INSUFFICIENT_CREDIT;
+                        break;
+                    }
+                    if (cash && account.getCashCreditLimitCents() - balance - currentHeld < amountCents) {
+                        reason = AuthorizationDeclineReason.INSUFFICIENT_CASH_CREDIT;
+                        break;
+                    }
+                    if (held.compareAndSet(currentHeld, currentHeld + amountCents)) {
+                        availableAfter = available - amountCents;
+                        break;
+                    }
+                }
+            }
+        }
+
+        String authorizationId = newAuthorizationId();
+        LocalDateTime holdExpiresAt = null;
+        if (reason == null) {
+            holdExpiresAt = now.plus(holdDuration);
+            holds.add(new Hold(account, amountCents, System.nanoTime() + holdDuration.toNanos()));
+            approved.increment();
+        } else {
+            declined.get(reason).increment();
+        }
+
+        recordWriter.submit(new CardAuthorization(authorizationId, request.getCardNumber(),
+                card == null ? null : card.accountId(), Money.ofCents(amountCents), cash, reason == null,
+                reason == null ? null : reason.name(), request.getMerchantId(), request.getMerchantName(),
+                request.getMerchantCity(), request.getMerchantZip(), now, holdExpiresAt, null));
+
+        return new AuthorizationResponseDto(authorizationId, reason == null, reason == null ? null : reason.name(),
+                card == null ? null : card.accountId(),
+                reason == null ? Money.toBigDecimal(availableAfter) : null, holdExpiresAt);
+    }
+
+    /**
+     * Releases expired holds. Holds all have the same duration, so the queue is in expiry order;
+     * this is the only consumer of the queue.
+     */
+    @Scheduled(fixedDelayString = "${authorization.hold-release-interval-ms:1000}")
+    public synchronized void releaseExpiredHolds() {
+        long now = System.nanoTime();
+        Hold hold;
+        while ((hold = holds.peek()) != null && hold.expiresAtNanos() - now <= 0) {
+            holds.poll();
+            hold.account().getHeldCents().addAndGet(-hold.amountCents());
+        }
+    }
+
+    private static String newAuthorizationId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long most = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long least = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(most, least).toString();
+    }
+
+    private record Hold(AuthorizationStateTable.AccountState account, long amountCents, long expiresAtNanos) {
+    }
+}
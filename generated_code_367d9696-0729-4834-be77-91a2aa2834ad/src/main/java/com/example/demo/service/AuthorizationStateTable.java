@@ -0,0 +1,248 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Account;
+import com.example.demo.entity.Card;
+import com.example.demo.money.Money;
+import com.example.demo.repository.AccountBalanceDelta;
+import com.example.demo.repository.AccountRepository;
+import com.example.demo.repository.CardRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory copy of the card and account fields an authorization decision needs.
+ * <p>
+ * Entries are loaded from the database on first use and then kept current by after-commit events:
+ * {@link AccountUpdatedEvent} replaces an account's status, limits and balance,
+ * {@link AccountBalancesPostedEvent} applies posted balance deltas, and {@link CardsChangedEvent}
+ * drops cards so they are reloaded. Changes committed on other nodes arrive as
+ * {@link RemoteChangesEvent}: their cards are dropped and their accounts marked stale, which makes
+ * the next lookup reload the account in place and keep its outstanding holds. Loads run inside
+ * {@link ConcurrentHashMap#computeIfAbsent} and refreshes inside {@code computeIfPresent}, so a
+ * refresh for a key that is being loaded waits for the load and is applied on top of it.
+ * <p>
+ * A load can read a posting that has committed but whose delta has not been applied yet, and the
+ * delta would then be counted twice. Accounts are therefore marked as having a posting in flight
+ * from just before its commit until after its delta was applied; an account loaded while marked is
+ * stale at once, so the next lookup reloads it after the posting has settled.
+ */
+@Service
+@Slf4j
+public class AuthorizationStateTable {
+
+    private static final String CARD_ACTIVE = "A";
+
+    private final CardRepository cardRepository;
+    private final AccountRepository accountRepository;
+    private final ConcurrentHashMap<String, CardState> cards = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, AccountState> accounts = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Integer> postingsInFlight = new ConcurrentHashMap<>();
+
+    public AuthorizationStateTable(CardRepository cardRepository, AccountRepository accountRepository) {
+        this.cardRepository = cardRepository;
+        this.accountRepository = accountRepository;
+    }
+
+    /**
+     * Returns the card, loading it on first use, or null if it does not exist.
+     */
+    CardState getCard(String cardNumber) {
+        CardState state = cards.get(cardNumber);
+        if (state != null) {
+            return state;
+        }
+        return cards.computeIfAbsent(cardNumber, number -> cardRepository.findById(number)
+                .map(CardState::of)
+                .orElse(null));
+    }
+
+    /**
+     * Returns the account, loading it on first use, or null if it does not exist.
+     */
+    AccountState getAccount(Long accountId) {
+        AccountState state = accounts.get(accountId);
+        if (state != null && !state.isStale()) {
+            return state;
+        }
+        if (state != null) {
+            return accounts.computeIfPresent(accountId, (id, stale) -> {
+                if (stale.isStale()) {
+                    accountRepository.findById(id).ifPresent(account -> refresh(stale, account));
+                }
+                return stale;
+            });
+        }
+        return accounts.computeIfAbsent(accountId, id -> accountRepository.findById(id)
+                .map(account -> refresh(new AccountState(), account))
+                .orElse(null));
+    }
+
+    /**
+     * Must run after the row was read: a posting visible to the read is still marked in flight
+     * until its delta has been applied to the state.
+     */
+    private AccountState refresh(AccountState state, Account account) {
+        state.refresh(account);
+        if (postingsInFlight.containsKey(account.getAccountId())) {
+            state.markStale();
+        }
+        return state;
+    }
+
+    int getCachedCards() {
+        return cards.size();
+    }
+
+    int getCachedAccounts() {
+        return accounts.size();
+    }
+
+    @TransactionalEventListener
+    public void onAccountUpdated(AccountUpdatedEvent event) {
+        Account account = event.getAccount();
+        accounts.computeIfPresent(account.getAccountId(), (id, state) -> {
+            state.refresh(account);
+            return state;
+        });
+    }
+
+    @EventListener
+    public void onBalancesPosted(AccountBalancesPostedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            private boolean marked;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                for (AccountBalanceDelta delta : event.getDeltas()) {
+                    postingsInFlight.merge(delta.getAccountId(), 1, Integer::sum);
+                }
+                marked = true;
+            }
+
+            @Override
+            public void afterCommit() {
+                for (AccountBalanceDelta delta : event.getDeltas()) {
+                    accounts.computeIfPresent(delta.getAccountId(), (id, state) -> {
+                        state.addToBalance(delta.getBalanceCents());
+                        return state;
+                    });
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (!marked) {
+                    return;
+                }
+                for (AccountBalanceDelta delta : event.getDeltas()) {
+                    postingsInFlight.computeIfPresent(delta.getAccountId(), (id, count) -> count == 1 ? null : count - 1);
+                }
+            }
+        });
+    }
+
+    @TransactionalEventListener
+    public void onCardsChanged(CardsChangedEvent event) {
+        for (String cardNumber : event.getCardNumbers()) {
+            cards.remove(cardNumber);
+        }
+    }
+
+    @EventListener
+    public void onRemoteChanges(RemoteChangesEvent event) {
+        if (event.isFlushAll()) {
+            cards.clear();
+            accounts.values().forEach(AccountState::markStale);
+            return;
+        }
+        for (String cardNumber : event.getCardNumbers()) {
+            cards.remove(cardNumber);
+        }
+        for (Long accountId : event.getAccountIds()) {
+            accounts.computeIfPresent(accountId, (id, state) -> {
+                state.markStale();
+                return state;
+            });
+        }
+    }
+
+    record CardState(Long accountId, boolean active, LocalDate expirationDate) {
+
+        static CardState of(Card card) {
+            return new CardState(card.getAccountId(), CARD_ACTIVE.equals(card.getCardStatus()), card.getExpirationDate());
+        }
+    }
+
+    /**
+     * Status, limits and balance are written by refresh events under the state's monitor and read
+     * without locking. Outstanding holds are a separate counter changed only by compare-and-set.
+     * A stale state is still served by lookups that raced with the invalidation, but the next
+     * {@link #getAccount} reloads it.
+     */
+    static final class AccountState {
+
+        private volatile boolean stale;
+        private volatile boolean active;
+        private volatile long creditLimitCents;
+        private volatile long cashCreditLimitCents;
+        private volatile long balanceCents;
+        private final AtomicLong heldCents = new AtomicLong();
+
+        synchronized void refresh(Account account) {
+            stale = false;
+            active = account.isActive();
+            creditLimitCents = Money.toCents(orZero(account.getCreditLimit()));
+            cashCreditLimitCents = Money.toCents(orZero(account.getCashCreditLimit()));
+            balanceCents = Money.toCents(orZero(account.getCurrentBalance()));
+        }
+
+        synchronized void addToBalance(long cents) {
+            balanceCents = Money.addCents(balanceCents, cents);
+        }
+
+        void markStale() {
+            stale = true;
+        }
+
+        boolean isStale() {
+            return stale;
+        }
+
+        boolean isActive() {
+            return active;
+        }
+
+        long getCreditLimitCents() {
+            return creditLimitCents;
+        }
+
+        long getCashCreditLimitCents() {
+            return cashCreditLimitCents;
+        }
+
+        long getBalanceCents() {
+            return balanceCents;
+        }
+
+        AtomicLong getHeldCents() {
+            return heldCents;
+        }
+
+        private static BigDecimal orZero(BigDecimal value) {
+            return value == null ? BigDecimal.ZERO : value;
+        }
+    }
+}
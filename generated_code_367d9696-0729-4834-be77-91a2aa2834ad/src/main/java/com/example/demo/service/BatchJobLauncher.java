@@ -0,0 +1,521 @@
+package com.example.demo.service;
+
+import com.example.demo.batch.BatchJob;
+import com.example.demo.batch.BatchStatus;
+import com.example.demo.batch.ChunkStep;
+import com.example.demo.batch.KeyRange;
+import com.example.demo.dto.BatchJobDto;
+import com.example.demo.dto.BatchJobExecutionDto;
+import com.example.demo.dto.BatchPartitionDto;
+import com.example.demo.dto.BatchStepDto;
+import com.example.demo.entity.BatchJobExecution;
+import com.example.demo.entity.BatchStepPartition;
+import com.example.demo.repository.BatchJobExecutionRepository;
+import com.example.demo.repository.BatchStepPartitionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Launches {@link BatchJob}s and records their progress in the job repository tables.
+ * <p>
+ * A launch claims the job's execution for the run date and runs it on a background thread. Each
+ * step's key range is split into partitions once, when the step first starts, and stored; the
+ * partitions that have not completed then run concurrently. Every chunk is read, processed and
+ * written in one transaction that also advances the partition's last committed key, so a failed,
+ * stopped or crashed run resumes each partition right after its last commit when launched again.
+ * The checkpoint only applies if the partition's last key is still the one the chunk started from,
+ * which keeps two runs that both think they own an execution from writing a chunk twice.
+ * <p>
+ * An execution left running by an instance that died can be taken over once none of its partitions
+ * has committed for {@code batch.stale-after-seconds}.
+ */
+@Service
+@Slf4j
+public class BatchJobLauncher {
+
+    private static final int MAX_MESSAGE_LENGTH = 500;
+
+    private final Map<String, BatchJob> jobs;
+    private final BatchJobExecutionRepository executionRepository;
+    private final BatchStepPartitionRepository partitionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int partitions;
+    private final Duration staleAfter;
+    private final ExecutorService launcher;
+    private final Map<Long, RunningExecution> running = new ConcurrentHashMap<>();
+
+    public BatchJobLauncher(List<BatchJob> jobs,
+                            BatchJobExecutionRepository executionRepository,
+                            BatchStepPartitionRepository partitionRepository,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${batch.partitions:4}") int partitions,
+                            @Value("${batch.stale-after-seconds:300}") long staleAfterSeconds) {
+        Map<String, BatchJob> byName = new TreeMap<>();
+        for (BatchJob job : jobs) {
+            if (job.getName() == null || job.getName().isBlank() || job.getName().length() > 50) {
+                throw new IllegalStateException("Batch job names must be 1 to 50 characters: " + job.getName());
+            }
+            if (byName.put(job.getName(), job) != null) {
+                throw new IllegalStateException("Duplicate batch job name: " + job.getName());
+            }
+        }
+        this.jobs = byName;
+        this.executionRepository = executionRepository;
+        this.partitionRepository = partitionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.partitions = Math.max(1, partitions);
+        this.staleAfter = Duration.ofSeconds(Math.max(1, staleAfterSeconds));
+        AtomicInteger threads = new AtomicInteger();
+        this.launcher = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "batch-job-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public List<BatchJobDto> getJobs() {
+        List<BatchJobDto> responses = new ArrayList<>(jobs.size());
+        for (BatchJob job : jobs.values()) {
+            responses.add(new BatchJobDto(job.getName(), job.getDescription()));
+        }
+        return responses;
+    }
+
+    /**
+     * Starts the job for the run date, or resumes the run for that date if it failed or was stopped,
+     * and returns without waiting for it to finish.
+     */
+    public BatchJobExecutionDto launch(String jobName, LocalDate runDate) {
+        BatchJob job = jobs.get(jobName);
+        if (job == null) {
+            throw new IllegalArgumentException("Unknown batch job: " + jobName);
+        }
+        LocalDate date = runDate == null ? LocalDate.now() : runDate;
+        BatchJobExecution execution = claim(job, date);
+        RunningExecution run = new RunningExecution(execution.getExecutionId(), execution.getAttempts());
+        running.put(run.executionId, run);
+        try {
+            launcher.execute(() -> run(job, execution, run));
+        } catch (RejectedExecutionException e) {
+            running.remove(run.executionId);
+            finish(run, BatchStatus.STOPPED, "Launcher is shutting down");
+            throw new IllegalStateException("Batch jobs cannot be launched while the application shuts down", e);
+        }
+        log.info("Launched batch job {} for {} as execution {} (attempt {})",
+                jobName, date, run.executionId, run.attempt);
+        return getExecution(run.executionId);
+    }
+
+    /**
+     * Asks a running execution to stop after the chunks in progress; it can be resumed later.
+     */
+    public BatchJobExecutionDto stop(Long executionId) {
+        RunningExecution run = running.get(executionId);
+        if (run == null) {
+            throw new IllegalStateException("Execution " + executionId + " is not running on this instance");
+        }
+        run.stopRequested = true;
+        return getExecution(executionId);
+    }
+
+    public BatchJobExecutionDto getExecution(Long executionId) {
+        BatchJobExecution execution = executionRepository.findById(executionId)
+                .orElseThrow(() -> new IllegalArgumentException("Batch job execution not found: " + executionId));
+        return convertToResponse(execution, partitionRepository.findByExecutionIdOrderByIdAsc(executionId));
+    }
+
+    public List<BatchJobExecutionDto> getExecutions(String jobName, int limit) {
+        PageRequest page = PageRequest.of(0, Math.max(1, Math.min(limit, 100)));
+        List<BatchJobExecution> executions = jobName == null || jobName.isBlank()
+                ? executionRepository.findByOrderByExecutionIdDesc(page)
+                : executionRepository.findByJobNameOrderByExecutionIdDesc(jobName, page);
+        Map<Long, List<BatchStepPartition>> partitionsByExecution = new LinkedHashMap<>();
+        List<Long> executionIds = executions.stream().map(BatchJobExecution::getExecutionId).toList();
+        if (!executionIds.isEmpty()) {
+            for (BatchStepPartition partition : partitionRepository.findByExecutionIdInOrderByIdAsc(executionIds)) {
+                partitionsByExecution.computeIfAbsent(partition.getExecutionId(), k -> new ArrayList<>()).add(partition);
+            }
+        }
+        List<BatchJobExecutionDto> responses = new ArrayList<>(executions.size());
+        for (BatchJobExecution execution : executions) {
+            responses.add(convertToResponse(execution,
+                    partitionsByExecution.getOrDefault(execution.getExecutionId(), List.of())));
+        }
+        return responses;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (RunningExecution run : running.values()) {
+            run.stopRequested = true;
+        }
+        launcher.shutdown();
+        try {
+            if (!launcher.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Batch jobs did not stop within 30 seconds; they resume from their last checkpoint when relaunched");
+                launcher.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            launcher.shutdownNow();
+        }
+    }
+
+    private BatchJobExecution claim(BatchJob job, LocalDate runDate) {
+        BatchJobExecution execution = executionRepository.findByJobNameAndRunDate(job.getName(), runDate)
+                .orElseGet(() -> create(job.getName(), runDate));
+        Long executionId = execution.getExecutionId();
+        switch (execution.getStatus()) {
+            case COMPLETED -> throw new IllegalStateException("Job " + job.getName() + " already completed for "
+                    + runDate + " in execution " + executionId);
+            case RUNNING -> {
+                if (running.containsKey(executionId)) {
+                    throw new IllegalStateException("Job " + job.getName() + " is already running for " + runDate
+                            + " in execution " + executionId);
+                }
+                LocalDateTime lastActivity = execution.getUpdatedAt();
+                LocalDateTime lastCheckpoint = partitionRepository.findLastUpdatedAt(executionId);
+                if (lastCheckpoint != null && lastCheckpoint.isAfter(lastActivity)) {
+                    lastActivity = lastCheckpoint;
+                }
+                if (lastActivity.isAfter(LocalDateTime.now().minus(staleAfter))) {
+                    throw new IllegalStateException("Execution " + executionId + " of job " + job.getName()
+                            + " is running on another instance; it can be taken over after "
+                            + staleAfter.toSeconds() + " seconds without progress");
+                }
+                log.warn("Taking over execution {} of job {}, last active at {}", executionId, job.getName(), lastActivity);
+            }
+            default -> {
+            }
+        }
+        int attempts = execution.getAttempts();
+        Integer claimed = transactionTemplate.execute(status ->
+                executionRepository.claim(executionId, attempts, LocalDateTime.now()));
+        if (claimed == null || claimed != 1) {
+            throw new IllegalStateException("Execution " + executionId + " of job " + job.getName()
+                    + " was launched concurrently");
+        }
+        execution.setAttempts(attempts + 1);
+        return execution;
+    }
+
+    private BatchJobExecution create(String jobName, LocalDate runDate) {
+        try {
+            return transactionTemplate.execute(status ->
+                    executionRepository.saveAndFlush(new BatchJobExecution(jobName, runDate)));
+        } catch (DataIntegrityViolationException e) {
+            // Created concurrently by another launch
+            return executionRepository.findByJobNameAndRunDate(jobName, runDate).orElseThrow(() -> e);
+        }
+    }
+
+    private void run(BatchJob job, BatchJobExecution execution, RunningExecution run) {
+        long started = System.currentTimeMillis();
+        BatchStatus status = BatchStatus.COMPLETED;
+        String message = null;
+        try {
+            for (ChunkStep<?, ?> step : job.getSteps(execution.getRunDate())) {
+                if (runStep(job, run, step) == BatchStatus.STOPPED) {
+                    status = BatchStatus.STOPPED;
+                    message = "Stopped during step " + step.name();
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            status = BatchStatus.FAILED;
+            message = e.getMessage();
+            log.error("Batch job {} failed for {}: {}", job.getName(), execution.getRunDate(), e.getMessage(), e);
+        } finally {
+            finish(run, status, message);
+            running.remove(run.executionId);
+        }
+        log.info("Batch job {} for {} ended {} after {} ms", job.getName(), execution.getRunDate(), status,
+                System.currentTimeMillis() - started);
+    }
+
+    private <I, O> BatchStatus runStep(BatchJob job, RunningExecution run, ChunkStep<I, O> step) {
+        List<BatchStepPartition> pending = new ArrayList<>();
+        for (BatchStepPartition partition : partitionsOf(run.executionId, step)) {
+            if (partition.getStatus() != BatchStatus.COMPLETED) {
+                pending.add(partition);
+            }
+        }
+        if (pending.isEmpty()) {
+            return BatchStatus.COMPLETED;
+        }
+        StepMeters meters = new StepMeters(meterRegistry, job.getName(), step.name());
+        ExecutorService pool = Executors.newFixedThreadPool(pending.size());
+        try {
+            List<Future<BatchStatus>> futures = new ArrayList<>(pending.size());
+            for (BatchStepPartition partition : pending) {
+                futures.add(pool.submit(() -> runPartition(run, step, partition, meters)));
+            }
+            List<Throwable> failures = new ArrayList<>();
+            boolean stopped = false;
+            for (Future<BatchStatus> future : futures) {
+                try {
+                    stopped |= future.get() == BatchStatus.STOPPED;
+                } catch (ExecutionException e) {
+                    failures.add(e.getCause());
+                }
+            }
+            if (!failures.isEmpty()) {
+                throw new IllegalStateException("Step " + step.name() + " failed in " + failures.size() + " of "
+                        + pending.size() + " partitions: " + failures.get(0).getMessage(), failures.get(0));
+            }
+            return stopped ? BatchStatus.STOPPED : BatchStatus.COMPLETED;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Step " + step.name() + " was interrupted", e);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private List<BatchStepPartition> partitionsOf(Long executionId, ChunkStep<?, ?> step) {
+        List<BatchStepPartition> existing =
+                partitionRepository.findByExecutionIdAndStepNameOrderByPartitionIndexAsc(executionId, step.name());
+        if (!existing.isEmpty()) {
+            return existing;
+        }
+        KeyRange range = step.keyRange().get();
+        if (range == null) {
+            return List.of();
+        }
+        List<BatchStepPartition> created = new ArrayList<>();
+        List<KeyRange> ranges = range.split(partitions);
+        for (int i = 0; i < ranges.size(); i++) {
+            created.add(new BatchStepPartition(executionId, step.name(), i, ranges.get(i).from(), ranges.get(i).to()));
+        }
+        return transactionTemplate.execute(status -> partitionRepository.saveAll(created));
+    }
+
+    private <I, O> BatchStatus runPartition(RunningExecution run, ChunkStep<I, O> step, BatchStepPartition partition,
+                                            StepMeters meters) {
+        updateStatus(partition, BatchStatus.RUNNING, null);
+        long lastKey = partition.getLastKey();
+        try {
+            boolean done = lastKey >= partition.getToKey();
+            while (!done) {
+                if (run.stopRequested) {
+                    updateStatus(partition, BatchStatus.STOPPED, null);
+                    return BatchStatus.STOPPED;
+                }
+                long afterKey = lastKey;
+                long started = System.nanoTime();
+                ChunkResult chunk = Objects.requireNonNull(transactionTemplate.execute(
+                        status -> runChunk(step, partition, afterKey, started)));
+                meters.record(chunk, System.nanoTime() - started);
+                lastKey = chunk.lastKey();
+                done = chunk.done();
+            }
+            if (partition.getStatus() != BatchStatus.COMPLETED) {
+                updateStatus(partition, BatchStatus.COMPLETED, null);
+            }
+            return BatchStatus.COMPLETED;
+        } catch (RuntimeException e) {
+            try {
+                updateStatus(partition, BatchStatus.FAILED, e.getMessage());
+            } catch (RuntimeException statusFailure) {
+                e.addSuppressed(statusFailure);
+            }
+            throw e;
+        }
+    }
+
+    private <I, O> ChunkResult runChunk(ChunkStep<I, O> step, BatchStepPartition partition, long afterKey, long started) {
+        long toKey = partition.getToKey();
+        List<I> items = step.reader().read(afterKey, toKey, step.chunkSize());
+        if (items.size() > step.chunkSize()) {
+            throw new IllegalStateException("Reader of step " + step.name() + " returned " + items.size()
+                    + " items for a chunk of " + step.chunkSize());
+        }
+        List<O> output = new ArrayList<>(items.size());
+        long lastKey = afterKey;
+        for (I item : items) {
+            long key = step.key().applyAsLong(item);
+            if (key <= afterKey || key > toKey || key < lastKey) {
+                throw new IllegalStateException("Reader of step " + step.name() + " returned key " + key
+                        + " out of order or outside (" + afterKey + ", " + toKey + "]");
+            }
+            lastKey = key;
+            O processed = step.processor().process(item);
+            if (processed != null) {
+                output.add(processed);
+            }
+        }
+        if (!output.isEmpty()) {
+            step.writer().write(output);
+        }
+        boolean done = items.size() < step.chunkSize() || lastKey == toKey;
+        long checkpoint = done ? toKey : lastKey;
+        int updated = partitionRepository.checkpoint(partition.getId(), afterKey, checkpoint,
+                done ? BatchStatus.COMPLETED : BatchStatus.RUNNING, items.size(), output.size(),
+                items.size() - output.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started),
+                LocalDateTime.now());
+        if (updated != 1) {
+            throw new IllegalStateException("Partition " + partition.getPartitionIndex() + " of step " + step.name()
+                    + " was checkpointed by another run after key " + afterKey);
+        }
+        if (done) {
+            partition.setStatus(BatchStatus.COMPLETED);
+        }
+        return new ChunkResult(checkpoint, items.size(), output.size(), done);
+    }
+
+    private void updateStatus(BatchStepPartition partition, BatchStatus status, String message) {
+        transactionTemplate.executeWithoutResult(tx ->
+                partitionRepository.updateStatus(partition.getId(), status, truncate(message), LocalDateTime.now()));
+        partition.setStatus(status);
+    }
+
+    private void finish(RunningExecution run, BatchStatus status, String message) {
+        try {
+            Integer updated = transactionTemplate.execute(tx -> executionRepository.finish(run.executionId,
+                    run.attempt, status, truncate(message), LocalDateTime.now()));
+            if (updated == null || updated != 1) {
+                log.warn("Execution {} was taken over by another launch; not recording {}", run.executionId, status);
+            }
+        } catch (RuntimeException e) {
+            log.error("Could not record {} for batch job execution {}: {}", status, run.executionId, e.getMessage(), e);
+        }
+    }
+
+    private static String truncate(String message) {
+        return message == null || message.length() <= MAX_MESSAGE_LENGTH ? message : message.substring(0, MAX_MESSAGE_LENGTH);
+    }
+
+    private BatchJobExecutionDto convertToResponse(BatchJobExecution execution, List<BatchStepPartition> partitions) {
+        Map<String, List<BatchStepPartition>> byStep = new LinkedHashMap<>();
+        for (BatchStepPartition partition : partitions) {
+            byStep.computeIfAbsent(partition.getStepName(), k -> new ArrayList<>()).add(partition);
+        }
+        List<BatchStepDto> steps = new ArrayList<>(byStep.size());
+        for (Map.Entry<String, List<BatchStepPartition>> entry : byStep.entrySet()) {
+            steps.add(convertToResponse(entry.getKey(), entry.getValue(), execution.getStatus()));
+        }
+        return new BatchJobExecutionDto(execution.getExecutionId(), execution.getJobName(), execution.getRunDate(),
+                execution.getStatus().name(), execution.getAttempts(), execution.getStartedAt(), execution.getEndedAt(),
+                execution.getExitMessage(), steps);
+    }
+
+    private BatchStepDto convertToResponse(String stepName, List<BatchStepPartition> partitions,
+                                           BatchStatus executionStatus) {
+        long read = 0;
+        long written = 0;
+        long filtered = 0;
+        long commits = 0;
+        long slowestMs = 0;
+        boolean failed = false;
+        boolean stopped = false;
+        boolean active = false;
+        List<BatchPartitionDto> details = new ArrayList<>(partitions.size());
+        for (BatchStepPartition partition : partitions) {
+            read += partition.getReadCount();
+            written += partition.getWriteCount();
+            filtered += partition.getFilterCount();
+            commits += partition.getCommitCount();
+            slowestMs = Math.max(slowestMs, partition.getElapsedMs());
+            failed |= partition.getStatus() == BatchStatus.FAILED;
+            stopped |= partition.getStatus() == BatchStatus.STOPPED;
+            active |= partition.getStatus() != BatchStatus.COMPLETED;
+            details.add(new BatchPartitionDto(partition.getPartitionIndex(), partition.getFromKey(),
+                    partition.getToKey(), partition.getLastKey(), partition.getStatus().name(), partition.getReadCount(),
+                    partition.getWriteCount(), partition.getFilterCount(), partition.getCommitCount(),
+                    partition.getElapsedMs(), partition.getExitMessage()));
+        }
+        BatchStatus status = failed ? BatchStatus.FAILED
+                : stopped ? BatchStatus.STOPPED
+                : !active ? BatchStatus.COMPLETED
+                : executionStatus == BatchStatus.RUNNING ? BatchStatus.RUNNING
+                : BatchStatus.STOPPED;
+        Double itemsPerSecond = slowestMs == 0 ? null : read * 1000.0 / slowestMs;
+        return new BatchStepDto(stepName, status.name(), read, written, filtered, commits, itemsPerSecond, details);
+    }
+
+    private record ChunkResult(long lastKey, int read, int written, boolean done) {
+    }
+
+    /**
+     * An execution launched by this instance.
+     */
+    private static final class RunningExecution {
+
+        private final Long executionId;
+        private final int attempt;
+        private volatile boolean stopRequested;
+
+        RunningExecution(Long executionId, int attempt) {
+            this.executionId = executionId;
+            this.attempt = attempt;
+        }
+    }
+
+    /**
+     * Throughput meters of one step: {@code batch.step.items} by result and {@code batch.step.chunks}.
+     */
+    private static final class StepMeters {
+
+        private final Counter read;
+        private final Counter written;
+        private final Counter filtered;
+        private final Timer chunks;
+
+        StepMeters(MeterRegistry meterRegistry, String job, String step) {
+            this.read = items(meterRegistry, job, step, "read");
+            this.written = items(meterRegistry, job, step, "written");
+            this.filtered = items(meterRegistry, job, step, "filtered");
+            this.chunks = Timer.builder("batch.step.chunks")
+                    .description("Committed chunks of batch job steps")
+                    .tag("job", job)
+                    .tag("step", step)
+                    .register(meterRegistry);
+        }
+
+        private static Counter items(MeterRegistry meterRegistry, String job, String step, String result) {
+            return Counter.builder("batch.step.items")
+                    .description("Items processed by batch job steps")
+                    .tag("job", job)
+                    .tag("step", step)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+
+        void record(ChunkResult chunk, long nanos) {
+            read.increment(chunk.read());
+            written.increment(chunk.written());
+            filtered.increment(chunk.read() - chunk.written());
+            chunks.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.BillingCycleCloseResponseDto;
+import com.example.demo.dto.BillingCycleScheduleDto;
+import com.example.demo.entity.BillingCycleSchedule;
+import com.example.demo.money.Money;
+import com.example.demo.repository.AccountBalanceDelta;
+import com.example.demo.repository.AccountCycleHistoryRepository;
+import com.example.demo.repository.AccountCycleTotals;
+import com.example.demo.repository.AccountRepository;
+import com.example.demo.repository.BillingCycleScheduleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closes the billing cycle of one account group without loading account entities.
+ * <p>
+ * The group's account ID range is split into partitions that run concurrently, each in its own
+ * transaction: read and lock the cycle totals of accounts not yet closed for this cycle, write them
+ * to {@code account_cycle_history} with a batched insert, then subtract the recorded amounts from the
+ * accounts with one set-based UPDATE. The row locks hold off writers that set the cycle amounts
+ * outright, such as account updates, until the partition commits, so the subtracted amounts are
+ * exactly those recorded. A failed partition rolls back alone; rerunning the same cycle
+ * end date only processes the accounts that were not closed yet. The subtracted amounts are
+ * published as an {@link AccountBalancesPostedEvent} in the partition's transaction.
+ */
+@Service
+@Slf4j
+public class BillingCycleCloseService {
+
+    private final AccountRepository accountRepository;
+    private final AccountCycleHistoryRepository historyRepository;
+    private final BillingCycleScheduleRepository scheduleRepository;
+    private final AccountGroupSummaryService accountGroupSummaryService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int partitions;
+    private final int insertBatchSize;
+    private final Set<String> closingGroups = ConcurrentHashMap.newKeySet();
+
+    public BillingCycleCloseService(AccountRepository accountRepository,
+                                    AccountCycleHistoryRepository historyRepository,
+                                    BillingCycleScheduleRepository scheduleRepository,
+                                    AccountGroupSummaryService accountGroupSummaryService,
+                                    ApplicationEventPublisher eventPublisher,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${billing.cycle.partitions:4}") int partitions,
+                                    @Value("${billing.cycle.insert-batch-size:500}") int insertBatchSize) {
+        this.accountRepository = accountRepository;
+        this.historyRepository = historyRepository;
+        this.scheduleRepository = scheduleRepository;
+        this.accountGroupSummaryService = accountGroupSummaryService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.partitions = Math.max(1, partitions);
+        this.insertBatchSize = Math.max(1, insertBatchSize);
+    }
+
+    @Transactional(readOnly = true)
+    public List<BillingCycleScheduleDto> getSchedules() {
+        List<BillingCycleScheduleDto> responses = new ArrayList<>();
+        for (BillingCycleSchedule schedule : scheduleRepository.findAllByOrderByGroupIdAsc()) {
+            responses.add(convertToResponse(schedule));
+        }
+        return responses;
+    }
+
+    @Transactional
+    public BillingCycleScheduleDto saveSchedule(String groupId, Integer closeDayOfMonth) {
+        if (groupId == null || groupId.isBlank() || groupId.length() > 10) {
+            throw new IllegalArgumentException("Group ID must be 1 to 10 characters");
+        }
+        if (closeDayOfMonth == null || closeDayOfMonth < 1 || closeDayOfMonth > 31) {
+            throw new IllegalArgumentException("Close day of month must be between 1 and 31");
+        }
+        BillingCycleSchedule schedule = scheduleRepository.findById(groupId)
+                .orElseGet(() -> new BillingCycleSchedule(groupId, closeDayOfMonth));
+        schedule.setCloseDayOfMonth(closeDayOfMonth);
+        return convertToResponse(scheduleRepository.save(schedule));
+    }
+
+    /**
+     * Closes every group whose close day is today and that has not been closed for today yet.
+     * A close day beyond the end of a short month falls on the month's last day.
+     */
+    @Scheduled(cron = "${billing.cycle.check-cron:-}")
+    public void closeDueGroups() {
+        LocalDate today = LocalDate.now();
+        for (BillingCycleSchedule schedule : scheduleRepository.findAllByOrderByGroupIdAsc()) {
+            int closeDay = Math.min(schedule.getCloseDayOfMonth(), today.lengthOfMonth());
+            if (closeDay != today.getDayOfMonth() || today.equals(schedule.getLastCycleEndDate())) {
+                continue;
+            }
+            try {
+                closeCycle(schedule.getGroupId(), today);
+            } catch (RuntimeException e) {
+                log.error("Scheduled cycle close failed for group {}: {}", schedule.getGroupId(), e.getMessage(), e);
+            }
+        }
+    }
+
+    public BillingCycleCloseResponseDto closeCycle(String groupId, LocalDate cycleEndDate) {
+        if (groupId == null || groupId.isBlank()) {
+            throw new IllegalArgumentException("Group ID must be provided");
+        }
+        LocalDate endDate = cycleEndDate == null ? LocalDate.now() : cycleEndDate;
+        if (!closingGroups.add(groupId)) {
+            throw new IllegalStateException("A cycle close is already running for group: " + groupId);
+        }
+        try {
+            return run(groupId, endDate);
+        } finally {
+            closingGroups.remove(groupId);
+        }
+    }
+
+    private BillingCycleCloseResponseDto run(String groupId, LocalDate cycleEndDate) {
+        long started = System.currentTimeMillis();
+        String runId = UUID.randomUUID().toString();
+        Long minAccountId = accountRepository.findMinAccountIdByGroupId(groupId);
+        Long maxAccountId = accountRepository.findMaxAccountIdByGroupId(groupId);
+
+        int partitionCount = 0;
+        long accountsClosed = 0;
+        if (minAccountId != null) {
+            long span = maxAccountId - minAccountId + 1;
+            partitionCount = (int) Math.min(partitions, span);
+            long step = (span + partitionCount - 1) / partitionCount;
+
+            ExecutorService pool = Executors.newFixedThreadPool(partitionCount);
+            try {
+                List<Future<Integer>> futures = new ArrayList<>(partitionCount);
+                for (int i = 0; i < partitionCount; i++) {
+                    long from = minAccountId + i * step;
+                    long to = Math.min(maxAccountId, from + step - 1);
+                    futures.add(pool.submit(() -> Objects.requireNonNull(transactionTemplate.execute(
+                            status -> closePartition(runId, groupId, cycleEndDate, from, to)))));
+                }
+                List<Throwable> failures = new ArrayList<>();
+                for (Future<Integer> future : futures) {
+                    try {
+                        accountsClosed += future.get();
+                    } catch (ExecutionException e) {
+                        failures.add(e.getCause());
+                    }
+                }
+                if (!failures.isEmpty()) {
+                    throw new IllegalStateException("Cycle close for group " + groupId + " failed in "
+                            + failures.size() + " of " + partitionCount + " partitions: "
+                            + failures.get(0).getMessage(), failures.get(0));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Cycle close was interrupted", e);
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> scheduleRepository.findById(groupId).ifPresent(schedule -> {
+            schedule.setLastCycleEndDate(cycleEndDate);
+            scheduleRepository.save(schedule);
+        }));
+
+        long duration = System.currentTimeMillis() - started;
+        log.info("Closed billing cycle {} for group {}: {} accounts in {} partitions, {} ms",
+                cycleEndDate, groupId, accountsClosed, partitionCount, duration);
+        return new BillingCycleCloseResponseDto(runId, groupId, cycleEndDate, partitionCount, accountsClosed, duration);
+    }
+
+    private int closePartition(String runId, String groupId, LocalDate cycleEndDate, long fromAccountId, long toAccountId) {
+        List<AccountCycleTotals> rows = accountRepository.findCycleTotalsToClose(groupId, fromAccountId, toAccountId, cycleEndDate);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        historyRepository.insertBatch(runId, groupId, cycleEndDate, rows, insertBatchSize);
+        int updated = accountRepository.closeCycle(runId, fromAccountId, toAccountId, LocalDateTime.now());
+
+        Map<String, long[]> closedCentsByStatus = new HashMap<>();
+        List<AccountBalanceDelta> deltas = new ArrayList<>(rows.size());
+        for (AccountCycleTotals row : rows) {
+            long credit = Money.toCents(row.getCurrentCycleCredit());
+            long debit = Money.toCents(row.getCurrentCycleDebit());
+            long[] sums = closedCentsByStatus.computeIfAbsent(row.getActiveStatus(), k -> new long[2]);
+            sums[0] = Money.addCents(sums[0], credit);
+            sums[1] = Money.addCents(sums[1], debit);
+            deltas.add(new AccountBalanceDelta(row.getAccountId(), 0, Math.negateExact(credit), Math.negateExact(debit)));
+        }
+        for (Map.Entry<String, long[]> entry : closedCentsByStatus.entrySet()) {
+            long[] sums = entry.getValue();
+            accountGroupSummaryService.applyDelta(groupId, entry.getKey(), 0, BigDecimal.ZERO, BigDecimal.ZERO,
+                    Money.toBigDecimal(Math.negateExact(sums[0])), Money.toBigDecimal(Math.negateExact(sums[1])));
+        }
+        eventPublisher.publishEvent(new AccountBalancesPostedEvent(deltas));
+        log.debug("Closed cycle for accounts {}..{} of group {}: {} rows", fromAccountId, toAccountId, groupId, updated);
+        return updated;
+    }
+
+    private BillingCycleScheduleDto convertToResponse(BillingCycleSchedule schedule) {
+        return new BillingCycleScheduleDto(schedule.getGroupId(), schedule.getCloseDayOfMonth(),
+                schedule.getLastCycleEndDate());
+    }
+}
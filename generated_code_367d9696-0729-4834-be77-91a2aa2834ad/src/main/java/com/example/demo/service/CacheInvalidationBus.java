@@ -0,0 +1,436 @@
+package com.example.demo.service;
+
+import com.example.demo.cache.CacheEntityType;
+import com.example.demo.cache.CacheInvalidation;
+import com.example.demo.cache.InvalidationBatch;
+import com.example.demo.cache.InvalidationCodec;
+import com.example.demo.cache.InvalidationTransport;
+import com.example.demo.cache.PostgresNotifyTransport;
+import com.example.demo.cache.TcpInvalidationTransport;
+import com.example.demo.cache.UdpInvalidationTransport;
+import com.example.demo.repository.AccountBalanceDelta;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tells the other nodes of a multi-instance deployment about committed changes, so their in-memory
+ * state ({@link AuthorizationStateTable}, {@link CustomerSearchIndex}) does not go stale.
+ * <p>
+ * After-commit events of the update, posting and card reissue paths add the changed accounts,
+ * customers and cards to a pending set, which coalesces repeated changes to one entity. A publisher
+ * thread drains it every {@code cache.bus.flush-interval-ms} (or once {@code cache.bus.max-batch}
+ * entries are pending), stamps the entries with one value of the database sequence
+ * {@code cache_invalidation_version_seq} and sends them over the configured
+ * {@link InvalidationTransport}, split into payloads the transport accepts. The version is taken
+ * after the changes committed, so an entity's later commit always gets a higher version; node clocks
+ * play no part. Receivers drop an invalidation whose version is not newer than the last one seen for
+ * that entity.
+ * <p>
+ * Each batch carries the sender's node ID, made unique per process start, and a sequence number; idle
+ * senders send heartbeats with their last number. A receiver that finds a number skipped has lost
+ * changes and publishes a full flush instead. The first batch seen from a node only sets its
+ * baseline. A node not heard from for {@code cache.bus.node-timeout-ms} is forgotten, so restarted
+ * nodes do not pile up; its ID is kept in a bounded list, and hearing from it again counts as a gap.
+ * Receivers apply changes through {@link RemoteChangesEvent} listeners.
+ */
+@Service
+@Slf4j
+public class CacheInvalidationBus {
+
+    private static final int FORGOTTEN_NODES_CAPACITY = 1000;
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final InvalidationTransport transport;
+    private final String nodeId;
+    private final long flushIntervalMillis;
+    private final int maxBatch;
+    private final long heartbeatMillis;
+    private final long nodeTimeoutMillis;
+    private final int versionCapacity;
+    private final Set<Key> pending = new LinkedHashSet<>();
+    private final Map<String, Node> nodes = new LinkedHashMap<>();
+    private final Set<String> forgottenNodes;
+    private final Map<Key, Long> versions;
+    private final Counter sent;
+    private final Counter sendFailures;
+    private final Counter received;
+    private final Counter rejected;
+    private final Counter flushes;
+    private String nextVersionSql;
+    private Thread publisher;
+    private volatile boolean running;
+    private long sequence;
+    private long lastSentMillis;
+    private long lastExpiryMillis;
+
+    public CacheInvalidationBus(ApplicationEventPublisher eventPublisher,
+                                DataSource dataSource,
+                                MeterRegistry meterRegistry,
+                                @Value("${cache.bus.transport:none}") String transport,
+                                @Value("${cache.bus.node-id:}") String nodeId,
+                                @Value("${cache.bus.port:7400}") int port,
+                                @Value("${cache.bus.peers:}") String peers,
+                                @Value("${cache.bus.channel:cache_invalidation}") String channel,
+                                @Value("${cache.bus.flush-interval-ms:20}") long flushIntervalMillis,
+                                @Value("${cache.bus.max-batch:500}") int maxBatch,
+                                @Value("${cache.bus.heartbeat-ms:1000}") long heartbeatMillis,
+                                @Value("${cache.bus.node-timeout-ms:60000}") long nodeTimeoutMillis,
+                                @Value("${cache.bus.version-capacity:100000}") int versionCapacity) {
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.meterRegistry = meterRegistry;
+        this.transport = switch (transport) {
+            case "none" -> null;
+            case "udp" -> new UdpInvalidationTransport(port, parsePeers(peers));
+            case "tcp" -> new TcpInvalidationTransport(port, parsePeers(peers));
+            case "postgres" -> new PostgresNotifyTransport(dataSource, channel);
+            default -> throw new IllegalArgumentException("Unknown cache.bus.transport: " + transport
+                    + " (expected none, udp, tcp or postgres)");
+        };
+        String prefix = nodeId.isBlank() ? "node" : nodeId;
+        this.nodeId = prefix + "-" + UUID.randomUUID().toString().substring(0, 8);
+        this.flushIntervalMillis = Math.max(1, flushIntervalMillis);
+        this.maxBatch = Math.max(1, maxBatch);
+        this.heartbeatMillis = Math.max(this.flushIntervalMillis, heartbeatMillis);
+        // Several missed heartbeats, so one late packet does not forget a live node
+        this.nodeTimeoutMillis = Math.max(this.heartbeatMillis * 3, nodeTimeoutMillis);
+        this.versionCapacity = Math.max(1, versionCapacity);
+        this.versions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Long> eldest) {
+                // Forgetting a version only lets an older, harmless invalidation through
+                return size() > CacheInvalidationBus.this.versionCapacity;
+            }
+        };
+        this.forgottenNodes = Collections.newSetFromMap(new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > FORGOTTEN_NODES_CAPACITY;
+            }
+        });
+        this.sent = Counter.builder("cache.bus.invalidations.sent")
+                .description("Invalidations sent to other nodes")
+                .register(meterRegistry);
+        this.sendFailures = Counter.builder("cache.bus.send.failures")
+                .description("Invalidation payloads that could not be sent")
+                .register(meterRegistry);
+        this.received = Counter.builder("cache.bus.invalidations.received")
+                .description("Invalidations from other nodes applied to local state")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("cache.bus.invalidations.rejected")
+                .description("Invalidations from other nodes dropped because they were not newer than the last seen")
+                .register(meterRegistry);
+        this.flushes = Counter.builder("cache.bus.flushes")
+                .description("Full flushes of local state after a gap in another node's batches")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        Gauge.builder("cache.bus.pending", this, CacheInvalidationBus::getPendingCount)
+                .description("Changed entities waiting to be sent")
+                .register(meterRegistry);
+        if (transport == null) {
+            return;
+        }
+        try {
+            transport.start(this::receive);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start the cache invalidation transport", e);
+        }
+        running = true;
+        publisher = new Thread(this::publishLoop, "cache-invalidation-publisher");
+        publisher.setDaemon(true);
+        publisher.start();
+        log.info("Cache invalidation bus started as {}", nodeId);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (transport == null) {
+            return;
+        }
+        running = false;
+        synchronized (pending) {
+            pending.notifyAll();
+        }
+        try {
+            publisher.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        transport.close();
+    }
+
+    @TransactionalEventListener
+    public void onAccountUpdated(AccountUpdatedEvent event) {
+        enqueue(List.of(new Key(CacheEntityType.ACCOUNT, String.valueOf(event.getAccount().getAccountId())),
+                new Key(CacheEntityType.CUSTOMER, String.valueOf(event.getCustomer().getCustomerId()))));
+    }
+
+    @TransactionalEventListener
+    public void onBalancesPosted(AccountBalancesPostedEvent event) {
+        List<Key> keys = new ArrayList<>(event.getDeltas().size());
+        for (AccountBalanceDelta delta : event.getDeltas()) {
+            keys.add(new Key(CacheEntityType.ACCOUNT, String.valueOf(delta.getAccountId())));
+        }
+        enqueue(keys);
+    }
+
+    @TransactionalEventListener
+    public void onCardsChanged(CardsChangedEvent event) {
+        List<Key> keys = new ArrayList<>(event.getCardNumbers().size());
+        for (String cardNumber : event.getCardNumbers()) {
+            keys.add(new Key(CacheEntityType.CARD, cardNumber));
+        }
+        enqueue(keys);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    int getPendingCount() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    private void enqueue(List<Key> keys) {
+        if (transport == null || keys.isEmpty()) {
+            return;
+        }
+        synchronized (pending) {
+            pending.addAll(keys);
+            if (pending.size() >= maxBatch) {
+                pending.notifyAll();
+            }
+        }
+    }
+
+    private void publishLoop() {
+        while (running || getPendingCount() > 0) {
+            List<Key> keys;
+            synchronized (pending) {
+                if (running && pending.size() < maxBatch) {
+                    try {
+                        pending.wait(flushIntervalMillis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                keys = new ArrayList<>(pending);
+                pending.clear();
+            }
+            try {
+                if (!keys.isEmpty()) {
+                    publish(keys);
+                } else if (System.currentTimeMillis() - lastSentMillis >= heartbeatMillis) {
+                    send(new InvalidationBatch(nodeId, sequence, List.of()));
+                }
+            } catch (RuntimeException e) {
+                log.warn("Publishing {} invalidations failed, retrying: {}", keys.size(), e.getMessage());
+                synchronized (pending) {
+                    pending.addAll(keys);
+                }
+                if (!running) {
+                    return;
+                }
+                try {
+                    Thread.sleep(Math.max(flushIntervalMillis, 100));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void publish(List<Key> keys) {
+        long version = nextVersion();
+        int limit = transport.maxPayloadBytes();
+        int header = InvalidationCodec.headerSize(nodeId);
+        List<CacheInvalidation> batch = new ArrayList<>();
+        int size = header;
+        for (Key key : keys) {
+            CacheInvalidation invalidation = new CacheInvalidation(key.type(), key.id(), version);
+            int entry = InvalidationCodec.entrySize(invalidation);
+            if (!batch.isEmpty() && size + entry > limit) {
+                send(new InvalidationBatch(nodeId, ++sequence, batch));
+                batch = new ArrayList<>();
+                size = header;
+            }
+            batch.add(invalidation);
+            size += entry;
+        }
+        send(new InvalidationBatch(nodeId, ++sequence, batch));
+    }
+
+    /**
+     * Sends without retrying: a lost batch has already used its sequence number, so receivers see
+     * the gap and flush.
+     */
+    private void send(InvalidationBatch batch) {
+        lastSentMillis = System.currentTimeMillis();
+        try {
+            transport.send(InvalidationCodec.encode(batch));
+            sent.increment(batch.invalidations().size());
+        } catch (IOException e) {
+            sendFailures.increment();
+            log.warn("Sending invalidation batch {} failed: {}", batch.sequence(), e.getMessage());
+        }
+    }
+
+    private long nextVersion() {
+        if (nextVersionSql == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            nextVersionSql = "PostgreSQL".equalsIgnoreCase(product)
+                    ? "SELECT nextval('cache_invalidation_version_seq')"
+                    : "SELECT NEXT VALUE FOR cache_invalidation_version_seq";
+        }
+        Long version = jdbcTemplate.queryForObject(nextVersionSql, Long.class);
+        if (version == null) {
+            throw new IllegalStateException("cache_invalidation_version_seq returned no value");
+        }
+        return version;
+    }
+
+    private synchronized void receive(byte[] payload) {
+        InvalidationBatch batch;
+        try {
+            batch = InvalidationCodec.decode(payload);
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring invalid cache invalidation payload: {}", e.getMessage());
+            return;
+        }
+        if (batch.nodeId().equals(nodeId)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        forgetSilentNodes(now);
+        Node node = nodes.get(batch.nodeId());
+        Long last = node == null ? null : node.sequence();
+        boolean gap;
+        if (node == null && forgottenNodes.remove(batch.nodeId())) {
+            // Whatever it sent while it was forgotten is lost
+            gap = true;
+        } else if (batch.isHeartbeat()) {
+            gap = last != null && batch.sequence() > last;
+        } else if (last != null && batch.sequence() <= last) {
+            log.debug("Ignoring repeated invalidation batch {} from {}", batch.sequence(), batch.nodeId());
+            nodes.put(batch.nodeId(), new Node(last, now));
+            return;
+        } else {
+            gap = last != null && batch.sequence() > last + 1;
+        }
+        nodes.put(batch.nodeId(), new Node(last == null ? batch.sequence() : Math.max(last, batch.sequence()), now));
+
+        Set<Long> accountIds = new HashSet<>();
+        Set<Long> customerIds = new HashSet<>();
+        Set<String> cardNumbers = new HashSet<>();
+        for (CacheInvalidation invalidation : batch.invalidations()) {
+            Key key = new Key(invalidation.type(), invalidation.id());
+            Long seen = versions.get(key);
+            if (seen != null && seen >= invalidation.version()) {
+                rejected.increment();
+                continue;
+            }
+            versions.put(key, invalidation.version());
+            try {
+                switch (invalidation.type()) {
+                    case ACCOUNT -> accountIds.add(Long.valueOf(invalidation.id()));
+                    case CUSTOMER -> customerIds.add(Long.valueOf(invalidation.id()));
+                    case CARD -> cardNumbers.add(invalidation.id());
+                }
+            } catch (NumberFormatException e) {
+                log.warn("Ignoring invalidation of {} with invalid ID {}", invalidation.type(), invalidation.id());
+            }
+        }
+
+        if (gap) {
+            flushes.increment();
+            log.warn("Missed invalidation batches from {} (last {}, got {}); flushing local state",
+                    batch.nodeId(), last, batch.sequence());
+            eventPublisher.publishEvent(new RemoteChangesEvent(true, Set.of(), Set.of(), Set.of()));
+        } else if (!accountIds.isEmpty() || !customerIds.isEmpty() || !cardNumbers.isEmpty()) {
+            received.increment(accountIds.size() + customerIds.size() + cardNumbers.size());
+            eventPublisher.publishEvent(new RemoteChangesEvent(false, accountIds, customerIds, cardNumbers));
+        }
+    }
+
+    /**
+     * Forgets nodes that sent nothing, not even a heartbeat, for the node timeout. Runs at most once
+     * per heartbeat interval; called with the receive lock held.
+     */
+    private void forgetSilentNodes(long now) {
+        if (now - lastExpiryMillis < heartbeatMillis) {
+            return;
+        }
+        lastExpiryMillis = now;
+        Iterator<Map.Entry<String, Node>> iterator = nodes.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Node> entry = iterator.next();
+            if (now - entry.getValue().lastHeardMillis() >= nodeTimeoutMillis) {
+                iterator.remove();
+                forgottenNodes.add(entry.getKey());
+                log.info("Forgetting cache invalidation node {}, silent for {} ms", entry.getKey(),
+                        now - entry.getValue().lastHeardMillis());
+            }
+        }
+    }
+
+    private static List<InetSocketAddress> parsePeers(String peers) {
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        for (String peer : peers.split(",")) {
+            String trimmed = peer.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int colon = trimmed.lastIndexOf(':');
+            if (colon <= 0 || colon == trimmed.length() - 1) {
+                throw new IllegalArgumentException("Invalid cache.bus.peers entry, expected host:port: " + trimmed);
+            }
+            addresses.add(new InetSocketAddress(trimmed.substring(0, colon), Integer.parseInt(trimmed.substring(colon + 1))));
+        }
+        return addresses;
+    }
+
+    private record Key(CacheEntityType type, String id) {
+    }
+
+    /**
+     * Last batch sequence number received from a node and when it was last heard from.
+     */
+    private record Node(long sequence, long lastHeardMillis) {
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.CardReissueResponseDto;
+import com.example.demo.entity.Card;
+import com.example.demo.repository.AccountGroupKey;
+import com.example.demo.repository.AccountRepository;
+import com.example.demo.repository.CardExpiryChange;
+import com.example.demo.repository.CardExpiryKey;
+import com.example.demo.repository.CardRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reissues active cards that expire within a window.
+ * <p>
+ * The reader walks {@code idx_card_expiration} with keyset paging and hands each page to a bounded
+ * worker pool; when the queue is full the reader runs the chunk itself, which throttles the scan to
+ * the speed of the writers. Every chunk runs in its own transaction; the first failed chunk stops
+ * the scan and fails the run, and a rerun picks up the cards still left in the window. Cards of active accounts get
+ * a new expiration date and the account's {@code reissue_date} is set; cards of inactive accounts
+ * are closed instead. A dry run performs the same scan and classification without writing.
+ */
+@Service
+@Slf4j
+public class CardReissueService {
+
+    static final String CARD_ACTIVE = "A";
+    static final String CARD_CLOSED = "C";
+
+    private final CardRepository cardRepository;
+    private final AccountRepository accountRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate writeTemplate;
+    private final TransactionTemplate readOnlyTemplate;
+    private final int chunkSize;
+    private final int workerThreads;
+    private final int queueCapacity;
+    private final int validityYears;
+    private final int defaultWindowDays;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public CardReissueService(CardRepository cardRepository,
+                              AccountRepository accountRepository,
+                              ApplicationEventPublisher eventPublisher,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${card.reissue.chunk-size:500}") int chunkSize,
+                              @Value("${card.reissue.worker-threads:4}") int workerThreads,
+                              @Value("${card.reissue.queue-capacity:8}") int queueCapacity,
+                              @Value("${card.reissue.validity-years:3}") int validityYears,
+                              @Value("${card.reissue.window-days:30}") int defaultWindowDays) {
+        this.cardRepository = cardRepository;
+        this.accountRepository = accountRepository;
+        this.eventPublisher = eventPublisher;
+        this.writeTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.workerThreads = Math.max(1, workerThreads);
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.validityYears = Math.max(1, validityYears);
+        this.defaultWindowDays = defaultWindowDays;
+    }
+
+    @Scheduled(cron = "${card.reissue.cron:-}")
+    public void scheduledReissue() {
+        reissue(null, false);
+    }
+
+    /**
+     * Runs the job for cards expiring between today and today plus {@code windowDays}. The window
+     * must end before today plus the card validity, or a card reissued early in the scan would
+     * expire inside the window again and be reissued a second time.
+     *
+     * @param windowDays days ahead to look, or null for {@code card.reissue.window-days}
+     * @param dryRun     when true, report what would change without writing
+     */
+    public CardReissueResponseDto reissue(Integer windowDays, boolean dryRun) {
+        int days = windowDays == null ? defaultWindowDays : windowDays;
+        if (days < 0) {
+            throw new IllegalArgumentException("Window days must not be negative");
+        }
+        LocalDate runDate = LocalDate.now();
+        if (!runDate.plusDays(days).isBefore(runDate.plusYears(validityYears))) {
+            throw new IllegalArgumentException("Window days must be shorter than the card validity of "
+                    + validityYears + " years");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A card reissue run is already in progress");
+        }
+        try {
+            return run(runDate, days, dryRun);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private CardReissueResponseDto run(LocalDate runDate, int days, boolean dryRun) {
+        long started = System.currentTimeMillis();
+        LocalDate fromDate = runDate;
+        LocalDate toDate = runDate.plusDays(days);
+        Totals totals = new Totals();
+
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new ThreadPoolExecutor.CallerRunsPolicy());
+        List<Future<?>> futures = new ArrayList<>();
+        int chunks = 0;
+        try {
+            LocalDate afterDate = fromDate.minusDays(1);
+            String afterCardNumber = "";
+            while (true) {
+                List<CardExpiryKey> page = cardRepository.findExpiringAfter(CARD_ACTIVE, fromDate, toDate,
+                        afterDate, afterCardNumber, PageRequest.ofSize(chunkSize));
+                if (page.isEmpty()) {
+                    break;
+                }
+                List<String> cardNumbers = new ArrayList<>(page.size());
+                for (CardExpiryKey key : page) {
+                    cardNumbers.add(key.getCardNumber());
+                }
+                CardExpiryKey last = page.get(page.size() - 1);
+                afterDate = last.getExpirationDate();
+                afterCardNumber = last.getCardNumber();
+                chunks++;
+
+                futures.add(pool.submit(() -> processChunk(cardNumbers, fromDate, toDate, runDate, dryRun, totals)));
+                checkCompleted(futures);
+                if (page.size() < chunkSize) {
+                    break;
+                }
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Card reissue was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Card reissue failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            // Stops queued chunks after a failure; after success every chunk has already finished
+            pool.shutdownNow();
+        }
+
+        long duration = System.currentTimeMillis() - started;
+        log.info("Card reissue {} for {}..{}: {} cards scanned in {} chunks, {} reissued, {} closed, {} accounts updated, {} ms",
+                dryRun ? "dry run" : "run", fromDate, toDate, totals.scanned.sum(), chunks,
+                totals.reissued.sum(), totals.closed.sum(), totals.accountsUpdated.sum(), duration);
+        return new CardReissueResponseDto(dryRun, fromDate, toDate, chunks, totals.scanned.sum(),
+                totals.reissued.sum(), totals.closed.sum(), totals.accountsUpdated.sum(), duration);
+    }
+
+    /**
+     * Drops finished chunks, rethrowing the first failure so the scan stops instead of reporting success.
+     */
+    private static void checkCompleted(List<Future<?>> futures) throws InterruptedException, ExecutionException {
+        Iterator<Future<?>> iterator = futures.iterator();
+        while (iterator.hasNext()) {
+            Future<?> future = iterator.next();
+            if (future.isDone()) {
+                future.get();
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Classifies and updates one chunk in its own transaction. The cards and the status of their
+     * accounts are read, then the changes are written as one batched card UPDATE and one account
+     * UPDATE that sets only {@code reissue_date}; balances posted concurrently are never rewritten.
+     * Each card update only applies while the card still has the status and expiration date read
+     * here, so a card changed in between is left alone.
+     */
+    private void processChunk(List<String> cardNumbers, LocalDate fromDate, LocalDate toDate,
+                              LocalDate runDate, boolean dryRun, Totals totals) {
+        TransactionTemplate template = dryRun ? readOnlyTemplate : writeTemplate;
+        template.executeWithoutResult(status -> {
+            List<Card> cards = cardRepository.findAllById(cardNumbers);
+            Set<Long> accountIds = new HashSet<>();
+            for (Card card : cards) {
+                accountIds.add(card.getAccountId());
+            }
+            Map<Long, String> accountStatus = new HashMap<>();
+            for (AccountGroupKey account : accountRepository.findGroupKeysByAccountIdIn(accountIds)) {
+                accountStatus.put(account.getAccountId(), account.getActiveStatus());
+            }
+
+            List<CardExpiryChange> changes = new ArrayList<>();
+            Map<String, Long> reissuedCards = new HashMap<>();
+            for (Card card : cards) {
+                LocalDate expiry = card.getExpirationDate();
+                if (!CARD_ACTIVE.equals(card.getCardStatus()) || expiry.isBefore(fromDate) || expiry.isAfter(toDate)) {
+                    continue;
+                }
+                if ("Y".equals(accountStatus.get(card.getAccountId()))) {
+                    changes.add(new CardExpiryChange(card.getCardNumber(), CARD_ACTIVE, expiry,
+                            CARD_ACTIVE, expiry.plusYears(validityYears)));
+                    reissuedCards.put(card.getCardNumber(), card.getAccountId());
+                } else {
+                    changes.add(new CardExpiryChange(card.getCardNumber(), CARD_ACTIVE, expiry,
+                            CARD_CLOSED, expiry));
+                }
+            }
+
+            List<String> applied;
+            if (dryRun) {
+                applied = new ArrayList<>(changes.size());
+                for (CardExpiryChange change : changes) {
+                    applied.add(change.getCardNumber());
+                }
+            } else {
+                applied = cardRepository.applyExpiryChanges(changes);
+            }
+            Set<Long> reissuedAccounts = new HashSet<>();
+            for (String cardNumber : applied) {
+                Long accountId = reissuedCards.get(cardNumber);
+                if (accountId == null) {
+                    totals.closed.increment();
+                } else {
+                    totals.reissued.increment();
+                    reissuedAccounts.add(accountId);
+                }
+            }
+            totals.scanned.add(changes.size());
+            totals.accountsUpdated.add(reissuedAccounts.size());
+            if (!dryRun && !reissuedAccounts.isEmpty()) {
+                LocalDateTime updatedAt = LocalDateTime.now();
+                accountRepository.updateReissueDate(reissuedAccounts, runDate, updatedAt);
+                eventPublisher.publishEvent(new AccountsReissuedEvent(reissuedAccounts, runDate, updatedAt));
+            }
+            if (!dryRun && !applied.isEmpty()) {
+                eventPublisher.publishEvent(new CardsChangedEvent(applied));
+            }
+        });
+    }
+
+    private static final class Totals {
+
+        private final LongAdder scanned = new LongAdder();
+        private final LongAdder reissued = new LongAdder();
+        private final LongAdder closed = new LongAdder();
+        private final LongAdder accountsUpdated = new LongAdder();
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.demo.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size ring of a card's recent (second, amount) events, each packed into one {@code long}.
+ * <p>
+ * Writers claim a slot with {@code getAndIncrement} and publish the packed value with a single
+ * atomic store, so recording never locks and a reader never sees half an event. The high 32 bits
+ * hold seconds since {@link #BASE_EPOCH_SECOND} plus one (zero marks an empty slot), the low 32 bits
+ * the amount in cents, capped at 2^32 - 1.
+ */
+final class CardVelocityWindow {
+
+    static final long BASE_EPOCH_SECOND = 1_577_836_800L;
+
+    private static final long MAX_AMOUNT_CENTS = 0xFFFFFFFFL;
+
+    private final AtomicLongArray slots;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private volatile long lastSeenSecond;
+
+    CardVelocityWindow(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two");
+        }
+        this.slots = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+    }
+
+    void record(long epochSecond, long amountCents) {
+        long packed = ((epochSecond - BASE_EPOCH_SECOND + 1) << 32) | Math.min(Math.max(amountCents, 0), MAX_AMOUNT_CENTS);
+        long index = head.getAndIncrement();
+        slots.set((int) (index & mask), packed);
+        lastSeenSecond = epochSecond;
+    }
+
+    /**
+     * Adds the events of the last {@code windowSeconds[i]} seconds to {@code counts[i]} and
+     * {@code amounts[i]}. Windows must be in ascending order.
+     * <p>
+     * Each event is tallied once, under the shortest window that contains it, and the tallies are
+     * accumulated into the longer windows at the end, so the scan does one update per event rather
+     * than one per window.
+     */
+    void sum(long nowEpochSecond, int[] windowSeconds, long[] counts, long[] amounts) {
+        int windows = windowSeconds.length;
+        long[] shortestCounts = new long[windows];
+        long[] shortestAmounts = new long[windows];
+        long newest = head.get();
+        long oldest = Math.max(0, newest - slots.length());
+        int longest = windowSeconds[windows - 1];
+        // Seconds are stored relative to BASE_EPOCH_SECOND - 1, so compare in that frame
+        long nowStored = nowEpochSecond - BASE_EPOCH_SECOND + 1;
+        for (long i = newest - 1; i >= oldest; i--) {
+            long packed = slots.get((int) (i & mask));
+            if (packed == 0) {
+                continue;
+            }
+            long age = nowStored - (packed >>> 32);
+            if (age >= longest) {
+                break;
+            }
+            int w = 0;
+            while (age >= windowSeconds[w]) {
+                w++;
+            }
+            shortestCounts[w]++;
+            shortestAmounts[w] += packed & MAX_AMOUNT_CENTS;
+        }
+        long count = 0;
+        long amount = 0;
+        for (int w = 0; w < windows; w++) {
+            count += shortestCounts[w];
+            amount += shortestAmounts[w];
+            counts[w] += count;
+            amounts[w] += amount;
+        }
+    }
+
+    long getLastSeenSecond() {
+        return lastSeenSecond;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.demo.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Collection;
+
+/**
+ * Published inside a transaction that changed the status or expiration date of the given cards.
+ */
+@Data
+@AllArgsConstructor
+public class CardsChangedEvent {
+
+    private final Collection<String> cardNumbers;
+}
@@ -0,0 +1,354 @@
+package com.example.demo.service;
+
+import com.example.demo.dedup.BlockingKey;
+import com.example.demo.dedup.CustomerFeatures;
+import com.example.demo.dto.CustomerDuplicateDetectionResponseDto;
+import com.example.demo.entity.CustomerDuplicateCandidate;
+import com.example.demo.repository.CustomerDuplicateCandidateRepository;
+import com.example.demo.repository.CustomerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Finds customers that are probably the same person entered twice, such as the same name, date of
+ * birth and ZIP with different formatting, without comparing every pair.
+ * <p>
+ * {@code customers} is streamed once into {@link CustomerFeatures}. For each {@link BlockingKey},
+ * every customer's key values become packed {@code long} entries that a parallel sort groups into
+ * blocks; customers are only compared within a block. Blocks larger than
+ * {@code customer.duplicates.max-block-size}, such as a shared placeholder phone number, are skipped,
+ * which bounds the work to {@code customers x max-block-size} comparisons. Blocks are compared
+ * concurrently in slices of similar pair counts, and a pair sharing several blocks is compared only
+ * in the first one that was not skipped.
+ * <p>
+ * Pairs scoring at least {@code customer.duplicates.min-score} are joined into clusters and written
+ * to {@code customer_duplicate_candidates}, replacing the previous run's rows in one transaction.
+ * Each cluster is identified by its lowest customer ID.
+ */
+@Service
+@Slf4j
+public class CustomerDuplicateDetectionService {
+
+    private static final int SLICES_PER_THREAD = 8;
+
+    private final CustomerRepository customerRepository;
+    private final CustomerDuplicateCandidateRepository candidateRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTemplate;
+    private final int threads;
+    private final int fetchSize;
+    private final int maxBlockSize;
+    private final int minScore;
+    private final int insertBatchSize;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public CustomerDuplicateDetectionService(CustomerRepository customerRepository,
+                                             CustomerDuplicateCandidateRepository candidateRepository,
+                                             PlatformTransactionManager transactionManager,
+                                             @Value("${customer.duplicates.threads:4}") int threads,
+                                             @Value("${customer.duplicates.fetch-size:10000}") int fetchSize,
+                                             @Value("${customer.duplicates.max-block-size:100}") int maxBlockSize,
+                                             @Value("${customer.duplicates.min-score:0.5}") BigDecimal minScore,
+                                             @Value("${customer.duplicates.insert-batch-size:1000}") int insertBatchSize) {
+        this.customerRepository = customerRepository;
+        this.candidateRepository = candidateRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        this.threads = Math.max(1, threads);
+        this.fetchSize = Math.max(1, fetchSize);
+        this.maxBlockSize = Math.max(2, maxBlockSize);
+        this.minScore = minScore.movePointRight(2).setScale(0, RoundingMode.CEILING).intValueExact();
+        if (this.minScore < 1 || this.minScore > CustomerFeatures.MAX_SCORE) {
+            throw new IllegalArgumentException("customer.duplicates.min-score must be above 0 and at most 1: " + minScore);
+        }
+        this.insertBatchSize = Math.max(1, insertBatchSize);
+    }
+
+    @Scheduled(cron = "${customer.duplicates.cron:-}")
+    public void scheduledDetect() {
+        try {
+            detect();
+        } catch (RuntimeException e) {
+            log.error("Scheduled customer duplicate detection failed: {}", e.getMessage(), e);
+        }
+    }
+
+    public CustomerDuplicateDetectionResponseDto detect() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Customer duplicate detection is already running");
+        }
+        try {
+            return run();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private CustomerDuplicateDetectionResponseDto run() {
+        long started = System.currentTimeMillis();
+        String runId = UUID.randomUUID().toString();
+        CustomerFeatures features = load();
+
+        Totals totals = new Totals();
+        List<Pairs> matches = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for (BlockingKey key : BlockingKey.values()) {
+                compareBlocks(pool, features, key, totals, matches);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        List<CustomerDuplicateCandidate> candidates = new ArrayList<>();
+        long clusters = cluster(runId, features, matches, candidates);
+        transactionTemplate.executeWithoutResult(status -> {
+            candidateRepository.insertBatch(candidates, insertBatchSize);
+            candidateRepository.deleteOtherRuns(runId);
+        });
+
+        long duration = System.currentTimeMillis() - started;
+        log.info("Customer duplicate detection {}: {} customers, {} comparisons, {} candidate pairs in {} clusters, {} ms",
+                runId, features.size(), totals.comparisons, candidates.size(), clusters, duration);
+        return new CustomerDuplicateDetectionResponseDto(runId, (long) features.size(), totals.blocks,
+                totals.skipped, totals.comparisons, (long) candidates.size(), clusters, duration);
+    }
+
+    private CustomerFeatures load() {
+        long started = System.currentTimeMillis();
+        long expected = customerRepository.count();
+        if (expected > CustomerFeatures.MAX_CUSTOMERS) {
+            throw new IllegalStateException("Duplicate detection supports at most " + CustomerFeatures.MAX_CUSTOMERS
+                    + " customers, found " + expected);
+        }
+        CustomerFeatures features = new CustomerFeatures((int) expected);
+        readOnlyTemplate.executeWithoutResult(status -> customerRepository.streamMatchRows(fetchSize, features::add));
+        log.info("Loaded match attributes of {} customers in {} ms", features.size(), System.currentTimeMillis() - started);
+        return features;
+    }
+
+    /**
+     * Groups the entries of one key into blocks and compares each eligible block's members.
+     */
+    private void compareBlocks(ExecutorService pool, CustomerFeatures features, BlockingKey key,
+                               Totals totals, List<Pairs> matches) {
+        long started = System.currentTimeMillis();
+        long[] entries = features.blockEntries(key);
+        Arrays.parallelSort(entries);
+
+        // Each eligible block as start << 32 | end over the sorted entries
+        long[] blocks = new long[64];
+        int blockCount = 0;
+        long[] skippedBlocks = Arrays.copyOf(totals.skippedBlocks, totals.skippedBlocks.length + 16);
+        int skippedCount = totals.skippedBlocks.length;
+        long skipped = 0;
+        long pairs = 0;
+        for (int start = 0; start < entries.length; ) {
+            long block = CustomerFeatures.blockOf(entries[start]);
+            int end = start + 1;
+            while (end < entries.length && CustomerFeatures.blockOf(entries[end]) == block) {
+                end++;
+            }
+            int size = end - start;
+            if (size > maxBlockSize) {
+                if (skippedCount == skippedBlocks.length) {
+                    skippedBlocks = Arrays.copyOf(skippedBlocks, skippedCount * 2);
+                }
+                skippedBlocks[skippedCount++] = block;
+                skipped++;
+            } else if (size > 1) {
+                if (blockCount == blocks.length) {
+                    blocks = Arrays.copyOf(blocks, blockCount * 2);
+                }
+                blocks[blockCount++] = (long) start << 32 | end;
+                pairs += (long) size * (size - 1) / 2;
+            }
+            start = end;
+        }
+        // Skipped blocks of this and earlier keys, so pairs sharing one are compared in a later block
+        long[] allSkipped = Arrays.copyOf(skippedBlocks, skippedCount);
+        Arrays.sort(allSkipped);
+        totals.skippedBlocks = allSkipped;
+
+        long pairsPerSlice = Math.max(1, pairs / ((long) threads * SLICES_PER_THREAD));
+        List<Future<Pairs>> futures = new ArrayList<>();
+        int from = 0;
+        long slicePairs = 0;
+        for (int i = 0; i < blockCount; i++) {
+            int size = (int) blocks[i] - (int) (blocks[i] >>> 32);
+            slicePairs += (long) size * (size - 1) / 2;
+            if (slicePairs >= pairsPerSlice || i == blockCount - 1) {
+                int sliceFrom = from;
+                int sliceTo = i + 1;
+                long[] sliceBlocks = blocks;
+                futures.add(pool.submit(() -> compare(features, key, entries, sliceBlocks, sliceFrom, sliceTo,
+                        allSkipped)));
+                from = i + 1;
+                slicePairs = 0;
+            }
+        }
+
+        long comparisons = 0;
+        long matched = 0;
+        try {
+            List<Throwable> failures = new ArrayList<>();
+            for (Future<Pairs> future : futures) {
+                try {
+                    Pairs found = future.get();
+                    comparisons += found.comparisons;
+                    matched += found.size;
+                    if (found.size > 0) {
+                        matches.add(found);
+                    }
+                } catch (ExecutionException e) {
+                    failures.add(e.getCause());
+                }
+            }
+            if (!failures.isEmpty()) {
+                throw new IllegalStateException("Comparing " + key + " blocks failed in " + failures.size() + " of "
+                        + futures.size() + " slices: " + failures.get(0).getMessage(), failures.get(0));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Customer duplicate detection was interrupted", e);
+        }
+        totals.blocks += blockCount;
+        totals.skipped += skipped;
+        totals.comparisons += comparisons;
+        log.info("Compared {} {} blocks ({} over {} members skipped): {} comparisons, {} matches, {} ms",
+                blockCount, key, skipped, maxBlockSize, comparisons, matched, System.currentTimeMillis() - started);
+    }
+
+    private Pairs compare(CustomerFeatures features, BlockingKey key, long[] entries, long[] blocks, int from, int to,
+                          long[] skippedBlocks) {
+        Pairs found = new Pairs(key);
+        long[] scratchA = new long[CustomerFeatures.MAX_BLOCKS];
+        long[] scratchB = new long[CustomerFeatures.MAX_BLOCKS];
+        for (int i = from; i < to; i++) {
+            int start = (int) (blocks[i] >>> 32);
+            int end = (int) blocks[i];
+            long block = CustomerFeatures.blockOf(entries[start]);
+            for (int x = start; x < end - 1; x++) {
+                int a = CustomerFeatures.docOf(entries[x]);
+                for (int y = x + 1; y < end; y++) {
+                    int b = CustomerFeatures.docOf(entries[y]);
+                    if (!features.isFirstSharedBlock(a, b, block, skippedBlocks, scratchA, scratchB)) {
+                        continue;
+                    }
+                    found.comparisons++;
+                    int score = features.score(a, b);
+                    if (score >= minScore) {
+                        found.add(a, b, score);
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Joins matched pairs into clusters with union-find and adds one candidate row per pair.
+     * Returns the number of clusters.
+     */
+    private static long cluster(String runId, CustomerFeatures features, List<Pairs> matches,
+                                List<CustomerDuplicateCandidate> candidates) {
+        Map<Integer, Integer> parent = new HashMap<>();
+        for (Pairs pairs : matches) {
+            for (int i = 0; i < pairs.size; i++) {
+                int rootA = find(parent, pairs.a[i]);
+                int rootB = find(parent, pairs.b[i]);
+                if (rootA != rootB) {
+                    parent.put(rootA, rootB);
+                }
+            }
+        }
+        Map<Integer, Long> clusterIds = new HashMap<>();
+        for (int doc : new ArrayList<>(parent.keySet())) {
+            clusterIds.merge(find(parent, doc), features.customerId(doc), Math::min);
+        }
+        for (Pairs pairs : matches) {
+            for (int i = 0; i < pairs.size; i++) {
+                long customerA = features.customerId(pairs.a[i]);
+                long customerB = features.customerId(pairs.b[i]);
+                candidates.add(new CustomerDuplicateCandidate(null, runId,
+                        clusterIds.get(find(parent, pairs.a[i])),
+                        Math.min(customerA, customerB), Math.max(customerA, customerB),
+                        BigDecimal.valueOf(pairs.scores[i], 2), pairs.key.name(), null));
+            }
+        }
+        return clusterIds.size();
+    }
+
+    private static int find(Map<Integer, Integer> parent, int doc) {
+        int root = doc;
+        Integer next;
+        while ((next = parent.get(root)) != null && next != root) {
+            root = next;
+        }
+        parent.putIfAbsent(doc, doc);
+        // Path compression: point every visited customer straight at the root
+        int current = doc;
+        while (current != root) {
+            int following = parent.get(current);
+            parent.put(current, root);
+            current = following;
+        }
+        return root;
+    }
+
+    private static final class Totals {
+
+        private long blocks;
+        private long skipped;
+        private long comparisons;
+        private long[] skippedBlocks = new long[0];
+    }
+
+    /**
+     * Matched pairs of one slice, as parallel primitive arrays.
+     */
+    private static final class Pairs {
+
+        private final BlockingKey key;
+        private int[] a = new int[16];
+        private int[] b = new int[16];
+        private int[] scores = new int[16];
+        private int size;
+        private long comparisons;
+
+        Pairs(BlockingKey key) {
+            this.key = key;
+        }
+
+        void add(int docA, int docB, int score) {
+            if (size == a.length) {
+                a = Arrays.copyOf(a, size * 2);
+                b = Arrays.copyOf(b, size * 2);
+                scores = Arrays.copyOf(scores, size * 2);
+            }
+            a[size] = docA;
+            b[size] = docB;
+            scores[size] = score;
+            size++;
+        }
+    }
+}
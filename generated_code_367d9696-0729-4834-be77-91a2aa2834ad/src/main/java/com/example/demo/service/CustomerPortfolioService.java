@@ -0,0 +1,106 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.CustomerPortfolioResponseDto;
+import com.example.demo.dto.PortfolioAccountDto;
+import com.example.demo.dto.PortfolioCardDto;
+import com.example.demo.entity.Account;
+import com.example.demo.entity.Card;
+import com.example.demo.entity.Customer;
+import com.example.demo.repository.AccountRepository;
+import com.example.demo.repository.CardRepository;
+import com.example.demo.repository.CustomerRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerPortfolioService {
+
+    private final CustomerRepository customerRepository;
+    private final AccountRepository accountRepository;
+    private final CardRepository cardRepository;
+
+    /**
+     * Builds the portfolio with three queries (customer, accounts, cards) no matter how many
+     * accounts the customer owns; totals are accumulated in the same pass that maps the accounts.
+     */
+    @Transactional(readOnly = true)
+    public CustomerPortfolioResponseDto getPortfolio(Long customerId) {
+        log.info("Retrieving portfolio for customer ID: {}", customerId);
+
+        if (customerId == null || customerId <= 0) {
+            log.error("Invalid customer ID: {}", customerId);
+            throw new IllegalArgumentException("Customer ID must be a positive number");
+        }
+
+        Customer customer = customerRepository.findByCustomerId(customerId)
+                .orElseThrow(() -> {
+                    log.error("Customer not found with ID: {}", customerId);
+                    return new IllegalArgumentException("Customer not found with ID: " + customerId);
+                });
+
+        List<Account> accounts = accountRepository.findByCustomerIdOrderByAccountIdAsc(customerId);
+
+        BigDecimal totalBalance = BigDecimal.ZERO;
+        BigDecimal totalCreditLimit = BigDecimal.ZERO;
+        BigDecimal totalAvailableCredit = BigDecimal.ZERO;
+        Map<Long, PortfolioAccountDto> accountsById = new LinkedHashMap<>();
+        for (Account account : accounts) {
+            BigDecimal availableCredit = account.getAvailableCredit();
+            totalBalance = totalBalance.add(account.getCurrentBalance());
+            totalCreditLimit = totalCreditLimit.add(account.getCreditLimit());
+            totalAvailableCredit = totalAvailableCredit.add(availableCredit);
+            accountsById.put(account.getAccountId(), convertToPortfolioAccount(account, availableCredit));
+        }
+
+        int cardCount = 0;
+        if (!accountsById.isEmpty()) {
+            for (Card card : cardRepository.findByAccountIdInOrderByAccountIdAscCardNumberAsc(accountsById.keySet())) {
+                accountsById.get(card.getAccountId()).getCards().add(convertToPortfolioCard(card));
+                cardCount++;
+            }
+        }
+
+        CustomerPortfolioResponseDto response = new CustomerPortfolioResponseDto();
+        response.setCustomerId(customer.getCustomerId());
+        response.setFullName(customer.getFullName());
+        response.setAccountCount(accountsById.size());
+        response.setCardCount(cardCount);
+        response.setTotalBalance(totalBalance);
+        response.setTotalCreditLimit(totalCreditLimit);
+        response.setTotalAvailableCredit(totalAvailableCredit);
+        response.setAccounts(new ArrayList<>(accountsById.values()));
+
+        log.info("Successfully retrieved portfolio for customer ID: {} with {} accounts", customerId, accountsById.size());
+        return response;
+    }
+
+    private PortfolioAccountDto convertToPortfolioAccount(Account account, BigDecimal availableCredit) {
+        PortfolioAccountDto dto = new PortfolioAccountDto();
+        dto.setAccountId(account.getAccountId());
+        dto.setActiveStatus(account.getActiveStatus());
+        dto.setCurrentBalance(account.getCurrentBalance());
+        dto.setCreditLimit(account.getCreditLimit());
+        dto.setAvailableCredit(availableCredit);
+        dto.setGroupId(account.getGroupId());
+        return dto;
+    }
+
+    private PortfolioCardDto convertToPortfolioCard(Card card) {
+        PortfolioCardDto dto = new PortfolioCardDto();
+        dto.setCardNumber(card.getCardNumber());
+        dto.setCustomerId(card.getCustomerId());
+        dto.setCardStatus(card.getCardStatus());
+        dto.setExpirationDate(card.getExpirationDate());
+        return dto;
+    }
+}
@@ -0,0 +1,784 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.CustomerSearchResultDto;
+import com.example.demo.entity.Customer;
+import com.example.demo.repository.CustomerRepository;
+import com.example.demo.repository.CustomerSearchRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over {@code customers} for partial last name, phone and ZIP lookups.
+ * <p>
+ * Every customer is assigned a dense int document id through a primitive open-addressing map. Each
+ * searchable field keeps a character trie for exact/prefix matches and, for last name and phone, a
+ * trigram table for substring matches. Trie nodes, postings and per-document values are held in
+ * primitive arrays rather than per-node or per-entry objects; postings are sorted {@code int[]}
+ * arrays so intersections and incremental updates stay cheap.
+ * The index is loaded once at startup and then kept current from committed account updates, on this
+ * node directly and on other nodes through {@link RemoteChangesEvent}. A full flush from the bus
+ * rebuilds the index in the background while the current one keeps serving searches.
+ */
+@Service
+@Slf4j
+public class CustomerSearchIndex {
+
+    static final int SCORE_EXACT = 3;
+    static final int SCORE_PREFIX = 2;
+    static final int SCORE_CONTAINS = 1;
+
+    private static final int MAX_SCORE = 3 * SCORE_EXACT;
+
+    private static final int OVERFETCH_FACTOR = 4;
+    private static final int MAX_CANDIDATES_SCANNED = 100_000;
+
+    private final CustomerRepository customerRepository;
+    private final int loadPageSize;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object rebuildLock = new Object();
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private final List<Customer> updatesDuringLoad = new ArrayList<>();
+    private Segment segment = new Segment();
+    private boolean loading;
+    private volatile boolean ready;
+
+    public CustomerSearchIndex(CustomerRepository customerRepository,
+                               @Value("${customer.search.load-page-size:10000}") int loadPageSize) {
+        this.customerRepository = customerRepository;
+        this.loadPageSize = loadPageSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            load();
+        }
+    }
+
+    private void load() {
+        long started = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            loading = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Segment fresh = new Segment();
+        Long afterCustomerId = 0L;
+        List<CustomerSearchRow> rows;
+        do {
+            rows = customerRepository.findSearchRowsAfter(afterCustomerId, PageRequest.ofSize(loadPageSize));
+            for (CustomerSearchRow row : rows) {
+                fresh.upsert(row.getCustomerId(), row.getFirstName(), row.getLastName(),
+                        row.getPhoneNumber1(), row.getPhoneNumber2(), row.getZipCode());
+                afterCustomerId = row.getCustomerId();
+            }
+        } while (rows.size() == loadPageSize);
+
+        lock.writeLock().lock();
+        try {
+            for (Customer customer : updatesDuringLoad) {
+                fresh.upsert(customer);
+            }
+            updatesDuringLoad.clear();
+            segment = fresh;
+            loading = false;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Customer search index built with {} customers in {} ms",
+                fresh.size, System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener
+    public void onAccountUpdated(AccountUpdatedEvent event) {
+        index(event.getCustomer());
+    }
+
+    @EventListener
+    public void onRemoteChanges(RemoteChangesEvent event) {
+        if (event.isFlushAll()) {
+            if (rebuildScheduled.compareAndSet(false, true)) {
+                CompletableFuture.runAsync(() -> {
+                    rebuildScheduled.set(false);
+                    rebuild();
+                }).exceptionally(e -> {
+                    log.error("Rebuilding the customer search index failed", e);
+                    return null;
+                });
+            }
+            return;
+        }
+        for (Long customerId : event.getCustomerIds()) {
+            customerRepository.findById(customerId).ifPresent(this::index);
+        }
+    }
+
+    public void index(Customer customer) {
+        lock.writeLock().lock();
+        try {
+            segment.upsert(customer);
+            if (loading) {
+                updatesDuringLoad.add(customer);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return segment.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} customers matching every non-null criterion, best score first.
+     * Each criterion contributes 3 for an exact match, 2 for a prefix match and 1 for a substring match.
+     */
+    public List<CustomerSearchResultDto> search(String lastName, String phone, String zipCode, int limit) {
+        String nameTerm = normalizeName(lastName);
+        String phoneTerm = normalizeDigits(phone);
+        String zipTerm = normalizeDigits(zipCode);
+
+        lock.readLock().lock();
+        try {
+            return segment.search(nameTerm, phoneTerm, zipTerm, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static String normalizeName(String value) {
+        if (value == null) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = Character.toUpperCase(value.charAt(i));
+            if ((c >= 'A' && c <= 'Z') || (c == ' ' && sb.length() > 0 && sb.charAt(sb.length() - 1) != ' ')) {
+                sb.append(c);
+            }
+        }
+        String normalized = sb.toString().trim();
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    static String normalizeDigits(String value) {
+        if (value == null) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                sb.append(c);
+            }
+        }
+        return sb.length() == 0 ? null : sb.toString();
+    }
+
+    private static int score(String value, String term) {
+        if (value == null) {
+            return 0;
+        }
+        if (value.equals(term)) {
+            return SCORE_EXACT;
+        }
+        if (value.startsWith(term)) {
+            return SCORE_PREFIX;
+        }
+        return value.contains(term) ? SCORE_CONTAINS : 0;
+    }
+
+    /**
+     * One generation of the index. Not thread-safe on its own; guarded by the enclosing lock.
+     */
+    private static final class Segment {
+
+        private final DocIdMap docByCustomerId = new DocIdMap();
+        private long[] customerIds = new long[1024];
+        private String[] firstNames = new String[1024];
+        private int size;
+
+        private final FieldIndex nameIndex = new FieldIndex(true, false);
+        private final FieldIndex phoneIndex = new FieldIndex(true, true);
+        private final FieldIndex zipIndex = new FieldIndex(false, false);
+
+        void upsert(Customer customer) {
+            upsert(customer.getCustomerId(), customer.getFirstName(), customer.getLastName(),
+                    customer.getPhoneNumber1(), customer.getPhoneNumber2(), customer.getZipCode());
+        }
+
+        void upsert(Long customerId, String firstName, String lastName, String phone1, String phone2, String zipCode) {
+            int doc = docByCustomerId.get(customerId);
+            if (doc < 0) {
+                doc = size++;
+                ensureCapacity(size);
+                docByCustomerId.put(customerId, doc);
+                customerIds[doc] = customerId;
+            }
+            firstNames[doc] = firstName;
+            nameIndex.set(doc, normalizeName(lastName), null);
+            phoneIndex.set(doc, normalizeDigits(phone1), normalizeDigits(phone2));
+            zipIndex.set(doc, normalizeDigits(zipCode), null);
+        }
+
+        private void ensureCapacity(int required) {
+            if (required <= customerIds.length) {
+                return;
+            }
+            int capacity = Math.max(required, customerIds.length + (customerIds.length >> 1));
+            customerIds = Arrays.copyOf(customerIds, capacity);
+            firstNames = Arrays.copyOf(firstNames, capacity);
+        }
+
+        List<CustomerSearchResultDto> search(String nameTerm, String phoneTerm, String zipTerm, int limit) {
+            if (limit <= 0 || (nameTerm == null && phoneTerm == null && zipTerm == null)) {
+                return List.of();
+            }
+
+            // Drive candidate generation from one field and verify the others against the stored values.
+            FieldIndex driver;
+            String driverTerm;
+            if (nameTerm != null) {
+                driver = nameIndex;
+                driverTerm = nameTerm;
+            } else if (phoneTerm != null) {
+                driver = phoneIndex;
+                driverTerm = phoneTerm;
+            } else {
+                driver = zipIndex;
+                driverTerm = zipTerm;
+            }
+
+            int wanted = limit * OVERFETCH_FACTOR;
+            BitSet accepted = new BitSet(size);
+            Hits hits = new Hits(Math.min(wanted, 64));
+            DocVisitor visitor = new DocVisitor() {
+                private int scanned;
+
+                @Override
+                public boolean visit(int doc) {
+                    if (++scanned > MAX_CANDIDATES_SCANNED) {
+                        return false;
+                    }
+                    if (accepted.get(doc)) {
+                        return true;
+                    }
+                    int total = 0;
+                    if (nameTerm != null) {
+                        int s = nameIndex.score(doc, nameTerm);
+                        if (s == 0) {
+                            return true;
+                        }
+                        total += s;
+                    }
+                    if (phoneTerm != null) {
+                        int s = phoneIndex.score(doc, phoneTerm);
+                        if (s == 0) {
+                            return true;
+                        }
+                        total += s;
+                    }
+                    if (zipTerm != null) {
+                        int s = zipIndex.score(doc, zipTerm);
+                        if (s == 0) {
+                            return true;
+                        }
+                        total += s;
+                    }
+                    accepted.set(doc);
+                    hits.add(doc, total);
+                    return hits.size < wanted;
+                }
+            };
+
+            if (driver.visitExact(driverTerm, visitor)
+                    && driver.visitPrefixed(driverTerm, visitor)) {
+                driver.visitContaining(driverTerm, visitor);
+            }
+
+            // Best score first, then by customer id; ids are unique, so each sorted id maps back to one doc.
+            List<CustomerSearchResultDto> results = new ArrayList<>(Math.min(limit, hits.size));
+            long[] ids = new long[hits.size];
+            for (int score = MAX_SCORE; score > 0 && results.size() < limit; score--) {
+                int count = 0;
+                for (int i = 0; i < hits.size; i++) {
+                    if (hits.scores[i] == score) {
+                        ids[count++] = customerIds[hits.docs[i]];
+                    }
+                }
+                Arrays.sort(ids, 0, count);
+                for (int i = 0; i < count && results.size() < limit; i++) {
+                    int doc = docByCustomerId.get(ids[i]);
+                    results.add(new CustomerSearchResultDto(ids[i], firstNames[doc], nameIndex.primary(doc),
+                            zipIndex.primary(doc), phoneIndex.primary(doc), score));
+                }
+            }
+            return results;
+        }
+    }
+
+    private interface DocVisitor {
+        /** @return {@code false} to stop the traversal */
+        boolean visit(int doc);
+    }
+
+    /**
+     * Accepted documents of one search with their scores, in parallel {@code int[]} arrays.
+     */
+    private static final class Hits {
+
+        private int[] docs;
+        private int[] scores;
+        private int size;
+
+        Hits(int capacity) {
+            this.docs = new int[Math.max(1, capacity)];
+            this.scores = new int[docs.length];
+        }
+
+        void add(int doc, int score) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size << 1);
+                scores = Arrays.copyOf(scores, size << 1);
+            }
+            docs[size] = doc;
+            scores[size++] = score;
+        }
+    }
+
+    /**
+     * Trie plus optional trigram postings for a single field, with the normalized values of every
+     * document. A field holds one value per document, or two when {@code twoValues} is set.
+     */
+    private static final class FieldIndex {
+
+        private static final int ALPHABET = 38;
+
+        private final Trie trie = new Trie();
+        private final Postings postings = new Postings();
+        private final int[] trigramLists;
+        private String[] primary = new String[1024];
+        private String[] secondary;
+
+        FieldIndex(boolean withTrigrams, boolean twoValues) {
+            this.trigramLists = withTrigrams ? new int[ALPHABET * ALPHABET * ALPHABET] : null;
+            this.secondary = twoValues ? new String[1024] : null;
+        }
+
+        /**
+         * Replaces the values of {@code doc}, unindexing the old ones first.
+         */
+        void set(int doc, String value, String secondValue) {
+            if (doc >= primary.length) {
+                int capacity = Math.max(doc + 1, primary.length + (primary.length >> 1));
+                primary = Arrays.copyOf(primary, capacity);
+                if (secondary != null) {
+                    secondary = Arrays.copyOf(secondary, capacity);
+                }
+            }
+            remove(doc, primary[doc]);
+            primary[doc] = value;
+            if (secondary != null) {
+                remove(doc, secondary[doc]);
+                secondary[doc] = secondValue;
+            }
+            add(doc, value);
+            if (secondary != null) {
+                add(doc, secondValue);
+            }
+        }
+
+        String primary(int doc) {
+            return primary[doc];
+        }
+
+        int score(int doc, String term) {
+            int best = CustomerSearchIndex.score(primary[doc], term);
+            if (best < SCORE_EXACT && secondary != null) {
+                best = Math.max(best, CustomerSearchIndex.score(secondary[doc], term));
+            }
+            return best;
+        }
+
+        private void add(int doc, String value) {
+            if (value == null) {
+                return;
+            }
+            int node = trie.insert(value);
+            if (trie.postingList(node) == 0) {
+                trie.setPostingList(node, postings.create());
+            }
+            postings.add(trie.postingList(node), doc);
+            if (trigramLists != null) {
+                for (int i = 0; i + 3 <= value.length(); i++) {
+                    int key = trigram(value, i);
+                    if (trigramLists[key] == 0) {
+                        trigramLists[key] = postings.create();
+                    }
+                    postings.add(trigramLists[key], doc);
+                }
+            }
+        }
+
+        private void remove(int doc, String value) {
+            if (value == null) {
+                return;
+            }
+            int node = trie.find(value);
+            if (node >= 0) {
+                postings.remove(trie.postingList(node), doc);
+            }
+            if (trigramLists != null) {
+                for (int i = 0; i + 3 <= value.length(); i++) {
+                    postings.remove(trigramLists[trigram(value, i)], doc);
+                }
+            }
+        }
+
+        boolean visitExact(String term, DocVisitor visitor) {
+            int node = trie.find(term);
+            return node < 0 || postings.forEach(trie.postingList(node), visitor);
+        }
+
+        /** Visits documents whose value strictly extends {@code term}, shortest values first. */
+        boolean visitPrefixed(String term, DocVisitor visitor) {
+            int start = trie.find(term);
+            if (start < 0) {
+                return true;
+            }
+            int[] queue = new int[16];
+            int head = 0;
+            int tail = 0;
+            for (int child = trie.firstChild(start); child != 0; child = trie.nextSibling(child)) {
+                if (tail == queue.length) {
+                    queue = Arrays.copyOf(queue, tail << 1);
+                }
+                queue[tail++] = child;
+            }
+            while (head < tail) {
+                int node = queue[head++];
+                if (!postings.forEach(trie.postingList(node), visitor)) {
+                    return false;
+                }
+                for (int child = trie.firstChild(node); child != 0; child = trie.nextSibling(child)) {
+                    if (tail == queue.length) {
+                        queue = Arrays.copyOf(queue, tail << 1);
+                    }
+                    queue[tail++] = child;
+                }
+            }
+            return true;
+        }
+
+        /** Visits documents containing {@code term} past position zero, via trigram intersection. */
+        boolean visitContaining(String term, DocVisitor visitor) {
+            if (trigramLists == null || term.length() < 3) {
+                return true;
+            }
+            int gramCount = term.length() - 2;
+            int[] lists = new int[gramCount];
+            for (int i = 0; i < gramCount; i++) {
+                lists[i] = trigramLists[trigram(term, i)];
+                if (postings.size(lists[i]) == 0) {
+                    return true;
+                }
+            }
+            // Intersect from the shortest list; terms are short, so a selection sort is enough.
+            for (int i = 0; i < gramCount; i++) {
+                for (int j = i + 1; j < gramCount; j++) {
+                    if (postings.size(lists[j]) < postings.size(lists[i])) {
+                        int swap = lists[i];
+                        lists[i] = lists[j];
+                        lists[j] = swap;
+                    }
+                }
+            }
+
+            int[] smallest = postings.docs(lists[0]);
+            int smallestSize = postings.size(lists[0]);
+            for (int i = 0; i < smallestSize; i++) {
+                int doc = smallest[i];
+                boolean inAll = true;
+                for (int j = 1; j < lists.length && inAll; j++) {
+                    inAll = postings.contains(lists[j], doc);
+                }
+                if (inAll && containsPastStart(doc, term) && !visitor.visit(doc)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean containsPastStart(int doc, String term) {
+            return containsPastStart(primary[doc], term) || (secondary != null && containsPastStart(secondary[doc], term));
+        }
+
+        private static boolean containsPastStart(String value, String term) {
+            return value != null && !value.startsWith(term) && value.indexOf(term, 1) > 0;
+        }
+
+        private static int trigram(String value, int offset) {
+            return (code(value.charAt(offset)) * ALPHABET + code(value.charAt(offset + 1))) * ALPHABET
+                    + code(value.charAt(offset + 2));
+        }
+
+        private static int code(char c) {
+            if (c >= '0' && c <= '9') {
+                return c - '0';
+            }
+            if (c >= 'A' && c <= 'Z') {
+                return 10 + (c - 'A');
+            }
+            return c == ' ' ? 36 : 37;
+        }
+    }
+
+    /**
+     * Character trie stored column-wise in primitive arrays. Node 0 is the root; children form a
+     * singly linked sibling list in ascending character order, and 0 doubles as "no node" for the
+     * child and sibling links since the root is never a child.
+     */
+    private static final class Trie {
+
+        private char[] labels = new char[256];
+        private int[] firstChild = new int[256];
+        private int[] nextSibling = new int[256];
+        private int[] postingLists = new int[256];
+        private int nodes = 1;
+
+        int insert(String term) {
+            int node = 0;
+            for (int i = 0; i < term.length(); i++) {
+                node = childOrCreate(node, term.charAt(i));
+            }
+            return node;
+        }
+
+        /** @return the node spelling {@code term}, or -1 */
+        int find(String term) {
+            int node = 0;
+            for (int i = 0; i < term.length(); i++) {
+                char c = term.charAt(i);
+                int child = firstChild[node];
+                while (child != 0 && labels[child] < c) {
+                    child = nextSibling[child];
+                }
+                if (child == 0 || labels[child] != c) {
+                    return -1;
+                }
+                node = child;
+            }
+            return node;
+        }
+
+        int firstChild(int node) {
+            return firstChild[node];
+        }
+
+        int nextSibling(int node) {
+            return nextSibling[node];
+        }
+
+        int postingList(int node) {
+            return postingLists[node];
+        }
+
+        void setPostingList(int node, int list) {
+            postingLists[node] = list;
+        }
+
+        private int childOrCreate(int parent, char c) {
+            int previous = 0;
+            int child = firstChild[parent];
+            while (child != 0 && labels[child] < c) {
+                previous = child;
+                child = nextSibling[child];
+            }
+            if (child != 0 && labels[child] == c) {
+                return child;
+            }
+            if (nodes == labels.length) {
+                int capacity = nodes << 1;
+                labels = Arrays.copyOf(labels, capacity);
+                firstChild = Arrays.copyOf(firstChild, capacity);
+                nextSibling = Arrays.copyOf(nextSibling, capacity);
+                postingLists = Arrays.copyOf(postingLists, capacity);
+            }
+            int created = nodes++;
+            labels[created] = c;
+            nextSibling[created] = child;
+            if (previous == 0) {
+                firstChild[parent] = created;
+            } else {
+                nextSibling[previous] = created;
+            }
+            return created;
+        }
+    }
+
+    /**
+     * Sorted, duplicate-free lists of document ids, each a growable {@code int[]} addressed by an
+     * int list id. List id 0 is never handed out and reads as an empty list.
+     */
+    private static final class Postings {
+
+        private int[][] docs = new int[256][];
+        private int[] sizes = new int[256];
+        private int lists = 1;
+
+        int create() {
+            if (lists == docs.length) {
+                docs = Arrays.copyOf(docs, lists << 1);
+                sizes = Arrays.copyOf(sizes, lists << 1);
+            }
+            docs[lists] = new int[2];
+            return lists++;
+        }
+
+        int size(int list) {
+            return sizes[list];
+        }
+
+        int[] docs(int list) {
+            return docs[list];
+        }
+
+        void add(int list, int doc) {
+            int[] values = docs[list];
+            int size = sizes[list];
+            if (size == 0 || values[size - 1] < doc) {
+                values = grow(list, size);
+                values[size] = doc;
+                sizes[list] = size + 1;
+                return;
+            }
+            int idx = Arrays.binarySearch(values, 0, size, doc);
+            if (idx >= 0) {
+                return;
+            }
+            int insertAt = -idx - 1;
+            values = grow(list, size);
+            System.arraycopy(values, insertAt, values, insertAt + 1, size - insertAt);
+            values[insertAt] = doc;
+            sizes[list] = size + 1;
+        }
+
+        void remove(int list, int doc) {
+            int size = sizes[list];
+            int idx = size == 0 ? -1 : Arrays.binarySearch(docs[list], 0, size, doc);
+            if (idx < 0) {
+                return;
+            }
+            System.arraycopy(docs[list], idx + 1, docs[list], idx, size - idx - 1);
+            sizes[list] = size - 1;
+        }
+
+        boolean contains(int list, int doc) {
+            return sizes[list] > 0 && Arrays.binarySearch(docs[list], 0, sizes[list], doc) >= 0;
+        }
+
+        boolean forEach(int list, DocVisitor visitor) {
+            int[] values = docs[list];
+            int size = sizes[list];
+            for (int i = 0; i < size; i++) {
+                if (!visitor.visit(values[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int[] grow(int list, int size) {
+            if (size == docs[list].length) {
+                docs[list] = Arrays.copyOf(docs[list], size << 1);
+            }
+            return docs[list];
+        }
+    }
+
+    /**
+     * Open-addressing map from customer id to document id in a {@code long[]} and an {@code int[]}.
+     * Document ids are stored plus one so that zero marks an empty slot. Entries are never removed.
+     */
+    private static final class DocIdMap {
+
+        private long[] keys = new long[2048];
+        private int[] values = new int[2048];
+        private int size;
+
+        /** @return the document id, or -1 */
+        int get(long customerId) {
+            int mask = keys.length - 1;
+            for (int slot = slot(customerId, mask); values[slot] != 0; slot = (slot + 1) & mask) {
+                if (keys[slot] == customerId) {
+                    return values[slot] - 1;
+                }
+            }
+            return -1;
+        }
+
+        void put(long customerId, int doc) {
+            if ((size + 1) * 2 > keys.length) {
+                resize();
+            }
+            int mask = keys.length - 1;
+            int slot = slot(customerId, mask);
+            while (values[slot] != 0 && keys[slot] != customerId) {
+                slot = (slot + 1) & mask;
+            }
+            if (values[slot] == 0) {
+                size++;
+            }
+            keys[slot] = customerId;
+            values[slot] = doc + 1;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[oldKeys.length << 1];
+            values = new int[oldValues.length << 1];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] != 0) {
+                    int slot = slot(oldKeys[i], mask);
+                    while (values[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+
+        private static int slot(long customerId, int mask) {
+            return (int) ((customerId * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        }
+    }
+}
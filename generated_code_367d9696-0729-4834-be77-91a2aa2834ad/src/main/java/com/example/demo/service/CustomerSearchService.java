@@ -0,0 +1,52 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.CustomerSearchResultDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+@Slf4j
+public class CustomerSearchService {
+
+    private static final int MIN_TERM_LENGTH = 2;
+
+    private final CustomerSearchIndex customerSearchIndex;
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    public CustomerSearchService(CustomerSearchIndex customerSearchIndex,
+                                 @Value("${customer.search.default-results:20}") int defaultLimit,
+                                 @Value("${customer.search.max-results:100}") int maxLimit) {
+        this.customerSearchIndex = customerSearchIndex;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    public List<CustomerSearchResultDto> searchCustomers(String lastName, String phone, String zipCode, Integer limit) {
+        log.debug("Searching customers by lastName: {}, phone: {}, zipCode: {}", lastName, phone, zipCode);
+
+        if (isBlank(lastName) && isBlank(phone) && isBlank(zipCode)) {
+            throw new IllegalArgumentException("At least one of lastName, phone or zipCode is required");
+        }
+        if (tooShort(lastName) || tooShort(phone) || tooShort(zipCode)) {
+            throw new IllegalArgumentException("Search terms must be at least " + MIN_TERM_LENGTH + " characters");
+        }
+        if (!customerSearchIndex.isReady()) {
+            throw new IllegalStateException("Customer search index is still loading");
+        }
+
+        int effectiveLimit = limit == null || limit <= 0 ? defaultLimit : Math.min(limit, maxLimit);
+        return customerSearchIndex.search(lastName, phone, zipCode, effectiveLimit);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    private static boolean tooShort(String value) {
+        return !isBlank(value) && value.trim().length() < MIN_TERM_LENGTH;
+    }
+}
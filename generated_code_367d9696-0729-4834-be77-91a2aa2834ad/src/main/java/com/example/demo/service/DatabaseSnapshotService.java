@@ -0,0 +1,695 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.SnapshotExportResponseDto;
+import com.example.demo.dto.SnapshotRestoreResponseDto;
+import com.example.demo.snapshot.SnapshotChunkReader;
+import com.example.demo.snapshot.SnapshotChunkWriter;
+import com.example.demo.snapshot.SnapshotColumnType;
+import com.example.demo.snapshot.SnapshotManifest;
+import com.example.demo.snapshot.SnapshotMasker;
+import com.example.demo.snapshot.SnapshotTable;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.SecureRandom;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Exports the account domain tables ({@link SnapshotTable}) to a directory of compressed chunk files
+ * and restores such a directory into an empty database, for refreshing lower environments.
+ * <p>
+ * Export splits every table into primary key ranges of about {@code snapshot.export.chunk-rows} rows
+ * and writes one chunk per range. All ranges are read inside one REPEATABLE READ snapshot: on
+ * PostgreSQL a coordinator transaction exports its snapshot and each worker connection imports it
+ * with {@code SET TRANSACTION SNAPSHOT}, so the workers read in parallel yet see the same data; other
+ * databases read every range on the coordinator connection. SSNs and names can be masked on the way
+ * out, so unmasked values never reach the files. The directory is written under a temporary name and
+ * renamed once the manifest is in place.
+ * <p>
+ * Restore refuses tables that already hold rows. It first drops the secondary indexes the database
+ * metadata reports for the tables, loads the tables phase by phase in parent-before-child order with
+ * the chunks of a phase inserted in parallel batches, rebuilds the indexes, moves identity sequences
+ * past the restored IDs and checks every table's row count against the manifest. A failed restore
+ * still rebuilds the indexes; the tables must be emptied before retrying.
+ */
+@Service
+@Slf4j
+public class DatabaseSnapshotService {
+
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final String MANIFEST = "manifest.json";
+    private static final Pattern FILE_NAME = Pattern.compile("^[A-Za-z0-9_.-]+$");
+    private static final Pattern IDENTIFIER = Pattern.compile("^[a-z_][a-z0-9_]*$");
+    private static final Pattern SNAPSHOT_ID = Pattern.compile("^[0-9A-Fa-f-]+$");
+    private static final int MAX_RANGES_PER_TABLE = 10_000;
+
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final int exportThreads;
+    private final long chunkRows;
+    private final int blockRows;
+    private final int fetchSize;
+    private final int restoreThreads;
+    private final int batchSize;
+    private final byte[] maskingKey;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public DatabaseSnapshotService(DataSource dataSource,
+                                   ObjectMapper objectMapper,
+                                   @Value("${snapshot.directory:data/snapshots}") String directory,
+                                   @Value("${snapshot.export.threads:4}") int exportThreads,
+                                   @Value("${snapshot.export.chunk-rows:500000}") long chunkRows,
+                                   @Value("${snapshot.export.block-rows:4096}") int blockRows,
+                                   @Value("${snapshot.export.fetch-size:1000}") int fetchSize,
+                                   @Value("${snapshot.restore.threads:4}") int restoreThreads,
+                                   @Value("${snapshot.restore.batch-size:1000}") int batchSize,
+                                   @Value("${snapshot.masking.key:}") String maskingKey) {
+        this.dataSource = dataSource;
+        this.objectMapper = objectMapper;
+        this.directory = Path.of(directory);
+        this.exportThreads = Math.max(1, exportThreads);
+        this.chunkRows = Math.max(1, chunkRows);
+        this.blockRows = Math.max(1, blockRows);
+        this.fetchSize = Math.max(1, fetchSize);
+        this.restoreThreads = Math.max(1, restoreThreads);
+        this.batchSize = Math.max(1, batchSize);
+        this.maskingKey = maskingKey.isBlank() ? null : maskingKey.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a new snapshot directory and returns what it contains.
+     */
+    public SnapshotExportResponseDto export(boolean maskSsn, boolean maskNames) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A snapshot export or restore is already in progress");
+        }
+        try {
+            return runExport(maskSsn, maskNames);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Snapshot export failed", e);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Snapshot export failed: " + e.getMessage(), e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Loads the named snapshot into the (empty) snapshot tables.
+     */
+    public SnapshotRestoreResponseDto restore(String name) {
+        if (name == null || !FILE_NAME.matcher(name).matches() || name.endsWith(".tmp")) {
+            throw new IllegalArgumentException("Invalid snapshot name: " + name);
+        }
+        Path source = directory.resolve(name);
+        if (!Files.isRegularFile(source.resolve(MANIFEST))) {
+            throw new IllegalArgumentException("Snapshot not found: " + name);
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A snapshot export or restore is already in progress");
+        }
+        try {
+            return runRestore(name, source);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Snapshot restore failed", e);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Snapshot restore failed: " + e.getMessage(), e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private SnapshotExportResponseDto runExport(boolean maskSsn, boolean maskNames) throws IOException, SQLException {
+        long started = System.currentTimeMillis();
+        LocalDateTime createdAt = LocalDateTime.now();
+        String name = "snapshot-" + createdAt.format(NAME_FORMAT);
+        Path target = directory.resolve(name);
+        Path temp = directory.resolve(name + ".tmp");
+        if (Files.exists(target) || Files.exists(temp)) {
+            throw new IllegalStateException("Snapshot already exists: " + name);
+        }
+        Files.createDirectories(temp);
+        byte[] key = maskingKey != null ? maskingKey : randomKey();
+
+        boolean completed = false;
+        try (Connection coordinator = dataSource.getConnection()) {
+            beginSnapshot(coordinator);
+            String database = coordinator.getMetaData().getDatabaseProductName();
+            String snapshotId = isPostgres(database) ? exportSnapshotId(coordinator) : null;
+            List<Range> planned = planRanges(coordinator);
+            Queue<Range> ranges = new ConcurrentLinkedQueue<>(planned);
+
+            int workers;
+            List<SnapshotManifest.Chunk> chunks;
+            if (snapshotId == null) {
+                workers = 1;
+                chunks = exportRanges(coordinator, ranges, temp, new SnapshotMasker(key, maskSsn, maskNames));
+            } else {
+                workers = Math.min(exportThreads, planned.size());
+                chunks = exportInParallel(snapshotId, ranges, workers, temp, key, maskSsn, maskNames);
+            }
+            coordinator.commit();
+
+            chunks.sort(Comparator.comparing(SnapshotManifest.Chunk::file));
+            SnapshotManifest manifest = new SnapshotManifest(SnapshotManifest.CURRENT_VERSION, name, createdAt,
+                    database, maskSsn, maskNames, chunks);
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(temp.resolve(MANIFEST).toFile(), manifest);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            completed = true;
+
+            Map<String, Long> rowsByTable = new LinkedHashMap<>();
+            long bytes = 0;
+            for (SnapshotManifest.Chunk chunk : chunks) {
+                rowsByTable.merge(chunk.table(), chunk.rows(), Long::sum);
+                bytes += chunk.bytes();
+            }
+            long duration = System.currentTimeMillis() - started;
+            log.info("Exported snapshot {} with {} chunks ({} bytes) using {} workers in {} ms",
+                    name, chunks.size(), bytes, workers, duration);
+            return new SnapshotExportResponseDto(name, maskSsn, maskNames, workers, chunks.size(), rowsByTable, bytes, duration);
+        } finally {
+            if (!completed) {
+                deleteDirectory(temp);
+            }
+        }
+    }
+
+    private List<SnapshotManifest.Chunk> exportInParallel(String snapshotId, Queue<Range> ranges, int workers, Path dir,
+                                                          byte[] key, boolean maskSsn, boolean maskNames) {
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<List<SnapshotManifest.Chunk>>> futures = new ArrayList<>(workers);
+            for (int i = 0; i < workers; i++) {
+                futures.add(pool.submit(() -> {
+                    try (Connection connection = dataSource.getConnection()) {
+                        beginSnapshot(connection);
+                        try (Statement statement = connection.createStatement()) {
+                            statement.execute("SET TRANSACTION SNAPSHOT '" + snapshotId + "'");
+                        }
+                        List<SnapshotManifest.Chunk> chunks = exportRanges(connection, ranges, dir,
+                                new SnapshotMasker(key, maskSsn, maskNames));
+                        connection.commit();
+                        return chunks;
+                    } catch (Exception e) {
+                        // Stop the other workers from starting new ranges
+                        ranges.clear();
+                        throw e;
+                    }
+                }));
+            }
+            List<SnapshotManifest.Chunk> chunks = new ArrayList<>();
+            for (List<SnapshotManifest.Chunk> result : collect(futures, "Snapshot export")) {
+                chunks.addAll(result);
+            }
+            return chunks;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private List<SnapshotManifest.Chunk> exportRanges(Connection connection, Queue<Range> ranges, Path dir,
+                                                      SnapshotMasker masker) throws IOException, SQLException {
+        List<SnapshotManifest.Chunk> chunks = new ArrayList<>();
+        Range range;
+        while ((range = ranges.poll()) != null) {
+            chunks.add(exportRange(connection, range, dir, masker));
+        }
+        return chunks;
+    }
+
+    private SnapshotManifest.Chunk exportRange(Connection connection, Range range, Path dir, SnapshotMasker masker)
+            throws IOException, SQLException {
+        SnapshotTable table = range.table();
+        String file = String.format("%s-%04d.snap", table.getTableName(), range.index());
+        Path path = dir.resolve(file);
+        try (PreparedStatement statement = connection.prepareStatement(range.selectSql())) {
+            statement.setFetchSize(fetchSize);
+            int parameter = 1;
+            if (range.from() != null) {
+                statement.setObject(parameter++, range.from());
+            }
+            if (range.to() != null) {
+                statement.setObject(parameter, range.to());
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                ResultSetMetaData metaData = resultSet.getMetaData();
+                int count = metaData.getColumnCount();
+                List<String> columns = new ArrayList<>(count);
+                List<SnapshotColumnType> types = new ArrayList<>(count);
+                for (int i = 1; i <= count; i++) {
+                    String column = metaData.getColumnLabel(i).toLowerCase(Locale.ROOT);
+                    columns.add(column);
+                    types.add(SnapshotColumnType.forSqlType(metaData.getColumnType(i), table.getTableName() + "." + column));
+                }
+                SnapshotMasker.RowMask mask = masker.forColumns(table, columns);
+                try (SnapshotChunkWriter writer = SnapshotChunkWriter.create(path, table.getTableName(), columns, types, blockRows)) {
+                    while (resultSet.next()) {
+                        Object[] row = new Object[count];
+                        for (int i = 0; i < count; i++) {
+                            row[i] = types.get(i).readColumn(resultSet, i + 1);
+                        }
+                        if (mask != null) {
+                            mask.apply(row);
+                        }
+                        writer.write(row);
+                    }
+                    long rows = writer.finish();
+                    log.debug("Exported {} rows of {} into {}", rows, table.getTableName(), file);
+                    return new SnapshotManifest.Chunk(table.getTableName(), file, rows, Files.size(path));
+                }
+            }
+        }
+    }
+
+    /**
+     * Splits every table into key ranges of about {@code chunkRows} rows, using boundaries taken from
+     * the snapshot itself. The first range is open below and the last open above.
+     */
+    private List<Range> planRanges(Connection connection) throws SQLException {
+        List<Range> ranges = new ArrayList<>();
+        for (SnapshotTable table : SnapshotTable.values()) {
+            long rows = queryLong(connection, "SELECT COUNT(*) FROM " + table.getTableName());
+            long pieces = Math.max(1, Math.min(MAX_RANGES_PER_TABLE, (rows + chunkRows - 1) / chunkRows));
+            List<Object> bounds = new ArrayList<>();
+            if (pieces > 1) {
+                String key = table.getKeyColumn();
+                String sql = "SELECT k FROM (SELECT " + key + " AS k, ROW_NUMBER() OVER (ORDER BY " + key + ") AS rn FROM "
+                        + table.getTableName() + ") numbered WHERE rn > 1 AND MOD(rn - 1, ?) = 0 ORDER BY k";
+                try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                    statement.setLong(1, (rows + pieces - 1) / pieces);
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            bounds.add(resultSet.getObject(1));
+                        }
+                    }
+                }
+            }
+            Object from = null;
+            for (int i = 0; i <= bounds.size(); i++) {
+                Object to = i < bounds.size() ? bounds.get(i) : null;
+                ranges.add(new Range(table, i, from, to));
+                from = to;
+            }
+            log.info("Snapshot of {} ({} rows) split into {} ranges", table.getTableName(), rows, bounds.size() + 1);
+        }
+        return ranges;
+    }
+
+    private SnapshotRestoreResponseDto runRestore(String name, Path source) throws IOException, SQLException {
+        long started = System.currentTimeMillis();
+        SnapshotManifest manifest = objectMapper.readValue(source.resolve(MANIFEST).toFile(), SnapshotManifest.class);
+        if (manifest.version() != SnapshotManifest.CURRENT_VERSION) {
+            throw new IllegalArgumentException("Unsupported snapshot version: " + manifest.version());
+        }
+        Map<SnapshotTable, List<SnapshotManifest.Chunk>> chunksByTable = new EnumMap<>(SnapshotTable.class);
+        Map<SnapshotTable, Long> expectedRows = new EnumMap<>(SnapshotTable.class);
+        for (SnapshotManifest.Chunk chunk : manifest.chunks()) {
+            if (!FILE_NAME.matcher(chunk.file()).matches()) {
+                throw new IllegalArgumentException("Invalid chunk file name in manifest: " + chunk.file());
+            }
+            SnapshotTable table = SnapshotTable.fromTableName(chunk.table());
+            chunksByTable.computeIfAbsent(table, t -> new ArrayList<>()).add(chunk);
+            expectedRows.merge(table, chunk.rows(), Long::sum);
+        }
+
+        try (Connection admin = dataSource.getConnection()) {
+            admin.setAutoCommit(true);
+            String database = admin.getMetaData().getDatabaseProductName();
+            for (SnapshotTable table : SnapshotTable.values()) {
+                if (queryLong(admin, "SELECT COUNT(*) FROM " + table.getTableName()) > 0) {
+                    throw new IllegalStateException("Table " + table.getTableName() + " is not empty; a snapshot can only be restored into empty tables");
+                }
+            }
+
+            List<Deferred> deferred = dropDeferredIndexes(admin);
+            Map<SnapshotTable, Long> loaded = new EnumMap<>(SnapshotTable.class);
+            RuntimeException failure = null;
+            try {
+                int lastPhase = 0;
+                for (SnapshotTable table : SnapshotTable.values()) {
+                    lastPhase = Math.max(lastPhase, table.getLoadPhase());
+                }
+                for (int phase = 0; phase <= lastPhase; phase++) {
+                    loadPhase(source, phase, chunksByTable, loaded);
+                }
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+            try {
+                createIndexes(deferred);
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+
+            for (SnapshotTable table : SnapshotTable.values()) {
+                long expected = expectedRows.getOrDefault(table, 0L);
+                long actual = loaded.getOrDefault(table, 0L);
+                if (expected != actual) {
+                    throw new IllegalStateException("Restored " + actual + " rows into " + table.getTableName()
+                            + " but the manifest lists " + expected);
+                }
+            }
+            resetIdentities(admin, database);
+            if (isPostgres(database)) {
+                try (Statement statement = admin.createStatement()) {
+                    for (SnapshotTable table : SnapshotTable.values()) {
+                        statement.execute("ANALYZE " + table.getTableName());
+                    }
+                }
+            }
+
+            Map<String, Long> rowsByTable = new LinkedHashMap<>();
+            loaded.forEach((table, rows) -> rowsByTable.put(table.getTableName(), rows));
+            long duration = System.currentTimeMillis() - started;
+            log.info("Restored snapshot {} ({} rows) in {} ms", name,
+                    rowsByTable.values().stream().mapToLong(Long::longValue).sum(), duration);
+            return new SnapshotRestoreResponseDto(name, manifest.ssnMasked(), manifest.namesMasked(), rowsByTable,
+                    deferred.stream().map(Deferred::name).toList(), duration);
+        }
+    }
+
+    private void loadPhase(Path source, int phase, Map<SnapshotTable, List<SnapshotManifest.Chunk>> chunksByTable,
+                           Map<SnapshotTable, Long> loaded) {
+        List<SnapshotTable> tables = new ArrayList<>();
+        List<Callable<Long>> tasks = new ArrayList<>();
+        for (Map.Entry<SnapshotTable, List<SnapshotManifest.Chunk>> entry : chunksByTable.entrySet()) {
+            if (entry.getKey().getLoadPhase() != phase) {
+                continue;
+            }
+            for (SnapshotManifest.Chunk chunk : entry.getValue()) {
+                tables.add(entry.getKey());
+                tasks.add(() -> loadChunk(source.resolve(chunk.file()), entry.getKey()));
+            }
+        }
+        if (tasks.isEmpty()) {
+            return;
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(restoreThreads, tasks.size()));
+        try {
+            List<Future<Long>> futures = new ArrayList<>(tasks.size());
+            for (Callable<Long> task : tasks) {
+                futures.add(pool.submit(task));
+            }
+            List<Long> rows = collect(futures, "Snapshot restore");
+            for (int i = 0; i < rows.size(); i++) {
+                loaded.merge(tables.get(i), rows.get(i), Long::sum);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private long loadChunk(Path file, SnapshotTable table) throws IOException, SQLException {
+        try (SnapshotChunkReader reader = SnapshotChunkReader.open(file);
+             Connection connection = dataSource.getConnection()) {
+            if (!reader.getTable().equals(table.getTableName())) {
+                throw new IllegalStateException("Chunk " + file.getFileName() + " holds table " + reader.getTable()
+                        + " instead of " + table.getTableName());
+            }
+            List<String> columns = reader.getColumns();
+            for (String column : columns) {
+                if (!IDENTIFIER.matcher(column).matches()) {
+                    throw new IllegalStateException("Invalid column name in chunk " + file.getFileName() + ": " + column);
+                }
+            }
+            String sql = "INSERT INTO " + table.getTableName() + " (" + String.join(", ", columns) + ") VALUES ("
+                    + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+            List<SnapshotColumnType> types = reader.getTypes();
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                int pending = 0;
+                Object[] row;
+                while ((row = reader.next()) != null) {
+                    for (int i = 0; i < row.length; i++) {
+                        types.get(i).bind(statement, i + 1, row[i]);
+                    }
+                    statement.addBatch();
+                    if (++pending == batchSize) {
+                        statement.executeBatch();
+                        connection.commit();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    statement.executeBatch();
+                }
+                connection.commit();
+            } catch (IOException | SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+            log.debug("Restored {} rows of {} from {}", reader.getRows(), table.getTableName(), file.getFileName());
+            return reader.getRows();
+        }
+    }
+
+    /**
+     * Drops the non-unique secondary indexes the database reports for the snapshot tables; returns
+     * those dropped. Partial indexes, indexes on expressions and indexes a constraint needs stay in place.
+     */
+    private List<Deferred> dropDeferredIndexes(Connection admin) throws SQLException {
+        List<Deferred> dropped = new ArrayList<>();
+        for (SnapshotTable table : SnapshotTable.values()) {
+            for (Deferred index : secondaryIndexes(admin, table)) {
+                try (Statement statement = admin.createStatement()) {
+                    statement.execute("DROP INDEX " + index.name());
+                    dropped.add(index);
+                } catch (SQLException e) {
+                    log.info("Index {} stays in place during restore: {}", index.name(), e.getMessage());
+                }
+            }
+        }
+        return dropped;
+    }
+
+    private static List<Deferred> secondaryIndexes(Connection admin, SnapshotTable table) throws SQLException {
+        DatabaseMetaData metaData = admin.getMetaData();
+        String tableName = metaData.storesUpperCaseIdentifiers()
+                ? table.getTableName().toUpperCase(Locale.ROOT) : table.getTableName();
+        Map<String, List<String>> columnsByIndex = new LinkedHashMap<>();
+        Set<String> kept = new HashSet<>();
+        // Rows come ordered by index name and then column position
+        try (ResultSet rows = metaData.getIndexInfo(null, admin.getSchema(), tableName, false, false)) {
+            while (rows.next()) {
+                String indexName = rows.getString("INDEX_NAME");
+                if (rows.getShort("TYPE") == DatabaseMetaData.tableIndexStatistic || indexName == null
+                        || !rows.getBoolean("NON_UNIQUE")) {
+                    continue;
+                }
+                String name = indexName.toLowerCase(Locale.ROOT);
+                String column = rows.getString("COLUMN_NAME");
+                if (column == null || rows.getString("FILTER_CONDITION") != null
+                        || !IDENTIFIER.matcher(name).matches()
+                        || !IDENTIFIER.matcher(column.toLowerCase(Locale.ROOT)).matches()) {
+                    kept.add(name);
+                    continue;
+                }
+                columnsByIndex.computeIfAbsent(name, n -> new ArrayList<>())
+                        .add(column.toLowerCase(Locale.ROOT) + ("D".equals(rows.getString("ASC_OR_DESC")) ? " DESC" : ""));
+            }
+        }
+        for (String name : kept) {
+            log.info("Index {} stays in place during restore: not a plain column index", name);
+        }
+        List<Deferred> indexes = new ArrayList<>();
+        columnsByIndex.forEach((name, columns) -> {
+            if (!kept.contains(name)) {
+                indexes.add(new Deferred(table, name, String.join(", ", columns)));
+            }
+        });
+        return indexes;
+    }
+
+    private void createIndexes(List<Deferred> deferred) {
+        if (deferred.isEmpty()) {
+            return;
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(restoreThreads, deferred.size()));
+        try {
+            List<Future<Long>> futures = new ArrayList<>(deferred.size());
+            for (Deferred index : deferred) {
+                futures.add(pool.submit(() -> {
+                    long started = System.currentTimeMillis();
+                    try (Connection connection = dataSource.getConnection();
+                         Statement statement = connection.createStatement()) {
+                        connection.setAutoCommit(true);
+                        statement.execute("CREATE INDEX " + index.name() + " ON "
+                                + index.table().getTableName() + " (" + index.columns() + ")");
+                    }
+                    log.info("Built index {} in {} ms", index.name(), System.currentTimeMillis() - started);
+                    return 1L;
+                }));
+            }
+            collect(futures, "Rebuilding indexes after restore");
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void resetIdentities(Connection admin, String database) throws SQLException {
+        for (SnapshotTable table : SnapshotTable.values()) {
+            String column = table.getIdentityColumn();
+            if (column == null) {
+                continue;
+            }
+            long max = queryLong(admin, "SELECT COALESCE(MAX(" + column + "), 0) FROM " + table.getTableName());
+            if (max == 0) {
+                continue;
+            }
+            if (isPostgres(database)) {
+                try (PreparedStatement statement = admin.prepareStatement(
+                        "SELECT setval(pg_get_serial_sequence(?, ?), ?)")) {
+                    statement.setString(1, table.getTableName());
+                    statement.setString(2, column);
+                    statement.setLong(3, max);
+                    statement.execute();
+                }
+            } else if ("H2".equals(database)) {
+                try (Statement statement = admin.createStatement()) {
+                    statement.execute("ALTER TABLE " + table.getTableName() + " ALTER COLUMN " + column
+                            + " RESTART WITH " + (max + 1));
+                }
+            } else {
+                log.warn("Cannot reset the identity of {}.{} on {}; set it past {} manually",
+                        table.getTableName(), column, database, max);
+            }
+        }
+    }
+
+    private static <T> List<T> collect(List<Future<T>> futures, String operation) {
+        List<T> results = new ArrayList<>(futures.size());
+        List<Throwable> failures = new ArrayList<>();
+        try {
+            for (Future<T> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    failures.add(e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(operation + " was interrupted", e);
+        }
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException(operation + " failed in " + failures.size() + " of " + futures.size()
+                    + " tasks: " + failures.get(0).getMessage(), failures.get(0));
+        }
+        return results;
+    }
+
+    private static void beginSnapshot(Connection connection) throws SQLException {
+        connection.setAutoCommit(false);
+        connection.setReadOnly(true);
+        connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+    }
+
+    private static String exportSnapshotId(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT pg_export_snapshot()")) {
+            resultSet.next();
+            String id = resultSet.getString(1);
+            if (!SNAPSHOT_ID.matcher(id).matches()) {
+                throw new IllegalStateException("Unexpected snapshot ID: " + id);
+            }
+            return id;
+        }
+    }
+
+    private static long queryLong(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private static boolean isPostgres(String database) {
+        return "PostgreSQL".equals(database);
+    }
+
+    private static byte[] randomKey() {
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        return key;
+    }
+
+    private static void deleteDirectory(Path dir) {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            log.warn("Could not delete incomplete snapshot {}", dir, e);
+        }
+    }
+
+    private record Range(SnapshotTable table, int index, Object from, Object to) {
+
+        String selectSql() {
+            StringBuilder sql = new StringBuilder("SELECT * FROM ").append(table.getTableName());
+            String key = table.getKeyColumn();
+            if (from != null) {
+                sql.append(" WHERE ").append(key).append(" >= ?");
+            }
+            if (to != null) {
+                sql.append(from == null ? " WHERE " : " AND ").append(key).append(" < ?");
+            }
+            return sql.append(" ORDER BY ").append(key).toString();
+        }
+    }
+
+    /**
+     * A secondary index dropped for the restore and the column list it is rebuilt with.
+     */
+    private record Deferred(SnapshotTable table, String name, String columns) {
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.demo.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Adaptive concurrency limit in the style of a gradient limiter.
+ * <p>
+ * It keeps a short-term and a long-term exponential average of request latency. While the short-term
+ * latency stays near the long-term baseline the limit grows by roughly {@code sqrt(limit)}; when
+ * latency rises (queueing in the DB pool or elsewhere) the ratio drops below 1 and the limit shrinks
+ * proportionally. All state is held in atomics and updated with compare-and-set.
+ */
+public final class GradientConcurrencyLimiter {
+
+    private static final double SHORT_RTT_WEIGHT = 0.1;
+    private static final double LONG_RTT_WEIGHT = 0.002;
+    private static final double LIMIT_SMOOTHING = 0.2;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final AtomicLong limitBits;
+    private final AtomicLong shortRttBits = new AtomicLong(Double.doubleToRawLongBits(0));
+    private final AtomicLong longRttBits = new AtomicLong(Double.doubleToRawLongBits(0));
+
+    public GradientConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limitBits = new AtomicLong(Double.doubleToRawLongBits(clamp(initialLimit)));
+    }
+
+    /**
+     * Takes a slot if fewer than {@code share * limit} requests are in flight.
+     */
+    public boolean tryAcquire(double share) {
+        int allowed = Math.max(1, (int) (getLimit() * share));
+        while (true) {
+            int current = inflight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases a slot taken by {@link #tryAcquire} and feeds the observed latency into the limit.
+     */
+    public void release(long rttNanos) {
+        int inflightBefore = inflight.getAndDecrement();
+        if (rttNanos <= 0) {
+            return;
+        }
+        double shortRtt = update(shortRttBits, v -> v == 0 ? rttNanos : v + SHORT_RTT_WEIGHT * (rttNanos - v));
+        double longRtt = update(longRttBits, v -> v == 0 ? rttNanos : v + LONG_RTT_WEIGHT * (rttNanos - v));
+
+        update(limitBits, limit -> {
+            double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, longRtt / shortRtt));
+            double target = limit * gradient + Math.sqrt(limit);
+            // Do not grow the limit while the service is mostly idle; the samples say nothing about capacity.
+            if (target > limit && inflightBefore < limit / 2) {
+                return limit;
+            }
+            return clamp(limit * (1 - LIMIT_SMOOTHING) + target * LIMIT_SMOOTHING);
+        });
+    }
+
+    public double getLimit() {
+        return Double.longBitsToDouble(limitBits.get());
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    private double clamp(double limit) {
+        return Math.max(minLimit, Math.min(maxLimit, limit));
+    }
+
+    private static double update(AtomicLong bits, DoubleUnaryOperator function) {
+        while (true) {
+            long current = bits.get();
+            double next = function.applyAsDouble(Double.longBitsToDouble(current));
+            if (bits.compareAndSet(current, Double.doubleToRawLongBits(next))) {
+                return next;
+            }
+        }
+    }
+}
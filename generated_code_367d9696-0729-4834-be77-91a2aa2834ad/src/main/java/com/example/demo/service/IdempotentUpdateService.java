@@ -0,0 +1,265 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.UpdateAccountUpdateRequestDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs account updates sent with an {@code Idempotency-Key} at most once per key, and answers retries
+ * with the recorded outcome without reading or writing {@code accounts} and {@code customers}.
+ * <p>
+ * Each key is stored with a SHA-256 fingerprint of the account ID and request body; reusing a key
+ * for a different request is rejected with 422 Unprocessable Entity. Outcomes are looked up in a bounded in-memory store first,
+ * then in {@code idempotency_keys}. A retry arriving while the first request for its key is still
+ * running on this node waits for that request's outcome. The first request inserts its key row
+ * before updating, in the same transaction, so a duplicate on another node blocks on the key until
+ * that transaction ends and then reads the committed outcome.
+ * <p>
+ * Only responses returned by {@link AccountUpdateService#updateAccount} are recorded: successes and
+ * the field validation messages it returns. An update that throws, for an unknown account or
+ * customer or any other failure, rolls the key row back with it, so nothing is recorded and a retry
+ * with the same key runs the update again. Recorded outcomes are kept for
+ * {@code idempotency.ttl-seconds}; expired rows are removed by a periodic set-based delete.
+ */
+@Service
+@Slf4j
+public class IdempotentUpdateService {
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final AccountUpdateService accountUpdateService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final long ttlSeconds;
+    private final int cacheCapacity;
+    private final Map<String, Outcome> outcomes;
+    private final ConcurrentHashMap<String, CompletableFuture<Outcome>> inflight = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter replayedFromMemory;
+    private final Counter replayedFromDatabase;
+    private final Counter joined;
+    private final Counter conflicts;
+
+    public IdempotentUpdateService(AccountUpdateService accountUpdateService,
+                                   JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   ObjectMapper objectMapper,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${idempotency.ttl-seconds:86400}") long ttlSeconds,
+                                   @Value("${idempotency.cache-capacity:10000}") int cacheCapacity) {
+        this.accountUpdateService = accountUpdateService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.ttlSeconds = Math.max(1, ttlSeconds);
+        this.cacheCapacity = Math.max(1, cacheCapacity);
+        this.outcomes = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Outcome> eldest) {
+                // An evicted outcome is still answered from idempotency_keys
+                return size() > IdempotentUpdateService.this.cacheCapacity;
+            }
+        };
+        this.executed = Counter.builder("idempotency.executed")
+                .description("Account updates with an Idempotency-Key that ran for the first time")
+                .register(meterRegistry);
+        this.replayedFromMemory = Counter.builder("idempotency.replayed")
+                .description("Retries answered with a recorded outcome")
+                .tag("source", "memory")
+                .register(meterRegistry);
+        this.replayedFromDatabase = Counter.builder("idempotency.replayed")
+                .description("Retries answered with a recorded outcome")
+                .tag("source", "database")
+                .register(meterRegistry);
+        this.joined = Counter.builder("idempotency.replayed")
+                .description("Retries answered with a recorded outcome")
+                .tag("source", "inflight")
+                .register(meterRegistry);
+        this.conflicts = Counter.builder("idempotency.conflicts")
+                .description("Idempotency-Keys reused for a different request")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Updates the account, or returns the outcome recorded for {@code idempotencyKey}. Without a
+     * key the update simply runs.
+     */
+    public Result updateAccount(String idempotencyKey, Long accountId, UpdateAccountUpdateRequestDto request) {
+        if (idempotencyKey == null) {
+            return new Result(accountUpdateService.updateAccount(accountId, request), false);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String fingerprint = fingerprint(accountId, request);
+
+        Outcome outcome = cached(idempotencyKey);
+        if (outcome != null) {
+            replayedFromMemory.increment();
+            return replay(idempotencyKey, outcome, fingerprint);
+        }
+
+        CompletableFuture<Outcome> mine = new CompletableFuture<>();
+        CompletableFuture<Outcome> running = inflight.putIfAbsent(idempotencyKey, mine);
+        if (running != null) {
+            joined.increment();
+            return replay(idempotencyKey, await(running), fingerprint);
+        }
+
+        try {
+            Outcome recorded = cached(idempotencyKey);
+            boolean replayed = true;
+            if (recorded == null) {
+                recorded = load(idempotencyKey);
+            }
+            if (recorded == null) {
+                recorded = execute(idempotencyKey, accountId, fingerprint, request);
+                replayed = recorded.replayed();
+            }
+            remember(idempotencyKey, recorded);
+            mine.complete(recorded);
+            if (replayed) {
+                replayedFromDatabase.increment();
+                return replay(idempotencyKey, recorded, fingerprint);
+            }
+            executed.increment();
+            return new Result(recorded.response(), false);
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inflight.remove(idempotencyKey, mine);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.cleanup-interval-ms:60000}")
+    public void deleteExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (outcomes) {
+            outcomes.values().removeIf(outcome -> !outcome.expiresAt().isAfter(now));
+        }
+        int deleted = jdbcTemplate.update("DELETE FROM idempotency_keys WHERE expires_at <= ?", now);
+        if (deleted > 0) {
+            log.debug("Deleted {} expired idempotency keys", deleted);
+        }
+    }
+
+    /**
+     * Inserts the key and runs the update in one transaction. If another node holds or has
+     * committed the key, the insert fails once that transaction ends and its outcome is returned.
+     */
+    private Outcome execute(String key, Long accountId, String fingerprint, UpdateAccountUpdateRequestDto request) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plusSeconds(ttlSeconds);
+        try {
+            return transactionTemplate.execute(status -> {
+                jdbcTemplate.update("DELETE FROM idempotency_keys WHERE idempotency_key = ? AND expires_at <= ?", key, now);
+                jdbcTemplate.update("INSERT INTO idempotency_keys (idempotency_key, account_id, request_hash, created_at, expires_at) "
+                        + "VALUES (?, ?, ?, ?, ?)", key, accountId, fingerprint, now, expiresAt);
+                String response = accountUpdateService.updateAccount(accountId, request);
+                jdbcTemplate.update("UPDATE idempotency_keys SET response = ? WHERE idempotency_key = ?", response, key);
+                return new Outcome(fingerprint, response, expiresAt, false);
+            });
+        } catch (DuplicateKeyException e) {
+            Outcome recorded = load(key);
+            if (recorded == null) {
+                throw new IllegalStateException("Idempotency-Key " + key + " was taken but has no outcome", e);
+            }
+            return recorded;
+        }
+    }
+
+    private Outcome load(String key) {
+        List<Outcome> rows = jdbcTemplate.query(
+                "SELECT request_hash, response, expires_at FROM idempotency_keys "
+                        + "WHERE idempotency_key = ? AND expires_at > ?",
+                (rs, rowNum) -> new Outcome(rs.getString("request_hash"), rs.getString("response"),
+                        rs.getTimestamp("expires_at").toLocalDateTime(), true),
+                key, LocalDateTime.now());
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private Outcome cached(String key) {
+        synchronized (outcomes) {
+            Outcome outcome = outcomes.get(key);
+            if (outcome != null && !outcome.expiresAt().isAfter(LocalDateTime.now())) {
+                outcomes.remove(key);
+                return null;
+            }
+            return outcome;
+        }
+    }
+
+    private void remember(String key, Outcome outcome) {
+        synchronized (outcomes) {
+            outcomes.put(key, outcome);
+        }
+    }
+
+    private Result replay(String key, Outcome outcome, String fingerprint) {
+        if (!outcome.fingerprint().equals(fingerprint)) {
+            conflicts.increment();
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key " + key + " was already used for a different request");
+        }
+        return new Result(outcome.response(), true);
+    }
+
+    private String fingerprint(Long accountId, UpdateAccountUpdateRequestDto request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(String.valueOf(accountId).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Could not fingerprint account update request", e);
+        }
+    }
+
+    private static Outcome await(CompletableFuture<Outcome> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Response to an account update; {@code replayed} is set when it was recorded by an earlier request.
+     */
+    public record Result(String response, boolean replayed) {
+    }
+
+    private record Outcome(String fingerprint, String response, LocalDateTime expiresAt, boolean replayed) {
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.demo.service;
+
+import com.example.demo.batch.BatchJob;
+import com.example.demo.batch.ChunkStep;
+import com.example.demo.batch.KeyRange;
+import com.example.demo.entity.CardXref;
+import com.example.demo.entity.DisclosureGroup;
+import com.example.demo.entity.Transaction;
+import com.example.demo.entity.TransactionCategoryBalance;
+import com.example.demo.money.Money;
+import com.example.demo.repository.AccountBalanceDelta;
+import com.example.demo.repository.AccountGroupKey;
+import com.example.demo.repository.AccountRepository;
+import com.example.demo.repository.CardXrefRepository;
+import com.example.demo.repository.DisclosureGroupRepository;
+import com.example.demo.repository.TransactionCategoryBalanceRepository;
+import com.example.demo.repository.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Monthly interest on category balances, after the CardDemo program CBACT04C.
+ * <p>
+ * Each category balance of an account is charged {@code balance * rate / 1200}, truncated to cents
+ * as the original does, where the rate is the annual percentage of the disclosure group for the
+ * account's group, the balance's type and its category, or of the {@code DEFAULT} group when the
+ * account's group has none. An account whose total is positive gets one interest transaction of type
+ * 01, category 0005 on its first card, and the total is added to its current balance. The
+ * transaction ID holds the month and the account ID, and the original timestamp is the first day of
+ * the month whatever the run date, so the transaction key (which includes the timestamp on
+ * partitioned PostgreSQL tables) is the same for every run of a month: a second run in the same
+ * month fails on the duplicate key instead of charging again.
+ */
+@Component
+@Slf4j
+public class InterestCalculationJob implements BatchJob {
+
+    static final String DEFAULT_GROUP = "DEFAULT";
+    static final String INTEREST_TYPE_CODE = "01";
+    static final String INTEREST_CATEGORY_CODE = "0005";
+
+    private static final DateTimeFormatter ID_MONTH = DateTimeFormatter.ofPattern("yyMM");
+    private static final long RATE_DIVISOR = 1200 * 100;
+
+    private final TransactionCategoryBalanceRepository balanceRepository;
+    private final DisclosureGroupRepository disclosureGroupRepository;
+    private final AccountRepository accountRepository;
+    private final CardXrefRepository cardXrefRepository;
+    private final TransactionRepository transactionRepository;
+    private final AccountGroupSummaryService accountGroupSummaryService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final int insertBatchSize;
+
+    public InterestCalculationJob(TransactionCategoryBalanceRepository balanceRepository,
+                                  DisclosureGroupRepository disclosureGroupRepository,
+                                  AccountRepository accountRepository,
+                                  CardXrefRepository cardXrefRepository,
+                                  TransactionRepository transactionRepository,
+                                  AccountGroupSummaryService accountGroupSummaryService,
+                                  ApplicationEventPublisher eventPublisher,
+                                  @Value("${batch.interest.chunk-size:500}") int chunkSize,
+                                  @Value("${batch.interest.insert-batch-size:500}") int insertBatchSize) {
+        this.balanceRepository = balanceRepository;
+        this.disclosureGroupRepository = disclosureGroupRepository;
+        this.accountRepository = accountRepository;
+        this.cardXrefRepository = cardXrefRepository;
+        this.transactionRepository = transactionRepository;
+        this.accountGroupSummaryService = accountGroupSummaryService;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.insertBatchSize = Math.max(1, insertBatchSize);
+    }
+
+    @Override
+    public String getName() {
+        return "interest-calculation";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Charges monthly interest on category balances by disclosure group rate and posts it to accounts";
+    }
+
+    @Override
+    public List<ChunkStep<?, ?>> getSteps(LocalDate runDate) {
+        Map<RateKey, BigDecimal> rates = new HashMap<>();
+        for (DisclosureGroup group : disclosureGroupRepository.findAll()) {
+            rates.put(new RateKey(group.getAccountGroupId(), group.getTransactionTypeCode(),
+                    group.getTransactionCategoryCode()), group.getInterestRate());
+        }
+        return List.of(new ChunkStep<AccountBalances, AccountInterest>("post-interest",
+                () -> KeyRange.of(balanceRepository.findMinAccountId(), balanceRepository.findMaxAccountId()),
+                this::read,
+                AccountBalances::accountId,
+                account -> process(account, rates, runDate),
+                this::write,
+                chunkSize));
+    }
+
+    private List<AccountBalances> read(long afterAccountId, long toAccountId, int limit) {
+        List<Long> accountIds = balanceRepository.findAccountIdsBetween(afterAccountId, toAccountId, PageRequest.of(0, limit));
+        if (accountIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<TransactionCategoryBalance>> balances = new HashMap<>();
+        for (TransactionCategoryBalance balance : balanceRepository.findByAccountIdIn(accountIds)) {
+            balances.computeIfAbsent(balance.getAccountId(), k -> new ArrayList<>()).add(balance);
+        }
+        Map<Long, AccountGroupKey> groups = new HashMap<>();
+        for (AccountGroupKey key : accountRepository.findGroupKeysByAccountIdIn(accountIds)) {
+            groups.put(key.getAccountId(), key);
+        }
+        Map<Long, String> cards = new HashMap<>();
+        for (CardXref xref : cardXrefRepository.findByAccountIdInOrderByIdAsc(accountIds)) {
+            cards.putIfAbsent(xref.getAccountId(), xref.getCardNumber());
+        }
+        List<AccountBalances> items = new ArrayList<>(accountIds.size());
+        for (Long accountId : accountIds) {
+            AccountGroupKey group = groups.get(accountId);
+            items.add(new AccountBalances(accountId, group == null ? null : group.getGroupId(),
+                    group == null ? null : group.getActiveStatus(), cards.get(accountId),
+                    balances.getOrDefault(accountId, List.of())));
+        }
+        return items;
+    }
+
+    private AccountInterest process(AccountBalances account, Map<RateKey, BigDecimal> rates, LocalDate runDate) {
+        long interestCents = 0;
+        for (TransactionCategoryBalance balance : account.balances()) {
+            BigDecimal rate = rates.get(new RateKey(account.groupId(), balance.getTypeCode(), balance.getCategoryCode()));
+            if (rate == null) {
+                rate = rates.get(new RateKey(DEFAULT_GROUP, balance.getTypeCode(), balance.getCategoryCode()));
+            }
+            if (rate != null) {
+                interestCents = Money.addCents(interestCents, monthlyInterestCents(balance.getBalance().getCents(), rate));
+            }
+        }
+        if (interestCents <= 0) {
+            return null;
+        }
+        if (account.cardNumber() == null) {
+            log.warn("Account {} has no card; interest of {} not posted", account.accountId(), Money.toBigDecimal(interestCents));
+            return null;
+        }
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(String.format("I%s%011d", runDate.format(ID_MONTH), account.accountId()));
+        transaction.setCardNumber(account.cardNumber());
+        transaction.setTypeCode(INTEREST_TYPE_CODE);
+        transaction.setCategoryCode(INTEREST_CATEGORY_CODE);
+        transaction.setSource("System");
+        transaction.setDescription("Int. for a/c " + account.accountId());
+        transaction.setAmount(Money.ofCents(interestCents));
+        transaction.setOriginalTimestamp(runDate.withDayOfMonth(1).atStartOfDay());
+        transaction.setProcessedTimestamp(LocalDateTime.now());
+        return new AccountInterest(account.accountId(), account.groupId(), account.activeStatus(), transaction);
+    }
+
+    /**
+     * {@code cents * rate / 1200} truncated toward zero, as a COBOL COMPUTE without ROUNDED does;
+     * the rate has at most two decimals.
+     */
+    static long monthlyInterestCents(long cents, BigDecimal annualRatePercent) {
+        long rateHundredths = annualRatePercent.movePointRight(2).longValueExact();
+        return Money.divideRounded(Math.multiplyExact(cents, rateHundredths), RATE_DIVISOR, RoundingMode.DOWN);
+    }
+
+    private void write(List<AccountInterest> items) {
+        List<Transaction> transactions = new ArrayList<>(items.size());
+        List<AccountBalanceDelta> deltas = new ArrayList<>(items.size());
+        Map<GroupKey, Long> centsByGroup = new HashMap<>();
+        for (AccountInterest item : items) {
+            long cents = item.transaction().getAmount().getCents();
+            transactions.add(item.transaction());
+            deltas.add(new AccountBalanceDelta(item.accountId(), cents, 0, 0));
+            centsByGroup.merge(new GroupKey(item.groupId(), item.activeStatus()), cents, Money::addCents);
+        }
+        transactionRepository.insertBatch(transactions, insertBatchSize);
+        int updated = accountRepository.applyBalanceDeltas(deltas);
+        if (updated != deltas.size()) {
+            throw new IllegalStateException("Expected to update " + deltas.size() + " accounts but updated " + updated);
+        }
+        for (Map.Entry<GroupKey, Long> entry : centsByGroup.entrySet()) {
+            accountGroupSummaryService.applyDelta(entry.getKey().groupId(), entry.getKey().activeStatus(), 0,
+                    Money.toBigDecimal(entry.getValue()), BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+        }
+        eventPublisher.publishEvent(new TransactionsPostedEvent(transactions));
+        eventPublisher.publishEvent(new AccountBalancesPostedEvent(deltas));
+    }
+
+    private record AccountBalances(long accountId, String groupId, String activeStatus, String cardNumber,
+                                   List<TransactionCategoryBalance> balances) {
+    }
+
+    private record AccountInterest(long accountId, String groupId, String activeStatus, Transaction transaction) {
+    }
+
+    private record RateKey(String groupId, String typeCode, String categoryCode) {
+    }
+
+    private record GroupKey(String groupId, String activeStatus) {
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.demo.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Locale;
+
+/**
+ * A posted transaction as recorded in the posting journal. The journal sequence is not part of the
+ * payload; it is written by {@link PostingJournal} and, with the journal number, determines the
+ * transaction ID.
+ */
+@Data
+@AllArgsConstructor
+class JournaledPosting {
+
+    private static final int FORMAT_VERSION = 1;
+
+    /** Highest journal number that fits the two base-36 digits of a transaction ID. */
+    static final int MAX_JOURNAL_NUMBER = 36 * 36 - 1;
+
+    private static final long MAX_SEQUENCE = pow36(12) - 1;
+
+    private final String cardNumber;
+    private final Long accountId;
+    private final String typeCode;
+    private final String categoryCode;
+    private final String source;
+    private final String description;
+    private final long amountCents;
+    private final Long merchantId;
+    private final String merchantName;
+    private final String merchantCity;
+    private final String merchantZip;
+    private final LocalDateTime originalTimestamp;
+    private final LocalDateTime processedTimestamp;
+
+    /**
+     * {@code JN}, the journal number in two base-36 digits and the sequence in twelve. Journals of
+     * different nodes have different numbers, so they never mint the same ID, while a replayed
+     * record always gets its original one. Earlier IDs ({@code JP} and 14 decimal digits) cannot
+     * collide with this format.
+     */
+    static String transactionIdFor(int journalNumber, long sequence) {
+        if (journalNumber < 1 || journalNumber > MAX_JOURNAL_NUMBER) {
+            throw new IllegalArgumentException("Journal number out of range: " + journalNumber);
+        }
+        if (sequence < 0 || sequence > MAX_SEQUENCE) {
+            throw new IllegalStateException("Posting journal sequence exhausted: " + sequence);
+        }
+        return "JN" + base36(journalNumber, 2) + base36(sequence, 12);
+    }
+
+    private static String base36(long value, int digits) {
+        String text = Long.toString(value, 36).toUpperCase(Locale.ROOT);
+        return "0".repeat(digits - text.length()) + text;
+    }
+
+    private static long pow36(int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= 36;
+        }
+        return result;
+    }
+
+    byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeUTF(cardNumber);
+            out.writeLong(accountId);
+            out.writeUTF(typeCode);
+            out.writeUTF(categoryCode);
+            out.writeUTF(source);
+            writeNullable(out, description);
+            out.writeLong(amountCents);
+            out.writeBoolean(merchantId != null);
+            if (merchantId != null) {
+                out.writeLong(merchantId);
+            }
+            writeNullable(out, merchantName);
+            writeNullable(out, merchantCity);
+            writeNullable(out, merchantZip);
+            writeTimestamp(out, originalTimestamp);
+            writeTimestamp(out, processedTimestamp);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static JournaledPosting decode(DataInput in) throws IOException {
+        int version = in.readUnsignedByte();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported posting record version: " + version);
+        }
+        String cardNumber = in.readUTF();
+        long accountId = in.readLong();
+        String typeCode = in.readUTF();
+        String categoryCode = in.readUTF();
+        String source = in.readUTF();
+        String description = readNullable(in);
+        long amountCents = in.readLong();
+        Long merchantId = in.readBoolean() ? in.readLong() : null;
+        String merchantName = readNullable(in);
+        String merchantCity = readNullable(in);
+        String merchantZip = readNullable(in);
+        LocalDateTime originalTimestamp = readTimestamp(in);
+        LocalDateTime processedTimestamp = readTimestamp(in);
+        return new JournaledPosting(cardNumber, accountId, typeCode, categoryCode, source, description, amountCents,
+                merchantId, merchantName, merchantCity, merchantZip, originalTimestamp, processedTimestamp);
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeTimestamp(DataOutputStream out, LocalDateTime value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(value.getNano());
+        }
+    }
+
+    private static LocalDateTime readTimestamp(DataInput in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        long epochSecond = in.readLong();
+        int nano = in.readInt();
+        return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,506 @@
+package com.example.demo.service;
+
+import com.example.demo.analytics.CountMinSketch;
+import com.example.demo.analytics.HyperLogLog;
+import com.example.demo.analytics.SketchHashing;
+import com.example.demo.analytics.SpaceSaving;
+import com.example.demo.dto.MerchantAnalyticsBackfillResponseDto;
+import com.example.demo.dto.MerchantAnalyticsReportDto;
+import com.example.demo.dto.MerchantStatsDto;
+import com.example.demo.entity.Transaction;
+import com.example.demo.money.Money;
+import com.example.demo.repository.MerchantActivity;
+import com.example.demo.repository.TransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+
+/**
+ * Approximate merchant reporting maintained as transactions are posted.
+ * <p>
+ * Keeps, overall and per merchant city, a Space-Saving top-K of merchants by spend and a
+ * HyperLogLog of distinct cards, plus Count-Min sketches of spend and transaction count per merchant
+ * and per (city, merchant), and a HyperLogLog of distinct cards per merchant for up to
+ * {@code analytics.merchants.max-merchants} merchants. Only purchases with a merchant are counted.
+ * <p>
+ * Sketches are fed after each posting flush commits, or by {@link #backfill()} from the
+ * {@code transactions} table, and are snapshotted to a local file that is reloaded on startup. Updates
+ * since the last snapshot are lost on a crash. A snapshot taken with different sketch sizes is
+ * discarded; run a backfill after changing them.
+ */
+@Service
+@Slf4j
+public class MerchantAnalyticsService {
+
+    private static final int SNAPSHOT_MAGIC = 0x4d414e31;
+    private static final int BACKFILL_BATCH = 1_000;
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate readOnlyTemplate;
+    private final boolean enabled;
+    private final Path snapshotFile;
+    private final int[] dimensions;
+    private final int fetchSize;
+    private final Object lock = new Object();
+    private final AtomicBoolean backfillRunning = new AtomicBoolean();
+    private final Counter recorded;
+    private State state;
+    private volatile boolean dirty;
+
+    public MerchantAnalyticsService(TransactionRepository transactionRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${analytics.merchants.enabled:true}") boolean enabled,
+                                    @Value("${analytics.merchants.snapshot-file:data/merchant-analytics.bin}") String snapshotFile,
+                                    @Value("${analytics.merchants.top-k:200}") int topK,
+                                    @Value("${analytics.merchants.city-top-k:50}") int cityTopK,
+                                    @Value("${analytics.merchants.count-min.depth:4}") int countMinDepth,
+                                    @Value("${analytics.merchants.count-min.width:16384}") int countMinWidth,
+                                    @Value("${analytics.merchants.hll-precision:14}") int hllPrecision,
+                                    @Value("${analytics.merchants.merchant-hll-precision:10}") int merchantHllPrecision,
+                                    @Value("${analytics.merchants.max-cities:2000}") int maxCities,
+                                    @Value("${analytics.merchants.max-merchants:10000}") int maxMerchants,
+                                    @Value("${analytics.merchants.backfill.fetch-size:1000}") int fetchSize) {
+        this.transactionRepository = transactionRepository;
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.snapshotFile = Path.of(snapshotFile);
+        this.dimensions = new int[]{topK, cityTopK, countMinDepth, countMinWidth, hllPrecision,
+                merchantHllPrecision, maxCities, maxMerchants};
+        this.fetchSize = Math.max(1, fetchSize);
+        this.state = new State(dimensions);
+        this.recorded = Counter.builder("analytics.merchants.recorded")
+                .description("Merchant purchases added to the analytics sketches")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void loadSnapshot() {
+        if (!enabled || !Files.exists(snapshotFile)) {
+            return;
+        }
+        try {
+            byte[] bytes = Files.readAllBytes(snapshotFile);
+            if (bytes.length < Long.BYTES) {
+                throw new IOException("Snapshot is truncated");
+            }
+            CRC32 crc = new CRC32();
+            crc.update(bytes, 0, bytes.length - Long.BYTES);
+            if (crc.getValue() != ByteBuffer.wrap(bytes, bytes.length - Long.BYTES, Long.BYTES).getLong()) {
+                throw new IOException("Snapshot checksum mismatch");
+            }
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 0, bytes.length - Long.BYTES));
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Not a merchant analytics snapshot");
+            }
+            int[] stored = new int[in.readInt()];
+            for (int i = 0; i < stored.length; i++) {
+                stored[i] = in.readInt();
+            }
+            if (!Arrays.equals(stored, dimensions)) {
+                log.warn("Discarding merchant analytics snapshot taken with different sketch sizes; run a backfill to rebuild");
+                return;
+            }
+            State loaded = State.readFrom(in, dimensions);
+            synchronized (lock) {
+                state = loaded;
+            }
+            log.info("Loaded merchant analytics snapshot covering {} transactions", loaded.transactions);
+        } catch (IOException | RuntimeException e) {
+            log.error("Could not load merchant analytics snapshot {}; starting empty", snapshotFile, e);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onTransactionsPosted(TransactionsPostedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        int count = 0;
+        synchronized (lock) {
+            for (Transaction transaction : event.getTransactions()) {
+                if (transaction.getMerchantId() != null && transaction.getAmount().signum() > 0) {
+                    state.record(transaction.getCardNumber(), transaction.getMerchantId(), transaction.getMerchantName(),
+                            transaction.getMerchantCity(), transaction.getAmount().getCents());
+                    count++;
+                }
+            }
+        }
+        if (count > 0) {
+            recorded.increment(count);
+            dirty = true;
+        }
+    }
+
+    /**
+     * Clears the sketches and rebuilds them from every purchase already in {@code transactions}.
+     * Postings flushed while the backfill runs are added as usual; the few flushed in the same
+     * instant the backfill starts may be counted twice.
+     */
+    public MerchantAnalyticsBackfillResponseDto backfill() {
+        if (!enabled) {
+            throw new IllegalStateException("Merchant analytics is disabled");
+        }
+        if (!backfillRunning.compareAndSet(false, true)) {
+            throw new IllegalStateException("A merchant analytics backfill is already running");
+        }
+        long start = System.currentTimeMillis();
+        try {
+            LocalDateTime cutoff;
+            synchronized (lock) {
+                cutoff = LocalDateTime.now();
+                state = new State(dimensions);
+            }
+            List<MerchantActivity> batch = new ArrayList<>(BACKFILL_BATCH);
+            Long rows = readOnlyTemplate.execute(status -> {
+                long read = transactionRepository.streamMerchantActivity(cutoff, fetchSize, activity -> {
+                    batch.add(activity);
+                    if (batch.size() == BACKFILL_BATCH) {
+                        recordBatch(batch);
+                    }
+                });
+                recordBatch(batch);
+                return read;
+            });
+            dirty = true;
+            long duration = System.currentTimeMillis() - start;
+            log.info("Merchant analytics backfill read {} transactions in {} ms", rows, duration);
+            return new MerchantAnalyticsBackfillResponseDto(rows, cutoff, duration);
+        } finally {
+            backfillRunning.set(false);
+        }
+    }
+
+    /**
+     * Top merchants by spend, overall when {@code city} is blank, otherwise within that city.
+     */
+    public MerchantAnalyticsReportDto getTopMerchants(String city, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        synchronized (lock) {
+            String cityKey = State.normalizeCity(city);
+            if (cityKey == null) {
+                List<MerchantStatsDto> merchants = new ArrayList<>();
+                for (SpaceSaving.Entry entry : state.topMerchants.top(Integer.MAX_VALUE)) {
+                    merchants.add(state.toStats(entry, Math.min(entry.count(), state.spend.estimate(entry.key())),
+                            state.count.estimate(entry.key())));
+                }
+                return new MerchantAnalyticsReportDto(null, state.transactions, Money.toBigDecimal(state.spendCents),
+                        state.distinctCards.estimate(), state.distinctMerchants.estimate(), rank(merchants, limit));
+            }
+
+            CityState cityState = state.cities.get(cityKey);
+            if (cityState == null) {
+                return new MerchantAnalyticsReportDto(cityKey, 0L, Money.toBigDecimal(0), 0L, null, List.of());
+            }
+            long cityHash = SketchHashing.hash64(cityKey);
+            List<MerchantStatsDto> merchants = new ArrayList<>();
+            for (SpaceSaving.Entry entry : cityState.topMerchants.top(Integer.MAX_VALUE)) {
+                long key = SketchHashing.combine(cityHash, entry.key());
+                merchants.add(state.toStats(entry, Math.min(entry.count(), state.citySpend.estimate(key)),
+                        state.cityCount.estimate(key)));
+            }
+            return new MerchantAnalyticsReportDto(cityKey, cityState.transactions, Money.toBigDecimal(cityState.spendCents),
+                    cityState.distinctCards.estimate(), null, rank(merchants, limit));
+        }
+    }
+
+    /**
+     * Orders by the Count-Min-tightened spend rather than the raw top-K count, which for keys that
+     * recently took over a counter is mostly inherited error.
+     */
+    private static List<MerchantStatsDto> rank(List<MerchantStatsDto> merchants, int limit) {
+        merchants.sort(Comparator.comparing(MerchantStatsDto::getEstimatedSpend).reversed());
+        return merchants.size() > limit ? new ArrayList<>(merchants.subList(0, limit)) : merchants;
+    }
+
+    public MerchantStatsDto getMerchant(long merchantId) {
+        synchronized (lock) {
+            long count = state.count.estimate(merchantId);
+            if (count == 0) {
+                throw new IllegalArgumentException("No purchases recorded for merchant: " + merchantId);
+            }
+            SpaceSaving.Entry entry = state.topMerchants.get(merchantId);
+            long spend = state.spend.estimate(merchantId);
+            if (entry == null) {
+                MerchantState merchant = state.merchants.get(merchantId);
+                entry = new SpaceSaving.Entry(merchantId, merchant == null ? null : merchant.name, spend, spend);
+            }
+            return state.toStats(entry, Math.min(entry.count(), spend), count);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.merchants.snapshot-interval-ms:60000}")
+    public void scheduledSnapshot() {
+        if (enabled && dirty) {
+            snapshot();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (enabled && dirty) {
+            snapshot();
+        }
+    }
+
+    private void recordBatch(List<MerchantActivity> batch) {
+        synchronized (lock) {
+            for (MerchantActivity activity : batch) {
+                state.record(activity.getCardNumber(), activity.getMerchantId(), activity.getMerchantName(),
+                        activity.getMerchantCity(), activity.getAmountCents());
+            }
+        }
+        recorded.increment(batch.size());
+        batch.clear();
+    }
+
+    /**
+     * Serializes the sketches under the lock, then writes them outside it to a temporary file that
+     * replaces the snapshot atomically.
+     */
+    private void snapshot() {
+        dirty = false;
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try {
+            DataOutputStream out = new DataOutputStream(buffer);
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(dimensions.length);
+            for (int dimension : dimensions) {
+                out.writeInt(dimension);
+            }
+            synchronized (lock) {
+                state.writeTo(out);
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.toByteArray());
+            out.writeLong(crc.getValue());
+            out.flush();
+
+            Path parent = snapshotFile.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = parent.resolve(snapshotFile.getFileName() + ".tmp");
+            Files.write(temp, buffer.toByteArray());
+            Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Wrote merchant analytics snapshot of {} bytes", buffer.size());
+        } catch (IOException e) {
+            dirty = true;
+            log.error("Failed to write merchant analytics snapshot {}", snapshotFile, e);
+        }
+    }
+
+    private static final class State {
+
+        private final CountMinSketch spend;
+        private final CountMinSketch count;
+        private final CountMinSketch citySpend;
+        private final CountMinSketch cityCount;
+        private final SpaceSaving topMerchants;
+        private final HyperLogLog distinctCards;
+        private final HyperLogLog distinctMerchants;
+        private final Map<String, CityState> cities = new HashMap<>();
+        private final Map<Long, MerchantState> merchants = new HashMap<>();
+        private final int cityTopK;
+        private final int hllPrecision;
+        private final int merchantHllPrecision;
+        private final int maxCities;
+        private final int maxMerchants;
+        private long transactions;
+        private long spendCents;
+
+        State(int[] dimensions) {
+            this(dimensions, new CountMinSketch(dimensions[2], dimensions[3]), new CountMinSketch(dimensions[2], dimensions[3]),
+                    new CountMinSketch(dimensions[2], dimensions[3]), new CountMinSketch(dimensions[2], dimensions[3]),
+                    new SpaceSaving(dimensions[0]), new HyperLogLog(dimensions[4]), new HyperLogLog(dimensions[4]));
+        }
+
+        private State(int[] dimensions, CountMinSketch spend, CountMinSketch count, CountMinSketch citySpend,
+                      CountMinSketch cityCount, SpaceSaving topMerchants, HyperLogLog distinctCards,
+                      HyperLogLog distinctMerchants) {
+            this.spend = spend;
+            this.count = count;
+            this.citySpend = citySpend;
+            this.cityCount = cityCount;
+            this.topMerchants = topMerchants;
+            this.distinctCards = distinctCards;
+            this.distinctMerchants = distinctMerchants;
+            this.cityTopK = dimensions[1];
+            this.hllPrecision = dimensions[4];
+            this.merchantHllPrecision = dimensions[5];
+            this.maxCities = dimensions[6];
+            this.maxMerchants = dimensions[7];
+        }
+
+        static String normalizeCity(String city) {
+            if (city == null || city.isBlank()) {
+                return null;
+            }
+            return city.trim().toUpperCase(Locale.ROOT);
+        }
+
+        void record(String cardNumber, long merchantId, String merchantName, String merchantCity, long amountCents) {
+            long cardHash = SketchHashing.hash64(cardNumber);
+            spend.add(merchantId, amountCents);
+            count.add(merchantId, 1);
+            topMerchants.add(merchantId, merchantName, amountCents);
+            distinctCards.addHash(cardHash);
+            distinctMerchants.addHash(SketchHashing.hash64(merchantId));
+            transactions++;
+            spendCents += amountCents;
+
+            MerchantState merchant = merchants.get(merchantId);
+            if (merchant == null && merchants.size() < maxMerchants) {
+                merchant = new MerchantState(new HyperLogLog(merchantHllPrecision));
+                merchants.put(merchantId, merchant);
+            }
+            if (merchant != null) {
+                if (merchantName != null) {
+                    merchant.name = merchantName;
+                }
+                merchant.distinctCards.addHash(cardHash);
+            }
+
+            String cityKey = normalizeCity(merchantCity);
+            if (cityKey == null) {
+                return;
+            }
+            long key = SketchHashing.combine(SketchHashing.hash64(cityKey), merchantId);
+            citySpend.add(key, amountCents);
+            cityCount.add(key, 1);
+            CityState city = cities.get(cityKey);
+            if (city == null && cities.size() < maxCities) {
+                city = new CityState(new SpaceSaving(cityTopK), new HyperLogLog(hllPrecision));
+                cities.put(cityKey, city);
+            }
+            if (city != null) {
+                city.topMerchants.add(merchantId, merchantName, amountCents);
+                city.distinctCards.addHash(cardHash);
+                city.transactions++;
+                city.spendCents += amountCents;
+            }
+        }
+
+        MerchantStatsDto toStats(SpaceSaving.Entry entry, long estimatedSpend, long estimatedCount) {
+            MerchantState merchant = merchants.get(entry.key());
+            String name = entry.label() != null ? entry.label() : merchant == null ? null : merchant.name;
+            return new MerchantStatsDto(entry.key(), name, Money.toBigDecimal(estimatedSpend),
+                    Money.toBigDecimal(Math.max(0, entry.count() - entry.error())), estimatedCount,
+                    merchant == null ? null : merchant.distinctCards.estimate());
+        }
+
+        void writeTo(DataOutput out) throws IOException {
+            out.writeLong(transactions);
+            out.writeLong(spendCents);
+            spend.writeTo(out);
+            count.writeTo(out);
+            citySpend.writeTo(out);
+            cityCount.writeTo(out);
+            topMerchants.writeTo(out);
+            distinctCards.writeTo(out);
+            distinctMerchants.writeTo(out);
+            out.writeInt(cities.size());
+            for (Map.Entry<String, CityState> entry : cities.entrySet()) {
+                CityState city = entry.getValue();
+                out.writeUTF(entry.getKey());
+                out.writeLong(city.transactions);
+                out.writeLong(city.spendCents);
+                city.topMerchants.writeTo(out);
+                city.distinctCards.writeTo(out);
+            }
+            out.writeInt(merchants.size());
+            for (Map.Entry<Long, MerchantState> entry : merchants.entrySet()) {
+                MerchantState merchant = entry.getValue();
+                out.writeLong(entry.getKey());
+                out.writeBoolean(merchant.name != null);
+                if (merchant.name != null) {
+                    out.writeUTF(merchant.name);
+                }
+                merchant.distinctCards.writeTo(out);
+            }
+        }
+
+        static State readFrom(DataInput in, int[] dimensions) throws IOException {
+            long transactions = in.readLong();
+            long spendCents = in.readLong();
+            State state = new State(dimensions, CountMinSketch.readFrom(in), CountMinSketch.readFrom(in),
+                    CountMinSketch.readFrom(in), CountMinSketch.readFrom(in), SpaceSaving.readFrom(in),
+                    HyperLogLog.readFrom(in), HyperLogLog.readFrom(in));
+            state.transactions = transactions;
+            state.spendCents = spendCents;
+            int cities = in.readInt();
+            for (int i = 0; i < cities; i++) {
+                String name = in.readUTF();
+                long cityTransactions = in.readLong();
+                long citySpend = in.readLong();
+                CityState city = new CityState(SpaceSaving.readFrom(in), HyperLogLog.readFrom(in));
+                city.transactions = cityTransactions;
+                city.spendCents = citySpend;
+                state.cities.put(name, city);
+            }
+            int merchants = in.readInt();
+            for (int i = 0; i < merchants; i++) {
+                long merchantId = in.readLong();
+                String name = in.readBoolean() ? in.readUTF() : null;
+                MerchantState merchant = new MerchantState(HyperLogLog.readFrom(in));
+                merchant.name = name;
+                state.merchants.put(merchantId, merchant);
+            }
+            return state;
+        }
+    }
+
+    private static final class CityState {
+
+        private final SpaceSaving topMerchants;
+        private final HyperLogLog distinctCards;
+        private long transactions;
+        private long spendCents;
+
+        CityState(SpaceSaving topMerchants, HyperLogLog distinctCards) {
+            this.topMerchants = topMerchants;
+            this.distinctCards = distinctCards;
+        }
+    }
+
+    private static final class MerchantState {
+
+        private final HyperLogLog distinctCards;
+        private String name;
+
+        MerchantState(HyperLogLog distinctCards) {
+            this.distinctCards = distinctCards;
+        }
+    }
+}
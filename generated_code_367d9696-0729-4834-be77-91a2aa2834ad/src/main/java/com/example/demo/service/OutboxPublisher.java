@@ -0,0 +1,291 @@
+package com.example.demo.service;
+
+import com.example.demo.outbox.FileOutboxSink;
+import com.example.demo.outbox.InMemoryOutboxSink;
+import com.example.demo.outbox.OutboxEvent;
+import com.example.demo.outbox.OutboxEventType;
+import com.example.demo.outbox.OutboxSink;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains {@code outbox_events} in event ID order and delivers the events to the configured
+ * {@link OutboxSink}, so downstream systems no longer poll {@code accounts} and {@code customers}.
+ * <p>
+ * Each batch runs in one transaction: the sink's row in {@code outbox_offsets} is locked, up to
+ * {@code outbox.batch-size} events after the offset are read, delivered, and the offset is moved to
+ * the last delivered ID. A failed delivery rolls the offset back and the batch is retried, so
+ * delivery is at least once; the row lock keeps a second node from delivering the same batch
+ * concurrently.
+ * <p>
+ * Event IDs are allocated at insert but become visible at commit, so a lower ID can still be in
+ * flight when a higher one is read. Delivery stops at the first missing ID and only skips it once it
+ * has been missing for {@code outbox.gap-timeout-ms}, which covers rolled-back inserts;
+ * the timeout must stay above the longest transaction that writes to the outbox.
+ * <p>
+ * Delivered rows are removed by range deletes on the primary key, at most one per
+ * {@code outbox.cleanup-batch-size} IDs, every {@code outbox.cleanup-interval-ms}.
+ */
+@Service
+@Slf4j
+public class OutboxPublisher {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final OutboxSink sink;
+    private final long pollIntervalMillis;
+    private final int batchSize;
+    private final long gapTimeoutMillis;
+    private final long cleanupIntervalMillis;
+    private final int cleanupBatchSize;
+    private final TreeMap<Long, Long> missingSince = new TreeMap<>();
+    private final Object signal = new Object();
+    private final Counter published;
+    private final Counter publishFailures;
+    private final Counter deleted;
+    private final Counter gapsSkipped;
+    private Thread publisher;
+    private volatile boolean running;
+    private volatile long deliveredThrough;
+    private boolean signalled;
+    private long cleanedThrough;
+    private long lastCleanupMillis;
+
+    public OutboxPublisher(DataSource dataSource,
+                           PlatformTransactionManager transactionManager,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${outbox.sink:none}") String sink,
+                           @Value("${outbox.file.directory:data/outbox}") String fileDirectory,
+                           @Value("${outbox.memory.capacity:10000}") int memoryCapacity,
+                           @Value("${outbox.poll-interval-ms:500}") long pollIntervalMillis,
+                           @Value("${outbox.batch-size:500}") int batchSize,
+                           @Value("${outbox.gap-timeout-ms:5000}") long gapTimeoutMillis,
+                           @Value("${outbox.cleanup-interval-ms:10000}") long cleanupIntervalMillis,
+                           @Value("${outbox.cleanup-batch-size:5000}") int cleanupBatchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.sink = switch (sink) {
+            case "none" -> null;
+            case "memory" -> new InMemoryOutboxSink(memoryCapacity);
+            case "file" -> new FileOutboxSink(Path.of(fileDirectory), objectMapper.getFactory());
+            default -> throw new IllegalArgumentException("Unknown outbox.sink: " + sink
+                    + " (expected none, memory or file)");
+        };
+        this.pollIntervalMillis = Math.max(1, pollIntervalMillis);
+        this.batchSize = Math.max(1, batchSize);
+        this.gapTimeoutMillis = Math.max(0, gapTimeoutMillis);
+        this.cleanupIntervalMillis = Math.max(1, cleanupIntervalMillis);
+        this.cleanupBatchSize = Math.max(1, cleanupBatchSize);
+        this.published = Counter.builder("outbox.events.published")
+                .description("Outbox events delivered to the sink")
+                .register(meterRegistry);
+        this.publishFailures = Counter.builder("outbox.publish.failures")
+                .description("Outbox batches that failed and will be retried")
+                .register(meterRegistry);
+        this.deleted = Counter.builder("outbox.events.deleted")
+                .description("Delivered outbox events removed from the table")
+                .register(meterRegistry);
+        this.gapsSkipped = Counter.builder("outbox.gaps.skipped")
+                .description("Event IDs skipped after staying missing for the gap timeout")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        Gauge.builder("outbox.delivered.event.id", this, publisher -> publisher.deliveredThrough)
+                .description("Highest outbox event ID delivered to the sink")
+                .register(meterRegistry);
+        if (sink == null) {
+            return;
+        }
+        deliveredThrough = initOffset();
+        cleanedThrough = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MIN(event_id), 1) - 1 FROM outbox_events", Long.class);
+        running = true;
+        publisher = new Thread(this::publishLoop, "outbox-publisher");
+        publisher.setDaemon(true);
+        publisher.start();
+        log.info("Outbox publisher started for sink {} at event {}", sink.name(), deliveredThrough);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (sink == null) {
+            return;
+        }
+        running = false;
+        wakeUp();
+        try {
+            publisher.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        sink.close();
+    }
+
+    public boolean isEnabled() {
+        return sink != null;
+    }
+
+    public OutboxSink getSink() {
+        return sink;
+    }
+
+    /**
+     * Starts the next batch without waiting for the poll interval; called after outbox inserts commit.
+     */
+    public void wakeUp() {
+        synchronized (signal) {
+            signalled = true;
+            signal.notifyAll();
+        }
+    }
+
+    /**
+     * A new sink starts at the oldest event still in the table rather than replaying nothing.
+     */
+    private long initOffset() {
+        List<Long> offset = jdbcTemplate.queryForList(
+                "SELECT last_event_id FROM outbox_offsets WHERE sink_name = ?", Long.class, sink.name());
+        if (!offset.isEmpty()) {
+            return offset.get(0);
+        }
+        try {
+            jdbcTemplate.update("INSERT INTO outbox_offsets (sink_name, last_event_id) "
+                    + "SELECT ?, COALESCE(MIN(event_id), 1) - 1 FROM outbox_events", sink.name());
+        } catch (DuplicateKeyException e) {
+            // Another node registered the sink first
+        }
+        return jdbcTemplate.queryForObject(
+                "SELECT last_event_id FROM outbox_offsets WHERE sink_name = ?", Long.class, sink.name());
+    }
+
+    private void publishLoop() {
+        while (running) {
+            int delivered;
+            try {
+                delivered = publishBatch();
+                cleanUp();
+            } catch (RuntimeException e) {
+                publishFailures.increment();
+                log.warn("Publishing outbox events to {} failed, retrying: {}", sink.name(), e.getMessage());
+                delivered = 0;
+            }
+            if (delivered < batchSize) {
+                synchronized (signal) {
+                    if (running && !signalled) {
+                        try {
+                            signal.wait(pollIntervalMillis);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                    }
+                    signalled = false;
+                }
+            }
+        }
+    }
+
+    private int publishBatch() {
+        Integer delivered = transactionTemplate.execute(status -> {
+            Long offset = jdbcTemplate.queryForObject(
+                    "SELECT last_event_id FROM outbox_offsets WHERE sink_name = ? FOR UPDATE", Long.class, sink.name());
+            if (offset == null) {
+                throw new IllegalStateException("No outbox offset for sink " + sink.name());
+            }
+            List<OutboxEvent> events = jdbcTemplate.query(
+                    "SELECT event_id, event_type, aggregate_id, payload, created_at FROM outbox_events "
+                            + "WHERE event_id > ? ORDER BY event_id LIMIT ?",
+                    (rs, rowNum) -> new OutboxEvent(rs.getLong("event_id"),
+                            OutboxEventType.valueOf(rs.getString("event_type")),
+                            rs.getString("aggregate_id"),
+                            rs.getString("payload"),
+                            rs.getTimestamp("created_at").toLocalDateTime()),
+                    offset, batchSize);
+            List<OutboxEvent> batch = contiguous(offset, events);
+            if (batch.isEmpty()) {
+                deliveredThrough = offset;
+                return 0;
+            }
+            try {
+                sink.deliver(batch);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Sink " + sink.name() + " rejected " + batch.size() + " events", e);
+            }
+            long last = batch.get(batch.size() - 1).eventId();
+            jdbcTemplate.update("UPDATE outbox_offsets SET last_event_id = ?, updated_at = CURRENT_TIMESTAMP "
+                    + "WHERE sink_name = ?", last, sink.name());
+            deliveredThrough = last;
+            return batch.size();
+        });
+        if (delivered != null && delivered > 0) {
+            published.increment(delivered);
+            missingSince.headMap(deliveredThrough, true).clear();
+        }
+        return delivered == null ? 0 : delivered;
+    }
+
+    /**
+     * Returns the events that follow {@code offset} without a gap, skipping gaps that have been
+     * missing for longer than the gap timeout.
+     */
+    private List<OutboxEvent> contiguous(long offset, List<OutboxEvent> events) {
+        List<OutboxEvent> batch = new ArrayList<>(events.size());
+        long expected = offset + 1;
+        long now = System.currentTimeMillis();
+        for (OutboxEvent event : events) {
+            if (event.eventId() != expected) {
+                long since = missingSince.computeIfAbsent(expected, id -> now);
+                if (now - since < gapTimeoutMillis) {
+                    break;
+                }
+                gapsSkipped.increment(event.eventId() - expected);
+                log.warn("Skipping outbox events {} to {}, missing for {} ms",
+                        expected, event.eventId() - 1, now - since);
+            }
+            batch.add(event);
+            expected = event.eventId() + 1;
+        }
+        return batch;
+    }
+
+    private void cleanUp() {
+        long now = System.currentTimeMillis();
+        if (now - lastCleanupMillis < cleanupIntervalMillis || cleanedThrough >= deliveredThrough) {
+            return;
+        }
+        lastCleanupMillis = now;
+        long through = deliveredThrough;
+        while (running && cleanedThrough < through) {
+            long upTo = Math.min(through, cleanedThrough + cleanupBatchSize);
+            int rows = jdbcTemplate.update("DELETE FROM outbox_events WHERE event_id > ? AND event_id <= ?",
+                    cleanedThrough, upTo);
+            deleted.increment(rows);
+            cleanedThrough = upTo;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Account;
+import com.example.demo.entity.Customer;
+import com.example.demo.money.Money;
+import com.example.demo.outbox.OutboxEventType;
+import com.example.demo.outbox.OutboxMessage;
+import com.example.demo.repository.AccountBalanceDelta;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes change events to {@code outbox_events} in the transaction that made the change, so an
+ * event exists exactly when its change committed. {@link OutboxPublisher} delivers them.
+ * <p>
+ * The listeners run synchronously inside the publishing transaction: {@link AccountUpdatedEvent}
+ * from the update API, {@link AccountBalancesPostedEvent} from posting, interest and cycle-close
+ * writers, and {@link AccountsReissuedEvent} from the card reissue job. All are published after the
+ * account rows were updated, so the row locks are held when the event IDs are allocated and the
+ * events of one account are numbered in commit order. Nothing is written while no sink is
+ * configured. A snapshot restore loads whole tables and writes no events; consumers resync from
+ * the restored data.
+ */
+@Service
+public class OutboxService {
+
+    private static final String INSERT_SQL = "INSERT INTO outbox_events "
+            + "(event_type, aggregate_type, aggregate_id, payload, created_at) VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final OutboxPublisher publisher;
+    private final int insertBatchSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public OutboxService(JdbcTemplate jdbcTemplate,
+                         ObjectMapper objectMapper,
+                         OutboxPublisher publisher,
+                         @Value("${outbox.insert-batch-size:500}") int insertBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.publisher = publisher;
+        this.insertBatchSize = Math.max(1, insertBatchSize);
+    }
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onAccountUpdated(AccountUpdatedEvent event) {
+        if (!publisher.isEnabled()) {
+            return;
+        }
+        // Takes the row locks and sets updatedAt before the event IDs are allocated
+        entityManager.flush();
+        Account account = event.getAccount();
+        Customer customer = event.getCustomer();
+        append(List.of(
+                new OutboxMessage(OutboxEventType.ACCOUNT_UPDATED, String.valueOf(account.getAccountId()),
+                        toJson(accountPayload(account))),
+                new OutboxMessage(OutboxEventType.CUSTOMER_UPDATED, String.valueOf(customer.getCustomerId()),
+                        toJson(customerPayload(customer)))));
+    }
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onBalancesPosted(AccountBalancesPostedEvent event) {
+        if (!publisher.isEnabled()) {
+            return;
+        }
+        List<OutboxMessage> messages = new ArrayList<>(event.getDeltas().size());
+        for (AccountBalanceDelta delta : event.getDeltas()) {
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("accountId", delta.getAccountId());
+            payload.put("balanceChange", Money.toBigDecimal(delta.getBalanceCents()));
+            payload.put("cycleCreditChange", Money.toBigDecimal(delta.getCycleCreditCents()));
+            payload.put("cycleDebitChange", Money.toBigDecimal(delta.getCycleDebitCents()));
+            messages.add(new OutboxMessage(OutboxEventType.ACCOUNT_BALANCE_CHANGED,
+                    String.valueOf(delta.getAccountId()), toJson(payload)));
+        }
+        append(messages);
+    }
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onAccountsReissued(AccountsReissuedEvent event) {
+        if (!publisher.isEnabled()) {
+            return;
+        }
+        List<Long> accountIds = new ArrayList<>(event.getAccountIds());
+        Collections.sort(accountIds);
+        List<OutboxMessage> messages = new ArrayList<>(accountIds.size());
+        for (Long accountId : accountIds) {
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("accountId", accountId);
+            payload.put("reissueDate", event.getReissueDate());
+            payload.put("updatedAt", event.getUpdatedAt());
+            messages.add(new OutboxMessage(OutboxEventType.ACCOUNT_REISSUED, String.valueOf(accountId),
+                    toJson(payload)));
+        }
+        append(messages);
+    }
+
+    /**
+     * Inserts the messages in the current transaction and wakes the publisher once it commits.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(List<OutboxMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, messages, insertBatchSize, (ps, message) -> {
+            ps.setString(1, message.type().name());
+            ps.setString(2, message.type().getAggregateType());
+            ps.setString(3, message.aggregateId());
+            ps.setString(4, message.payload());
+        });
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publisher.wakeUp();
+            }
+        });
+    }
+
+    private static Map<String, Object> accountPayload(Account account) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("accountId", account.getAccountId());
+        payload.put("customerId", account.getCustomerId());
+        payload.put("activeStatus", account.getActiveStatus());
+        payload.put("currentBalance", account.getCurrentBalance());
+        payload.put("creditLimit", account.getCreditLimit());
+        payload.put("cashCreditLimit", account.getCashCreditLimit());
+        payload.put("openDate", account.getOpenDate());
+        payload.put("expirationDate", account.getExpirationDate());
+        payload.put("reissueDate", account.getReissueDate());
+        payload.put("currentCycleCredit", account.getCurrentCycleCredit());
+        payload.put("currentCycleDebit", account.getCurrentCycleDebit());
+        payload.put("groupId", account.getGroupId());
+        payload.put("updatedAt", account.getUpdatedAt());
+        return payload;
+    }
+
+    /**
+     * Leaves out the SSN, government ID and EFT account, which downstream systems do not receive.
+     */
+    private static Map<String, Object> customerPayload(Customer customer) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("customerId", customer.getCustomerId());
+        payload.put("firstName", customer.getFirstName());
+        payload.put("middleName", customer.getMiddleName());
+        payload.put("lastName", customer.getLastName());
+        payload.put("dateOfBirth", customer.getDateOfBirth());
+        payload.put("ficoScore", customer.getFicoScore());
+        payload.put("addressLine1", customer.getAddressLine1());
+        payload.put("addressLine2", customer.getAddressLine2());
+        payload.put("city", customer.getCity());
+        payload.put("stateCode", customer.getStateCode());
+        payload.put("zipCode", customer.getZipCode());
+        payload.put("countryCode", customer.getCountryCode());
+        payload.put("phoneNumber1", customer.getPhoneNumber1());
+        payload.put("phoneNumber2", customer.getPhoneNumber2());
+        payload.put("primaryCardHolderIndicator", customer.getPrimaryCardHolderIndicator());
+        payload.put("updatedAt", customer.getUpdatedAt());
+        return payload;
+    }
+
+    private String toJson(Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize outbox payload", e);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.demo.service;
+
+import com.example.demo.repository.AccountBalanceDelta;
+import com.example.demo.repository.CategoryBalanceDelta;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects journaled postings and their balance deltas between flushes.
+ * <p>
+ * Deltas are kept in {@link LongAdder}s keyed by account and by (account, type, category). A
+ * LongAdder spreads concurrent updates over per-thread cells, so many writers hitting the same hot
+ * account do not serialize on one counter. {@link #add} may run concurrently with itself;
+ * {@link #drain} and {@link #restore} must only run while no {@code add} is in progress.
+ */
+final class PostingAccumulator {
+
+    private final ConcurrentHashMap<CategoryKey, LongAdder> categoryCents = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, AccountAdders> accountCents = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry> postings = new ConcurrentLinkedQueue<>();
+    private final LongAdder pendingPostings = new LongAdder();
+
+    void add(long sequence, JournaledPosting posting) {
+        long amount = posting.getAmountCents();
+        CategoryKey categoryKey = new CategoryKey(posting.getAccountId(), posting.getTypeCode(), posting.getCategoryCode());
+        LongAdder category = categoryCents.get(categoryKey);
+        if (category == null) {
+            category = categoryCents.computeIfAbsent(categoryKey, k -> new LongAdder());
+        }
+        category.add(amount);
+
+        AccountAdders account = accountCents.get(posting.getAccountId());
+        if (account == null) {
+            account = accountCents.computeIfAbsent(posting.getAccountId(), k -> new AccountAdders());
+        }
+        account.balance.add(amount);
+        if (amount >= 0) {
+            account.cycleCredit.add(amount);
+        } else {
+            account.cycleDebit.add(amount);
+        }
+
+        postings.add(new Entry(sequence, posting));
+        pendingPostings.increment();
+    }
+
+    long getPendingPostings() {
+        return pendingPostings.sum();
+    }
+
+    Snapshot drain() {
+        List<CategoryBalanceDelta> categories = new ArrayList<>(categoryCents.size());
+        categoryCents.forEach((key, adder) -> {
+            long cents = adder.sum();
+            if (cents != 0) {
+                categories.add(new CategoryBalanceDelta(key.accountId(), key.typeCode(), key.categoryCode(), cents));
+            }
+        });
+        categoryCents.clear();
+
+        List<AccountBalanceDelta> accounts = new ArrayList<>(accountCents.size());
+        accountCents.forEach((accountId, adders) -> accounts.add(new AccountBalanceDelta(accountId,
+                adders.balance.sum(), adders.cycleCredit.sum(), adders.cycleDebit.sum())));
+        accountCents.clear();
+
+        List<Entry> entries = new ArrayList<>();
+        Entry entry;
+        while ((entry = postings.poll()) != null) {
+            entries.add(entry);
+        }
+        pendingPostings.reset();
+        return new Snapshot(categories, accounts, entries);
+    }
+
+    /**
+     * Puts a drained snapshot back after a failed flush so it is retried by the next one.
+     */
+    void restore(Snapshot snapshot) {
+        for (Entry entry : snapshot.postings()) {
+            add(entry.sequence(), entry.posting());
+        }
+    }
+
+    record Snapshot(List<CategoryBalanceDelta> categoryDeltas, List<AccountBalanceDelta> accountDeltas, List<Entry> postings) {
+
+        boolean isEmpty() {
+            return postings.isEmpty();
+        }
+    }
+
+    record Entry(long sequence, JournaledPosting posting) {
+    }
+
+    private record CategoryKey(Long accountId, String typeCode, String categoryCode) {
+    }
+
+    private static final class AccountAdders {
+
+        private final LongAdder balance = new LongAdder();
+        private final LongAdder cycleCredit = new LongAdder();
+        private final LongAdder cycleDebit = new LongAdder();
+    }
+}
@@ -0,0 +1,389 @@
+package com.example.demo.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only local journal of postings with group commit.
+ * <p>
+ * Callers hand a record to {@link #append} and wait on the returned future. A single writer thread
+ * drains everything queued, writes it with one write call and one {@code fsync}, then completes all
+ * the futures with their sequence numbers, so the cost of the sync is shared by every posting that
+ * arrived while the previous one was in progress.
+ * <p>
+ * Records are {@code [int length][long sequence][payload][int crc32]}, stored in segment files named
+ * after the first sequence they contain. On {@link #open} a torn or corrupt tail of the last segment
+ * is truncated; those records were never acknowledged. Segments are deleted once every sequence in
+ * them has been applied to the database.
+ */
+@Slf4j
+final class PostingJournal {
+
+    private static final String SEGMENT_PREFIX = "postings-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int HEADER_BYTES = Integer.BYTES;
+    private static final int TRAILER_BYTES = Integer.BYTES;
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final int maxBatch;
+    private final boolean fsync;
+    private final LinkedBlockingQueue<Pending> queue;
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+
+    private FileChannel channel;
+    private long channelSize;
+    private long nextSequence;
+    private volatile long lastSequence;
+    private volatile boolean failed;
+    private volatile boolean closed;
+    private Thread writer;
+
+    PostingJournal(Path directory, long segmentBytes, int maxBatch, int queueCapacity, boolean fsync) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxBatch = Math.max(1, maxBatch);
+        this.queue = new LinkedBlockingQueue<>(Math.max(1, queueCapacity));
+        this.fsync = fsync;
+    }
+
+    /**
+     * Recovers the journal and starts the writer thread. Returns, in sequence order, the records
+     * after {@code checkpoint}, which have not been applied to the database yet.
+     */
+    List<Recovered> open(long checkpoint) throws IOException {
+        Files.createDirectories(directory);
+        List<Segment> found = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(PostingJournal::isSegment)
+                    .forEach(path -> found.add(new Segment(parseFirstSequence(path), path)));
+        }
+        found.sort(Comparator.comparingLong(Segment::firstSequence));
+
+        List<Recovered> unflushed = new ArrayList<>();
+        long last = checkpoint;
+        long expected = -1;
+        for (int i = 0; i < found.size(); i++) {
+            Segment segment = found.get(i);
+            boolean tail = i == found.size() - 1;
+            if (expected >= 0 && segment.firstSequence() != expected) {
+                throw new IOException("Posting journal segment " + segment.path() + " does not continue at sequence " + expected);
+            }
+            long validBytes = 0;
+            long sequence = segment.firstSequence();
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segment.path())))) {
+                while (true) {
+                    Recovered record = readRecord(in);
+                    if (record == null) {
+                        break;
+                    }
+                    if (record.sequence() != sequence) {
+                        throw new IOException("Out of order sequence " + record.sequence() + " in " + segment.path());
+                    }
+                    if (record.sequence() > checkpoint) {
+                        unflushed.add(record);
+                    }
+                    validBytes += record.recordBytes();
+                    sequence++;
+                }
+            } catch (CorruptRecordException e) {
+                if (!tail) {
+                    throw new IOException("Corrupt record in closed posting journal segment " + segment.path(), e);
+                }
+                log.warn("Truncating torn tail of posting journal segment {} at byte {}: {}",
+                        segment.path(), validBytes, e.getMessage());
+            }
+            if (tail) {
+                try (FileChannel truncate = FileChannel.open(segment.path(), StandardOpenOption.WRITE)) {
+                    if (truncate.size() > validBytes) {
+                        truncate.truncate(validBytes);
+                        truncate.force(true);
+                    }
+                }
+            }
+            last = Math.max(last, sequence - 1);
+            expected = sequence;
+            segments.add(segment);
+        }
+
+        if (!segments.isEmpty() && expected - 1 < checkpoint) {
+            log.warn("Posting journal ends at sequence {} but the database checkpoint is {}; discarding flushed segments",
+                    expected - 1, checkpoint);
+            for (Segment segment : segments) {
+                Files.deleteIfExists(segment.path());
+            }
+            segments.clear();
+        }
+
+        nextSequence = last + 1;
+        lastSequence = last;
+        if (segments.isEmpty()) {
+            openSegment(nextSequence);
+        } else {
+            Segment current = segments.get(segments.size() - 1);
+            channel = FileChannel.open(current.path(), StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            channelSize = channel.size();
+        }
+
+        writer = new Thread(this::writeLoop, "posting-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Opened posting journal in {} at sequence {} with {} unflushed records",
+                directory, lastSequence, unflushed.size());
+        return unflushed;
+    }
+
+    /**
+     * Queues a posting; the future completes with its sequence once the record is durable.
+     */
+    CompletableFuture<Long> append(JournaledPosting posting) {
+        if (closed || failed) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Posting journal is not accepting records"));
+        }
+        byte[] payload = posting.encode();
+        if (payload.length + Long.BYTES > MAX_BODY_BYTES) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Posting record is too large"));
+        }
+        Pending pending = new Pending(payload);
+        if (!queue.offer(pending)) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Posting journal queue is full"));
+        }
+        return pending.future;
+    }
+
+    /**
+     * Highest sequence that has been written and synced.
+     */
+    long getLastSequence() {
+        return lastSequence;
+    }
+
+    int getQueuedRecords() {
+        return queue.size();
+    }
+
+    /**
+     * Deletes closed segments whose records all have a sequence of at most {@code sequence}.
+     */
+    void deleteSegmentsThrough(long sequence) {
+        for (int i = 0; i < segments.size() - 1; i++) {
+            Segment segment = segments.get(i);
+            if (segments.get(i + 1).firstSequence() - 1 > sequence) {
+                break;
+            }
+            try {
+                Files.deleteIfExists(segment.path());
+                segments.remove(segment);
+                i--;
+                log.debug("Deleted flushed posting journal segment {}", segment.path());
+            } catch (IOException e) {
+                log.warn("Could not delete posting journal segment {}: {}", segment.path(), e.getMessage());
+                break;
+            }
+        }
+    }
+
+    /**
+     * Stops accepting records, waits for queued records to be written and closes the segment.
+     */
+    void close() {
+        closed = true;
+        if (writer != null) {
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        Pending pending;
+        while ((pending = queue.poll()) != null) {
+            pending.future.completeExceptionally(new IllegalStateException("Posting journal closed"));
+        }
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            log.warn("Error closing posting journal: {}", e.getMessage());
+        }
+    }
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        CRC32 crc = new CRC32();
+        while (true) {
+            Pending first;
+            try {
+                first = queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (first == null) {
+                if (closed) {
+                    return;
+                }
+                continue;
+            }
+            batch.add(first);
+            queue.drainTo(batch, maxBatch - 1);
+            writeBatch(batch, crc);
+            batch.clear();
+        }
+    }
+
+    private void writeBatch(List<Pending> batch, CRC32 crc) {
+        if (failed) {
+            for (Pending pending : batch) {
+                pending.future.completeExceptionally(new IllegalStateException("Posting journal has failed"));
+            }
+            return;
+        }
+        try {
+            if (channelSize >= segmentBytes) {
+                rollSegment();
+            }
+            int size = 0;
+            for (Pending pending : batch) {
+                size += HEADER_BYTES + Long.BYTES + pending.payload.length + TRAILER_BYTES;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(size);
+            long sequence = nextSequence;
+            for (Pending pending : batch) {
+                pending.sequence = sequence++;
+                int bodyStart = buffer.position() + HEADER_BYTES;
+                buffer.putInt(Long.BYTES + pending.payload.length);
+                buffer.putLong(pending.sequence);
+                buffer.put(pending.payload);
+                crc.reset();
+                crc.update(buffer.array(), bodyStart, Long.BYTES + pending.payload.length);
+                buffer.putInt((int) crc.getValue());
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+            channelSize += size;
+            nextSequence = sequence;
+            lastSequence = sequence - 1;
+            for (Pending pending : batch) {
+                pending.future.complete(pending.sequence);
+            }
+        } catch (IOException e) {
+            failed = true;
+            log.error("Posting journal write failed, rejecting further postings: {}", e.getMessage(), e);
+            for (Pending pending : batch) {
+                pending.future.completeExceptionally(new IllegalStateException("Posting journal write failed", e));
+            }
+        }
+    }
+
+    private void rollSegment() throws IOException {
+        channel.force(true);
+        channel.close();
+        openSegment(nextSequence);
+    }
+
+    private void openSegment(long firstSequence) throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        channelSize = channel.size();
+        segments.add(new Segment(firstSequence, path));
+        syncDirectory();
+    }
+
+    private void syncDirectory() {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            log.debug("Directory sync not supported for {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private static Recovered readRecord(DataInputStream in) throws IOException {
+        int length;
+        try {
+            length = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        if (length < Long.BYTES || length > MAX_BODY_BYTES) {
+            throw new CorruptRecordException("invalid record length " + length);
+        }
+        byte[] body = new byte[length];
+        int storedCrc;
+        try {
+            in.readFully(body);
+            storedCrc = in.readInt();
+        } catch (EOFException e) {
+            throw new CorruptRecordException("incomplete record");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        if ((int) crc.getValue() != storedCrc) {
+            throw new CorruptRecordException("checksum mismatch");
+        }
+        long sequence = ByteBuffer.wrap(body, 0, Long.BYTES).getLong();
+        try (InputStream payload = new ByteArrayInputStream(body, Long.BYTES, length - Long.BYTES)) {
+            return new Recovered(sequence, JournaledPosting.decode(new DataInputStream(payload)), HEADER_BYTES + length + TRAILER_BYTES);
+        }
+    }
+
+    private static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static long parseFirstSequence(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    record Recovered(long sequence, JournaledPosting posting, int recordBytes) {
+    }
+
+    private record Segment(long firstSequence, Path path) {
+    }
+
+    private static final class Pending {
+
+        private final byte[] payload;
+        private final CompletableFuture<Long> future = new CompletableFuture<>();
+        private long sequence;
+
+        Pending(byte[] payload) {
+            this.payload = payload;
+        }
+    }
+
+    private static final class CorruptRecordException extends IOException {
+
+        CorruptRecordException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.PostingRequestDto;
+import com.example.demo.dto.PostingResponseDto;
+import com.example.demo.entity.Card;
+import com.example.demo.entity.PostingJournalCheckpoint;
+import com.example.demo.entity.Transaction;
+import com.example.demo.enums.VelocityFlag;
+import com.example.demo.money.Money;
+import com.example.demo.repository.AccountBalanceDelta;
+import com.example.demo.repository.AccountGroupKey;
+import com.example.demo.repository.AccountRepository;
+import com.example.demo.repository.CardRepository;
+import com.example.demo.repository.PostingJournalCheckpointRepository;
+import com.example.demo.repository.TransactionCategoryBalanceRepository;
+import com.example.demo.repository.TransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Journaled posting mode for accounts that receive many concurrent transactions.
+ * <p>
+ * A posting is acknowledged once its record is durable in the local {@link PostingJournal}. The
+ * balance effect is added to a {@link PostingAccumulator} instead of the database rows, and every
+ * {@code posting.flush-interval-ms} the accumulated deltas are written in one transaction: the
+ * transaction rows with a batched INSERT, one UPDATE per touched category balance and account, the
+ * group summary deltas, and the journal checkpoint. Because the checkpoint commits with the data,
+ * replaying the journal after a crash applies exactly the postings that were not flushed.
+ * <p>
+ * Balances read through the regular APIs lag journaled postings by up to one flush interval.
+ */
+@Service
+@Slf4j
+public class PostingService {
+
+    private static final String CARD_ACTIVE = "A";
+
+    private final CardRepository cardRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionCategoryBalanceRepository categoryBalanceRepository;
+    private final PostingJournalCheckpointRepository checkpointRepository;
+    private final AccountGroupSummaryService accountGroupSummaryService;
+    private final VelocityCheckService velocityCheckService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final String journalId;
+    private final int insertBatchSize;
+    private final PostingJournal journal;
+    private final PostingAccumulator accumulator = new PostingAccumulator();
+    private final ReentrantReadWriteLock flushLock = new ReentrantReadWriteLock();
+    private final Counter postings;
+    private final Counter flushFailures;
+    private final Timer flushTimer;
+
+    private volatile boolean started;
+    private volatile int journalNumber;
+    private long flushedSequence;
+
+    public PostingService(CardRepository cardRepository,
+                          AccountRepository accountRepository,
+                          TransactionRepository transactionRepository,
+                          TransactionCategoryBalanceRepository categoryBalanceRepository,
+                          PostingJournalCheckpointRepository checkpointRepository,
+                          AccountGroupSummaryService accountGroupSummaryService,
+                          VelocityCheckService velocityCheckService,
+                          ApplicationEventPublisher eventPublisher,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          @Value("${posting.journal.enabled:false}") boolean enabled,
+                          @Value("${posting.journal.id:node-1}") String journalId,
+                          @Value("${posting.journal.directory:data/posting-journal}") String directory,
+                          @Value("${posting.journal.segment-bytes:67108864}") long segmentBytes,
+                          @Value("${posting.journal.max-batch:256}") int maxBatch,
+                          @Value("${posting.journal.queue-capacity:10000}") int queueCapacity,
+                          @Value("${posting.journal.fsync:true}") boolean fsync,
+                          @Value("${posting.flush.insert-batch-size:500}") int insertBatchSize) {
+        this.cardRepository = cardRepository;
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.categoryBalanceRepository = categoryBalanceRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.accountGroupSummaryService = accountGroupSummaryService;
+        this.velocityCheckService = velocityCheckService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.journalId = journalId;
+        this.insertBatchSize = Math.max(1, insertBatchSize);
+        this.journal = new PostingJournal(Path.of(directory), segmentBytes, maxBatch, queueCapacity, fsync);
+        this.postings = Counter.builder("posting.journaled")
+                .description("Postings acknowledged after being synced to the local journal")
+                .register(meterRegistry);
+        this.flushFailures = Counter.builder("posting.flush.failures")
+                .description("Flushes of accumulated postings that rolled back and will be retried")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("posting.flush")
+                .description("Time to write accumulated postings to the database")
+                .register(meterRegistry);
+        Gauge.builder("posting.pending", accumulator, PostingAccumulator::getPendingPostings)
+                .description("Journaled postings not yet written to the database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens the journal and applies every record after the stored checkpoint before postings
+     * are accepted.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        PostingJournalCheckpoint checkpoint = transactionTemplate.execute(status ->
+                checkpointRepository.findById(journalId)
+                        .orElseGet(() -> checkpointRepository.save(new PostingJournalCheckpoint(journalId))));
+        flushedSequence = checkpoint.getFlushedSequence();
+        journalNumber = checkpoint.getJournalNumber() != null ? checkpoint.getJournalNumber() : assignJournalNumber();
+        try {
+            List<PostingJournal.Recovered> unflushed = journal.open(flushedSequence);
+            for (PostingJournal.Recovered record : unflushed) {
+                accumulator.add(record.sequence(), record.posting());
+            }
+            if (!unflushed.isEmpty()) {
+                log.info("Replaying {} journaled postings after checkpoint {}", unflushed.size(), flushedSequence);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open posting journal", e);
+        }
+        started = true;
+        flush();
+    }
+
+    private int assignJournalNumber() {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> checkpointRepository.assignJournalNumber(journalId));
+                break;
+            } catch (DataIntegrityViolationException e) {
+                // Another journal took the same number first
+                if (attempt == 5) {
+                    throw new IllegalStateException("Could not assign a number to posting journal " + journalId, e);
+                }
+            }
+        }
+        Integer number = checkpointRepository.findById(journalId)
+                .map(PostingJournalCheckpoint::getJournalNumber)
+                .orElseThrow(() -> new IllegalStateException("Posting journal checkpoint row is missing for journal: " + journalId));
+        if (number > JournaledPosting.MAX_JOURNAL_NUMBER) {
+            throw new IllegalStateException("Posting journal numbers are exhausted: " + number);
+        }
+        log.info("Posting journal {} is number {}", journalId, number);
+        return number;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (!started) {
+            return;
+        }
+        flushLock.writeLock().lock();
+        try {
+            started = false;
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+        journal.close();
+        flushPending();
+    }
+
+    /**
+     * Journals one posting and returns once it is durable. The balances are updated by the next flush.
+     */
+    public PostingResponseDto post(PostingRequestDto request) {
+        if (!enabled) {
+            throw new IllegalStateException("Journaled posting is disabled");
+        }
+        validateRequest(request);
+        Card card = cardRepository.findById(request.getCardNumber())
+                .orElseThrow(() -> new IllegalArgumentException("Card not found: " + request.getCardNumber()));
+        if (!CARD_ACTIVE.equals(card.getCardStatus())) {
+            throw new IllegalArgumentException("Card is not active: " + request.getCardNumber());
+        }
+        long amountCents = Money.toCents(request.getAmount());
+        LocalDateTime now = LocalDateTime.now();
+        JournaledPosting posting = new JournaledPosting(card.getCardNumber(), card.getAccountId(),
+                request.getTypeCode(), request.getCategoryCode(), request.getSource(), request.getDescription(),
+                amountCents, request.getMerchantId(), request.getMerchantName(), request.getMerchantCity(),
+                request.getMerchantZip(),
+                request.getOriginalTimestamp() == null ? now : request.getOriginalTimestamp(), now);
+
+        long sequence;
+        flushLock.readLock().lock();
+        try {
+            if (!started) {
+                throw new IllegalStateException("Posting journal is not ready");
+            }
+            sequence = journal.append(posting).join();
+            accumulator.add(sequence, posting);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        } finally {
+            flushLock.readLock().unlock();
+        }
+        postings.increment();
+        Set<VelocityFlag> velocityFlags = velocityCheckService.check(card.getCardNumber(), amountCents,
+                request.getMerchantCity());
+        return new PostingResponseDto(JournaledPosting.transactionIdFor(journalNumber, sequence), card.getAccountId(), sequence,
+                Money.toBigDecimal(amountCents), velocityFlags);
+    }
+
+    @Scheduled(fixedDelayString = "${posting.flush-interval-ms:200}")
+    public void scheduledFlush() {
+        if (started) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes everything accumulated so far. Postings are briefly blocked while the accumulator is
+     * drained, so every sequence up to the captured one is guaranteed to be in the snapshot.
+     */
+    public void flush() {
+        if (!started) {
+            return;
+        }
+        flushPending();
+    }
+
+    private synchronized void flushPending() {
+        PostingAccumulator.Snapshot snapshot;
+        long throughSequence;
+        flushLock.writeLock().lock();
+        try {
+            snapshot = accumulator.drain();
+            throughSequence = journal.getLastSequence();
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+        if (snapshot.isEmpty() && throughSequence <= flushedSequence) {
+            return;
+        }
+
+        try {
+            flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> write(snapshot, throughSequence)));
+        } catch (RuntimeException e) {
+            flushFailures.increment();
+            flushLock.writeLock().lock();
+            try {
+                accumulator.restore(snapshot);
+            } finally {
+                flushLock.writeLock().unlock();
+            }
+            log.error("Flushing {} journaled postings failed, will retry: {}", snapshot.postings().size(), e.getMessage(), e);
+            return;
+        }
+        flushedSequence = throughSequence;
+        journal.deleteSegmentsThrough(throughSequence);
+        log.debug("Flushed {} journaled postings through sequence {}", snapshot.postings().size(), throughSequence);
+    }
+
+    private void write(PostingAccumulator.Snapshot snapshot, long throughSequence) {
+        List<Transaction> transactions = new ArrayList<>(snapshot.postings().size());
+        for (PostingAccumulator.Entry entry : snapshot.postings()) {
+            transactions.add(toTransaction(entry.sequence(), entry.posting()));
+        }
+        transactionRepository.insertBatch(transactions, insertBatchSize);
+        if (!transactions.isEmpty()) {
+            eventPublisher.publishEvent(new TransactionsPostedEvent(transactions));
+        }
+        categoryBalanceRepository.applyDeltas(snapshot.categoryDeltas());
+
+        List<AccountBalanceDelta> accountDeltas = snapshot.accountDeltas();
+        int updated = accountRepository.applyBalanceDeltas(accountDeltas);
+        if (updated != accountDeltas.size()) {
+            throw new IllegalStateException("Expected to update " + accountDeltas.size() + " accounts but updated " + updated);
+        }
+        applySummaryDeltas(accountDeltas);
+        if (!accountDeltas.isEmpty()) {
+            eventPublisher.publishEvent(new AccountBalancesPostedEvent(accountDeltas));
+        }
+
+        if (checkpointRepository.updateFlushedSequence(journalId, throughSequence, LocalDateTime.now()) != 1) {
+            throw new IllegalStateException("Posting journal checkpoint row is missing for journal: " + journalId);
+        }
+    }
+
+    private void applySummaryDeltas(List<AccountBalanceDelta> accountDeltas) {
+        if (accountDeltas.isEmpty()) {
+            return;
+        }
+        Map<Long, AccountBalanceDelta> byAccount = new HashMap<>();
+        for (AccountBalanceDelta delta : accountDeltas) {
+            byAccount.put(delta.getAccountId(), delta);
+        }
+        Map<GroupKey, long[]> byGroup = new HashMap<>();
+        for (AccountGroupKey key : accountRepository.findGroupKeysByAccountIdIn(byAccount.keySet())) {
+            AccountBalanceDelta delta = byAccount.get(key.getAccountId());
+            long[] sums = byGroup.computeIfAbsent(new GroupKey(key.getGroupId(), key.getActiveStatus()), k -> new long[3]);
+            sums[0] = Money.addCents(sums[0], delta.getBalanceCents());
+            sums[1] = Money.addCents(sums[1], delta.getCycleCreditCents());
+            sums[2] = Money.addCents(sums[2], delta.getCycleDebitCents());
+        }
+        for (Map.Entry<GroupKey, long[]> entry : byGroup.entrySet()) {
+            long[] sums = entry.getValue();
+            accountGroupSummaryService.applyDelta(entry.getKey().groupId(), entry.getKey().activeStatus(), 0,
+                    Money.toBigDecimal(sums[0]), BigDecimal.ZERO, Money.toBigDecimal(sums[1]), Money.toBigDecimal(sums[2]));
+        }
+    }
+
+    private Transaction toTransaction(long sequence, JournaledPosting posting) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(JournaledPosting.transactionIdFor(journalNumber, sequence));
+        transaction.setCardNumber(posting.getCardNumber());
+        transaction.setTypeCode(posting.getTypeCode());
+        transaction.setCategoryCode(posting.getCategoryCode());
+        transaction.setSource(posting.getSource());
+        transaction.setDescription(posting.getDescription());
+        transaction.setAmount(Money.ofCents(posting.getAmountCents()));
+        transaction.setMerchantId(posting.getMerchantId());
+        transaction.setMerchantName(posting.getMerchantName());
+        transaction.setMerchantCity(posting.getMerchantCity());
+        transaction.setMerchantZip(posting.getMerchantZip());
+        transaction.setOriginalTimestamp(posting.getOriginalTimestamp());
+        transaction.setProcessedTimestamp(posting.getProcessedTimestamp());
+        return transaction;
+    }
+
+    private void validateRequest(PostingRequestDto request) {
+        if (request.getAmount() == null || request.getAmount().signum() == 0) {
+            throw new IllegalArgumentException("Amount must be non-zero");
+        }
+    }
+
+    private record GroupKey(String groupId, String activeStatus) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.demo.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Set;
+
+/**
+ * Published by {@link CacheInvalidationBus} when another node reports committed changes. Listeners
+ * that cache accounts, customers or cards should drop or reload the given entries; with
+ * {@code flushAll} set, changes were missed and every cached entry must be treated as stale.
+ */
+@Data
+@AllArgsConstructor
+public class RemoteChangesEvent {
+
+    private final boolean flushAll;
+
+    private final Set<Long> accountIds;
+
+    private final Set<Long> customerIds;
+
+    private final Set<String> cardNumbers;
+}
@@ -0,0 +1,262 @@
+package com.example.demo.service;
+
+import com.example.demo.archive.TransactionArchiveStats;
+import com.example.demo.archive.TransactionArchiveStore;
+import com.example.demo.archive.TransactionArchiveWriter;
+import com.example.demo.dto.TransactionArchiveResponseDto;
+import com.example.demo.entity.TransactionArchiveFile;
+import com.example.demo.repository.TransactionArchiveFileRepository;
+import com.example.demo.repository.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Moves months of transactions older than {@code transactions.archive.retain-months} out of the
+ * {@code transactions} table into compressed columnar files, and keeps month partitions created
+ * ahead of time on PostgreSQL.
+ * <p>
+ * Each month is archived in one database transaction: its rows are streamed in card order into a
+ * file, the file is moved into place and cataloged, and the rows are removed. A month with its own
+ * partition is locked against writes for the duration and then dropped, so no vacuum work is left
+ * behind. Otherwise (H2, the legacy partition, the default partition) the month is read under
+ * REPEATABLE READ and deleted by range, and the run fails unless exactly the rows written were
+ * deleted. A failure rolls back and removes the file; the next run retries the month.
+ * <p>
+ * On PostgreSQL every month from before the partitioning migration lives in the one legacy
+ * partition, so those months still take the range delete and leave dead rows for vacuum. That cost
+ * ends with the backlog: the legacy partition is dropped once it is empty, which releases its
+ * space in one step, and every later month is archived by dropping its own partition.
+ */
+@Service
+@Slf4j
+public class TransactionArchiveService {
+
+    private static final DateTimeFormatter FILE_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchiveFileRepository fileRepository;
+    private final TransactionArchiveStore archiveStore;
+    private final TransactionTemplate partitionTemplate;
+    private final TransactionTemplate rangeTemplate;
+    private final int retainMonths;
+    private final int rowGroupSize;
+    private final int fetchSize;
+    private final int monthsAhead;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public TransactionArchiveService(TransactionRepository transactionRepository,
+                                     TransactionArchiveFileRepository fileRepository,
+                                     TransactionArchiveStore archiveStore,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${transactions.archive.retain-months:24}") int retainMonths,
+                                     @Value("${transactions.archive.row-group-size:8192}") int rowGroupSize,
+                                     @Value("${transactions.archive.fetch-size:1000}") int fetchSize,
+                                     @Value("${transactions.partition.months-ahead:2}") int monthsAhead) {
+        this.transactionRepository = transactionRepository;
+        this.fileRepository = fileRepository;
+        this.archiveStore = archiveStore;
+        this.partitionTemplate = new TransactionTemplate(transactionManager);
+        this.rangeTemplate = new TransactionTemplate(transactionManager);
+        this.rangeTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.retainMonths = retainMonths;
+        this.rowGroupSize = Math.max(1, rowGroupSize);
+        this.fetchSize = Math.max(1, fetchSize);
+        this.monthsAhead = Math.max(0, monthsAhead);
+    }
+
+    /**
+     * Creates partitions for the current month and {@code transactions.partition.months-ahead}
+     * months after it; does nothing unless the table is partitioned.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${transactions.partition.maintenance-cron:0 0 1 * * *}")
+    public void createUpcomingPartitions() {
+        if (!transactionRepository.isPartitioned()) {
+            return;
+        }
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            try {
+                if (Boolean.TRUE.equals(partitionTemplate.execute(status -> transactionRepository.createMonthPartition(month)))) {
+                    log.info("Created transactions partition for {}", month);
+                }
+            } catch (DataAccessException e) {
+                // Typically rows for the month already sit in the default partition
+                log.error("Could not create transactions partition for {}", month, e);
+            }
+        }
+    }
+
+    @Scheduled(cron = "${transactions.archive.cron:-}")
+    public void scheduledArchive() {
+        archive(null);
+    }
+
+    /**
+     * Archives every month that ended more than {@code retainMonths} months before the current one.
+     *
+     * @param retainMonths months to keep in the table, or null for {@code transactions.archive.retain-months}
+     */
+    public TransactionArchiveResponseDto archive(Integer retainMonths) {
+        int retain = retainMonths == null ? this.retainMonths : retainMonths;
+        if (retain < 1) {
+            throw new IllegalArgumentException("At least one month must be retained");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A transaction archive run is already in progress");
+        }
+        try {
+            return run(YearMonth.now().minusMonths(retain));
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private TransactionArchiveResponseDto run(YearMonth firstRetained) {
+        long started = System.currentTimeMillis();
+        List<String> files = new ArrayList<>();
+        long rows = 0;
+        long bytes = 0;
+        try {
+            Files.createDirectories(archiveStore.getDirectory());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create archive directory " + archiveStore.getDirectory(), e);
+        }
+
+        LocalDateTime oldest = transactionRepository.findMinOriginalTimestamp();
+        if (oldest != null) {
+            for (YearMonth month = YearMonth.from(oldest); month.isBefore(firstRetained); month = month.plusMonths(1)) {
+                TransactionArchiveFile file = archiveMonth(month);
+                if (file != null) {
+                    files.add(file.getFileName());
+                    rows += file.getRowCount();
+                    bytes += file.getFileBytes();
+                }
+            }
+        }
+        if (transactionRepository.isPartitioned()
+                && Boolean.TRUE.equals(partitionTemplate.execute(status -> transactionRepository.dropLegacyPartitionIfEmpty()))) {
+            log.info("Dropped the emptied legacy transactions partition");
+        }
+
+        long duration = System.currentTimeMillis() - started;
+        log.info("Archived {} transactions into {} files ({} bytes) in {} ms", rows, files.size(), bytes, duration);
+        return new TransactionArchiveResponseDto(firstRetained.atDay(1), files.size(), rows, bytes, files, duration);
+    }
+
+    private TransactionArchiveFile archiveMonth(YearMonth month) {
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+        String fileName = "transactions-" + month.format(FILE_MONTH) + "-"
+                + String.format("%03d", fileRepository.countByArchiveMonth(month.atDay(1)) + 1) + ".txa";
+        Path target = archiveStore.resolve(fileName);
+        Path temp = archiveStore.resolve(fileName + ".tmp");
+
+        boolean ownPartition = transactionRepository.hasMonthPartition(month);
+        TransactionTemplate template = ownPartition ? partitionTemplate : rangeTemplate;
+        try {
+            return template.execute(status -> {
+                if (ownPartition) {
+                    transactionRepository.lockMonthPartition(month);
+                }
+                TransactionArchiveStats stats = writeMonth(temp, from, to);
+                if (stats == null) {
+                    if (ownPartition) {
+                        transactionRepository.dropMonthPartition(month);
+                    }
+                    return null;
+                }
+                if (ownPartition) {
+                    transactionRepository.dropMonthPartition(month);
+                } else {
+                    int deleted = transactionRepository.deleteOriginalTimestampRange(from, to);
+                    if (deleted != stats.rows()) {
+                        throw new IllegalStateException("Archived " + stats.rows() + " transactions for " + month
+                                + " but deleted " + deleted);
+                    }
+                }
+                moveIntoPlace(temp, target);
+                TransactionArchiveFile file = new TransactionArchiveFile(fileName, month.atDay(1), stats.rows(),
+                        stats.minOriginalTimestamp(), stats.maxOriginalTimestamp(), stats.minCardNumber(),
+                        stats.maxCardNumber(), size(target), null);
+                fileRepository.save(file);
+                log.info("Archived {} transactions for {} into {}", stats.rows(), month, fileName);
+                return file;
+            });
+        } catch (RuntimeException e) {
+            deleteQuietly(temp);
+            deleteQuietly(target);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns null when the month has no rows, leaving no file behind.
+     */
+    private TransactionArchiveStats writeMonth(Path temp, LocalDateTime from, LocalDateTime to) {
+        TransactionArchiveStats stats = null;
+        try (TransactionArchiveWriter writer = TransactionArchiveWriter.create(temp, rowGroupSize)) {
+            long rows = transactionRepository.streamOriginalTimestampRange(from, to, fetchSize, transaction -> {
+                try {
+                    writer.write(transaction);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (rows > 0) {
+                stats = writer.finish();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write archive file " + temp, e);
+        }
+        if (stats == null) {
+            deleteQuietly(temp);
+        }
+        return stats;
+    }
+
+    private static void moveIntoPlace(Path temp, Path target) {
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to move archive file into place: " + target, e);
+        }
+    }
+
+    private static long size(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete {}", path, e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Published by {@link PostingService} inside the flush transaction that inserted these transactions.
+ */
+@Data
+@AllArgsConstructor
+public class TransactionsPostedEvent {
+
+    private final List<Transaction> transactions;
+}
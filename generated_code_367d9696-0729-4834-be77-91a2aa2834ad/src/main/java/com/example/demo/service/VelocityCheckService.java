@@ -0,0 +1,164 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.VelocityStatsDto;
+import com.example.demo.enums.VelocityFlag;
+import com.example.demo.money.Money;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Rolling 1 minute / 1 hour / 24 hour transaction velocity per card.
+ * <p>
+ * Each card keeps a {@link CardVelocityWindow} sized to the largest count threshold, so a card that
+ * exceeds a count limit is always detected; amount sums only see the most recent {@code capacity}
+ * events. Only positive amounts are recorded. Cards with no activity for a full day are evicted
+ * by a background sweep. Checks flag, they never decline.
+ */
+@Service
+@Slf4j
+public class VelocityCheckService {
+
+    private static final int[] WINDOW_SECONDS = {60, 3_600, 86_400};
+    private static final VelocityFlag[] COUNT_FLAGS =
+            {VelocityFlag.MINUTE_COUNT, VelocityFlag.HOUR_COUNT, VelocityFlag.DAY_COUNT};
+    private static final VelocityFlag[] AMOUNT_FLAGS =
+            {VelocityFlag.MINUTE_AMOUNT, VelocityFlag.HOUR_AMOUNT, VelocityFlag.DAY_AMOUNT};
+
+    private final boolean enabled;
+    private final long[] maxCounts;
+    private final long[] maxAmountCents;
+    private final Set<String> highRiskCities;
+    private final int capacity;
+    private final ConcurrentHashMap<String, CardVelocityWindow> windows = new ConcurrentHashMap<>();
+    private final Map<VelocityFlag, Counter> flagCounters = new EnumMap<>(VelocityFlag.class);
+
+    public VelocityCheckService(MeterRegistry meterRegistry,
+                                @Value("${velocity.enabled:true}") boolean enabled,
+                                @Value("${velocity.minute.max-count:5}") long minuteMaxCount,
+                                @Value("${velocity.minute.max-amount:2000.00}") BigDecimal minuteMaxAmount,
+                                @Value("${velocity.hour.max-count:20}") long hourMaxCount,
+                                @Value("${velocity.hour.max-amount:5000.00}") BigDecimal hourMaxAmount,
+                                @Value("${velocity.day.max-count:50}") long dayMaxCount,
+                                @Value("${velocity.day.max-amount:10000.00}") BigDecimal dayMaxAmount,
+                                @Value("${velocity.high-risk-cities:}") List<String> highRiskCities) {
+        this.enabled = enabled;
+        this.maxCounts = new long[]{minuteMaxCount, hourMaxCount, dayMaxCount};
+        this.maxAmountCents = new long[]{
+                Money.toCents(minuteMaxAmount), Money.toCents(hourMaxAmount), Money.toCents(dayMaxAmount)};
+        for (long maxCount : maxCounts) {
+            if (maxCount < 1) {
+                throw new IllegalArgumentException("Velocity count thresholds must be positive");
+            }
+        }
+        this.highRiskCities = highRiskCities.stream()
+                .map(city -> city.trim().toUpperCase(Locale.ROOT))
+                .filter(city -> !city.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        long largestCount = Arrays.stream(maxCounts).max().orElse(1);
+        this.capacity = Integer.highestOneBit((int) Math.min(largestCount, 1 << 20)) << 1;
+
+        for (VelocityFlag flag : VelocityFlag.values()) {
+            flagCounters.put(flag, Counter.builder("velocity.flags")
+                    .description("Card transactions flagged by a velocity rule")
+                    .tag("rule", flag.name())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("velocity.cards.tracked", windows, Map::size)
+                .description("Cards with velocity history in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records a transaction for the card and returns the rules it trips, counting the transaction
+     * itself. Safe to call from request threads; never blocks on other cards.
+     */
+    public Set<VelocityFlag> check(String cardNumber, long amountCents, String merchantCity) {
+        if (!enabled || cardNumber == null) {
+            return EnumSet.noneOf(VelocityFlag.class);
+        }
+        long now = System.currentTimeMillis() / 1000;
+        CardVelocityWindow window;
+        if (amountCents > 0) {
+            window = windows.computeIfAbsent(cardNumber, key -> new CardVelocityWindow(capacity));
+            window.record(now, amountCents);
+        } else {
+            window = windows.get(cardNumber);
+        }
+
+        long[] counts = new long[WINDOW_SECONDS.length];
+        long[] amounts = new long[WINDOW_SECONDS.length];
+        if (window != null) {
+            window.sum(now, WINDOW_SECONDS, counts, amounts);
+        }
+
+        Set<VelocityFlag> flags = EnumSet.noneOf(VelocityFlag.class);
+        for (int w = 0; w < WINDOW_SECONDS.length; w++) {
+            if (counts[w] > maxCounts[w]) {
+                flags.add(COUNT_FLAGS[w]);
+            }
+            if (amounts[w] > maxAmountCents[w]) {
+                flags.add(AMOUNT_FLAGS[w]);
+            }
+        }
+        if (merchantCity != null && highRiskCities.contains(merchantCity.trim().toUpperCase(Locale.ROOT))) {
+            flags.add(VelocityFlag.HIGH_RISK_CITY);
+        }
+        if (!flags.isEmpty()) {
+            flags.forEach(flag -> flagCounters.get(flag).increment());
+            log.info("Velocity flags {} for card ending {}", flags,
+                    cardNumber.length() > 4 ? cardNumber.substring(cardNumber.length() - 4) : cardNumber);
+        }
+        return flags;
+    }
+
+    /**
+     * Current window totals for the card without recording anything.
+     */
+    public VelocityStatsDto getStats(String cardNumber) {
+        long[] counts = new long[WINDOW_SECONDS.length];
+        long[] amounts = new long[WINDOW_SECONDS.length];
+        CardVelocityWindow window = windows.get(cardNumber);
+        if (window != null) {
+            window.sum(System.currentTimeMillis() / 1000, WINDOW_SECONDS, counts, amounts);
+        }
+        return new VelocityStatsDto(cardNumber,
+                counts[0], Money.toBigDecimal(amounts[0]),
+                counts[1], Money.toBigDecimal(amounts[1]),
+                counts[2], Money.toBigDecimal(amounts[2]));
+    }
+
+    /**
+     * Drops cards with nothing inside the longest window. A transaction racing the removal may be
+     * recorded into the dropped window and lost, which only happens to a card idle for a full day.
+     */
+    @Scheduled(fixedDelayString = "${velocity.eviction-interval-ms:60000}")
+    public void evictIdleCards() {
+        long cutoff = System.currentTimeMillis() / 1000 - WINDOW_SECONDS[WINDOW_SECONDS.length - 1];
+        int before = windows.size();
+        windows.forEach((cardNumber, window) -> {
+            if (window.getLastSeenSecond() < cutoff) {
+                windows.remove(cardNumber, window);
+            }
+        });
+        int evicted = before - windows.size();
+        if (evicted > 0) {
+            log.debug("Evicted velocity history for {} idle cards", evicted);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.demo.snapshot;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads a chunk written by {@link SnapshotChunkWriter}, verifying the header and every block
+ * checksum as it goes. {@link #next} fails on a damaged or truncated file rather than returning
+ * fewer rows.
+ */
+public final class SnapshotChunkReader implements Closeable {
+
+    private static final int MAX_BLOCK_BYTES = 256 * 1024 * 1024;
+
+    private final Path path;
+    private final DataInputStream in;
+    private final String table;
+    private final List<String> columns;
+    private final List<SnapshotColumnType> types;
+    private final Inflater inflater = new Inflater();
+    private final CRC32 crc = new CRC32();
+    private DataInputStream block;
+    private int rowsLeftInBlock;
+    private long rows;
+    private boolean ended;
+
+    private SnapshotChunkReader(Path path, DataInputStream in, String table, List<String> columns,
+                                List<SnapshotColumnType> types) {
+        this.path = path;
+        this.in = in;
+        this.table = table;
+        this.columns = columns;
+        this.types = types;
+    }
+
+    public static SnapshotChunkReader open(Path path) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 256 * 1024));
+        try {
+            ByteArrayOutputStream header = new ByteArrayOutputStream();
+            DataOutputStream copy = new DataOutputStream(header);
+            int magic = in.readInt();
+            int version = in.readInt();
+            if (magic != SnapshotChunkWriter.MAGIC || version != SnapshotChunkWriter.VERSION) {
+                throw new IOException("Not a snapshot chunk: " + path);
+            }
+            String table = in.readUTF();
+            int count = in.readInt();
+            if (count < 1 || count > 1024) {
+                throw new IOException("Invalid column count " + count + " in " + path);
+            }
+            copy.writeInt(magic);
+            copy.writeInt(version);
+            copy.writeUTF(table);
+            copy.writeInt(count);
+            List<String> columns = new ArrayList<>(count);
+            List<SnapshotColumnType> types = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String column = in.readUTF();
+                int code = in.readUnsignedByte();
+                copy.writeUTF(column);
+                copy.writeByte(code);
+                columns.add(column);
+                types.add(SnapshotColumnType.fromCode(code));
+            }
+            CRC32 crc = new CRC32();
+            crc.update(header.toByteArray());
+            if ((int) crc.getValue() != in.readInt()) {
+                throw new IOException("Header checksum mismatch in " + path);
+            }
+            return new SnapshotChunkReader(path, in, table, Collections.unmodifiableList(columns),
+                    Collections.unmodifiableList(types));
+        } catch (EOFException e) {
+            in.close();
+            throw new IOException("Truncated snapshot chunk header: " + path, e);
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    public List<SnapshotColumnType> getTypes() {
+        return types;
+    }
+
+    /**
+     * Next row, or null after the last one once the end marker has been verified.
+     */
+    public Object[] next() throws IOException {
+        try {
+            while (rowsLeftInBlock == 0) {
+                if (ended || !readBlock()) {
+                    return null;
+                }
+            }
+            Object[] row = new Object[types.size()];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = block.readUnsignedByte() == 0 ? null : types.get(i).decode(block);
+            }
+            rowsLeftInBlock--;
+            rows++;
+            return row;
+        } catch (EOFException e) {
+            throw new IOException("Truncated snapshot chunk: " + path, e);
+        }
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        in.close();
+    }
+
+    private boolean readBlock() throws IOException {
+        int blockRows = in.readInt();
+        if (blockRows == 0) {
+            long total = in.readLong();
+            if (total != rows) {
+                throw new IOException("Snapshot chunk " + path + " declares " + total + " rows but holds " + rows);
+            }
+            ended = true;
+            return false;
+        }
+        int rawLength = in.readInt();
+        int compressedLength = in.readInt();
+        int expectedCrc = in.readInt();
+        if (blockRows < 0 || rawLength < 0 || rawLength > MAX_BLOCK_BYTES
+                || compressedLength < 0 || compressedLength > MAX_BLOCK_BYTES) {
+            throw new IOException("Corrupt block header in " + path);
+        }
+        byte[] compressed = new byte[compressedLength];
+        in.readFully(compressed);
+        byte[] raw = new byte[rawLength];
+        inflater.reset();
+        inflater.setInput(compressed);
+        try {
+            int length = 0;
+            while (length < rawLength && !inflater.finished()) {
+                int n = inflater.inflate(raw, length, rawLength - length);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += n;
+            }
+            if (length != rawLength) {
+                throw new IOException("Block of " + path + " inflated to " + length + " bytes instead of " + rawLength);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt block in " + path, e);
+        }
+        crc.reset();
+        crc.update(raw);
+        if ((int) crc.getValue() != expectedCrc) {
+            throw new IOException("Block checksum mismatch in " + path);
+        }
+        block = new DataInputStream(new ByteArrayInputStream(raw));
+        rowsLeftInBlock = blockRows;
+        return true;
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.demo.snapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes the rows of one key range of a table to a chunk file.
+ * <p>
+ * Rows are buffered into blocks of {@code blockRows}; each block is deflated and stored with the
+ * CRC32 of its uncompressed bytes. A row is a presence byte per column followed by the encoded value.
+ * A block header with zero rows and the total row count end the file, so a truncated chunk is
+ * detected. Layout:
+ * <pre>
+ * [int magic][int version][table][int columns]([name][byte type])...[int header crc32]
+ * ([int rows][int raw length][int compressed length][int crc32][deflated rows])...
+ * [int 0][long total rows]
+ * </pre>
+ */
+public final class SnapshotChunkWriter implements Closeable {
+
+    static final int MAGIC = 0x534E5031;
+    static final int VERSION = 1;
+
+    private final FileChannel channel;
+    private final List<SnapshotColumnType> types;
+    private final int blockRows;
+    private final ByteArrayOutputStream block = new ByteArrayOutputStream();
+    private final DataOutputStream blockOut = new DataOutputStream(block);
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final CRC32 crc = new CRC32();
+    private byte[] compressed = new byte[64 * 1024];
+    private int rowsInBlock;
+    private long rows;
+
+    private SnapshotChunkWriter(FileChannel channel, List<SnapshotColumnType> types, int blockRows) {
+        this.channel = channel;
+        this.types = types;
+        this.blockRows = blockRows;
+    }
+
+    public static SnapshotChunkWriter create(Path path, String table, List<String> columns,
+                                             List<SnapshotColumnType> types, int blockRows) throws IOException {
+        if (columns.size() != types.size() || columns.isEmpty()) {
+            throw new IllegalArgumentException("Every column needs exactly one type");
+        }
+        if (blockRows < 1) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(header);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeUTF(table);
+        out.writeInt(columns.size());
+        for (int i = 0; i < columns.size(); i++) {
+            out.writeUTF(columns.get(i));
+            out.writeByte(types.get(i).getCode());
+        }
+        CRC32 headerCrc = new CRC32();
+        headerCrc.update(header.toByteArray());
+        out.writeInt((int) headerCrc.getValue());
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        SnapshotChunkWriter writer = new SnapshotChunkWriter(channel, List.copyOf(types), blockRows);
+        try {
+            writer.writeFully(ByteBuffer.wrap(header.toByteArray()));
+        } catch (IOException e) {
+            writer.close();
+            throw e;
+        }
+        return writer;
+    }
+
+    public void write(Object[] row) throws IOException {
+        if (row.length != types.size()) {
+            throw new IllegalArgumentException("Expected " + types.size() + " values but got " + row.length);
+        }
+        for (int i = 0; i < row.length; i++) {
+            if (row[i] == null) {
+                blockOut.writeByte(0);
+            } else {
+                blockOut.writeByte(1);
+                types.get(i).encode(blockOut, row[i]);
+            }
+        }
+        rows++;
+        if (++rowsInBlock == blockRows) {
+            flushBlock();
+        }
+    }
+
+    /**
+     * Writes the last block and the end marker, syncs and closes the file. Returns the row count.
+     */
+    public long finish() throws IOException {
+        flushBlock();
+        writeFully(ByteBuffer.allocate(Integer.BYTES + Long.BYTES).putInt(0).putLong(rows).flip());
+        channel.force(true);
+        close();
+        return rows;
+    }
+
+    /**
+     * Closes the file; a chunk closed without {@link #finish} is incomplete and will not restore.
+     */
+    @Override
+    public void close() throws IOException {
+        deflater.end();
+        if (channel.isOpen()) {
+            channel.close();
+        }
+    }
+
+    private void flushBlock() throws IOException {
+        if (rowsInBlock == 0) {
+            return;
+        }
+        byte[] raw = block.toByteArray();
+        crc.reset();
+        crc.update(raw);
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == compressed.length) {
+                compressed = Arrays.copyOf(compressed, compressed.length * 2);
+            }
+            length += deflater.deflate(compressed, length, compressed.length - length);
+        }
+        ByteBuffer header = ByteBuffer.allocate(4 * Integer.BYTES)
+                .putInt(rowsInBlock).putInt(raw.length).putInt(length).putInt((int) crc.getValue());
+        writeFully(header.flip());
+        writeFully(ByteBuffer.wrap(compressed, 0, length));
+        block.reset();
+        rowsInBlock = 0;
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
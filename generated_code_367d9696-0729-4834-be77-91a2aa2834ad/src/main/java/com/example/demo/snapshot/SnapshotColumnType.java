@@ -0,0 +1,203 @@
+package com.example.demo.snapshot;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Column types a snapshot can carry, with how each is read over JDBC, bound for insert and encoded
+ * in a chunk. Nulls are marked by the chunk format, so encoded values are never null. The code is
+ * stored in chunk headers and must never change.
+ */
+public enum SnapshotColumnType {
+
+    LONG(1, Types.BIGINT) {
+        @Override
+        public Object readColumn(ResultSet resultSet, int column) throws SQLException {
+            long value = resultSet.getLong(column);
+            return resultSet.wasNull() ? null : value;
+        }
+
+        @Override
+        void encode(DataOutput out, Object value) throws IOException {
+            out.writeLong((Long) value);
+        }
+
+        @Override
+        Object decode(DataInput in) throws IOException {
+            return in.readLong();
+        }
+    },
+    INTEGER(2, Types.INTEGER) {
+        @Override
+        public Object readColumn(ResultSet resultSet, int column) throws SQLException {
+            int value = resultSet.getInt(column);
+            return resultSet.wasNull() ? null : value;
+        }
+
+        @Override
+        void encode(DataOutput out, Object value) throws IOException {
+            out.writeInt((Integer) value);
+        }
+
+        @Override
+        Object decode(DataInput in) throws IOException {
+            return in.readInt();
+        }
+    },
+    STRING(3, Types.VARCHAR) {
+        @Override
+        public Object readColumn(ResultSet resultSet, int column) throws SQLException {
+            return resultSet.getString(column);
+        }
+
+        @Override
+        void encode(DataOutput out, Object value) throws IOException {
+            byte[] utf8 = ((String) value).getBytes(StandardCharsets.UTF_8);
+            out.writeInt(utf8.length);
+            out.write(utf8);
+        }
+
+        @Override
+        Object decode(DataInput in) throws IOException {
+            byte[] utf8 = new byte[in.readInt()];
+            in.readFully(utf8);
+            return new String(utf8, StandardCharsets.UTF_8);
+        }
+    },
+    DECIMAL(4, Types.DECIMAL) {
+        @Override
+        public Object readColumn(ResultSet resultSet, int column) throws SQLException {
+            return resultSet.getBigDecimal(column);
+        }
+
+        @Override
+        void encode(DataOutput out, Object value) throws IOException {
+            BigDecimal decimal = (BigDecimal) value;
+            byte[] unscaled = decimal.unscaledValue().toByteArray();
+            out.writeInt(decimal.scale());
+            out.writeByte(unscaled.length);
+            out.write(unscaled);
+        }
+
+        @Override
+        Object decode(DataInput in) throws IOException {
+            int scale = in.readInt();
+            byte[] unscaled = new byte[in.readUnsignedByte()];
+            in.readFully(unscaled);
+            return new BigDecimal(new BigInteger(unscaled), scale);
+        }
+    },
+    DATE(5, Types.DATE) {
+        @Override
+        public Object readColumn(ResultSet resultSet, int column) throws SQLException {
+            return resultSet.getObject(column, LocalDate.class);
+        }
+
+        @Override
+        void encode(DataOutput out, Object value) throws IOException {
+            out.writeLong(((LocalDate) value).toEpochDay());
+        }
+
+        @Override
+        Object decode(DataInput in) throws IOException {
+            return LocalDate.ofEpochDay(in.readLong());
+        }
+    },
+    TIMESTAMP(6, Types.TIMESTAMP) {
+        @Override
+        public Object readColumn(ResultSet resultSet, int column) throws SQLException {
+            return resultSet.getObject(column, LocalDateTime.class);
+        }
+
+        @Override
+        void encode(DataOutput out, Object value) throws IOException {
+            LocalDateTime timestamp = (LocalDateTime) value;
+            out.writeLong(timestamp.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(timestamp.getNano());
+        }
+
+        @Override
+        Object decode(DataInput in) throws IOException {
+            return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+        }
+    },
+    BOOLEAN(7, Types.BOOLEAN) {
+        @Override
+        public Object readColumn(ResultSet resultSet, int column) throws SQLException {
+            boolean value = resultSet.getBoolean(column);
+            return resultSet.wasNull() ? null : value;
+        }
+
+        @Override
+        void encode(DataOutput out, Object value) throws IOException {
+            out.writeBoolean((Boolean) value);
+        }
+
+        @Override
+        Object decode(DataInput in) throws IOException {
+            return in.readBoolean();
+        }
+    };
+
+    private final int code;
+    private final int sqlType;
+
+    SnapshotColumnType(int code, int sqlType) {
+        this.code = code;
+        this.sqlType = sqlType;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * Reads the column of the current row; null for SQL NULL.
+     */
+    public abstract Object readColumn(ResultSet resultSet, int column) throws SQLException;
+
+    abstract void encode(DataOutput out, Object value) throws IOException;
+
+    abstract Object decode(DataInput in) throws IOException;
+
+    public void bind(PreparedStatement statement, int parameter, Object value) throws SQLException {
+        if (value == null) {
+            statement.setNull(parameter, sqlType);
+        } else {
+            statement.setObject(parameter, value);
+        }
+    }
+
+    public static SnapshotColumnType forSqlType(int sqlType, String column) {
+        return switch (sqlType) {
+            case Types.BIGINT -> LONG;
+            case Types.INTEGER, Types.SMALLINT, Types.TINYINT -> INTEGER;
+            case Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR, Types.NCHAR, Types.NVARCHAR -> STRING;
+            case Types.DECIMAL, Types.NUMERIC -> DECIMAL;
+            case Types.DATE -> DATE;
+            case Types.TIMESTAMP -> TIMESTAMP;
+            case Types.BOOLEAN, Types.BIT -> BOOLEAN;
+            default -> throw new IllegalArgumentException("Unsupported column type " + sqlType + " for column " + column);
+        };
+    }
+
+    static SnapshotColumnType fromCode(int code) {
+        for (SnapshotColumnType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown snapshot column type code: " + code);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.demo.snapshot;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Contents of a snapshot directory, stored next to the chunks as {@code manifest.json}.
+ */
+public record SnapshotManifest(int version,
+                               String name,
+                               LocalDateTime createdAt,
+                               String database,
+                               boolean ssnMasked,
+                               boolean namesMasked,
+                               List<Chunk> chunks) {
+
+    public static final int CURRENT_VERSION = 1;
+
+    /**
+     * One chunk file holding a key range of a table.
+     */
+    public record Chunk(String table, String file, long rows, long bytes) {
+    }
+}
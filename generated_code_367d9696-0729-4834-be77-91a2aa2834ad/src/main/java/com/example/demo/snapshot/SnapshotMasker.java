@@ -0,0 +1,145 @@
+package com.example.demo.snapshot;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Masks SSNs and names while rows are exported.
+ * <p>
+ * Both maps are keyed and deterministic, so the same input always masks to the same output under one
+ * key and cannot be reversed without it. A 9-digit SSN goes through a keyed Feistel permutation of
+ * 0..999,999,999 (cycle-walking over 30 bits), which keeps SSNs unique and 9 digits. A name becomes
+ * letters of the same length derived from an HMAC of the name, keeping the alphabetic-only rule;
+ * spaces are kept in place. Not thread-safe: use one instance per worker.
+ */
+public final class SnapshotMasker {
+
+    private static final long SSN_DOMAIN = 1_000_000_000L;
+    private static final int HALF_BITS = 15;
+    private static final int HALF_MASK = (1 << HALF_BITS) - 1;
+    private static final int ROUNDS = 4;
+
+    private final boolean maskSsn;
+    private final boolean maskNames;
+    private final Mac mac;
+    private final long[] roundKeys = new long[ROUNDS];
+
+    public SnapshotMasker(byte[] key, boolean maskSsn, boolean maskNames) {
+        this.maskSsn = maskSsn;
+        this.maskNames = maskNames;
+        try {
+            this.mac = Mac.getInstance("HmacSHA256");
+            this.mac.init(new SecretKeySpec(key, "HmacSHA256"));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+        for (int i = 0; i < ROUNDS; i++) {
+            roundKeys[i] = ByteBuffer.wrap(hmac("round:" + i)).getLong();
+        }
+    }
+
+    /**
+     * Masking for rows of the table with the given column order, or null when nothing in them is masked.
+     */
+    public RowMask forColumns(SnapshotTable table, List<String> columns) {
+        List<Integer> ssn = new ArrayList<>();
+        List<Integer> names = new ArrayList<>();
+        for (int i = 0; i < columns.size(); i++) {
+            String column = columns.get(i).toLowerCase(Locale.ROOT);
+            if (maskSsn && table.getSsnColumns().contains(column)) {
+                ssn.add(i);
+            } else if (maskNames && table.getNameColumns().contains(column)) {
+                names.add(i);
+            }
+        }
+        if (ssn.isEmpty() && names.isEmpty()) {
+            return null;
+        }
+        return row -> {
+            for (int i : ssn) {
+                if (row[i] != null) {
+                    row[i] = maskSsn((String) row[i]);
+                }
+            }
+            for (int i : names) {
+                if (row[i] != null) {
+                    row[i] = maskName((String) row[i]);
+                }
+            }
+        };
+    }
+
+    public String maskSsn(String ssn) {
+        if (ssn.length() != 9 || !ssn.chars().allMatch(Character::isDigit)) {
+            // Not a valid SSN, so uniqueness against real ones does not matter
+            byte[] digest = hmac("ssn:" + ssn);
+            return String.format("%09d", Math.floorMod(ByteBuffer.wrap(digest).getLong(), SSN_DOMAIN));
+        }
+        long value = Long.parseLong(ssn);
+        do {
+            value = permute(value);
+        } while (value >= SSN_DOMAIN);
+        return String.format("%09d", value);
+    }
+
+    public String maskName(String name) {
+        if (name.isEmpty()) {
+            return name;
+        }
+        byte[] digest = hmac("name:" + name.toLowerCase(Locale.ROOT));
+        StringBuilder masked = new StringBuilder(name.length());
+        boolean wordStart = true;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isWhitespace(c)) {
+                masked.append(c);
+                wordStart = true;
+                continue;
+            }
+            if (i > 0 && i % digest.length == 0) {
+                digest = hmac("name:" + i + ":" + name.toLowerCase(Locale.ROOT));
+            }
+            char letter = (char) ('a' + Math.floorMod(digest[i % digest.length], 26));
+            masked.append(wordStart ? Character.toUpperCase(letter) : letter);
+            wordStart = false;
+        }
+        return masked.toString();
+    }
+
+    private long permute(long value) {
+        int left = (int) (value >>> HALF_BITS) & HALF_MASK;
+        int right = (int) value & HALF_MASK;
+        for (int round = 0; round < ROUNDS; round++) {
+            int next = left ^ roundFunction(round, right);
+            left = right;
+            right = next;
+        }
+        return ((long) left << HALF_BITS) | right;
+    }
+
+    private int roundFunction(int round, int half) {
+        long x = roundKeys[round] ^ half;
+        x = (x ^ (x >>> 33)) * 0xff51afd7ed558ccdL;
+        x = (x ^ (x >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return (int) (x ^ (x >>> 33)) & HALF_MASK;
+    }
+
+    private byte[] hmac(String value) {
+        return mac.doFinal(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Masks the configured columns of a row in place.
+     */
+    @FunctionalInterface
+    public interface RowMask {
+
+        void apply(Object[] row);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.demo.snapshot;
+
+import java.util.Set;
+
+/**
+ * Tables covered by a snapshot.
+ * <p>
+ * Tables are restored phase by phase so that foreign keys always find their parent rows; tables in
+ * the same phase load concurrently. Identity columns have their sequence moved past the restored IDs.
+ */
+public enum SnapshotTable {
+
+    CUSTOMERS("customers", "customer_id", 0, null,
+            Set.of("ssn"), Set.of("first_name", "middle_name", "last_name")),
+    DISCLOSURE_GROUPS("disclosure_groups", "id", 0, "id", Set.of(), Set.of()),
+    ACCOUNTS("accounts", "account_id", 1, null, Set.of(), Set.of()),
+    CARDS("cards", "card_number", 2, null, Set.of(), Set.of()),
+    CARD_XREF("card_xref", "id", 2, "id", Set.of(), Set.of()),
+    TRANSACTION_CATEGORY_BALANCES("transaction_category_balances", "id", 2, "id", Set.of(), Set.of()),
+    TRANSACTIONS("transactions", "transaction_id", 2, null, Set.of(), Set.of());
+
+    private final String tableName;
+    private final String keyColumn;
+    private final int loadPhase;
+    private final String identityColumn;
+    private final Set<String> ssnColumns;
+    private final Set<String> nameColumns;
+
+    SnapshotTable(String tableName, String keyColumn, int loadPhase, String identityColumn,
+                  Set<String> ssnColumns, Set<String> nameColumns) {
+        this.tableName = tableName;
+        this.keyColumn = keyColumn;
+        this.loadPhase = loadPhase;
+        this.identityColumn = identityColumn;
+        this.ssnColumns = ssnColumns;
+        this.nameColumns = nameColumns;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * Primary key column the table is split into ranges by.
+     */
+    public String getKeyColumn() {
+        return keyColumn;
+    }
+
+    public int getLoadPhase() {
+        return loadPhase;
+    }
+
+    /**
+     * Generated ID column, or null.
+     */
+    public String getIdentityColumn() {
+        return identityColumn;
+    }
+
+    public Set<String> getSsnColumns() {
+        return ssnColumns;
+    }
+
+    public Set<String> getNameColumns() {
+        return nameColumns;
+    }
+
+    public static SnapshotTable fromTableName(String tableName) {
+        for (SnapshotTable table : values()) {
+            if (table.tableName.equals(tableName)) {
+                return table;
+            }
+        }
+        throw new IllegalArgumentException("Table is not part of a snapshot: " + tableName);
+    }
+}
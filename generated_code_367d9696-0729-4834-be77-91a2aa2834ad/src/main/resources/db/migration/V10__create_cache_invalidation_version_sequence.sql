@@ -0,0 +1,2 @@
+-- Versions stamped on cache invalidations sent between nodes; taken after the changes commit
+CREATE SEQUENCE cache_invalidation_version_seq START WITH 1 INCREMENT BY 1;
@@ -0,0 +1,36 @@
+-- One row per batch job and run date; a failed or stopped run is resumed by launching it again
+CREATE TABLE batch_job_executions (
+    execution_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    job_name VARCHAR(50) NOT NULL,
+    run_date DATE NOT NULL,
+    status VARCHAR(10) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    started_at TIMESTAMP,
+    ended_at TIMESTAMP,
+    exit_message VARCHAR(500),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_batch_job_run UNIQUE (job_name, run_date)
+);
+
+-- Key range of one partition of a step and the last key committed by it
+CREATE TABLE batch_step_partitions (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    execution_id BIGINT NOT NULL,
+    step_name VARCHAR(50) NOT NULL,
+    partition_index INTEGER NOT NULL,
+    from_key BIGINT NOT NULL,
+    to_key BIGINT NOT NULL,
+    last_key BIGINT NOT NULL,
+    status VARCHAR(10) NOT NULL,
+    read_count BIGINT NOT NULL DEFAULT 0,
+    write_count BIGINT NOT NULL DEFAULT 0,
+    filter_count BIGINT NOT NULL DEFAULT 0,
+    commit_count BIGINT NOT NULL DEFAULT 0,
+    elapsed_ms BIGINT NOT NULL DEFAULT 0,
+    exit_message VARCHAR(500),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_batch_partition_execution FOREIGN KEY (execution_id) REFERENCES batch_job_executions(execution_id),
+    CONSTRAINT uk_batch_partition UNIQUE (execution_id, step_name, partition_index)
+);
@@ -0,0 +1,4 @@
+-- CardXrefRepository looks cross-references up by card number and by customer; both were full scans
+-- (H2 indexes foreign key columns implicitly, PostgreSQL does not)
+CREATE INDEX idx_card_xref_card ON card_xref(card_number);
+CREATE INDEX idx_card_xref_customer ON card_xref(customer_id);
@@ -0,0 +1,11 @@
+-- Outcome of each account update sent with an Idempotency-Key, replayed to retries until it expires
+CREATE TABLE idempotency_keys (
+    idempotency_key VARCHAR(100) PRIMARY KEY,
+    account_id BIGINT NOT NULL,
+    request_hash VARCHAR(64) NOT NULL,
+    response VARCHAR(500),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_idempotency_keys_expires ON idempotency_keys(expires_at);
@@ -0,0 +1,14 @@
+-- Candidate duplicate customer pairs of the latest duplicate detection run, grouped into clusters
+CREATE TABLE customer_duplicate_candidates (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    run_id VARCHAR(36) NOT NULL,
+    cluster_id BIGINT NOT NULL,
+    customer_id BIGINT NOT NULL,
+    duplicate_customer_id BIGINT NOT NULL,
+    score DECIMAL(3, 2) NOT NULL,
+    matched_on VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_duplicate_candidates_cluster ON customer_duplicate_candidates(run_id, cluster_id);
+CREATE INDEX idx_duplicate_candidates_customer ON customer_duplicate_candidates(customer_id);
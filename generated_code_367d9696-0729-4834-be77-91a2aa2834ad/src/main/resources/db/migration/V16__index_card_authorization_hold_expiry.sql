@@ -0,0 +1,2 @@
+-- Outstanding holds are reloaded by expiry at startup
+CREATE INDEX idx_card_authorization_hold_expiry ON card_authorizations(hold_expires_at);
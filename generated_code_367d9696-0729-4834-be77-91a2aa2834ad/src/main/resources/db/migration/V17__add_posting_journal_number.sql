@@ -0,0 +1,3 @@
+-- Number of each posting journal, part of the transaction IDs it mints; assigned on first start
+ALTER TABLE posting_journal_checkpoints ADD COLUMN journal_number INT;
+ALTER TABLE posting_journal_checkpoints ADD CONSTRAINT uk_posting_journal_number UNIQUE (journal_number);
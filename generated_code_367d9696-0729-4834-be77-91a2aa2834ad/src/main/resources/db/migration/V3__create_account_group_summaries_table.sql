@@ -0,0 +1,23 @@
+-- Incrementally maintained totals per (group_id, active_status) for portfolio reporting.
+-- Accounts without a group are summarized under group_id ''.
+CREATE TABLE account_group_summaries (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    group_id VARCHAR(10) NOT NULL,
+    active_status VARCHAR(1) NOT NULL,
+    account_count BIGINT NOT NULL DEFAULT 0,
+    total_balance DECIMAL(18, 2) NOT NULL DEFAULT 0.00,
+    total_credit_limit DECIMAL(18, 2) NOT NULL DEFAULT 0.00,
+    total_cycle_credit DECIMAL(18, 2) NOT NULL DEFAULT 0.00,
+    total_cycle_debit DECIMAL(18, 2) NOT NULL DEFAULT 0.00,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_account_group_summary UNIQUE (group_id, active_status)
+);
+
+-- Seed from the current accounts
+INSERT INTO account_group_summaries (group_id, active_status, account_count, total_balance, total_credit_limit,
+                                     total_cycle_credit, total_cycle_debit)
+SELECT COALESCE(group_id, ''), active_status, COUNT(*), SUM(current_balance), SUM(credit_limit),
+       SUM(current_cycle_credit), SUM(current_cycle_debit)
+FROM accounts
+GROUP BY COALESCE(group_id, ''), active_status;
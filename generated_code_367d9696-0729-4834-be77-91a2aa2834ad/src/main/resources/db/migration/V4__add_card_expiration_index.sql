@@ -0,0 +1,2 @@
+-- Support the card reissue job: range scan on expiration_date with keyset paging on card_number
+CREATE INDEX idx_card_expiration ON cards(expiration_date, card_number);
@@ -0,0 +1,34 @@
+-- One row per account per closed billing cycle, written by the cycle-close job
+CREATE TABLE account_cycle_history (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    run_id VARCHAR(36) NOT NULL,
+    account_id BIGINT NOT NULL,
+    group_id VARCHAR(10) NOT NULL,
+    active_status VARCHAR(1) NOT NULL,
+    cycle_end_date DATE NOT NULL,
+    cycle_credit DECIMAL(12, 2) NOT NULL,
+    cycle_debit DECIMAL(12, 2) NOT NULL,
+    closing_balance DECIMAL(12, 2) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_cycle_history_account FOREIGN KEY (account_id) REFERENCES accounts(account_id),
+    CONSTRAINT uk_cycle_history_account_cycle UNIQUE (account_id, cycle_end_date)
+);
+
+CREATE INDEX idx_cycle_history_run ON account_cycle_history(run_id, account_id);
+
+-- Supports the per-group partition scans of the cycle-close job
+CREATE INDEX idx_account_group_account ON accounts(group_id, account_id);
+
+-- Day of month on which each billing group's cycle closes
+CREATE TABLE billing_cycle_schedules (
+    group_id VARCHAR(10) NOT NULL PRIMARY KEY,
+    close_day_of_month INTEGER NOT NULL,
+    last_cycle_end_date DATE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT chk_close_day_of_month CHECK (close_day_of_month BETWEEN 1 AND 31)
+);
+
+-- Close every existing group at month end by default
+INSERT INTO billing_cycle_schedules (group_id, close_day_of_month)
+SELECT DISTINCT group_id, 31 FROM accounts WHERE group_id IS NOT NULL;
@@ -0,0 +1,7 @@
+-- Highest journal sequence whose postings have been applied to the database, per local posting journal
+CREATE TABLE posting_journal_checkpoints (
+    journal_id VARCHAR(50) NOT NULL PRIMARY KEY,
+    flushed_sequence BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,20 @@
+-- Authorization decisions, written asynchronously in batches by the authorization service
+CREATE TABLE card_authorizations (
+    authorization_id VARCHAR(36) NOT NULL PRIMARY KEY,
+    card_number VARCHAR(16) NOT NULL,
+    account_id BIGINT,
+    amount DECIMAL(12, 2) NOT NULL,
+    cash_advance BOOLEAN NOT NULL,
+    approved BOOLEAN NOT NULL,
+    decline_reason VARCHAR(30),
+    merchant_id BIGINT,
+    merchant_name VARCHAR(50),
+    merchant_city VARCHAR(50),
+    merchant_zip VARCHAR(10),
+    requested_at TIMESTAMP NOT NULL,
+    hold_expires_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_card_authorization_card ON card_authorizations(card_number, requested_at);
+CREATE INDEX idx_card_authorization_account ON card_authorizations(account_id);
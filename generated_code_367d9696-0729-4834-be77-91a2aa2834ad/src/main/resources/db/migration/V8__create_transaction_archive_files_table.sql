@@ -0,0 +1,15 @@
+-- Compressed columnar files holding transactions moved out of the transactions table, one or more per month
+CREATE TABLE transaction_archive_files (
+    file_name VARCHAR(100) NOT NULL PRIMARY KEY,
+    archive_month DATE NOT NULL,
+    row_count BIGINT NOT NULL,
+    min_original_timestamp TIMESTAMP NOT NULL,
+    max_original_timestamp TIMESTAMP NOT NULL,
+    min_card_number VARCHAR(16) NOT NULL,
+    max_card_number VARCHAR(16) NOT NULL,
+    file_bytes BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_transaction_archive_month ON transaction_archive_files(archive_month);
+CREATE INDEX idx_transaction_archive_range ON transaction_archive_files(min_original_timestamp, max_original_timestamp);
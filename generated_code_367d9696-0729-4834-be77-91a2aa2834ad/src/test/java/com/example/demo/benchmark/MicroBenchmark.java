@@ -0,0 +1,86 @@
+package com.example.demo.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Minimal single-threaded microbenchmark harness for the {@code benchmark} test group.
+ * <p>
+ * Runs the operation for a number of warm-up rounds so the JIT settles, then for timed rounds, and
+ * reports the median nanoseconds per operation together with the bytes allocated per operation by
+ * the calling thread. Results of the operation are folded into a sink so the work cannot be
+ * eliminated as dead code. Numbers are indicative: they come from one thread on whatever machine
+ * runs the build, without the forking and isolation a dedicated harness such as JMH provides.
+ */
+public final class MicroBenchmark {
+
+    @FunctionalInterface
+    public interface Operation {
+
+        /**
+         * Performs one operation; the {@code i}-th call of a round gets {@code i}.
+         */
+        long run(int i) throws Exception;
+    }
+
+    public record Result(String name, double nanosPerOp, double bytesPerOp) {
+
+        public double opsPerSecond() {
+            return 1_000_000_000d / nanosPerOp;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%-40s %10.1f ns/op %12.0f ops/s %10.1f B/op",
+                    name, nanosPerOp, opsPerSecond(), bytesPerOp);
+        }
+    }
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static volatile long sink;
+
+    private final int warmupRounds;
+    private final int rounds;
+    private final int opsPerRound;
+
+    public MicroBenchmark(int warmupRounds, int rounds, int opsPerRound) {
+        if (warmupRounds < 0 || rounds < 1 || opsPerRound < 1) {
+            throw new IllegalArgumentException("Rounds and operations per round must be positive");
+        }
+        this.warmupRounds = warmupRounds;
+        this.rounds = rounds;
+        this.opsPerRound = opsPerRound;
+    }
+
+    public Result measure(String name, Operation operation) throws Exception {
+        for (int r = 0; r < warmupRounds; r++) {
+            round(operation);
+        }
+        long threadId = Thread.currentThread().threadId();
+        long[] nanos = new long[rounds];
+        long allocatedBefore = THREADS.getThreadAllocatedBytes(threadId);
+        for (int r = 0; r < rounds; r++) {
+            nanos[r] = round(operation);
+        }
+        long allocated = THREADS.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        Arrays.sort(nanos);
+        long totalOps = (long) rounds * opsPerRound;
+        Result result = new Result(name, (double) nanos[rounds / 2] / opsPerRound, (double) allocated / totalOps);
+        System.out.println(result);
+        return result;
+    }
+
+    private long round(Operation operation) throws Exception {
+        long acc = 0;
+        long started = System.nanoTime();
+        for (int i = 0; i < opsPerRound; i++) {
+            acc += operation.run(i);
+        }
+        long elapsed = System.nanoTime() - started;
+        sink += acc;
+        return elapsed;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.demo.config;
+
+import com.example.demo.benchmark.MicroBenchmark;
+import com.example.demo.dto.AccountViewResponseDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bytes on the wire and serialization cost of the account view: the reflective JSON mapping the
+ * endpoint used before, {@link AccountViewResponseSerializer} writing JSON, and the same serializer
+ * writing CBOR. Run with {@code ./mvnw -Pbenchmark test}.
+ */
+@Tag("benchmark")
+class AccountViewSerializationBenchmark {
+
+    private final MicroBenchmark benchmark = new MicroBenchmark(10, 10, 100_000);
+
+    @Test
+    void compareRepresentations() throws Exception {
+        ObjectMapper reflectiveJson = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        SimpleModule serializer = new SimpleModule().addSerializer(new AccountViewResponseSerializer());
+        ObjectMapper handWrittenJson = JsonMapper.builder().addModule(serializer).build();
+        ObjectMapper handWrittenCbor = CBORMapper.builder().addModule(serializer).build();
+        AccountViewResponseDto view = sampleView();
+
+        byte[] reflective = reflectiveJson.writeValueAsBytes(view);
+        byte[] json = handWrittenJson.writeValueAsBytes(view);
+        byte[] cbor = handWrittenCbor.writeValueAsBytes(view);
+        System.out.printf("Bytes per view: reflective JSON %d, hand-written JSON %d, CBOR %d%n",
+                reflective.length, json.length, cbor.length);
+        assertArrayEquals(reflective, json, "Hand-written JSON must match the reflective mapping");
+        assertTrue(cbor.length < json.length, "CBOR should be smaller than JSON");
+
+        MicroBenchmark.Result reflectiveResult = benchmark.measure("JSON, reflective",
+                i -> reflectiveJson.writeValueAsBytes(view).length);
+        MicroBenchmark.Result jsonResult = benchmark.measure("JSON, hand-written serializer",
+                i -> handWrittenJson.writeValueAsBytes(view).length);
+        benchmark.measure("CBOR, hand-written serializer",
+                i -> handWrittenCbor.writeValueAsBytes(view).length);
+        assertTrue(jsonResult.nanosPerOp() < reflectiveResult.nanosPerOp(),
+                "Hand-written serializer should be faster than reflection");
+    }
+
+    private static AccountViewResponseDto sampleView() {
+        AccountViewResponseDto view = new AccountViewResponseDto();
+        view.setAccountId(12345678901L);
+        view.setActiveStatus("Y");
+        view.setCurrentBalance(new BigDecimal("5000.00"));
+        view.setCreditLimit(new BigDecimal("10000.00"));
+        view.setCashCreditLimit(new BigDecimal("2000.00"));
+        view.setOpenDate(LocalDate.of(2023, 1, 15));
+        view.setExpirationDate(LocalDate.of(2026, 1, 15));
+        view.setReissueDate(LocalDate.of(2025, 12, 1));
+        view.setCurrentCycleCredit(new BigDecimal("1500.00"));
+        view.setCurrentCycleDebit(new BigDecimal("800.00"));
+        view.setGroupId("GRP001");
+        view.setCustomerId(123456789L);
+        view.setFirstName("John");
+        view.setMiddleName("Michael");
+        view.setLastName("Doe");
+        view.setSsn("123-45-6789");
+        view.setFicoScore(750);
+        view.setDateOfBirth(LocalDate.of(1985, 6, 15));
+        view.setAddressLine1("123 Main Street");
+        view.setAddressLine2("Apt 4B");
+        view.setCity("New York");
+        view.setStateCode("NY");
+        view.setZipCode("10001");
+        view.setCountryCode("USA");
+        view.setPhoneNumber1("(212)555-1234");
+        view.setPhoneNumber2("(212)555-5678");
+        view.setGovernmentIssuedId("DL123456789");
+        view.setEftAccountId("EFT987654");
+        view.setPrimaryCardHolderIndicator("Y");
+        return view;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.demo.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Status codes of account updates sent with an {@code Idempotency-Key}. The bodies fail the service's
+ * field validation, whose message is recorded like a success, so no account rows are needed.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
+@AutoConfigureMockMvc
+class AccountUpdateControllerTest {
+
+    private static final String FIRST_BODY = "{\"city\": \"Springfield1\"}";
+    private static final String OTHER_BODY = "{\"city\": \"Springfield2\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void replaysOutcomeForSameKeyAndBody() throws Exception {
+        String key = "replay-" + System.nanoTime();
+        mockMvc.perform(update(key, FIRST_BODY))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"))
+                .andExpect(content().string("Error: City must contain only alphabetic characters"));
+
+        mockMvc.perform(update(key, FIRST_BODY))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(content().string("Error: City must contain only alphabetic characters"));
+    }
+
+    @Test
+    void rejectsKeyReusedForDifferentBodyWith422() throws Exception {
+        String key = "conflict-" + System.nanoTime();
+        mockMvc.perform(update(key, FIRST_BODY))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(update(key, OTHER_BODY))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void rejectsOverlongKeyWith400() throws Exception {
+        mockMvc.perform(update("k".repeat(101), FIRST_BODY))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static RequestBuilder update(String key, String body) {
+        return put("/api/accounts/{accountId}/update", 1L)
+                .header("Idempotency-Key", key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body);
+    }
+}
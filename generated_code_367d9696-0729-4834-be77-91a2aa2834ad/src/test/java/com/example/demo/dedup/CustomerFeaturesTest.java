@@ -0,0 +1,69 @@
+package com.example.demo.dedup;
+
+import com.example.demo.repository.CustomerMatchRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Choice of the one block a pair of {@link CustomerFeatures} is compared in.
+ */
+class CustomerFeaturesTest {
+
+    private static final LocalDate DATE_OF_BIRTH = LocalDate.of(1980, 5, 17);
+
+    private final long[] scratchA = new long[CustomerFeatures.MAX_BLOCKS];
+    private final long[] scratchB = new long[CustomerFeatures.MAX_BLOCKS];
+    private CustomerFeatures features;
+    private int a;
+    private int b;
+    private long ssnBlock;
+    private long lastNameDobBlock;
+    private long dobZipBlock;
+
+    @BeforeEach
+    void setUp() {
+        features = new CustomerFeatures(2);
+        a = features.add(new CustomerMatchRow(1L, "Maria", "Lopez", DATE_OF_BIRTH, "10001", "123-45-6780",
+                "(212)555-0101", null));
+        b = features.add(new CustomerMatchRow(2L, "Mariah", "Lopez", DATE_OF_BIRTH, "10001", "123456780",
+                "(212)555-0199", null));
+        long[] blocks = new long[CustomerFeatures.MAX_BLOCKS];
+        assertEquals(4, features.blocks(a, blocks));
+        ssnBlock = blocks[0];
+        lastNameDobBlock = blocks[1];
+        dobZipBlock = blocks[2];
+    }
+
+    @Test
+    void comparesPairInFirstSharedBlockOnly() {
+        long[] none = new long[0];
+
+        assertTrue(features.isFirstSharedBlock(a, b, ssnBlock, none, scratchA, scratchB));
+        assertFalse(features.isFirstSharedBlock(a, b, lastNameDobBlock, none, scratchA, scratchB));
+        assertFalse(features.isFirstSharedBlock(a, b, dobZipBlock, none, scratchA, scratchB));
+    }
+
+    @Test
+    void comparesPairInNextBlockWhenFirstSharedBlockIsSkipped() {
+        long[] skipped = {ssnBlock};
+
+        assertFalse(features.isFirstSharedBlock(a, b, ssnBlock, skipped, scratchA, scratchB));
+        assertTrue(features.isFirstSharedBlock(a, b, lastNameDobBlock, skipped, scratchA, scratchB));
+        assertFalse(features.isFirstSharedBlock(a, b, dobZipBlock, skipped, scratchA, scratchB));
+    }
+
+    @Test
+    void passesOverEverySkippedBlock() {
+        long[] skipped = {ssnBlock, lastNameDobBlock};
+        Arrays.sort(skipped);
+
+        assertTrue(features.isFirstSharedBlock(a, b, dobZipBlock, skipped, scratchA, scratchB));
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.demo.money;
+
+import com.example.demo.benchmark.MicroBenchmark;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Throughput and allocation of the per-balance arithmetic of the batch engines: monthly interest
+ * ({@code balance * rate / 1200}, truncated to cents) added to a running per-account total, plus
+ * available credit ({@code limit - balance}), computed with {@link BigDecimal}, with {@link Money}
+ * objects and with the static {@code *Cents} methods on raw {@code long} values. Totals are kept in
+ * arrays as the jobs keep them in maps, so the JIT cannot scalar-replace the intermediate objects.
+ * Run with {@code ./mvnw -Pbenchmark test}.
+ */
+@Tag("benchmark")
+class MoneyBenchmark {
+
+    private static final int BALANCES = 1024;
+    private static final BigDecimal TWELVE_HUNDRED = BigDecimal.valueOf(1200);
+    private static final long RATE_DIVISOR = 1200 * 100;
+
+    private final MicroBenchmark benchmark = new MicroBenchmark(10, 10, 1_000_000);
+
+    private final BigDecimal[] decimalBalances = new BigDecimal[BALANCES];
+    private final BigDecimal[] decimalRates = new BigDecimal[BALANCES];
+    private final Money[] moneyBalances = new Money[BALANCES];
+    private final long[] centBalances = new long[BALANCES];
+    private final long[] rateHundredths = new long[BALANCES];
+    private final BigDecimal decimalLimit = new BigDecimal("25000.00");
+    private final Money moneyLimit = Money.of(decimalLimit);
+    private final long centLimit = Money.toCents(decimalLimit);
+    private final BigDecimal[] decimalTotals = new BigDecimal[BALANCES];
+    private final Money[] moneyTotals = new Money[BALANCES];
+    private final long[] centTotals = new long[BALANCES];
+
+    MoneyBenchmark() {
+        Random random = new Random(42);
+        for (int i = 0; i < BALANCES; i++) {
+            long cents = random.nextLong(-50_000, 2_000_000);
+            BigDecimal rate = BigDecimal.valueOf(random.nextInt(500, 3_000), 2);
+            decimalBalances[i] = BigDecimal.valueOf(cents, Money.SCALE);
+            decimalRates[i] = rate;
+            moneyBalances[i] = Money.ofCents(cents);
+            centBalances[i] = cents;
+            rateHundredths[i] = rate.unscaledValue().longValueExact();
+            decimalTotals[i] = BigDecimal.ZERO.setScale(Money.SCALE);
+            moneyTotals[i] = Money.ZERO;
+        }
+    }
+
+    @Test
+    void compareArithmetic() throws Exception {
+        for (int i = 0; i < BALANCES; i++) {
+            assertEquals(bigDecimal(i), cents(i), "Cents path must match BigDecimal for balance " + i);
+            assertEquals(bigDecimal(i), money(i), "Money path must match BigDecimal for balance " + i);
+        }
+
+        MicroBenchmark.Result decimal = benchmark.measure("BigDecimal", this::bigDecimal);
+        benchmark.measure("Money objects", this::money);
+        MicroBenchmark.Result raw = benchmark.measure("long cents", this::cents);
+        assertTrue(raw.bytesPerOp() < decimal.bytesPerOp(), "Cents arithmetic should allocate less than BigDecimal");
+    }
+
+    private long bigDecimal(int i) {
+        int k = i & (BALANCES - 1);
+        BigDecimal balance = decimalBalances[k];
+        BigDecimal interest = balance.multiply(decimalRates[k]).divide(TWELVE_HUNDRED, Money.SCALE, RoundingMode.DOWN);
+        decimalTotals[k] = decimalTotals[k].add(interest);
+        return interest.add(decimalLimit.subtract(balance)).unscaledValue().longValueExact();
+    }
+
+    private long money(int i) {
+        int k = i & (BALANCES - 1);
+        Money balance = moneyBalances[k];
+        Money interest = Money.ofCents(Money.divideRounded(
+                Math.multiplyExact(balance.getCents(), rateHundredths[k]), RATE_DIVISOR, RoundingMode.DOWN));
+        moneyTotals[k] = moneyTotals[k].plus(interest);
+        return interest.plus(moneyLimit.minus(balance)).getCents();
+    }
+
+    private long cents(int i) {
+        int k = i & (BALANCES - 1);
+        long balance = centBalances[k];
+        long interest = Money.divideRounded(Math.multiplyExact(balance, rateHundredths[k]), RATE_DIVISOR, RoundingMode.DOWN);
+        centTotals[k] = Money.addCents(centTotals[k], interest);
+        return Money.addCents(interest, Money.subtractCents(centLimit, balance));
+    }
+}
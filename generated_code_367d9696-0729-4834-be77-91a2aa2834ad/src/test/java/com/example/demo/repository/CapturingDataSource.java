@@ -0,0 +1,164 @@
+package com.example.demo.repository;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the SQL and parameter bindings of statements prepared on the current thread while
+ * {@link #capture} runs, whether they come from Hibernate or from a {@code JdbcTemplate}. Only the
+ * first execution of a statement is recorded; for a JDBC batch that is its first row.
+ */
+final class CapturingDataSource extends DelegatingDataSource {
+
+    private static final ThreadLocal<List<CapturedStatement>> ACTIVE = new ThreadLocal<>();
+
+    CapturingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    static List<CapturedStatement> capture(Runnable action) {
+        List<CapturedStatement> statements = new ArrayList<>();
+        ACTIVE.set(statements);
+        try {
+            action.run();
+        } finally {
+            ACTIVE.remove();
+        }
+        return statements;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrapConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrapConnection(super.getConnection(username, password));
+    }
+
+    private static Connection wrapConnection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(CapturingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("equals")) {
+                        return proxy == args[0];
+                    }
+                    if (method.getName().equals("hashCode")) {
+                        return System.identityHashCode(proxy);
+                    }
+                    Object result = invoke(connection, method, args);
+                    List<CapturedStatement> statements = ACTIVE.get();
+                    if (statements == null) {
+                        return result;
+                    }
+                    switch (method.getName()) {
+                        case "prepareStatement" -> {
+                            CapturedStatement statement = new CapturedStatement((String) args[0]);
+                            statements.add(statement);
+                            return wrapStatement(result, PreparedStatement.class, statement, statements);
+                        }
+                        case "prepareCall" -> {
+                            CapturedStatement statement = new CapturedStatement((String) args[0]);
+                            statements.add(statement);
+                            return wrapStatement(result, CallableStatement.class, statement, statements);
+                        }
+                        case "createStatement" -> {
+                            return wrapStatement(result, Statement.class, null, statements);
+                        }
+                        default -> {
+                            return result;
+                        }
+                    }
+                });
+    }
+
+    /**
+     * A prepared statement records its {@code setXxx(index, ...)} calls until it is first executed or
+     * added to a batch; a plain statement records each SQL string it executes.
+     */
+    private static Object wrapStatement(Object target, Class<?> type, CapturedStatement prepared,
+                                        List<CapturedStatement> statements) {
+        return Proxy.newProxyInstance(CapturingDataSource.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (prepared == null) {
+                        if ((name.startsWith("execute") || name.equals("addBatch"))
+                                && args != null && args.length > 0 && args[0] instanceof String sql) {
+                            CapturedStatement statement = new CapturedStatement(sql);
+                            statement.executed = true;
+                            statements.add(statement);
+                        }
+                    } else if (!prepared.executed) {
+                        if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                            prepared.bindings.add(new Binding(method, args.clone()));
+                        } else if (name.equals("clearParameters")) {
+                            prepared.bindings.clear();
+                        } else if (name.startsWith("execute") || name.equals("addBatch")) {
+                            prepared.executed = true;
+                        }
+                    }
+                    return invoke(target, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    static final class CapturedStatement {
+
+        private final String sql;
+        private final List<Binding> bindings = new ArrayList<>();
+        private boolean executed;
+
+        CapturedStatement(String sql) {
+            this.sql = sql;
+        }
+
+        String getSql() {
+            return sql;
+        }
+
+        /**
+         * Replays the recorded bindings onto a statement whose placeholders are those of this SQL,
+         * such as {@code EXPLAIN <sql>}.
+         */
+        void bind(PreparedStatement statement) throws SQLException {
+            for (Binding binding : bindings) {
+                try {
+                    binding.method().invoke(statement, binding.args());
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException("Cannot replay " + binding.method().getName(), e);
+                } catch (InvocationTargetException e) {
+                    if (e.getCause() instanceof SQLException sqlException) {
+                        throw sqlException;
+                    }
+                    throw new IllegalStateException("Cannot replay " + binding.method().getName(), e.getCause());
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return sql;
+        }
+    }
+
+    private record Binding(Method method, Object[] args) {
+    }
+}
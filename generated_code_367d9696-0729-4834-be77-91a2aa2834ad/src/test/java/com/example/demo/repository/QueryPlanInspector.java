@@ -0,0 +1,274 @@
+package com.example.demo.repository;
+
+import com.example.demo.repository.CapturingDataSource.CapturedStatement;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs {@code EXPLAIN} for captured statements and reduces the plan to the way each table is read.
+ * <p>
+ * H2 names the index chosen for each table in a plan comment, {@code SCHEMA.INDEX: conditions}, or
+ * {@code SCHEMA.TABLE.tableScan} for the primary storage; conditions after the colon bound the read.
+ * PostgreSQL plans are taken with {@code enable_seqscan} off, so a {@code Seq Scan} that remains
+ * means no usable index exists; an index scan without an {@code Index Cond} reads the whole index.
+ * Index names are resolved to their table and leading column through the catalog, and partitions
+ * to their parent table.
+ */
+final class QueryPlanInspector {
+
+    enum Dialect {
+        H2, POSTGRESQL
+    }
+
+    enum AccessKind {
+        /** Every row of the table is read. */
+        FULL_SCAN,
+        /** An index is walked from end to end, e.g. for ORDER BY without a filter. */
+        INDEX_SCAN,
+        /** An index is searched with a condition. */
+        INDEX_RANGE,
+        /** H2 answers MIN/MAX from the first or last entry of an index on the column. */
+        DIRECT_LOOKUP
+    }
+
+    record TableAccess(String table, String index, String leadingColumn, AccessKind kind) {
+
+        @Override
+        public String toString() {
+            return kind + " " + table + (index == null ? "" : " via " + index + "(" + leadingColumn + ", ...)");
+        }
+    }
+
+    record Plan(String sql, String text, List<TableAccess> accesses) {
+    }
+
+    private static final Pattern H2_COMMENT = Pattern.compile(
+            "/(?:\\*|\\+\\+)\\s*(?:(direct lookup)|(\\w+)\\.(\\w+)(\\.tableScan)?)\\s*(:|\\*/|\\+\\+/)");
+    private static final Pattern PG_SEQ_SCAN = Pattern.compile("Seq Scan on (\\w+)");
+    private static final Pattern PG_INDEX_SCAN = Pattern.compile("Index (?:Only )?Scan (?:Backward )?using (\\w+) on (\\w+)");
+    private static final Pattern PG_BITMAP_INDEX_SCAN = Pattern.compile("Bitmap Index Scan on (\\w+)");
+
+    private final DataSource dataSource;
+    private final Dialect dialect;
+    private final Map<String, IndexInfo> indexes = new HashMap<>();
+    private final Map<String, String> primaryKeys = new HashMap<>();
+    private final Map<String, String> parents = new HashMap<>();
+
+    /**
+     * @param dataSource connections that are not captured, so the EXPLAIN statements and catalog
+     *                   queries stay out of the recorded SQL
+     */
+    QueryPlanInspector(DataSource dataSource) throws SQLException {
+        this.dataSource = dataSource;
+        try (Connection connection = dataSource.getConnection()) {
+            String product = connection.getMetaData().getDatabaseProductName();
+            if (product.startsWith("H2")) {
+                dialect = Dialect.H2;
+                loadH2Catalog(connection);
+            } else if (product.startsWith("PostgreSQL")) {
+                dialect = Dialect.POSTGRESQL;
+                loadPostgresCatalog(connection);
+            } else {
+                throw new IllegalStateException("Query plans are not supported for " + product);
+            }
+        }
+    }
+
+    Dialect getDialect() {
+        return dialect;
+    }
+
+    /**
+     * Whether the statement is a query or a change whose plan is worth checking; inserts and catalog
+     * lookups made by the code under test are not.
+     */
+    static boolean isExplainable(CapturedStatement statement) {
+        String sql = statement.getSql().stripLeading().toLowerCase(Locale.ROOT);
+        if (sql.contains("information_schema") || sql.contains("pg_catalog") || sql.contains("pg_class")) {
+            return false;
+        }
+        return sql.startsWith("select") || sql.startsWith("with") || sql.startsWith("update") || sql.startsWith("delete");
+    }
+
+    Plan explain(CapturedStatement statement) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            if (dialect == Dialect.POSTGRESQL) {
+                try (Statement settings = connection.createStatement()) {
+                    settings.execute("SET enable_seqscan = off");
+                }
+            }
+            try {
+                StringBuilder text = new StringBuilder();
+                try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.getSql())) {
+                    statement.bind(explain);
+                    try (ResultSet rs = explain.executeQuery()) {
+                        while (rs.next()) {
+                            text.append(rs.getString(1)).append('\n');
+                        }
+                    }
+                }
+                String plan = text.toString();
+                return new Plan(statement.getSql(), plan, dialect == Dialect.H2 ? parseH2(plan) : parsePostgres(plan));
+            } finally {
+                if (dialect == Dialect.POSTGRESQL) {
+                    try (Statement settings = connection.createStatement()) {
+                        settings.execute("RESET enable_seqscan");
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Comments of subqueries are nested in the comment of the outer table, so H2 writes them as
+     * {@code /++ ... ++/}; each opening marker is matched on its own.
+     */
+    List<TableAccess> parseH2(String plan) {
+        List<TableAccess> accesses = new ArrayList<>();
+        Matcher comment = H2_COMMENT.matcher(plan.replace("\"", ""));
+        while (comment.find()) {
+            if (comment.group(1) != null) {
+                if (!accesses.isEmpty()) {
+                    TableAccess previous = accesses.remove(accesses.size() - 1);
+                    accesses.add(new TableAccess(previous.table(), previous.index(), previous.leadingColumn(),
+                            AccessKind.DIRECT_LOOKUP));
+                }
+                continue;
+            }
+            String name = lower(comment.group(3));
+            boolean bounded = comment.group(5).equals(":");
+            if (comment.group(4) != null) {
+                // The primary storage of a table with a numeric key is searched directly by that key
+                accesses.add(bounded
+                        ? new TableAccess(name, null, primaryKeys.get(name), AccessKind.INDEX_RANGE)
+                        : new TableAccess(name, null, null, AccessKind.FULL_SCAN));
+            } else {
+                IndexInfo info = index(name, plan);
+                accesses.add(new TableAccess(info.table(), name, info.leadingColumn(),
+                        bounded ? AccessKind.INDEX_RANGE : AccessKind.INDEX_SCAN));
+            }
+        }
+        return accesses;
+    }
+
+    List<TableAccess> parsePostgres(String plan) {
+        List<TableAccess> accesses = new ArrayList<>();
+        String[] lines = plan.split("\n");
+        for (int i = 0; i < lines.length; i++) {
+            Matcher seqScan = PG_SEQ_SCAN.matcher(lines[i]);
+            Matcher indexScan = PG_INDEX_SCAN.matcher(lines[i]);
+            Matcher bitmapScan = PG_BITMAP_INDEX_SCAN.matcher(lines[i]);
+            if (seqScan.find()) {
+                accesses.add(new TableAccess(parent(seqScan.group(1)), null, null, AccessKind.FULL_SCAN));
+            } else if (indexScan.find()) {
+                IndexInfo info = index(indexScan.group(1), plan);
+                accesses.add(new TableAccess(info.table(), lower(indexScan.group(1)), info.leadingColumn(),
+                        hasIndexCondition(lines, i) ? AccessKind.INDEX_RANGE : AccessKind.INDEX_SCAN));
+            } else if (bitmapScan.find()) {
+                IndexInfo info = index(bitmapScan.group(1), plan);
+                accesses.add(new TableAccess(info.table(), lower(bitmapScan.group(1)), info.leadingColumn(),
+                        AccessKind.INDEX_RANGE));
+            }
+        }
+        return accesses;
+    }
+
+    /**
+     * The detail lines of a plan node are the lines up to the next node, which starts with "->".
+     */
+    private static boolean hasIndexCondition(String[] lines, int node) {
+        for (int i = node + 1; i < lines.length && !lines[i].trim().startsWith("->"); i++) {
+            if (lines[i].trim().startsWith("Index Cond:")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private IndexInfo index(String name, String plan) {
+        IndexInfo info = indexes.get(lower(name));
+        if (info == null) {
+            throw new IllegalStateException("Unknown index " + name + " in plan:\n" + plan);
+        }
+        return info;
+    }
+
+    private String parent(String table) {
+        String name = lower(table);
+        return parents.getOrDefault(name, name);
+    }
+
+    private void loadH2Catalog(Connection connection) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        List<String> tables = new ArrayList<>();
+        try (ResultSet rs = metaData.getTables(null, "PUBLIC", "%", null)) {
+            while (rs.next()) {
+                tables.add(rs.getString("TABLE_NAME"));
+            }
+        }
+        for (String table : tables) {
+            try (ResultSet rs = metaData.getIndexInfo(null, "PUBLIC", table, false, true)) {
+                while (rs.next()) {
+                    if (rs.getShort("ORDINAL_POSITION") == 1) {
+                        indexes.put(lower(rs.getString("INDEX_NAME")),
+                                new IndexInfo(lower(table), lower(rs.getString("COLUMN_NAME"))));
+                    }
+                }
+            }
+            try (ResultSet rs = metaData.getPrimaryKeys(null, "PUBLIC", table)) {
+                while (rs.next()) {
+                    if (rs.getShort("KEY_SEQ") == 1) {
+                        primaryKeys.put(lower(table), lower(rs.getString("COLUMN_NAME")));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Index entries of a partition are attributed to the partitioned table, so expectations are
+     * written against the table the repositories query.
+     */
+    private void loadPostgresCatalog(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery(
+                    "SELECT child.relname AS child, parent.relname AS parent FROM pg_inherits i " +
+                    "JOIN pg_class child ON child.oid = i.inhrelid JOIN pg_class parent ON parent.oid = i.inhparent")) {
+                while (rs.next()) {
+                    parents.put(rs.getString("child"), rs.getString("parent"));
+                }
+            }
+            try (ResultSet rs = statement.executeQuery(
+                    "SELECT idx.relname AS index_name, tbl.relname AS table_name, att.attname AS column_name " +
+                    "FROM pg_index i JOIN pg_class idx ON idx.oid = i.indexrelid " +
+                    "JOIN pg_class tbl ON tbl.oid = i.indrelid JOIN pg_namespace ns ON ns.oid = tbl.relnamespace " +
+                    "JOIN pg_attribute att ON att.attrelid = tbl.oid AND att.attnum = i.indkey[0] " +
+                    "WHERE ns.nspname = current_schema()")) {
+                while (rs.next()) {
+                    indexes.put(rs.getString("index_name"),
+                            new IndexInfo(parent(rs.getString("table_name")), rs.getString("column_name")));
+                }
+            }
+        }
+    }
+
+    private static String lower(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private record IndexInfo(String table, String leadingColumn) {
+    }
+}
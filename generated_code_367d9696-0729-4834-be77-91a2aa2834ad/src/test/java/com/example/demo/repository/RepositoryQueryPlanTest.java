@@ -0,0 +1,499 @@
+package com.example.demo.repository;
+
+import com.example.demo.repository.CapturingDataSource.CapturedStatement;
+import com.example.demo.repository.QueryPlanInspector.AccessKind;
+import com.example.demo.repository.QueryPlanInspector.Plan;
+import com.example.demo.repository.QueryPlanInspector.TableAccess;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.function.ThrowingSupplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Runs every query method of the account domain repositories, captures the SQL it sends and checks
+ * the database's plan for it: a table may only be read through an index unless the case allows a
+ * scan, and the index each case expects must still be the one used. A schema or entity change that
+ * drops an index or turns a lookup into a scan fails here rather than in production.
+ * <p>
+ * The suite runs against the in-memory H2 database, seeded from {@code query-plans/seed-h2.sql}.
+ * To check PostgreSQL plans as well, point it at a scratch database (seed rows are inserted into it):
+ * <pre>
+ * mvn test -Dtest=RepositoryQueryPlanTest \
+ *     -Dspring.datasource.url=jdbc:postgresql://localhost:5432/plans \
+ *     -Dspring.datasource.username=postgres -Dspring.datasource.password=... \
+ *     -Dspring.datasource.driver-class-name=org.postgresql.Driver \
+ *     -Dspring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect \
+ *     -Dspring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect
+ * </pre>
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RepositoryQueryPlanTest {
+
+    private static final List<Class<?>> REPOSITORIES = List.of(
+            AccountRepository.class, CardRepository.class, CardXrefRepository.class, CustomerRepository.class,
+            DisclosureGroupRepository.class, TransactionCategoryBalanceRepository.class, TransactionRepository.class);
+
+    private static final Map<String, String> NOT_EXPLAINED = Map.of(
+            "TransactionRepository.insertBatch(List,int)", "inserts only",
+            "TransactionRepository.isPartitioned()", "catalog lookup",
+            "TransactionRepository.createMonthPartition(YearMonth)", "partition DDL",
+            "TransactionRepository.hasMonthPartition(YearMonth)", "catalog lookup",
+            "TransactionRepository.lockMonthPartition(YearMonth)", "partition DDL",
+            "TransactionRepository.dropMonthPartition(YearMonth)", "partition DDL",
+            "TransactionRepository.dropLegacyPartitionIfEmpty()", "partition DDL");
+
+    /** The transaction finders also look up archive files; that table has one row per archived file. */
+    private static final String ARCHIVE_FILES = "transaction_archive_files";
+
+    private static final long SEED_CUSTOMER_ID = 900001L;
+    private static final long SEED_ACCOUNT_ID = 90000000001L;
+    private static final String SEED_CARD_NUMBER = "9000000000000001";
+    private static final String SEED_SSN = "800000001";
+    private static final String SEED_GROUP_ID = "SEED1";
+    private static final String SEED_TRANSACTION_ID = "SD00000000000001";
+    private static final LocalDateTime FROM = LocalDateTime.of(2024, 3, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2024, 4, 1, 0, 0);
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private CardXrefRepository cardXrefRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private DisclosureGroupRepository disclosureGroupRepository;
+
+    @Autowired
+    private TransactionCategoryBalanceRepository balanceRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private QueryPlanInspector inspector;
+
+    @BeforeAll
+    void seedAndLoadCatalog() throws SQLException {
+        DataSource target = ((CapturingDataSource) dataSource).getTargetDataSource();
+        inspector = new QueryPlanInspector(target);
+        Integer seeded = new JdbcTemplate(target).queryForObject(
+                "SELECT COUNT(*) FROM customers WHERE customer_id = ?", Integer.class, SEED_CUSTOMER_ID);
+        if (seeded == null || seeded == 0) {
+            String vendor = inspector.getDialect().name().toLowerCase(Locale.ROOT);
+            new ResourceDatabasePopulator(new ClassPathResource("query-plans/seed-" + vendor + ".sql")).execute(target);
+        }
+    }
+
+    @Test
+    void everyRepositoryMethodHasAPlanCase() {
+        Set<String> declared = new HashSet<>();
+        for (Class<?> repository : REPOSITORIES) {
+            for (Class<?> type : declaringTypes(repository)) {
+                for (Method method : type.getDeclaredMethods()) {
+                    if (!method.isSynthetic() && !Modifier.isStatic(method.getModifiers())) {
+                        declared.add(repository.getSimpleName() + "." + signature(method));
+                    }
+                }
+            }
+        }
+        Set<String> covered = cases().stream().map(PlanCase::key).collect(Collectors.toSet());
+        List<String> missing = declared.stream()
+                .filter(key -> !covered.contains(key) && !NOT_EXPLAINED.containsKey(key))
+                .sorted()
+                .toList();
+        List<String> unknown = covered.stream()
+                .filter(key -> !declared.contains(key) && !key.endsWith(".findById(Object)"))
+                .sorted()
+                .toList();
+        assertTrue(missing.isEmpty(), () -> "Repository methods without a query plan case: " + missing);
+        assertTrue(unknown.isEmpty(), () -> "Query plan cases for methods that do not exist: " + unknown);
+    }
+
+    @TestFactory
+    Stream<DynamicTest> repositoryQueriesUseTheirIndexes() {
+        return cases().stream().map(planCase -> DynamicTest.dynamicTest(planCase.key(), () -> verify(planCase)));
+    }
+
+    private List<PlanCase> cases() {
+        List<Long> accountIds = List.of(SEED_ACCOUNT_ID, SEED_ACCOUNT_ID + 1, SEED_ACCOUNT_ID + 2);
+        LocalDate today = LocalDate.of(2025, 6, 1);
+        return List.of(
+                plan(AccountRepository.class, "findById(Object)", () -> accountRepository.findById(SEED_ACCOUNT_ID))
+                        .index("accounts", "account_id"),
+                plan(AccountRepository.class, "findByAccountId(Long)", () -> accountRepository.findByAccountId(SEED_ACCOUNT_ID))
+                        .index("accounts", "account_id"),
+                plan(AccountRepository.class, "findByCustomerId(Long)", () -> accountRepository.findByCustomerId(SEED_CUSTOMER_ID))
+                        .index("accounts", "customer_id"),
+                plan(AccountRepository.class, "findByCustomerIdOrderByAccountIdAsc(Long)",
+                        () -> accountRepository.findByCustomerIdOrderByAccountIdAsc(SEED_CUSTOMER_ID))
+                        .index("accounts", "customer_id"),
+                // A page of one out of the customer's two accounts also runs the count query
+                plan(AccountRepository.class, "findByCustomerId(Long,Pageable)",
+                        () -> accountRepository.findByCustomerId(SEED_CUSTOMER_ID, PageRequest.of(0, 1)))
+                        .index("accounts", "customer_id"),
+                plan(AccountRepository.class, "findByActiveStatus(String)", () -> accountRepository.findByActiveStatus("N"))
+                        .index("accounts", "active_status"),
+                plan(AccountRepository.class, "findByActiveStatus(String,Pageable)",
+                        () -> accountRepository.findByActiveStatus("N", PageRequest.of(0, 20)))
+                        .index("accounts", "active_status"),
+                plan(AccountRepository.class, "findByGroupId(String)", () -> accountRepository.findByGroupId(SEED_GROUP_ID))
+                        .index("accounts", "group_id"),
+                plan(AccountRepository.class, "findByGroupId(String,Pageable)",
+                        () -> accountRepository.findByGroupId(SEED_GROUP_ID, PageRequest.of(0, 20)))
+                        .index("accounts", "group_id"),
+                plan(AccountRepository.class, "findMinAccountId()", () -> accountRepository.findMinAccountId())
+                        .ordered("accounts", "account_id"),
+                plan(AccountRepository.class, "findMaxAccountId()", () -> accountRepository.findMaxAccountId())
+                        .ordered("accounts", "account_id"),
+                plan(AccountRepository.class, "findMinAccountIdByGroupId(String)",
+                        () -> accountRepository.findMinAccountIdByGroupId(SEED_GROUP_ID))
+                        .index("accounts", "group_id"),
+                plan(AccountRepository.class, "findMaxAccountIdByGroupId(String)",
+                        () -> accountRepository.findMaxAccountIdByGroupId(SEED_GROUP_ID))
+                        .index("accounts", "group_id"),
+                plan(AccountRepository.class, "findCycleTotalsToClose(String,Long,Long,LocalDate)",
+                        () -> accountRepository.findCycleTotalsToClose(SEED_GROUP_ID, SEED_ACCOUNT_ID, SEED_ACCOUNT_ID + 999, today))
+                        .index("accounts", "group_id")
+                        .index("account_cycle_history", "account_id"),
+                plan(AccountRepository.class, "closeCycle(String,Long,Long,LocalDateTime)",
+                        () -> accountRepository.closeCycle("no-such-run", SEED_ACCOUNT_ID, SEED_ACCOUNT_ID + 999, LocalDateTime.now()))
+                        .index("accounts", "account_id")
+                        .index("account_cycle_history", "run_id"),
+                plan(AccountRepository.class, "updateReissueDate(Collection,LocalDate,LocalDateTime)",
+                        () -> accountRepository.updateReissueDate(accountIds, today, LocalDateTime.now()))
+                        .index("accounts", "account_id"),
+                plan(AccountRepository.class, "findGroupKeysByAccountIdIn(Collection)",
+                        () -> accountRepository.findGroupKeysByAccountIdIn(accountIds))
+                        .index("accounts", "account_id"),
+                plan(AccountRepository.class, "findPartialByAccountId(Long,Collection)",
+                        () -> accountRepository.findPartialByAccountId(SEED_ACCOUNT_ID, List.of("activeStatus", "currentBalance")))
+                        .index("accounts", "account_id"),
+                plan(AccountRepository.class, "applyBalanceDeltas(List)",
+                        () -> accountRepository.applyBalanceDeltas(List.of(new AccountBalanceDelta(SEED_ACCOUNT_ID, 0, 0, 0))))
+                        .index("accounts", "account_id"),
+
+                plan(CardRepository.class, "findById(Object)", () -> cardRepository.findById(SEED_CARD_NUMBER))
+                        .index("cards", "card_number"),
+                plan(CardRepository.class, "findByCardNumber(String)", () -> cardRepository.findByCardNumber(SEED_CARD_NUMBER))
+                        .index("cards", "card_number"),
+                plan(CardRepository.class, "findByAccountId(Long)", () -> cardRepository.findByAccountId(SEED_ACCOUNT_ID))
+                        .index("cards", "account_id"),
+                plan(CardRepository.class, "findByCustomerId(Long)", () -> cardRepository.findByCustomerId(SEED_CUSTOMER_ID))
+                        .index("cards", "customer_id"),
+                plan(CardRepository.class, "findByAccountIdInOrderByAccountIdAscCardNumberAsc(Collection)",
+                        () -> cardRepository.findByAccountIdInOrderByAccountIdAscCardNumberAsc(accountIds))
+                        .index("cards", "account_id"),
+                plan(CardRepository.class, "findExpiringAfter(String,LocalDate,LocalDate,LocalDate,String,Pageable)",
+                        () -> cardRepository.findExpiringAfter("A", today, today.plusDays(30), today, "", PageRequest.of(0, 500)))
+                        .index("cards", "expiration_date"),
+                plan(CardRepository.class, "applyExpiryChanges(List)",
+                        () -> cardRepository.applyExpiryChanges(List.of(new CardExpiryChange(SEED_CARD_NUMBER, "X", today, "X", today))))
+                        .index("cards", "card_number"),
+
+                plan(CardXrefRepository.class, "findById(Object)", () -> cardXrefRepository.findById(1L))
+                        .index("card_xref", "id"),
+                plan(CardXrefRepository.class, "findByAccountId(Long)", () -> cardXrefRepository.findByAccountId(SEED_ACCOUNT_ID))
+                        .index("card_xref", "account_id"),
+                plan(CardXrefRepository.class, "findByCardNumber(String)", () -> cardXrefRepository.findByCardNumber(SEED_CARD_NUMBER))
+                        .index("card_xref", "card_number"),
+                plan(CardXrefRepository.class, "findByCustomerId(Long)", () -> cardXrefRepository.findByCustomerId(SEED_CUSTOMER_ID))
+                        .index("card_xref", "customer_id"),
+                plan(CardXrefRepository.class, "findByAccountIdInOrderByIdAsc(Collection)",
+                        () -> cardXrefRepository.findByAccountIdInOrderByIdAsc(accountIds))
+                        .index("card_xref", "account_id"),
+
+                plan(CustomerRepository.class, "findById(Object)", () -> customerRepository.findById(SEED_CUSTOMER_ID))
+                        .index("customers", "customer_id"),
+                plan(CustomerRepository.class, "findByCustomerId(Long)", () -> customerRepository.findByCustomerId(SEED_CUSTOMER_ID))
+                        .index("customers", "customer_id"),
+                plan(CustomerRepository.class, "findBySsn(String)", () -> customerRepository.findBySsn(SEED_SSN))
+                        .index("customers", "ssn"),
+                plan(CustomerRepository.class, "findByLastName(String)", () -> customerRepository.findByLastName("Name1"))
+                        .index("customers", "last_name"),
+                plan(CustomerRepository.class, "existsBySsn(String)", () -> customerRepository.existsBySsn(SEED_SSN))
+                        .index("customers", "ssn"),
+                plan(CustomerRepository.class, "findSearchRowsAfter(Long,Pageable)",
+                        () -> customerRepository.findSearchRowsAfter(SEED_CUSTOMER_ID, PageRequest.of(0, 1000)))
+                        .index("customers", "customer_id"),
+                plan(CustomerRepository.class, "findPartialByCustomerId(Long,Collection)",
+                        () -> customerRepository.findPartialByCustomerId(SEED_CUSTOMER_ID, List.of("firstName", "lastName")))
+                        .index("customers", "customer_id"),
+                // The duplicate detection job reads every customer once
+                plan(CustomerRepository.class, "streamMatchRows(int,Consumer)",
+                        () -> customerRepository.streamMatchRows(1000, row -> { }))
+                        .scan("customers"),
+
+                plan(DisclosureGroupRepository.class, "findById(Object)", () -> disclosureGroupRepository.findById(1L))
+                        .index("disclosure_groups", "id"),
+                plan(DisclosureGroupRepository.class,
+                        "findByAccountGroupIdAndTransactionCategoryCodeAndTransactionTypeCode(String,String,String)",
+                        () -> disclosureGroupRepository.findByAccountGroupIdAndTransactionCategoryCodeAndTransactionTypeCode(
+                                SEED_GROUP_ID, "0001", "01"))
+                        .index("disclosure_groups", "account_group_id"),
+                plan(DisclosureGroupRepository.class, "findByAccountGroupId(String)",
+                        () -> disclosureGroupRepository.findByAccountGroupId(SEED_GROUP_ID))
+                        .index("disclosure_groups", "account_group_id"),
+
+                plan(TransactionCategoryBalanceRepository.class, "findById(Object)", () -> balanceRepository.findById(1L))
+                        .index("transaction_category_balances", "id"),
+                plan(TransactionCategoryBalanceRepository.class, "findByAccountId(Long)",
+                        () -> balanceRepository.findByAccountId(SEED_ACCOUNT_ID))
+                        .index("transaction_category_balances", "account_id"),
+                plan(TransactionCategoryBalanceRepository.class, "findByAccountIdAndTypeCodeAndCategoryCode(Long,String,String)",
+                        () -> balanceRepository.findByAccountIdAndTypeCodeAndCategoryCode(SEED_ACCOUNT_ID, "01", "0001"))
+                        .index("transaction_category_balances", "account_id"),
+                plan(TransactionCategoryBalanceRepository.class, "findByAccountIdIn(Collection)",
+                        () -> balanceRepository.findByAccountIdIn(accountIds))
+                        .index("transaction_category_balances", "account_id"),
+                plan(TransactionCategoryBalanceRepository.class, "findMinAccountId()", () -> balanceRepository.findMinAccountId())
+                        .ordered("transaction_category_balances", "account_id"),
+                plan(TransactionCategoryBalanceRepository.class, "findMaxAccountId()", () -> balanceRepository.findMaxAccountId())
+                        .ordered("transaction_category_balances", "account_id"),
+                plan(TransactionCategoryBalanceRepository.class, "findAccountIdsBetween(long,long,Pageable)",
+                        () -> balanceRepository.findAccountIdsBetween(SEED_ACCOUNT_ID - 1, SEED_ACCOUNT_ID + 499, PageRequest.of(0, 500)))
+                        .index("transaction_category_balances", "account_id"),
+                plan(TransactionCategoryBalanceRepository.class, "applyDeltas(List)",
+                        () -> {
+                            balanceRepository.applyDeltas(List.of(new CategoryBalanceDelta(SEED_ACCOUNT_ID, "01", "0001", 0)));
+                            return null;
+                        })
+                        .index("transaction_category_balances", "account_id"),
+
+                plan(TransactionRepository.class, "findById(Object)", () -> transactionRepository.findById(SEED_TRANSACTION_ID))
+                        .index("transactions", "transaction_id"),
+                plan(TransactionRepository.class, "findMinOriginalTimestamp()", () -> transactionRepository.findMinOriginalTimestamp())
+                        .ordered("transactions", "original_timestamp"),
+                plan(TransactionRepository.class, "findByTransactionId(String)",
+                        () -> transactionRepository.findByTransactionId(SEED_TRANSACTION_ID))
+                        .index("transactions", "transaction_id")
+                        .scan(ARCHIVE_FILES),
+                plan(TransactionRepository.class, "findByCardNumber(String)",
+                        () -> transactionRepository.findByCardNumber(SEED_CARD_NUMBER))
+                        .index("transactions", "card_number")
+                        .scan(ARCHIVE_FILES),
+                plan(TransactionRepository.class, "findByCardNumberAndOriginalTimestampBetween(String,LocalDateTime,LocalDateTime)",
+                        () -> transactionRepository.findByCardNumberAndOriginalTimestampBetween(SEED_CARD_NUMBER, FROM, TO))
+                        .index("transactions", "card_number", "original_timestamp")
+                        .scan(ARCHIVE_FILES),
+                plan(TransactionRepository.class, "findByTypeCodeAndCategoryCode(String,String)",
+                        () -> transactionRepository.findByTypeCodeAndCategoryCode("01", "0001"))
+                        .index("transactions", "type_code")
+                        .scan(ARCHIVE_FILES),
+                // Backfills the merchant sketches from the whole table once at startup
+                plan(TransactionRepository.class, "streamMerchantActivity(LocalDateTime,int,Consumer)",
+                        () -> transactionRepository.streamMerchantActivity(FROM, 1000, activity -> { }))
+                        .scan("transactions"),
+                plan(TransactionRepository.class, "streamOriginalTimestampRange(LocalDateTime,LocalDateTime,int,Consumer)",
+                        () -> transactionRepository.streamOriginalTimestampRange(FROM, TO, 1000, transaction -> { }))
+                        .index("transactions", "original_timestamp"),
+                plan(TransactionRepository.class, "deleteOriginalTimestampRange(LocalDateTime,LocalDateTime)",
+                        () -> transactionRepository.deleteOriginalTimestampRange(FROM, TO))
+                        .index("transactions", "original_timestamp"));
+    }
+
+    /**
+     * Runs the case in a transaction that is rolled back, so updates and deletes leave the seed
+     * intact, then explains each query and change it sent.
+     */
+    private void verify(PlanCase planCase) throws SQLException {
+        List<CapturedStatement> statements = new ArrayList<>();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            statements.addAll(CapturingDataSource.capture(() -> {
+                try {
+                    planCase.call().get();
+                } catch (Throwable e) {
+                    throw new IllegalStateException("Failed to run " + planCase.key(), e);
+                }
+            }));
+        });
+
+        List<Plan> plans = new ArrayList<>();
+        for (CapturedStatement statement : statements) {
+            if (QueryPlanInspector.isExplainable(statement)) {
+                plans.add(inspector.explain(statement));
+            }
+        }
+        if (plans.isEmpty()) {
+            fail("No query was captured for " + planCase.key() + "; captured: " + statements);
+        }
+        List<String> problems = planCase.check(plans);
+        if (!problems.isEmpty()) {
+            StringBuilder message = new StringBuilder(planCase.key()).append(" on ").append(inspector.getDialect());
+            problems.forEach(problem -> message.append("\n  ").append(problem));
+            for (Plan plan : plans) {
+                message.append("\n\nSQL: ").append(plan.sql()).append("\nPlan:\n").append(plan.text())
+                        .append("Access: ").append(plan.accesses());
+            }
+            fail(message.toString());
+        }
+    }
+
+    private static PlanCase plan(Class<?> repository, String signature, ThrowingSupplier<?> call) {
+        return new PlanCase(repository.getSimpleName() + "." + signature, call);
+    }
+
+    private static List<Class<?>> declaringTypes(Class<?> repository) {
+        List<Class<?>> types = new ArrayList<>();
+        types.add(repository);
+        for (Class<?> type : repository.getInterfaces()) {
+            if (type.getSimpleName().endsWith("Custom")) {
+                types.add(type);
+            }
+        }
+        return types;
+    }
+
+    private static String signature(Method method) {
+        return method.getName() + Arrays.stream(method.getParameterTypes())
+                .map(Class::getSimpleName)
+                .collect(Collectors.joining(",", "(", ")"));
+    }
+
+    /**
+     * What a repository method may do: {@link #index} requires a bounded read of the table through an
+     * index whose leading column is one of the given columns, {@link #ordered} allows reading an index
+     * on the column from one end (MIN/MAX), and {@link #scan} allows a full scan of the table. Any
+     * other full scan or unbounded index scan fails the case.
+     */
+    private static final class PlanCase {
+
+        private final String key;
+        private final ThrowingSupplier<?> call;
+        private final List<Expectation> indexes = new ArrayList<>();
+        private final List<Expectation> ordered = new ArrayList<>();
+        private final Set<String> scans = new HashSet<>();
+
+        PlanCase(String key, ThrowingSupplier<?> call) {
+            this.key = key;
+            this.call = call;
+        }
+
+        String key() {
+            return key;
+        }
+
+        ThrowingSupplier<?> call() {
+            return call;
+        }
+
+        PlanCase index(String table, String... leadingColumns) {
+            indexes.add(new Expectation(table, List.of(leadingColumns)));
+            return this;
+        }
+
+        PlanCase ordered(String table, String column) {
+            ordered.add(new Expectation(table, List.of(column)));
+            return this;
+        }
+
+        PlanCase scan(String table) {
+            scans.add(table);
+            return this;
+        }
+
+        List<String> check(List<Plan> plans) {
+            List<TableAccess> accesses = plans.stream().flatMap(plan -> plan.accesses().stream()).toList();
+            List<String> problems = new ArrayList<>();
+            for (TableAccess access : accesses) {
+                if (scans.contains(access.table())) {
+                    continue;
+                }
+                if (access.kind() == AccessKind.FULL_SCAN) {
+                    problems.add("Full scan of " + access.table());
+                } else if (access.kind() == AccessKind.INDEX_SCAN
+                        && ordered.stream().noneMatch(expectation -> expectation.table().equals(access.table()))) {
+                    problems.add("Unbounded scan of " + access.table() + " through " + access.index());
+                }
+            }
+            for (Expectation expectation : indexes) {
+                boolean used = accesses.stream().anyMatch(access -> access.table().equals(expectation.table())
+                        && access.kind() == AccessKind.INDEX_RANGE
+                        && access.leadingColumn() != null
+                        && expectation.columns().contains(access.leadingColumn()));
+                if (!used) {
+                    problems.add("No index lookup on " + expectation.table() + expectation.columns());
+                }
+            }
+            for (Expectation expectation : ordered) {
+                boolean used = accesses.stream().anyMatch(access -> access.table().equals(expectation.table())
+                        && (access.kind() == AccessKind.DIRECT_LOOKUP
+                        || (access.kind() != AccessKind.FULL_SCAN && access.leadingColumn() != null
+                        && expectation.columns().contains(access.leadingColumn()))));
+                if (!used) {
+                    problems.add("No ordered index read of " + expectation.table() + expectation.columns());
+                }
+            }
+            return problems;
+        }
+    }
+
+    private record Expectation(String table, List<String> columns) {
+    }
+
+    /**
+     * Wraps the application's data source so the repositories' statements can be captured; the
+     * EXPLAIN statements use the wrapped one directly.
+     */
+    @TestConfiguration
+    static class CaptureConfiguration {
+
+        @Bean
+        static BeanPostProcessor capturingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource target && !(bean instanceof CapturingDataSource)) {
+                        return new CapturingDataSource(target);
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
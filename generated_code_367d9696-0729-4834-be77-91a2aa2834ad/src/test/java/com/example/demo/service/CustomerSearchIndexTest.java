@@ -0,0 +1,160 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.CustomerSearchResultDto;
+import com.example.demo.entity.Customer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ranking and incremental maintenance of {@link CustomerSearchIndex}, driven through
+ * {@link CustomerSearchIndex#index} without a database.
+ */
+class CustomerSearchIndexTest {
+
+    private CustomerSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CustomerSearchIndex(null, 100);
+    }
+
+    @Test
+    void ranksExactBeforePrefixBeforeSubstring() {
+        index.index(customer(3L, "Goldsmith", "(212)555-0101", "10001"));
+        index.index(customer(2L, "Smithson", "(212)555-0102", "10002"));
+        index.index(customer(1L, "Smith", "(212)555-0103", "10003"));
+        index.index(customer(4L, "Jones", "(212)555-0104", "10004"));
+
+        List<CustomerSearchResultDto> results = index.search("smith", null, null, 10);
+
+        assertEquals(List.of(1L, 2L, 3L), customerIds(results));
+        assertEquals(List.of(CustomerSearchIndex.SCORE_EXACT, CustomerSearchIndex.SCORE_PREFIX,
+                CustomerSearchIndex.SCORE_CONTAINS), scores(results));
+        assertEquals("SMITH", results.get(0).getLastName());
+    }
+
+    @Test
+    void prefixMatchesVisitShorterValuesFirstAndTiesBreakOnCustomerId() {
+        index.index(customer(30L, "Andersson", null, null));
+        index.index(customer(20L, "Anderson", null, null));
+        index.index(customer(10L, "Anders", null, null));
+        index.index(customer(15L, "Anderson", null, null));
+
+        List<CustomerSearchResultDto> results = index.search("And", null, null, 10);
+
+        assertEquals(List.of(10L, 15L, 20L, 30L), customerIds(results));
+        assertTrue(scores(results).stream().allMatch(score -> score == CustomerSearchIndex.SCORE_PREFIX));
+    }
+
+    @Test
+    void findsSubstringsThroughTrigramsInEitherPhone() {
+        index.index(customer(1L, "Smith", "(212)555-1234", "(646)555-9876"));
+        index.index(customer(2L, "Jones", "(718)555-0000", "(212)555-1239"));
+        index.index(customer(3L, "Brown", "(212)444-1234", null));
+
+        assertEquals(List.of(1L), customerIds(index.search(null, "5559876", null, 10)));
+        assertEquals(List.of(1L, 2L), customerIds(index.search(null, "555123", null, 10)));
+        assertEquals(List.of(1L, 2L, 3L), customerIds(index.search(null, "212", null, 10)));
+        assertEquals(List.of(CustomerSearchIndex.SCORE_PREFIX, CustomerSearchIndex.SCORE_PREFIX,
+                CustomerSearchIndex.SCORE_PREFIX), scores(index.search(null, "212", null, 10)));
+        assertEquals(List.of(1L, 3L), customerIds(index.search(null, "1234", null, 10)));
+        assertEquals(List.of(CustomerSearchIndex.SCORE_CONTAINS, CustomerSearchIndex.SCORE_CONTAINS),
+                scores(index.search(null, "1234", null, 10)));
+    }
+
+    @Test
+    void sumsScoresAcrossCriteriaAndRequiresEveryCriterion() {
+        index.index(customer(1L, "Smith", "(212)555-1234", "10001"));
+        index.index(customer(2L, "Smithers", "(212)555-1234", "10001"));
+        index.index(customer(3L, "Smith", "(212)555-1234", "94105"));
+
+        List<CustomerSearchResultDto> results = index.search("Smith", "2125551234", "10001", 10);
+
+        assertEquals(List.of(1L, 2L), customerIds(results));
+        assertEquals(List.of(9, 8), scores(results));
+    }
+
+    @Test
+    void respectsTheLimit() {
+        for (long id = 1; id <= 50; id++) {
+            index.index(customer(id, "Miller", null, null));
+        }
+
+        List<CustomerSearchResultDto> results = index.search("Miller", null, null, 5);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), customerIds(results));
+    }
+
+    @Test
+    void updatesReplaceTheIndexedValues() {
+        index.index(customer(1L, "Smith", "(212)555-1234", "10001"));
+        index.index(customer(1L, "Taylor", "(305)555-7777", "33101"));
+
+        assertEquals(1, index.size());
+        assertTrue(index.search("Smith", null, null, 10).isEmpty());
+        assertTrue(index.search(null, "5551234", null, 10).isEmpty());
+        assertTrue(index.search(null, null, "10001", 10).isEmpty());
+        assertEquals(List.of(1L), customerIds(index.search("Taylor", null, null, 10)));
+        assertEquals(List.of(1L), customerIds(index.search("ayl", null, null, 10)));
+        assertEquals(List.of(1L), customerIds(index.search(null, "5557777", null, 10)));
+        assertEquals(List.of(1L), customerIds(index.search(null, null, "33101", 10)));
+    }
+
+    @Test
+    void updatesKeepValuesSharedWithOtherCustomers() {
+        index.index(customer(1L, "Smith", "(212)555-1234", null));
+        index.index(customer(2L, "Smith", "(212)555-1234", null));
+        index.index(customer(1L, "Smyth", "(212)555-1234", null));
+
+        assertEquals(List.of(2L), customerIds(index.search("Smith", null, null, 10)));
+        assertEquals(List.of(1L, 2L), customerIds(index.search(null, "2125551234", null, 10)));
+    }
+
+    @Test
+    void clearingAPhoneRemovesItFromTheIndex() {
+        index.index(customer(1L, "Smith", "(212)555-1234", "(646)555-9876"));
+        index.index(customer(1L, "Smith", "(212)555-1234", null));
+
+        assertTrue(index.search(null, "6465559876", null, 10).isEmpty());
+        assertEquals(List.of(1L), customerIds(index.search(null, "2125551234", null, 10)));
+    }
+
+    @Test
+    void growsPastInitialCapacities() {
+        for (long id = 1; id <= 5_000; id++) {
+            index.index(customer(id * 7919, "Name" + id, String.format("(212)%07d", id), "10001"));
+        }
+        index.index(customer(7919L * 4_321, "Renamed", "(212)0004321", "10001"));
+
+        assertEquals(5_000, index.size());
+        assertEquals(List.of(7919L * 4_321), customerIds(index.search("Renamed", null, null, 10)));
+        assertEquals(List.of(7919L * 1_234), customerIds(index.search(null, "0001234", null, 10)));
+    }
+
+    private static Customer customer(Long customerId, String lastName, String phone1, String phone2OrZip) {
+        Customer customer = new Customer();
+        customer.setCustomerId(customerId);
+        customer.setFirstName("First" + customerId);
+        customer.setLastName(lastName);
+        customer.setPhoneNumber1(phone1);
+        if (phone2OrZip != null && phone2OrZip.startsWith("(")) {
+            customer.setPhoneNumber2(phone2OrZip);
+        } else {
+            customer.setZipCode(phone2OrZip);
+        }
+        return customer;
+    }
+
+    private static List<Long> customerIds(List<CustomerSearchResultDto> results) {
+        return results.stream().map(CustomerSearchResultDto::getCustomerId).toList();
+    }
+
+    private static List<Integer> scores(List<CustomerSearchResultDto> results) {
+        return results.stream().map(CustomerSearchResultDto::getScore).toList();
+    }
+}
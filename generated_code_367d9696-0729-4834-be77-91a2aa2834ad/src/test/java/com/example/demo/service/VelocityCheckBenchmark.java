@@ -0,0 +1,66 @@
+package com.example.demo.service;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.example.demo.benchmark.MicroBenchmark;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Inline velocity checks on one thread with the default thresholds. The cards are checked over and
+ * over, so after warm-up every ring is full and each check scans all of it and trips the count rules:
+ * the worst case for {@link VelocityCheckService#check}. Flagged checks are logged at INFO in
+ * production, where they are rare; logging is raised to WARN here so the check itself is measured.
+ * Run with {@code ./mvnw -Pbenchmark test}.
+ */
+@Tag("benchmark")
+class VelocityCheckBenchmark {
+
+    private static final int CARDS = 10_000;
+    private static final double REQUIRED_CHECKS_PER_SECOND = 1_000_000;
+
+    private final MicroBenchmark benchmark = new MicroBenchmark(10, 10, 1_000_000);
+    private final Logger serviceLogger = (Logger) LoggerFactory.getLogger(VelocityCheckService.class);
+    private Level previousLevel;
+
+    @BeforeEach
+    void quietFlagLogging() {
+        previousLevel = serviceLogger.getLevel();
+        serviceLogger.setLevel(Level.WARN);
+    }
+
+    @AfterEach
+    void restoreLogging() {
+        serviceLogger.setLevel(previousLevel);
+    }
+
+    @Test
+    void checksPerSecondPerCore() throws Exception {
+        VelocityCheckService service = new VelocityCheckService(new SimpleMeterRegistry(), true,
+                5, new BigDecimal("2000.00"), 20, new BigDecimal("5000.00"), 50, new BigDecimal("10000.00"),
+                List.of("LAGOS", "MIAMI"));
+        String[] cardNumbers = new String[CARDS];
+        long[] amounts = new long[CARDS];
+        String[] cities = {"NEW YORK", "CHICAGO", "MIAMI", "BOSTON"};
+        Random random = new Random(42);
+        for (int i = 0; i < CARDS; i++) {
+            cardNumbers[i] = String.format("4%015d", random.nextLong(1_000_000_000_000_000L));
+            amounts[i] = random.nextLong(100, 50_000);
+        }
+
+        MicroBenchmark.Result result = benchmark.measure("velocity check, full windows",
+                i -> service.check(cardNumbers[i % CARDS], amounts[i % CARDS], cities[i & 3]).size());
+        assertTrue(result.opsPerSecond() >= REQUIRED_CHECKS_PER_SECOND,
+                "Expected at least " + REQUIRED_CHECKS_PER_SECOND + " checks/s on one core but got " + result.opsPerSecond());
+    }
+}
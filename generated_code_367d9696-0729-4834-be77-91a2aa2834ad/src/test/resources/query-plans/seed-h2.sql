@@ -0,0 +1,44 @@
+-- Rows for the query plan tests, so the optimizer sees tables where an index beats a scan.
+-- IDs are far above the sample data; customers 900001-902000 own two accounts and two cards each.
+INSERT INTO customers (customer_id, first_name, last_name, ssn, date_of_birth, fico_score, address_line1,
+                       city, state_code, zip_code, country_code, phone_number1, government_issued_id,
+                       primary_card_holder_indicator)
+SELECT 900000 + X, 'Seed', 'Name' || CAST(MOD(X, 500) AS VARCHAR), CAST(800000000 + X AS VARCHAR),
+       DATE '1980-01-01', 700, CAST(X AS VARCHAR) || ' Seed Street', 'Seedville', 'NY', '10001', 'USA',
+       '555-0100', 'SEED' || CAST(X AS VARCHAR), 'Y'
+FROM SYSTEM_RANGE(1, 2000);
+
+INSERT INTO accounts (account_id, active_status, current_balance, credit_limit, cash_credit_limit, open_date,
+                      expiration_date, group_id, customer_id)
+SELECT 90000000000 + X, CASE WHEN MOD(X, 10) = 0 THEN 'N' ELSE 'Y' END, 100.00, 5000.00, 1000.00,
+       DATE '2020-01-01', DATE '2030-01-01', 'SEED' || CAST(MOD(X, 20) AS VARCHAR), 900000 + MOD(X - 1, 2000) + 1
+FROM SYSTEM_RANGE(1, 4000);
+
+INSERT INTO cards (card_number, account_id, customer_id, card_status, expiration_date)
+SELECT '9' || LPAD(CAST(X AS VARCHAR), 15, '0'), 90000000000 + X, 900000 + MOD(X - 1, 2000) + 1, 'A',
+       DATEADD('DAY', MOD(X, 1000), DATE '2025-01-01')
+FROM SYSTEM_RANGE(1, 4000);
+
+INSERT INTO card_xref (card_number, customer_id, account_id)
+SELECT '9' || LPAD(CAST(X AS VARCHAR), 15, '0'), 900000 + MOD(X - 1, 2000) + 1, 90000000000 + X
+FROM SYSTEM_RANGE(1, 4000);
+
+INSERT INTO transactions (transaction_id, card_number, type_code, category_code, source, description, amount,
+                          merchant_id, merchant_name, merchant_city, merchant_zip, original_timestamp,
+                          processed_timestamp)
+SELECT 'SD' || LPAD(CAST(X AS VARCHAR), 14, '0'), '9' || LPAD(CAST(MOD(X - 1, 4000) + 1 AS VARCHAR), 15, '0'),
+       '0' || CAST(MOD(X, 7) + 1 AS VARCHAR), '000' || CAST(MOD(X, 5) + 1 AS VARCHAR), 'POS', 'Seed purchase',
+       MOD(X, 500) + 0.50, 5000 + MOD(X, 300), 'Merchant ' || CAST(MOD(X, 300) AS VARCHAR), 'Seedville', '10001',
+       DATEADD('MINUTE', X * 97, TIMESTAMP '2024-01-01 00:00:00'),
+       DATEADD('MINUTE', X * 97 + 5, TIMESTAMP '2024-01-01 00:00:00')
+FROM SYSTEM_RANGE(1, 8000);
+
+INSERT INTO transaction_category_balances (account_id, type_code, category_code, balance)
+SELECT 90000000000 + X, '01', '0001', 100.00
+FROM SYSTEM_RANGE(1, 4000);
+
+INSERT INTO disclosure_groups (account_group_id, transaction_category_code, transaction_type_code, interest_rate)
+SELECT 'SEED' || CAST(MOD(X, 20) AS VARCHAR), '000' || CAST(X / 20 + 1 AS VARCHAR), '01', 12.50
+FROM SYSTEM_RANGE(0, 59);
+
+ANALYZE;
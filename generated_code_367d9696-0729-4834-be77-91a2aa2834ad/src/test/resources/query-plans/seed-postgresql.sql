@@ -0,0 +1,44 @@
+-- Same rows as seed-h2.sql. The plans themselves are taken with enable_seqscan off, so on PostgreSQL
+-- these rows only have to keep the executed statements valid (e.g. foreign keys of the upserts).
+INSERT INTO customers (customer_id, first_name, last_name, ssn, date_of_birth, fico_score, address_line1,
+                       city, state_code, zip_code, country_code, phone_number1, government_issued_id,
+                       primary_card_holder_indicator)
+SELECT 900000 + x, 'Seed', 'Name' || CAST(x % 500 AS VARCHAR), CAST(800000000 + x AS VARCHAR),
+       DATE '1980-01-01', 700, CAST(x AS VARCHAR) || ' Seed Street', 'Seedville', 'NY', '10001', 'USA',
+       '555-0100', 'SEED' || CAST(x AS VARCHAR), 'Y'
+FROM generate_series(1, 2000) AS g(x);
+
+INSERT INTO accounts (account_id, active_status, current_balance, credit_limit, cash_credit_limit, open_date,
+                      expiration_date, group_id, customer_id)
+SELECT 90000000000 + x, CASE WHEN x % 10 = 0 THEN 'N' ELSE 'Y' END, 100.00, 5000.00, 1000.00,
+       DATE '2020-01-01', DATE '2030-01-01', 'SEED' || CAST(x % 20 AS VARCHAR), 900000 + (x - 1) % 2000 + 1
+FROM generate_series(1, 4000) AS g(x);
+
+INSERT INTO cards (card_number, account_id, customer_id, card_status, expiration_date)
+SELECT '9' || LPAD(CAST(x AS VARCHAR), 15, '0'), 90000000000 + x, 900000 + (x - 1) % 2000 + 1, 'A',
+       DATE '2025-01-01' + x % 1000
+FROM generate_series(1, 4000) AS g(x);
+
+INSERT INTO card_xref (card_number, customer_id, account_id)
+SELECT '9' || LPAD(CAST(x AS VARCHAR), 15, '0'), 900000 + (x - 1) % 2000 + 1, 90000000000 + x
+FROM generate_series(1, 4000) AS g(x);
+
+INSERT INTO transactions (transaction_id, card_number, type_code, category_code, source, description, amount,
+                          merchant_id, merchant_name, merchant_city, merchant_zip, original_timestamp,
+                          processed_timestamp)
+SELECT 'SD' || LPAD(CAST(x AS VARCHAR), 14, '0'), '9' || LPAD(CAST((x - 1) % 4000 + 1 AS VARCHAR), 15, '0'),
+       '0' || CAST(x % 7 + 1 AS VARCHAR), '000' || CAST(x % 5 + 1 AS VARCHAR), 'POS', 'Seed purchase',
+       x % 500 + 0.50, 5000 + x % 300, 'Merchant ' || CAST(x % 300 AS VARCHAR), 'Seedville', '10001',
+       TIMESTAMP '2024-01-01 00:00:00' + x * 97 * INTERVAL '1 minute',
+       TIMESTAMP '2024-01-01 00:00:00' + (x * 97 + 5) * INTERVAL '1 minute'
+FROM generate_series(1, 8000) AS g(x);
+
+INSERT INTO transaction_category_balances (account_id, type_code, category_code, balance)
+SELECT 90000000000 + x, '01', '0001', 100.00
+FROM generate_series(1, 4000) AS g(x);
+
+INSERT INTO disclosure_groups (account_group_id, transaction_category_code, transaction_type_code, interest_rate)
+SELECT 'SEED' || CAST(x % 20 AS VARCHAR), '000' || CAST(x / 20 + 1 AS VARCHAR), '01', 12.50
+FROM generate_series(0, 59) AS g(x);
+
+ANALYZE;
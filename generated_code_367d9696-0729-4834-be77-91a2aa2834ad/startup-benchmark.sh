@@ -0,0 +1,54 @@
+#!/bin/sh
+# Measures time from JVM launch to the first successful account view for each startup mode.
+# Build first with: ./mvnw -Pfast-startup package
+#
+# Usage: ./startup-benchmark.sh [accountId] [runs]
+
+ACCOUNT_ID=${1:-2001}
+RUNS=${2:-3}
+PORT=8085
+JAR=target/demo-0.0.1-SNAPSHOT.jar
+CDS_JAR=target/cds/demo-0.0.1-SNAPSHOT.jar
+CDS_ARCHIVE=target/cds/application.jsa
+URL="http://localhost:$PORT/api/accounts/$ACCOUNT_ID/view"
+
+if [ ! -f "$JAR" ] || [ ! -f "$CDS_ARCHIVE" ]; then
+    echo "Missing build output; run ./mvnw -Pfast-startup package first" >&2
+    exit 1
+fi
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+measure() {
+    mode=$1
+    shift
+    total=0
+    i=1
+    while [ "$i" -le "$RUNS" ]; do
+        start=$(now_ms)
+        java "$@" >/dev/null 2>&1 &
+        pid=$!
+        until curl -sf -o /dev/null "$URL"; do
+            if ! kill -0 "$pid" 2>/dev/null; then
+                echo "$mode: application exited before serving $URL" >&2
+                return 1
+            fi
+            sleep 0.05
+        done
+        elapsed=$(( $(now_ms) - start ))
+        kill "$pid"
+        wait "$pid" 2>/dev/null
+        echo "$mode run $i: ${elapsed} ms"
+        total=$(( total + elapsed ))
+        i=$(( i + 1 ))
+    done
+    echo "$mode average: $(( total / RUNS )) ms"
+}
+
+measure default -jar "$JAR"
+measure fast-startup-profile -Dspring.profiles.active=fast-startup -jar "$JAR"
+measure aot -Dspring.aot.enabled=true -Dspring.profiles.active=fast-startup -jar "$JAR"
+measure aot-cds -XX:SharedArchiveFile="$CDS_ARCHIVE" -Dspring.aot.enabled=true \
+    -Dspring.profiles.active=fast-startup -jar "$CDS_JAR"